@@ -4,16 +4,27 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
 import com.lgt.leanix_mcp.service.LeanIXService;
+import com.lgt.leanix_mcp.tool.AdmissionController;
+import com.lgt.leanix_mcp.tool.CompactJsonEncoder;
+import com.lgt.leanix_mcp.tool.CompactResultConverter;
+import com.lgt.leanix_mcp.tool.ToolInvocationCallback;
 import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.config.LeanixRuntimeHints;
 
 @SpringBootApplication
 @RestController
 @EnableConfigurationProperties(LeanIXClientConfig.class)
+@EnableScheduling
+@ImportRuntimeHints(LeanixRuntimeHints.class)
 public class LeanixMcpApplication {
 
 	public static void main(String[] args) {
@@ -21,9 +32,19 @@ public class LeanixMcpApplication {
 	}
 
 	@Bean
-	public ToolCallbackProvider registerTool(LeanIXService leanIXService) {
-		return MethodToolCallbackProvider.builder().toolObjects(leanIXService)
-				.build();
+	public ToolCallbackProvider registerTool(LeanIXService leanIXService, LeanIXClientConfig leanIXClientConfig,
+			AdmissionController admissionController, WorkspaceRegistry workspaceRegistry) {
+		LeanIXClientConfig.CompactOutputProperties compactOutput = leanIXClientConfig.getCompactOutput();
+		ToolCallbackProvider tools = compactOutput.isEnabled()
+				? CompactResultConverter.toolCallbacks(leanIXService,
+						new CompactResultConverter(new CompactJsonEncoder(compactOutput.getShareMinBytes())))
+				: MethodToolCallbackProvider.builder().toolObjects(leanIXService).build();
+		return ToolInvocationCallback.wrap(tools, new ObjectMapper(), ToolInvocationCallback.Options.DEFAULTS
+				.withTimeout(leanIXClientConfig.getToolTimeout())
+				.withAdmissionController(admissionController)
+				.withWorkspaces(workspaceRegistry.names())
+				.withConditionalTools(leanIXClientConfig.getConditionalTools())
+				.withCompactByDefault(compactOutput.isEnabled() ? compactOutput.isByDefault() : null));
 	}
 
 }
@@ -0,0 +1,141 @@
+package com.lgt.leanix_mcp.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.webhook.FactSheetChangeListener;
+import com.lgt.leanix_mcp.webhook.FactSheetEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Drops cached data of changed fact sheets from every cache level and every
+ * replica: the fact sheets themselves, and the tool results and responses that
+ * contain them. Other cached data of the workspace stays. Changes are applied
+ * locally, then announced on the channel of the {@link SharedCache}; other
+ * replicas apply them to their in-process caches. Every replica then hands
+ * the changes to its {@link FactSheetChangeListener}s, so the indexes of all
+ * replicas follow them. Without a shared cache, changes only affect this
+ * process.
+ */
+@Slf4j
+@Component
+@RegisterReflectionForBinding(CacheInvalidation.Invalidation.class)
+public class CacheInvalidation {
+
+    private final String origin = UUID.randomUUID().toString();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FactSheetCache factSheetCache;
+    private final ToolResultCache toolResultCache;
+    private final ResponseCache responseCache;
+    private final SharedCache sharedCache;
+    private final WorkspaceRegistry workspaces;
+    private final List<FactSheetChangeListener> listeners;
+
+    @Autowired
+    public CacheInvalidation(FactSheetCache factSheetCache, ToolResultCache toolResultCache,
+            ObjectProvider<ResponseCache> responseCache, ObjectProvider<SharedCache> sharedCache,
+            WorkspaceRegistry workspaces, ObjectProvider<FactSheetChangeListener> listeners) {
+        this(factSheetCache, toolResultCache, responseCache.getIfAvailable(), sharedCache.getIfAvailable(),
+                workspaces, listeners.orderedStream().toList());
+    }
+
+    /**
+     * @param responseCache Response cache (null if disabled)
+     * @param sharedCache   Cache shared with other replicas (null for none)
+     * @param listeners     Notified of every change, local or announced
+     */
+    public CacheInvalidation(FactSheetCache factSheetCache, ToolResultCache toolResultCache,
+            ResponseCache responseCache, SharedCache sharedCache, WorkspaceRegistry workspaces,
+            List<FactSheetChangeListener> listeners) {
+        this.factSheetCache = factSheetCache;
+        this.toolResultCache = toolResultCache;
+        this.responseCache = responseCache;
+        this.sharedCache = sharedCache;
+        this.workspaces = workspaces;
+        this.listeners = List.copyOf(listeners);
+        if (sharedCache != null) {
+            sharedCache.subscribe(this::onMessage);
+        }
+    }
+
+    /**
+     * Drops the cached fact sheets, and the tool results and responses that
+     * contain them, and notifies the listeners, on all replicas.
+     *
+     * @param workspace Workspace of the fact sheets (null for the default)
+     * @param events    The changes, in sequence order
+     */
+    public void factSheetsChanged(String workspace, List<FactSheetEvent> events) {
+        if (workspace != null && workspace.equals(workspaces.getDefaultWorkspace())) {
+            // Caches key the default workspace as null
+            workspace = null;
+        }
+        apply(workspace, events);
+        if (sharedCache == null) {
+            return;
+        }
+        try {
+            sharedCache.publish(objectMapper.writeValueAsString(
+                    new Invalidation(origin, workspace, List.copyOf(events))));
+        } catch (Exception e) {
+            log.warn("[CacheInvalidation] Could not announce {} changes: {}", events.size(), e.getMessage());
+        }
+    }
+
+    private void onMessage(String message) {
+        Invalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(message, Invalidation.class);
+        } catch (Exception e) {
+            log.warn("[CacheInvalidation] Ignoring unreadable message: {}", e.getMessage());
+            return;
+        }
+        if (origin.equals(invalidation.origin())) {
+            return;
+        }
+        log.debug("[CacheInvalidation] {} changes of {} announced by another replica", invalidation.events().size(),
+                invalidation.workspace() != null ? invalidation.workspace() : "the default workspace");
+        apply(invalidation.workspace(), invalidation.events());
+    }
+
+    private void apply(String workspace, List<FactSheetEvent> events) {
+        Set<String> ids = new LinkedHashSet<>();
+        events.forEach(event -> ids.addAll(event.factSheetIds()));
+        evict(workspace, ids);
+        for (FactSheetChangeListener listener : listeners) {
+            try {
+                listener.factSheetsChanged(workspace, events);
+            } catch (RuntimeException e) {
+                log.warn("[CacheInvalidation] Listener {} failed: {}", listener.getClass().getSimpleName(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    private void evict(String workspace, Collection<String> ids) {
+        ids.forEach(id -> factSheetCache.remove(workspace, id));
+        toolResultCache.invalidateFactSheets(workspace, ids);
+        if (responseCache != null) {
+            responseCache.invalidate(subdomainOf(workspace), ids);
+        }
+    }
+
+    private String subdomainOf(String workspace) {
+        return workspaces.client(workspace).getSubdomain();
+    }
+
+    /**
+     * Message announcing changed fact sheets.
+     */
+    record Invalidation(String origin, String workspace, List<FactSheetEvent> events) {
+    }
+}
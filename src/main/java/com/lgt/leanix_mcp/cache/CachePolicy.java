@@ -0,0 +1,60 @@
+package com.lgt.leanix_mcp.cache;
+
+import java.time.Duration;
+
+/**
+ * Caching policy for a single tool, modelled after the HTTP
+ * {@code max-age}, {@code stale-while-revalidate} and {@code stale-if-error}
+ * cache-control directives.
+ */
+public class CachePolicy {
+
+    /** How long a cached result is served without contacting LeanIX. */
+    private Duration freshFor = Duration.ZERO;
+
+    /** How long after expiry a result is served while it is refreshed in the background. */
+    private Duration staleWhileRevalidate = Duration.ZERO;
+
+    /** How long after expiry a result is served when LeanIX fails. */
+    private Duration staleIfError = Duration.ZERO;
+
+    public CachePolicy() {
+    }
+
+    public CachePolicy(Duration freshFor, Duration staleWhileRevalidate, Duration staleIfError) {
+        this.freshFor = freshFor;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.staleIfError = staleIfError;
+    }
+
+    /**
+     * @return true if this policy never serves a cached value
+     */
+    public boolean isDisabled() {
+        return freshFor.isZero() && staleWhileRevalidate.isZero() && staleIfError.isZero();
+    }
+
+    public Duration getFreshFor() {
+        return freshFor;
+    }
+
+    public void setFreshFor(Duration freshFor) {
+        this.freshFor = freshFor;
+    }
+
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    public Duration getStaleIfError() {
+        return staleIfError;
+    }
+
+    public void setStaleIfError(Duration staleIfError) {
+        this.staleIfError = staleIfError;
+    }
+}
@@ -0,0 +1,142 @@
+package com.lgt.leanix_mcp.cache;
+
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Caches individual fact sheets by id. Each entry remembers the projection it
+ * was fetched with, so a lookup is only answered from cache if the cached
+ * entry contains every requested field.
+ * <p>
+ * Entries are partitioned by the workspace of the current tool invocation.
+ */
+@Component
+public class FactSheetCache {
+
+    private final Map<String, Entry> entries;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public FactSheetCache(LeanIXClientConfig leanIXClientConfig) {
+        this(leanIXClientConfig.getFactSheetCache().getMaximumEntries(), leanIXClientConfig.getFactSheetCache().getTtl(),
+                Clock.systemUTC());
+    }
+
+    FactSheetCache(int maximumEntries, Duration ttl, Clock clock) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maximumEntries;
+            }
+        });
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a cached fact sheet if it is still valid and contains every
+     * field of the projection.
+     *
+     * @param id         Fact sheet id
+     * @param projection Fields the caller needs
+     * @return The cached fact sheet, if any
+     */
+    public Optional<FactSheet> get(String id, FactSheetProjection projection) {
+        String key = key(id);
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.projection().covers(projection)) {
+            return Optional.empty();
+        }
+        if (Duration.between(entry.cachedAt(), clock.instant()).compareTo(ttl) >= 0) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.factSheet());
+    }
+
+    /**
+     * Caches a fact sheet fetched with the given projection.
+     *
+     * @param factSheet  The fact sheet
+     * @param projection Fields the fact sheet was fetched with
+     */
+    public void put(FactSheet factSheet, FactSheetProjection projection) {
+        if (factSheet == null || factSheet.getId() == null) {
+            return;
+        }
+        String workspace = ToolInvocationContext.currentWorkspace().orElse(null);
+        entries.put(key(workspace, factSheet.getId()), new Entry(workspace, factSheet, projection, clock.instant()));
+    }
+
+    /**
+     * Removes a fact sheet from the cache.
+     *
+     * @param id Fact sheet id
+     */
+    public void remove(String id) {
+        entries.remove(key(id));
+    }
+
+    /**
+     * Removes a fact sheet of a given workspace from the cache.
+     *
+     * @param workspace Workspace of the fact sheet (null for the default)
+     * @param id        Fact sheet id
+     */
+    public void remove(String workspace, String id) {
+        entries.remove(key(workspace, id));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String key(String id) {
+        return key(ToolInvocationContext.currentWorkspace().orElse(null), id);
+    }
+
+    private static String key(String workspace, String id) {
+        return workspace != null ? workspace + "/" + id : id;
+    }
+
+    /**
+     * @param workspace Workspace of the entries (null for the default)
+     * @return The cached fact sheets of the workspace, expired ones included
+     */
+    public List<CachedFactSheet> entries(String workspace) {
+        List<CachedFactSheet> cached = new ArrayList<>();
+        synchronized (entries) {
+            for (Entry entry : entries.values()) {
+                if (Objects.equals(workspace, entry.workspace())) {
+                    cached.add(new CachedFactSheet(entry.factSheet(), entry.projection()));
+                }
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * A cached fact sheet and the fields it was fetched with.
+     */
+    public record CachedFactSheet(FactSheet factSheet, FactSheetProjection projection) {
+    }
+
+    private record Entry(String workspace, FactSheet factSheet, FactSheetProjection projection, Instant cachedAt) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.lgt.leanix_mcp.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Speeds up sequential browsing of {@code allFactSheets} connections. As soon
+ * as a page is returned, the following page is fetched in the background and
+ * kept under its {@code after} cursor until it is claimed or its time-to-live
+ * expires. Every page seen also records its cursor by page number, so a jump
+ * to page N starts from the closest known cursor instead of the first page.
+ * <p>
+ * A listing identifies one ordered sequence of pages, e.g. type, page size and
+ * selection; pages of different listings never mix.
+ */
+@Slf4j
+@Component
+public class PagePrefetcher implements DisposableBean {
+
+    static final int MAX_LISTINGS = 256;
+    static final int MAX_PAGES_PER_LISTING = 10_000;
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int maximumPending;
+    private final Map<PageKey, Prefetch> pending = new LinkedHashMap<>();
+    private final Map<Object, CursorIndex> cursors = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, CursorIndex> eldest) {
+                    return size() > MAX_LISTINGS;
+                }
+            });
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Clock clock;
+
+    @Autowired
+    public PagePrefetcher(LeanIXClientConfig leanIXClientConfig) {
+        this(leanIXClientConfig.getPrefetch().isEnabled(), leanIXClientConfig.getPrefetch().getTtl(),
+                leanIXClientConfig.getPrefetch().getMaximumPending(), Clock.systemUTC());
+    }
+
+    PagePrefetcher(boolean enabled, Duration ttl, int maximumPending, Clock clock) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.maximumPending = Math.max(1, maximumPending);
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a page, claiming a prefetched copy when one is available, and
+     * starts prefetching the page after it.
+     *
+     * @param listing The listing the page belongs to
+     * @param after   Cursor of the page (null for the first page)
+     * @param loader  Fetches the page for a cursor; the result must contain
+     *                {@code data.allFactSheets.pageInfo}
+     * @return The page
+     */
+    public JsonNode fetch(Object listing, String after, Function<String, JsonNode> loader) {
+        JsonNode page = claim(new PageKey(listing, after));
+        if (page == null) {
+            page = loader.apply(after);
+        }
+        String next = record(listing, after, page);
+        if (enabled && next != null) {
+            prefetch(new PageKey(listing, next), loader);
+        }
+        return page;
+    }
+
+    /**
+     * Finds the cursor of a page number, walking forward from the closest
+     * known page with {@code walker} where needed.
+     *
+     * @param listing The listing
+     * @param page    Page number, starting at 1
+     * @param walker  Fetches the page for a cursor; only
+     *                {@code data.allFactSheets.pageInfo} is read, so a minimal
+     *                selection suffices
+     * @return The {@code after} cursor of the page (null for page 1)
+     * @throws IllegalArgumentException If the listing has fewer pages
+     */
+    public String cursorForPage(Object listing, int page, Function<String, JsonNode> walker) {
+        if (page < 1) {
+            throw new IllegalArgumentException("page must be 1 or greater");
+        }
+        CursorIndex index = cursors.computeIfAbsent(listing, key -> new CursorIndex());
+        int known;
+        String cursor;
+        synchronized (index) {
+            known = Math.min(page, index.pages.size()) - 1;
+            cursor = index.pages.get(known);
+        }
+        if (known < page - 1) {
+            log.debug("[PagePrefetcher] Walking from page {} to page {}", known + 1, page);
+        }
+        while (known < page - 1) {
+            ToolInvocationContext.checkDeadline("walking to page " + page);
+            String next = record(listing, cursor, walker.apply(cursor));
+            if (next == null) {
+                throw new IllegalArgumentException("page " + page + " is beyond the last page (" + (known + 1) + ")");
+            }
+            cursor = next;
+            known++;
+        }
+        return cursor;
+    }
+
+    /**
+     * @return Number of prefetched pages waiting to be claimed
+     */
+    public int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private JsonNode claim(PageKey key) {
+        Prefetch prefetch;
+        synchronized (pending) {
+            prefetch = pending.remove(key);
+        }
+        if (prefetch == null) {
+            return null;
+        }
+        if (prefetch.expiresAt().isBefore(clock.instant())) {
+            prefetch.page().cancel(true);
+            return null;
+        }
+        try {
+            JsonNode page = prefetch.page().join();
+            log.debug("[PagePrefetcher] Served prefetched page after {}", key.after());
+            return page;
+        } catch (CompletionException | CancellationException e) {
+            log.debug("[PagePrefetcher] Prefetch after {} failed, fetching again: {}", key.after(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void prefetch(PageKey key, Function<String, JsonNode> loader) {
+        Instant now = clock.instant();
+        synchronized (pending) {
+            if (pending.containsKey(key)) {
+                return;
+            }
+            pending.values().removeIf(prefetch -> {
+                boolean expired = prefetch.expiresAt().isBefore(now);
+                if (expired) {
+                    prefetch.page().cancel(true);
+                }
+                return expired;
+            });
+            while (pending.size() >= maximumPending) {
+                Iterator<Prefetch> eldest = pending.values().iterator();
+                eldest.next().page().cancel(true);
+                eldest.remove();
+            }
+            // The prefetch outlives the invocation, so it does not inherit its deadline
+            pending.put(key, new Prefetch(CompletableFuture.supplyAsync(
+                    ToolInvocationContext.detach(() -> loader.apply(key.after())), executor), now.plus(ttl)));
+        }
+    }
+
+    /**
+     * Records the cursor that follows the page fetched with {@code after}.
+     *
+     * @return The cursor of the next page, or null on the last page
+     */
+    private String record(Object listing, String after, JsonNode page) {
+        JsonNode pageInfo = page.path("data").path("allFactSheets").path("pageInfo");
+        String next = pageInfo.path("hasNextPage").asBoolean() ? pageInfo.path("endCursor").asText(null) : null;
+        CursorIndex index = cursors.computeIfAbsent(listing, key -> new CursorIndex());
+        synchronized (index) {
+            Integer number = index.numbers.get(after);
+            if (next != null && number != null && number == index.pages.size() - 1
+                    && index.pages.size() < MAX_PAGES_PER_LISTING) {
+                index.pages.add(next);
+                index.numbers.put(next, index.pages.size() - 1);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Cursors of a listing by page index; index 0 is the first page (no cursor).
+     */
+    private static final class CursorIndex {
+        private final List<String> pages = new ArrayList<>(Collections.singletonList(null));
+        private final Map<String, Integer> numbers = new HashMap<>(Collections.singletonMap(null, 0));
+    }
+
+    private record PageKey(Object listing, String after) {
+    }
+
+    private record Prefetch(CompletableFuture<JsonNode> page, Instant expiresAt) {
+    }
+}
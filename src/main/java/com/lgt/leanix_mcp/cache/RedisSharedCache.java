@@ -0,0 +1,87 @@
+package com.lgt.leanix_mcp.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * {@link SharedCache} backed by Redis. Values are stored under
+ * {@code keyPrefix + key} with a Redis expiry, and invalidations travel over a
+ * pub/sub channel named {@code keyPrefix + "invalidations"}.
+ */
+@Slf4j
+public class RedisSharedCache implements SharedCache, DisposableBean {
+
+    private final RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+    private final RedisMessageListenerContainer listeners = new RedisMessageListenerContainer();
+    private final String keyPrefix;
+    private final ChannelTopic channel;
+
+    /**
+     * @param connectionFactory Connection to Redis
+     * @param keyPrefix         Prefix of all keys and of the channel, so
+     *                          several deployments can share one Redis
+     */
+    public RedisSharedCache(RedisConnectionFactory connectionFactory, String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+        this.channel = new ChannelTopic(keyPrefix + "invalidations");
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        listeners.setConnectionFactory(connectionFactory);
+        listeners.afterPropertiesSet();
+        listeners.start();
+    }
+
+    @Override
+    public byte[] get(String key) {
+        return template.opsForValue().get(keyPrefix + key);
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration ttl) {
+        template.opsForValue().set(keyPrefix + key, value, ttl);
+    }
+
+    @Override
+    public long increment(String key) {
+        Long value = template.opsForValue().increment(keyPrefix + key);
+        return value != null ? value : 0;
+    }
+
+    @Override
+    public long counter(String key) {
+        byte[] value = template.opsForValue().get(keyPrefix + key);
+        return value != null ? Long.parseLong(new String(value, StandardCharsets.US_ASCII)) : 0;
+    }
+
+    @Override
+    public void publish(String message) {
+        template.convertAndSend(channel.getTopic(), message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.addMessageListener((message, pattern) -> {
+            try {
+                listener.accept(new String(message.getBody(), StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                log.warn("[RedisSharedCache] Could not handle message on {}", channel.getTopic(), e);
+            }
+        }, channel);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        listeners.destroy();
+    }
+}
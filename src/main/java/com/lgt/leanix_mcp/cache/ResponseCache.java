@@ -0,0 +1,593 @@
+package com.lgt.leanix_mcp.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches raw GraphQL responses for read operations, keyed by a hash of the
+ * normalized document and the canonicalized variables.
+ * <p>
+ * Responses are stored gzip-compressed and the cache is bounded by the total
+ * number of compressed bytes. Eviction follows W-TinyLFU: new entries enter a
+ * small LRU window, and entries leaving the window are only admitted to the
+ * segmented LRU main space if they were accessed more often than the entry
+ * they would displace. Each operation can have its own time-to-live.
+ * <p>
+ * Every response is tagged with the fact sheet ids it contains, so a change
+ * of fact sheets evicts only the responses naming them. Responses naming no
+ * fact sheet, e.g. counts, and lists a change adds a fact sheet to are left to
+ * their time-to-live.
+ * <p>
+ * With a {@link SharedCache}, the cache becomes the first of two levels:
+ * responses are also written to the shared level, and local misses are looked
+ * up there before LeanIX is asked, so replicas warm each other. Every replica
+ * hears of every change, so each remembers when the fact sheets of a
+ * partition (workspace) last changed and skips shared entries stored before a
+ * change of a fact sheet they contain. Shared entries stored before the
+ * replica started are skipped as well, since it may have missed their
+ * changes.
+ */
+@Slf4j
+public class ResponseCache {
+
+    private static final Pattern OPERATION = Pattern
+            .compile("^(query|mutation|subscription)\\s?([_A-Za-z][_0-9A-Za-z]*)?");
+    private static final String ANONYMOUS = "anonymous";
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"\\\\]+)\"");
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.80;
+
+    private final long maximumBytes;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final Duration defaultTtl;
+    private final Map<String, Duration> operationTtls = new HashMap<>();
+    private final Duration maximumTtl;
+    private final Clock clock;
+    private final ObjectMapper canonicalMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final Map<String, Node> data = new HashMap<>();
+    private final LinkedHashMap<String, Node> window = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Node> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Node> protectedSegment = new LinkedHashMap<>();
+    private final FrequencySketch sketch;
+    private final SharedCache sharedCache;
+    private final long startedAt;
+    // Partition and id -> time of the last change, in insertion order, kept for the longest TTL
+    private final LinkedHashMap<String, Long> changes = new LinkedHashMap<>();
+
+    private long windowBytes;
+    private long probationBytes;
+    private long protectedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long sharedHits;
+
+    public ResponseCache(long maximumBytes, Duration defaultTtl, Map<String, Duration> operationTtls) {
+        this(maximumBytes, defaultTtl, operationTtls, (SharedCache) null);
+    }
+
+    /**
+     * @param maximumBytes  Bound of the compressed bytes held in memory
+     * @param defaultTtl    Time-to-live of operations without their own
+     * @param operationTtls Time-to-live by operation name
+     * @param sharedCache   Second level shared with other replicas (null for
+     *                      none)
+     */
+    public ResponseCache(long maximumBytes, Duration defaultTtl, Map<String, Duration> operationTtls,
+            SharedCache sharedCache) {
+        this(maximumBytes, defaultTtl, operationTtls, Clock.systemUTC(), sharedCache);
+    }
+
+    ResponseCache(long maximumBytes, Duration defaultTtl, Map<String, Duration> operationTtls, Clock clock) {
+        this(maximumBytes, defaultTtl, operationTtls, clock, null);
+    }
+
+    ResponseCache(long maximumBytes, Duration defaultTtl, Map<String, Duration> operationTtls, Clock clock,
+            SharedCache sharedCache) {
+        if (maximumBytes <= 0) {
+            throw new IllegalArgumentException("maximumBytes must be positive");
+        }
+        this.maximumBytes = maximumBytes;
+        this.windowMaximum = Math.max(1, (long) (maximumBytes * WINDOW_RATIO));
+        this.protectedMaximum = (long) ((maximumBytes - windowMaximum) * PROTECTED_RATIO);
+        this.defaultTtl = defaultTtl;
+        operationTtls.forEach((operation, ttl) -> this.operationTtls.put(operation.toLowerCase(), ttl));
+        this.maximumTtl = this.operationTtls.values().stream().reduce(defaultTtl,
+                (longest, ttl) -> ttl.compareTo(longest) > 0 ? ttl : longest);
+        this.clock = clock;
+        this.sketch = new FrequencySketch((int) Math.min(1 << 20, Math.max(64, maximumBytes / 2048)));
+        this.sharedCache = sharedCache;
+        this.startedAt = clock.millis();
+    }
+
+    /**
+     * @param query The GraphQL document
+     * @return Name of the operation if the document is a query ("anonymous" if
+     *         unnamed), or null for mutations and subscriptions
+     */
+    public static String readOperationOf(String query) {
+        return readOperation(normalize(query));
+    }
+
+    private static String readOperation(String document) {
+        if (document.startsWith("{")) {
+            return ANONYMOUS;
+        }
+        Matcher matcher = OPERATION.matcher(document);
+        if (!matcher.find() || !"query".equals(matcher.group(1))) {
+            return null;
+        }
+        return matcher.group(2) != null ? matcher.group(2) : ANONYMOUS;
+    }
+
+    /**
+     * Computes the cache key of a GraphQL request.
+     *
+     * @param query     The GraphQL document
+     * @param variables Variables for the query (can be null)
+     * @return The key, or null if the operation must not be cached
+     */
+    public Key keyFor(String query, Map<String, Object> variables) {
+        return keyFor(null, query, variables);
+    }
+
+    /**
+     * Computes the cache key of a GraphQL request within a partition, so equal
+     * requests against different workspaces get different keys.
+     *
+     * @param partition Partition, e.g. the workspace subdomain (can be null)
+     * @param query     The GraphQL document
+     * @param variables Variables for the query (can be null)
+     * @return The key, or null if the operation must not be cached
+     */
+    public Key keyFor(String partition, String query, Map<String, Object> variables) {
+        String document = normalize(query);
+        String operation = readOperation(document);
+        if (operation == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (partition != null) {
+                digest.update(partition.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            digest.update(document.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(canonicalMapper.writeValueAsBytes(variables == null ? Map.of() : variables));
+            return new Key(partition, operation, HexFormat.of().formatHex(digest.digest()));
+        } catch (NoSuchAlgorithmException | IOException e) {
+            log.warn("[ResponseCache] Could not compute cache key, bypassing cache", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the cached response body for the key.
+     *
+     * @param key The request key
+     * @return The response body, or null on a miss
+     */
+    public String get(Key key) {
+        byte[] compressed;
+        synchronized (this) {
+            sketch.increment(key.hash());
+            Node node = data.get(key.hash());
+            if (node == null || node.expiresAt <= clock.millis()) {
+                if (node != null) {
+                    remove(node);
+                }
+                misses++;
+                compressed = null;
+            } else {
+                onHit(node);
+                hits++;
+                compressed = node.compressed;
+            }
+        }
+        if (compressed != null) {
+            return decompress(compressed);
+        }
+        return sharedCache != null ? getShared(key) : null;
+    }
+
+    /**
+     * Stores a response body.
+     *
+     * @param key  The request key
+     * @param body The raw response body
+     */
+    public void put(Key key, String body) {
+        Duration ttl = ttlFor(key.operation());
+        if (ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        byte[] compressed = compress(body);
+        if (compressed.length > maximumBytes - windowMaximum) {
+            log.debug("[ResponseCache] Response of {} too large to cache ({} bytes)", key.operation(), compressed.length);
+            return;
+        }
+        long storedAt = clock.millis();
+        long expiresAt = storedAt + ttl.toMillis();
+        store(key, compressed, expiresAt, idsIn(body));
+        if (sharedCache != null) {
+            try {
+                sharedCache.put(sharedKey(key), ByteBuffer.allocate(2 * Long.BYTES + compressed.length)
+                        .putLong(expiresAt).putLong(storedAt).put(compressed).array(), ttl);
+            } catch (RuntimeException e) {
+                log.warn("[ResponseCache] Could not write {} to shared cache: {}", key.operation(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drops the local entries of a partition that contain any of the fact
+     * sheets, and remembers the change so shared entries stored before it are
+     * no longer served. Called on every replica.
+     *
+     * @param partition The partition, e.g. the workspace subdomain
+     * @param ids       Ids of the changed fact sheets
+     */
+    public void invalidate(String partition, Collection<String> ids) {
+        String name = partitionName(partition);
+        long now = clock.millis();
+        synchronized (this) {
+            if (sharedCache != null) {
+                for (String id : ids) {
+                    // Re-inserted so the map stays ordered by time
+                    changes.remove(name + "/" + id);
+                    changes.put(name + "/" + id, now);
+                }
+                Iterator<Long> changedAt = changes.values().iterator();
+                while (changedAt.hasNext() && changedAt.next() < now - maximumTtl.toMillis()) {
+                    changedAt.remove();
+                }
+            }
+            List<Node> stale = new ArrayList<>();
+            for (Node node : data.values()) {
+                if (name.equals(node.partition) && !Collections.disjoint(node.ids, ids)) {
+                    stale.add(node);
+                }
+            }
+            stale.forEach(this::remove);
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void invalidateAll() {
+        data.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        windowBytes = 0;
+        probationBytes = 0;
+        protectedBytes = 0;
+    }
+
+    public synchronized long getWeightedSize() {
+        return windowBytes + probationBytes + protectedBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return data.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Local misses that were answered by the shared cache
+     */
+    public synchronized long getSharedHits() {
+        return sharedHits;
+    }
+
+    private synchronized void store(Key key, byte[] compressed, long expiresAt, Set<String> ids) {
+        Node existing = data.get(key.hash());
+        if (existing != null) {
+            remove(existing);
+        }
+        Node node = new Node(key.hash(), partitionName(key.partition()), compressed, expiresAt, ids);
+        data.put(node.hash, node);
+        window.put(node.hash, node);
+        node.segment = Segment.WINDOW;
+        windowBytes += node.weight();
+        evict();
+    }
+
+    private String getShared(Key key) {
+        byte[] stored;
+        try {
+            stored = sharedCache.get(sharedKey(key));
+        } catch (RuntimeException e) {
+            log.warn("[ResponseCache] Could not read {} from shared cache: {}", key.operation(), e.getMessage());
+            return null;
+        }
+        if (stored == null || stored.length < 2 * Long.BYTES) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(stored);
+        long expiresAt = buffer.getLong();
+        long storedAt = buffer.getLong();
+        if (expiresAt <= clock.millis() || storedAt < startedAt) {
+            return null;
+        }
+        byte[] compressed = new byte[buffer.remaining()];
+        buffer.get(compressed);
+        String body = decompress(compressed);
+        Set<String> ids = idsIn(body);
+        synchronized (this) {
+            String prefix = partitionName(key.partition()) + "/";
+            for (String id : ids) {
+                Long changedAt = changes.get(prefix + id);
+                if (changedAt != null && changedAt >= storedAt) {
+                    return null;
+                }
+            }
+            if (compressed.length <= maximumBytes - windowMaximum) {
+                store(key, compressed, expiresAt, ids);
+            }
+            sharedHits++;
+        }
+        log.debug("[ResponseCache] Serving {} from shared cache", key.operation());
+        return body;
+    }
+
+    private static String sharedKey(Key key) {
+        return "response:" + partitionName(key.partition()) + ":" + key.hash();
+    }
+
+    /**
+     * @param json A JSON document
+     * @return The values of all {@code id} fields in it
+     */
+    static Set<String> idsIn(String json) {
+        Set<String> ids = new HashSet<>();
+        Matcher matcher = ID.matcher(json);
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+
+    private static String partitionName(String partition) {
+        return partition != null ? partition : "";
+    }
+
+    private Duration ttlFor(String operation) {
+        return operationTtls.getOrDefault(operation.toLowerCase(), defaultTtl);
+    }
+
+    private void onHit(Node node) {
+        switch (node.segment) {
+            case WINDOW -> window.put(node.hash, window.remove(node.hash));
+            case PROTECTED -> protectedSegment.put(node.hash, protectedSegment.remove(node.hash));
+            case PROBATION -> {
+                probation.remove(node.hash);
+                probationBytes -= node.weight();
+                protectedSegment.put(node.hash, node);
+                protectedBytes += node.weight();
+                node.segment = Segment.PROTECTED;
+                while (protectedBytes > protectedMaximum && protectedSegment.size() > 1) {
+                    Node demoted = first(protectedSegment);
+                    protectedSegment.remove(demoted.hash);
+                    protectedBytes -= demoted.weight();
+                    probation.put(demoted.hash, demoted);
+                    probationBytes += demoted.weight();
+                    demoted.segment = Segment.PROBATION;
+                }
+            }
+        }
+    }
+
+    private void evict() {
+        long mainMaximum = maximumBytes - windowMaximum;
+        while (windowBytes > windowMaximum) {
+            Node candidate = first(window);
+            window.remove(candidate.hash);
+            windowBytes -= candidate.weight();
+            probation.put(candidate.hash, candidate);
+            probationBytes += candidate.weight();
+            candidate.segment = Segment.PROBATION;
+
+            while (probationBytes + protectedBytes > mainMaximum) {
+                Node victim = victimFor(candidate);
+                if (victim == null) {
+                    evict(candidate);
+                    break;
+                }
+                if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                    evict(victim);
+                } else {
+                    evict(candidate);
+                    break;
+                }
+            }
+        }
+    }
+
+    private Node victimFor(Node candidate) {
+        for (Node node : probation.values()) {
+            if (node != candidate) {
+                return node;
+            }
+        }
+        return protectedSegment.isEmpty() ? null : first(protectedSegment);
+    }
+
+    private void evict(Node node) {
+        remove(node);
+        evictions++;
+    }
+
+    private void remove(Node node) {
+        data.remove(node.hash);
+        switch (node.segment) {
+            case WINDOW -> {
+                window.remove(node.hash);
+                windowBytes -= node.weight();
+            }
+            case PROBATION -> {
+                probation.remove(node.hash);
+                probationBytes -= node.weight();
+            }
+            case PROTECTED -> {
+                protectedSegment.remove(node.hash);
+                protectedBytes -= node.weight();
+            }
+        }
+    }
+
+    private static Node first(LinkedHashMap<String, Node> segment) {
+        Iterator<Node> iterator = segment.values().iterator();
+        return iterator.next();
+    }
+
+    /**
+     * Normalizes a GraphQL document so formatting differences do not produce
+     * different cache keys: comments are dropped, commas and whitespace are
+     * collapsed, and string literals are kept verbatim.
+     */
+    static String normalize(String document) {
+        StringBuilder out = new StringBuilder(document.length());
+        boolean separator = false;
+        int i = 0;
+        while (i < document.length()) {
+            char c = document.charAt(i);
+            if (c == '#') {
+                while (i < document.length() && document.charAt(i) != '\n') {
+                    i++;
+                }
+                separator = true;
+            } else if (Character.isWhitespace(c) || c == ',') {
+                separator = true;
+                i++;
+            } else {
+                if (separator && !out.isEmpty() && isNameChar(out.charAt(out.length() - 1))
+                        && (isNameChar(c) || c == '"')) {
+                    out.append(' ');
+                }
+                separator = false;
+                if (c == '"') {
+                    i = copyString(document, i, out);
+                } else {
+                    out.append(c);
+                    i++;
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static int copyString(String document, int start, StringBuilder out) {
+        boolean block = document.startsWith("\"\"\"", start);
+        String delimiter = block ? "\"\"\"" : "\"";
+        int i = start + delimiter.length();
+        while (i < document.length() && !document.startsWith(delimiter, i)) {
+            i += document.charAt(i) == '\\' ? 2 : 1;
+        }
+        int end = Math.min(document.length(), i + delimiter.length());
+        out.append(document, start, end);
+        return end;
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static byte[] compress(String body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, body.length() / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String decompress(byte[] compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Identifies a cached response.
+     *
+     * @param partition Partition the request belongs to (can be null)
+     * @param operation Name of the GraphQL operation, used to select the TTL
+     * @param hash      Hash of the partition, normalized document and
+     *                  variables
+     */
+    public record Key(String partition, String operation, String hash) {
+    }
+
+    private enum Segment {
+        WINDOW, PROBATION, PROTECTED
+    }
+
+    private static final class Node {
+        private final String hash;
+        private final String partition;
+        private final byte[] compressed;
+        private final long expiresAt;
+        // Fact sheets named in the response
+        private final Set<String> ids;
+        private Segment segment;
+
+        private Node(String hash, String partition, byte[] compressed, long expiresAt, Set<String> ids) {
+            this.hash = hash;
+            this.partition = partition;
+            this.compressed = compressed;
+            this.expiresAt = expiresAt;
+            this.ids = ids;
+        }
+
+        long weight() {
+            return compressed.length;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.lgt.leanix_mcp.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Second-level cache shared by all replicas of the server, together with a
+ * channel on which replicas announce invalidations to each other. The
+ * in-process caches stay the first level; a miss there is looked up here
+ * before LeanIX is asked.
+ * <p>
+ * Implementations must be thread-safe. Failures of the shared store are
+ * reported as unchecked exceptions and treated as misses by callers.
+ */
+public interface SharedCache {
+
+    /**
+     * @param key The key
+     * @return The stored value, or null if absent or expired
+     */
+    byte[] get(String key);
+
+    /**
+     * Stores a value.
+     *
+     * @param key   The key
+     * @param value The value
+     * @param ttl   Time after which the value expires
+     */
+    void put(String key, byte[] value, Duration ttl);
+
+    /**
+     * Atomically increments a counter, creating it at 0 first.
+     *
+     * @param key The key of the counter
+     * @return The incremented value
+     */
+    long increment(String key);
+
+    /**
+     * @param key The key of the counter
+     * @return The value of the counter, 0 if it does not exist
+     */
+    long counter(String key);
+
+    /**
+     * Sends a message to every subscribed replica, including this one.
+     *
+     * @param message The message
+     */
+    void publish(String message);
+
+    /**
+     * Registers a listener for published messages.
+     *
+     * @param listener Called with every published message
+     */
+    void subscribe(Consumer<String> listener);
+}
@@ -0,0 +1,221 @@
+package com.lgt.leanix_mcp.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Caches tool results per tool and arguments according to the tool's
+ * {@link CachePolicy}:
+ * <ul>
+ * <li>fresh results are returned without contacting LeanIX,</li>
+ * <li>results within the stale-while-revalidate window are returned
+ * immediately and refreshed in the background,</li>
+ * <li>results within the stale-if-error window are returned when LeanIX
+ * fails, and the current tool invocation is marked as stale.</li>
+ * </ul>
+ * Revalidations and refreshes of expired results bypass the
+ * {@link ResponseCache}, whose TTL may exceed the fresh-for of a tool.
+ * Cached values are shared between callers and must not be modified. Results
+ * are partitioned by the workspace of the current tool invocation.
+ * <p>
+ * Results are tagged with the fact sheet ids they contain. When fact sheets
+ * change, the results naming them are expired rather than dropped: they are
+ * no longer served fresh or while revalidating, but remain the stale-if-error
+ * fallback until a new result is loaded.
+ */
+@Slf4j
+@Component
+public class ToolResultCache implements DisposableBean {
+
+    static final int MAX_ENTRIES = 1024;
+
+    private final Map<String, CachePolicy> policies = new HashMap<>();
+    private final Map<Key, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    });
+    private final ExecutorService revalidator = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Clock clock;
+
+    @Autowired
+    public ToolResultCache(LeanIXClientConfig leanIXClientConfig) {
+        this(leanIXClientConfig.getToolCache(), Clock.systemUTC());
+    }
+
+    ToolResultCache(Map<String, CachePolicy> policies, Clock clock) {
+        policies.forEach((tool, policy) -> this.policies.put(tool.toLowerCase(Locale.ROOT), policy));
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the result of a tool call, served from cache where the tool's
+     * policy allows it.
+     *
+     * @param tool   Name of the tool
+     * @param args   Arguments that identify the result
+     * @param loader Fetches the result from LeanIX
+     * @return The cached or freshly loaded result
+     */
+    public <T> T get(String tool, List<?> args, Supplier<T> loader) {
+        CachePolicy policy = policies.get(tool.toLowerCase(Locale.ROOT));
+        if (policy == null || policy.isDisabled()) {
+            return loader.get();
+        }
+        Key key = new Key(ToolInvocationContext.currentWorkspace().orElse(null), tool, args);
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.expired()) {
+            Duration age = entry.age(clock);
+            if (age.compareTo(policy.getFreshFor()) < 0) {
+                return entry.value();
+            }
+            if (age.compareTo(policy.getFreshFor().plus(policy.getStaleWhileRevalidate())) < 0) {
+                revalidate(key, entry, loader);
+                return entry.value();
+            }
+        }
+        try {
+            T value = entry != null ? ToolInvocationContext.bypassingResponseCache(loader) : loader.get();
+            // Results cut short by the invocation deadline must not be served to later calls
+            if (ToolInvocationContext.current().map(ToolInvocationContext::isPartial).orElse(false)) {
+                return value;
+            }
+            return store(key, value);
+        } catch (RuntimeException e) {
+            if (entry != null && entry.age(clock).compareTo(policy.getFreshFor().plus(policy.getStaleIfError())) < 0) {
+                Duration age = entry.age(clock);
+                log.warn("[ToolResultCache] {} failed, serving cached result ({}s old): {}",
+                        tool, age.toSeconds(), e.getMessage());
+                ToolInvocationContext.current().ifPresent(context -> context.markStale(age));
+                return entry.value();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops all cached results of a tool.
+     *
+     * @param tool Name of the tool
+     */
+    public void invalidate(String tool) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.tool().equals(tool));
+        }
+    }
+
+    /**
+     * Expires the cached results of a workspace that contain any of the fact
+     * sheets; they are kept as stale-if-error fallbacks.
+     *
+     * @param workspace The workspace (null for the default)
+     * @param ids       Ids of the changed fact sheets
+     */
+    public void invalidateFactSheets(String workspace, Collection<String> ids) {
+        synchronized (entries) {
+            entries.replaceAll((key, entry) -> Objects.equals(key.workspace(), workspace) && entry.contains(ids)
+                    ? entry.expire() : entry);
+        }
+    }
+
+    /**
+     * Drops all cached results.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @Override
+    public void destroy() {
+        revalidator.shutdownNow();
+    }
+
+    private <T> void revalidate(Key key, Entry entry, Supplier<T> loader) {
+        if (!entry.revalidating().compareAndSet(false, true)) {
+            return;
+        }
+        // Revalidate against the same workspace, without the deadline of the invocation that triggered it
+        Supplier<T> detached = ToolInvocationContext.detach(
+                () -> ToolInvocationContext.bypassingResponseCache(loader));
+        revalidator.execute(() -> {
+            try {
+                store(key, detached.get());
+                log.debug("[ToolResultCache] Revalidated {}", key.tool());
+            } catch (RuntimeException e) {
+                log.warn("[ToolResultCache] Background revalidation of {} failed: {}", key.tool(), e.getMessage());
+            } finally {
+                entry.revalidating().set(false);
+            }
+        });
+    }
+
+    private <T> T store(Key key, T value) {
+        entries.put(key, new Entry(value, idsIn(value), clock.instant(), new AtomicBoolean(), false));
+        return value;
+    }
+
+    /**
+     * @return The fact sheet ids in a result, or null if it cannot be read
+     */
+    private Set<String> idsIn(Object value) {
+        try {
+            return ResponseCache.idsIn(objectMapper.writeValueAsString(value));
+        } catch (JsonProcessingException e) {
+            log.debug("[ToolResultCache] Could not read the fact sheets of a result: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private record Key(String workspace, String tool, List<?> args) {
+    }
+
+    /**
+     * @param ids     Fact sheets in the result (null if unknown, so any change
+     *                expires it)
+     * @param expired Whether a fact sheet in it changed since it was stored
+     */
+    private record Entry(Object cached, Set<String> ids, Instant storedAt, AtomicBoolean revalidating,
+            boolean expired) {
+        Duration age(Clock clock) {
+            return Duration.between(storedAt, clock.instant());
+        }
+
+        boolean contains(Collection<String> changed) {
+            return ids == null || !Collections.disjoint(ids, changed);
+        }
+
+        Entry expire() {
+            return new Entry(cached, ids, storedAt, revalidating, true);
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T value() {
+            return (T) cached;
+        }
+    }
+}
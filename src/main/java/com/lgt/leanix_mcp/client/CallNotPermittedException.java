@@ -0,0 +1,14 @@
+package com.lgt.leanix_mcp.client;
+
+/**
+ * Thrown without contacting LeanIX when an endpoint's circuit is open or its
+ * bulkhead is full.
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CallNotPermittedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,176 @@
+package com.lgt.leanix_mcp.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Count-based circuit breaker. The outcomes of the last {@code windowSize}
+ * calls are kept; once at least {@code minimumCalls} were recorded and the
+ * share of failed or slow calls reaches its threshold, the circuit opens and
+ * calls are refused for {@code openDuration}. After that a few probe calls are
+ * let through (half-open): if they succeed the circuit closes, otherwise it
+ * opens again.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final Duration slowCallDuration;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final Clock clock;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int recorded;
+    private State state = State.CLOSED;
+    private Instant openedAt;
+    private int probesStarted;
+    private int probesFinished;
+    private int probesBad;
+
+    /**
+     * @param name                  Endpoint name, for logs and errors
+     * @param windowSize            Number of recent calls considered
+     * @param minimumCalls          Calls needed before the rates are evaluated
+     * @param failureRateThreshold  Share of failed calls (0..1) that opens the
+     *                              circuit
+     * @param slowCallRateThreshold Share of slow calls (0..1) that opens the
+     *                              circuit
+     * @param slowCallDuration      Calls taking longer count as slow
+     * @param openDuration          Time the circuit stays open before probing
+     * @param halfOpenCalls         Probe calls allowed while half-open
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+            double slowCallRateThreshold, Duration slowCallDuration, Duration openDuration, int halfOpenCalls) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold, slowCallDuration,
+                openDuration, halfOpenCalls, Clock.systemUTC());
+    }
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+            double slowCallRateThreshold, Duration slowCallDuration, Duration openDuration, int halfOpenCalls,
+            Clock clock) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size of " + name + " must be positive");
+        }
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.max(1, Math.min(windowSize, minimumCalls));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDuration = slowCallDuration;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.clock = clock;
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+    }
+
+    /**
+     * @return Whether a call may be made now; every permitted call must be
+     *         followed by {@link #record} or {@link #release}
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.instant().isBefore(openedAt.plus(openDuration))) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenCalls) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     *
+     * @param duration  How long the call took
+     * @param isFailure Whether the call failed in a way that indicates an
+     *                  unhealthy endpoint
+     */
+    public synchronized void record(Duration duration, boolean isFailure) {
+        boolean isSlow = duration.compareTo(slowCallDuration) > 0;
+        if (state == State.HALF_OPEN) {
+            probesFinished++;
+            probesBad += isFailure || isSlow ? 1 : 0;
+            if (probesBad > 0) {
+                transition(State.OPEN);
+            } else if (probesFinished >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // Call permitted before the circuit opened
+            return;
+        }
+        failed[next] = isFailure;
+        slow[next] = isSlow;
+        next = (next + 1) % windowSize;
+        recorded = Math.min(windowSize, recorded + 1);
+        if (recorded < minimumCalls) {
+            return;
+        }
+        int failures = 0;
+        int slowCalls = 0;
+        for (int i = 0; i < recorded; i++) {
+            failures += failed[i] ? 1 : 0;
+            slowCalls += slow[i] ? 1 : 0;
+        }
+        if (failures >= failureRateThreshold * recorded || slowCalls >= slowCallRateThreshold * recorded) {
+            log.warn("[CircuitBreaker] {}: {} of {} calls failed, {} slow", name, failures, recorded, slowCalls);
+            transition(State.OPEN);
+        }
+    }
+
+    /**
+     * Ends a permitted call without an outcome, for calls that were cut short
+     * by the caller and say nothing about the endpoint. A half-open probe slot
+     * becomes free again.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && probesStarted > probesFinished) {
+            probesStarted--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void transition(State target) {
+        log.info("[CircuitBreaker] {}: {} -> {}", name, state, target);
+        state = target;
+        probesStarted = 0;
+        probesFinished = 0;
+        probesBad = 0;
+        if (target == State.OPEN) {
+            openedAt = clock.instant();
+        }
+        if (target == State.CLOSED) {
+            next = 0;
+            recorded = 0;
+        }
+    }
+}
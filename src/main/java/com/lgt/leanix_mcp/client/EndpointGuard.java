@@ -0,0 +1,108 @@
+package com.lgt.leanix_mcp.client;
+
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Protects one LeanIX endpoint with a bulkhead, which caps the calls in flight,
+ * and a {@link CircuitBreaker}. Calls that cannot get a bulkhead slot within
+ * {@code maximumWait}, or that arrive while the circuit is open, fail at once
+ * with {@link CallNotPermittedException}.
+ * <p>
+ * Server errors, 429 responses and I/O failures such as timeouts count as
+ * failures; other client errors mean the endpoint is up and count as success.
+ * Calls cut short by us, because they were interrupted or the deadline of the
+ * tool invocation passed, are not recorded at all.
+ */
+public class EndpointGuard {
+
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final Duration maximumWait;
+
+    /**
+     * @param circuitBreaker     Breaker of the endpoint (null for none)
+     * @param maximumConcurrency Calls allowed in flight at once
+     * @param maximumWait        Longest wait for a bulkhead slot
+     */
+    public EndpointGuard(CircuitBreaker circuitBreaker, int maximumConcurrency, Duration maximumWait) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = new Semaphore(Math.max(1, maximumConcurrency), true);
+        this.maximumWait = maximumWait;
+    }
+
+    /**
+     * @return Guard that lets every call through
+     */
+    public static EndpointGuard none() {
+        return new EndpointGuard(null, Integer.MAX_VALUE, Duration.ZERO);
+    }
+
+    /**
+     * Makes a call through the bulkhead and circuit breaker.
+     *
+     * @param endpoint Endpoint name, for errors
+     * @param call     The call
+     * @return The result of the call
+     * @throws CallNotPermittedException If the call was refused
+     */
+    public <T> T call(String endpoint, Supplier<T> call) {
+        acquire(endpoint);
+        try {
+            if (circuitBreaker == null) {
+                return call.get();
+            }
+            if (!circuitBreaker.tryAcquire()) {
+                throw new CallNotPermittedException("Circuit for " + endpoint + " is open, failing fast");
+            }
+            long start = System.nanoTime();
+            try {
+                T result = call.get();
+                circuitBreaker.record(Duration.ofNanos(System.nanoTime() - start), false);
+                return result;
+            } catch (RuntimeException e) {
+                // A call cancelled by us, e.g. the losing hedge or one whose read timeout was shortened to the
+                // tool deadline, says nothing about the endpoint
+                if (Thread.currentThread().isInterrupted() || ToolInvocationContext.deadlineExpired()) {
+                    circuitBreaker.release();
+                } else {
+                    circuitBreaker.record(Duration.ofNanos(System.nanoTime() - start), isFailure(e));
+                }
+                throw e;
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    private void acquire(String endpoint) {
+        Duration wait = ToolInvocationContext.remaining()
+                .filter(remaining -> remaining.compareTo(maximumWait) < 0)
+                .orElse(maximumWait);
+        try {
+            if (!bulkhead.tryAcquire(Math.max(0, wait.toNanos()), TimeUnit.NANOSECONDS)) {
+                throw new CallNotPermittedException("Too many concurrent calls to " + endpoint);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CallNotPermittedException("Interrupted waiting for a call slot of " + endpoint);
+        }
+    }
+
+    static boolean isFailure(RuntimeException error) {
+        if (error instanceof HttpStatusCodeException status) {
+            return status.getStatusCode().is5xxServerError() || status.getStatusCode().value() == 429;
+        }
+        return error instanceof ResourceAccessException;
+    }
+}
@@ -2,20 +2,32 @@ package com.lgt.leanix_mcp.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgt.leanix_mcp.cache.ResponseCache;
+import com.lgt.leanix_mcp.tool.DeadlineExceededException;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Slf4j
 public class LeanIXClient {
 
+    private static final Duration TOKEN_EXPIRY_MARGIN = Duration.ofSeconds(60);
+
     private final String subdomain;
     private final String baseUrl;
     private final String graphqlEndpoint;
@@ -23,8 +35,23 @@ public class LeanIXClient {
     private final String apiToken;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final ResponseCache responseCache;
+    private final List<ResponseListener> responseListeners = new CopyOnWriteArrayList<>();
+    private final EndpointGuard tokenGuard;
+    private final EndpointGuard graphqlGuard;
+    private final RequestHedger hedger;
+    private volatile CachedToken cachedToken;
 
     public LeanIXClient(String subdomain, String apiToken) {
+        this(subdomain, apiToken, Options.DEFAULTS);
+    }
+
+    /**
+     * @param subdomain The LeanIX workspace subdomain
+     * @param apiToken  The LeanIX API token
+     * @param options   Caching, timeouts and resilience of the client
+     */
+    public LeanIXClient(String subdomain, String apiToken, Options options) {
         if (subdomain == null || subdomain.trim().isEmpty()) {
             throw new IllegalArgumentException("Subdomain is required");
         }
@@ -37,12 +64,19 @@ public class LeanIXClient {
         this.baseUrl = String.format("https://%s.leanix.net", subdomain);
         this.graphqlEndpoint = String.format("%s/services/pathfinder/v1/graphql", baseUrl);
         this.tokenEndpoint = String.format("%s/services/mtm/v1/oauth2/token", baseUrl);
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = new RestTemplate(new DeadlineRequestFactory(options.connectTimeout(),
+                options.readTimeout()));
         this.objectMapper = new ObjectMapper();
+        this.responseCache = options.responseCache();
+        this.tokenGuard = options.tokenGuard();
+        this.graphqlGuard = options.graphqlGuard();
+        this.hedger = options.hedger();
     }
 
     /**
-     * Gets an access token using the client credentials flow
+     * Gets an access token using the client credentials flow. Tokens that
+     * declare their lifetime are reused by {@link #query} until shortly before
+     * they expire.
      *
      * @return Access token
      */
@@ -50,6 +84,7 @@ public class LeanIXClient {
         String credentials = String.format("apitoken:%s", apiToken);
         String basicAuth = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
 
+        ToolInvocationContext.checkDeadline("fetching an access token");
         log.info("[LeanIXClient] Attempting to get access token from: {}", tokenEndpoint);
         log.info("[LeanIXClient] Using API token: {}", apiToken != null ? "******** (present)" : "MISSING");
 
@@ -63,7 +98,8 @@ public class LeanIXClient {
         HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(formData, headers);
 
         try {
-            ResponseEntity<String> response = restTemplate.postForEntity(tokenEndpoint, request, String.class);
+            ResponseEntity<String> response = tokenGuard.call("token endpoint",
+                    () -> restTemplate.postForEntity(tokenEndpoint, request, String.class));
             if (!response.getStatusCode().is2xxSuccessful()) {
                 log.error("[LeanIXClient] Failed to get access token. Status: {}, Body: {}",
                         response.getStatusCode(), response.getBody());
@@ -71,13 +107,24 @@ public class LeanIXClient {
             }
             JsonNode json = objectMapper.readTree(response.getBody());
             String token = json.get("access_token").asText();
+            long expiresIn = json.path("expires_in").asLong(0);
+            if (expiresIn > TOKEN_EXPIRY_MARGIN.toSeconds()) {
+                cachedToken = new CachedToken(token,
+                        Instant.now().plusSeconds(expiresIn).minus(TOKEN_EXPIRY_MARGIN));
+            }
             log.debug("[LeanIXClient] Successfully obtained access token");
             return token;
         } catch (HttpStatusCodeException e) {
             log.error("[LeanIXClient] Failed to get access token. Status: {}, Body: {}",
                     e.getStatusCode(), e.getResponseBodyAsString());
             throw new RuntimeException("Failed to get access token: " + e.getStatusCode(), e);
+        } catch (CallNotPermittedException e) {
+            log.warn("[LeanIXClient] Not getting access token: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
+            if (ToolInvocationContext.deadlineExpired()) {
+                throw new DeadlineExceededException("Deadline exceeded while getting access token", e);
+            }
             log.error("[LeanIXClient] Error getting access token", e);
             throw new RuntimeException("Error getting access token", e);
         }
@@ -91,7 +138,21 @@ public class LeanIXClient {
      * @return Query result as JsonNode
      */
     public JsonNode query(String query, Map<String, Object> variables) {
-        String accessToken = getAccessToken();
+        ResponseCache.Key cacheKey = responseCache != null ? responseCache.keyFor(subdomain, query, variables) : null;
+        if (cacheKey != null && !ToolInvocationContext.responseCacheBypassed()) {
+            String cached = responseCache.get(cacheKey);
+            if (cached != null) {
+                try {
+                    log.debug("[LeanIXClient] Serving {} from response cache", cacheKey.operation());
+                    return objectMapper.readTree(cached);
+                } catch (Exception e) {
+                    log.warn("[LeanIXClient] Could not read cached response, querying LeanIX", e);
+                }
+            }
+        }
+
+        ToolInvocationContext.checkDeadline("executing a GraphQL query");
+        String accessToken = accessToken();
         GraphQLRequest requestPayload = new GraphQLRequest(query, variables);
 
         HttpHeaders headers = new HttpHeaders();
@@ -99,27 +160,51 @@ public class LeanIXClient {
         headers.setContentType(MediaType.APPLICATION_JSON);
 
         HttpEntity<GraphQLRequest> request = new HttpEntity<>(requestPayload, headers);
+        String readOperation = hedger.isEnabled() ? ResponseCache.readOperationOf(query) : null;
 
         try {
-            ResponseEntity<String> response = restTemplate.postForEntity(graphqlEndpoint, request, String.class);
+            ResponseEntity<String> response = hedger.execute(readOperation, () -> graphqlGuard.call(
+                    "GraphQL endpoint", () -> restTemplate.postForEntity(graphqlEndpoint, request, String.class)));
             if (!response.getStatusCode().is2xxSuccessful()) {
                 log.error("[LeanIXClient] GraphQL query failed. Status: {}, Body: {}",
                         response.getStatusCode(), response.getBody());
                 throw new RuntimeException("GraphQL query failed: " + response.getStatusCode());
             }
-            JsonNode result = objectMapper.readTree(response.getBody());
+            String body = response.getBody();
+            responseListeners.forEach(listener -> listener.onResponse(body != null ? body.length() : 0));
+            JsonNode result = objectMapper.readTree(body);
             log.debug("[LeanIXClient] GraphQL query executed successfully");
+            if (cacheKey != null && !result.has("errors")) {
+                responseCache.put(cacheKey, body);
+            }
             return result;
         } catch (HttpStatusCodeException e) {
+            if (e.getStatusCode().value() == 401) {
+                cachedToken = null;
+            }
             log.error("[LeanIXClient] GraphQL query failed. Status: {}, Body: {}",
                     e.getStatusCode(), e.getResponseBodyAsString());
             throw new RuntimeException("GraphQL query failed: " + e.getStatusCode(), e);
+        } catch (CallNotPermittedException e) {
+            log.warn("[LeanIXClient] Not executing GraphQL query: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
+            if (ToolInvocationContext.deadlineExpired()) {
+                throw new DeadlineExceededException("Deadline exceeded while executing GraphQL query", e);
+            }
             log.error("[LeanIXClient] Error executing GraphQL query", e);
             throw new RuntimeException("Error executing GraphQL query", e);
         }
     }
 
+    private String accessToken() {
+        CachedToken token = cachedToken;
+        if (token != null && Instant.now().isBefore(token.expiresAt())) {
+            return token.value();
+        }
+        return getAccessToken();
+    }
+
     /**
      * Executes a GraphQL query without variables
      *
@@ -130,6 +215,28 @@ public class LeanIXClient {
         return query(query, null);
     }
 
+    /**
+     * Registers a listener that is told the size of every GraphQL response
+     * received from LeanIX. Listeners run on the thread that issued the query.
+     *
+     * @param listener The listener
+     */
+    public void addResponseListener(ResponseListener listener) {
+        responseListeners.add(listener);
+    }
+
+    public EndpointGuard getTokenGuard() {
+        return tokenGuard;
+    }
+
+    public EndpointGuard getGraphqlGuard() {
+        return graphqlGuard;
+    }
+
+    public RequestHedger getHedger() {
+        return hedger;
+    }
+
     // Getters for testing and configuration
     public String getSubdomain() {
         return subdomain;
@@ -147,6 +254,88 @@ public class LeanIXClient {
         return tokenEndpoint;
     }
 
+    private record CachedToken(String value, Instant expiresAt) {
+    }
+
+    /**
+     * Caching, timeouts and resilience of a client; {@link #DEFAULTS} caches
+     * nothing and neither guards nor hedges requests.
+     *
+     * @param responseCache  Cache for query responses (null to disable caching)
+     * @param connectTimeout Connect timeout of each HTTP call
+     * @param readTimeout    Read timeout of each HTTP call; both are shortened to
+     *                       the deadline of the current tool invocation
+     * @param tokenGuard     Circuit breaker and bulkhead of the token endpoint
+     * @param graphqlGuard   Circuit breaker and bulkhead of the GraphQL endpoint
+     * @param hedger         Hedges slow GraphQL queries
+     */
+    public record Options(ResponseCache responseCache, Duration connectTimeout, Duration readTimeout,
+            EndpointGuard tokenGuard, EndpointGuard graphqlGuard, RequestHedger hedger) {
+
+        public static final Options DEFAULTS = new Options(null, Duration.ofSeconds(10), Duration.ofSeconds(60),
+                EndpointGuard.none(), EndpointGuard.none(), RequestHedger.disabled());
+
+        public Options withResponseCache(ResponseCache responseCache) {
+            return new Options(responseCache, connectTimeout, readTimeout, tokenGuard, graphqlGuard, hedger);
+        }
+
+        public Options withTimeouts(Duration connectTimeout, Duration readTimeout) {
+            return new Options(responseCache, connectTimeout, readTimeout, tokenGuard, graphqlGuard, hedger);
+        }
+
+        public Options withGuards(EndpointGuard tokenGuard, EndpointGuard graphqlGuard) {
+            return new Options(responseCache, connectTimeout, readTimeout, tokenGuard, graphqlGuard, hedger);
+        }
+
+        public Options withHedger(RequestHedger hedger) {
+            return new Options(responseCache, connectTimeout, readTimeout, tokenGuard, graphqlGuard, hedger);
+        }
+    }
+
+    /**
+     * Observes GraphQL responses received from LeanIX (not those served from the
+     * response cache).
+     */
+    @FunctionalInterface
+    public interface ResponseListener {
+
+        /**
+         * @param bytes Size of the response body in characters
+         */
+        void onResponse(long bytes);
+    }
+
+    /**
+     * Applies the connect and read timeouts to every connection, shortened to
+     * the time left until the deadline of the current tool invocation.
+     */
+    private static class DeadlineRequestFactory extends SimpleClientHttpRequestFactory {
+
+        private final Duration connectTimeout;
+        private final Duration readTimeout;
+
+        DeadlineRequestFactory(Duration connectTimeout, Duration readTimeout) {
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+        }
+
+        @Override
+        protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+            super.prepareConnection(connection, httpMethod);
+            Duration remaining = ToolInvocationContext.remaining().orElse(null);
+            if (remaining != null && (remaining.isNegative() || remaining.isZero())) {
+                throw new DeadlineExceededException("Deadline exceeded before connecting to " + connection.getURL());
+            }
+            connection.setConnectTimeout(millis(connectTimeout, remaining));
+            connection.setReadTimeout(millis(readTimeout, remaining));
+        }
+
+        private static int millis(Duration timeout, Duration remaining) {
+            Duration effective = remaining != null && remaining.compareTo(timeout) < 0 ? remaining : timeout;
+            return (int) Math.max(1, Math.min(Integer.MAX_VALUE, effective.toMillis()));
+        }
+    }
+
     /**
      * Inner class to represent GraphQL request payload
      */
@@ -0,0 +1,150 @@
+package com.lgt.leanix_mcp.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Learns the page size ({@code first}) of paginated queries per operation with
+ * AIMD: every page that answers within the latency and size targets grows the
+ * page size by a fixed step, while slow or oversized pages, timeouts and
+ * 413/5xx responses shrink it by a factor. Sizes stay within the configured
+ * bounds.
+ * <p>
+ * Response sizes are reported by {@link LeanIXClient} through
+ * {@link #onResponse(long)} on the thread that issued the query. Pages served
+ * from the response cache report nothing and are not counted.
+ */
+@Slf4j
+public class PageSizeController implements LeanIXClient.ResponseListener {
+
+    private final int minimum;
+    private final int maximum;
+    private final int initial;
+    private final int increaseStep;
+    private final double decreaseFactor;
+    private final Duration targetLatency;
+    private final long maximumResponseBytes;
+    private final Map<String, Integer> pageSizes = new ConcurrentHashMap<>();
+    private final ThreadLocal<long[]> responseBytes = new ThreadLocal<>();
+
+    /**
+     * @param minimum              Smallest page size
+     * @param maximum              Largest page size
+     * @param initial              Page size of operations without observations
+     * @param increaseStep         Added to the page size after a good page
+     * @param decreaseFactor       Multiplies the page size after a bad page
+     * @param targetLatency        Pages slower than this count as bad
+     * @param maximumResponseBytes Pages larger than this count as bad
+     */
+    public PageSizeController(int minimum, int maximum, int initial, int increaseStep, double decreaseFactor,
+            Duration targetLatency, long maximumResponseBytes) {
+        if (minimum < 1 || maximum < minimum) {
+            throw new IllegalArgumentException("Invalid page size bounds: " + minimum + ".." + maximum);
+        }
+        if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("Decrease factor must be between 0 and 1: " + decreaseFactor);
+        }
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.initial = clamp(initial);
+        this.increaseStep = Math.max(1, increaseStep);
+        this.decreaseFactor = decreaseFactor;
+        this.targetLatency = targetLatency;
+        this.maximumResponseBytes = maximumResponseBytes;
+    }
+
+    /**
+     * @param operation Operation key, e.g. the GraphQL operation name
+     * @return The page size to request next
+     */
+    public int pageSize(String operation) {
+        return pageSizes.getOrDefault(operation, initial);
+    }
+
+    /**
+     * Runs a page request and adjusts the page size of the operation from its
+     * latency, response size or failure.
+     *
+     * @param operation Operation key, e.g. the GraphQL operation name
+     * @param pageSize  Page size used by the request
+     * @param page      Issues the request
+     * @return The result of the request
+     */
+    public <T> T observe(String operation, int pageSize, Supplier<T> page) {
+        long[] bytes = {-1};
+        long[] outer = responseBytes.get();
+        responseBytes.set(bytes);
+        long start = System.nanoTime();
+        try {
+            T result = page.get();
+            if (bytes[0] >= 0) {
+                Duration latency = Duration.ofNanos(System.nanoTime() - start);
+                if (latency.compareTo(targetLatency) > 0 || bytes[0] > maximumResponseBytes) {
+                    decrease(operation, pageSize, "took " + latency.toMillis() + "ms for " + bytes[0] + " bytes");
+                } else {
+                    increase(operation);
+                }
+            }
+            return result;
+        } catch (RuntimeException e) {
+            if (isOverload(e)) {
+                decrease(operation, pageSize, e.getMessage());
+            }
+            throw e;
+        } finally {
+            if (outer != null) {
+                responseBytes.set(outer);
+            } else {
+                responseBytes.remove();
+            }
+        }
+    }
+
+    @Override
+    public void onResponse(long bytes) {
+        long[] current = responseBytes.get();
+        if (current != null) {
+            current[0] = Math.max(0, current[0]) + bytes;
+        }
+    }
+
+    private void increase(String operation) {
+        pageSizes.merge(operation, clamp(initial + increaseStep), (size, ignored) -> clamp(size + increaseStep));
+    }
+
+    private void decrease(String operation, int pageSize, String reason) {
+        int decreased = pageSizes.compute(operation, (key, size) -> {
+            int current = size == null ? initial : size;
+            // Only the first of several concurrent failures at the same size backs off
+            return pageSize < current ? current : clamp((int) (current * decreaseFactor));
+        });
+        log.info("[PageSizeController] Page size of {} lowered to {} ({})", operation, decreased, reason);
+    }
+
+    private int clamp(int size) {
+        return Math.max(minimum, Math.min(maximum, size));
+    }
+
+    /**
+     * Timeouts, 413 Payload Too Large and 5xx responses indicate that the page
+     * was too expensive for the upstream.
+     */
+    static boolean isOverload(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException || cause instanceof HttpTimeoutException) {
+                return true;
+            }
+            if (cause instanceof HttpStatusCodeException status) {
+                return status.getStatusCode().value() == 413 || status.getStatusCode().is5xxServerError();
+            }
+        }
+        return false;
+    }
+}
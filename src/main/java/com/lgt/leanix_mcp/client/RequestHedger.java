@@ -0,0 +1,228 @@
+package com.lgt.leanix_mcp.client;
+
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second, identical request when a read has not answered within the
+ * operation's observed latency percentile, and returns whichever answers
+ * first; the other request is cancelled.
+ * <p>
+ * Hedges are paid from a budget: every request earns {@code budgetPercent}
+ * hundredths of a hedge, so hedging adds at most that share of extra load over
+ * time. Operations are only hedged once {@code minimumSamples} latencies were
+ * observed, and never sooner than {@code minimumDelay}.
+ */
+@Slf4j
+public class RequestHedger implements AutoCloseable {
+
+    private static final int WINDOW_SIZE = 200;
+    // Unused budget saved up for bursts of slow responses
+    private static final double MAXIMUM_CREDITS = 2;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final Duration minimumDelay;
+    private final double budget;
+    private final int minimumSamples;
+    private final Set<String> operations;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final AtomicLong hedges = new AtomicLong();
+    private double credits;
+
+    /**
+     * @param percentile     Latency percentile (0..100) after which a hedge is
+     *                       sent
+     * @param minimumDelay   Shortest wait before hedging
+     * @param budgetPercent  Hedges allowed per 100 requests
+     * @param minimumSamples Latencies observed before an operation is hedged
+     * @param operations     Names of the operations to hedge (empty for all
+     *                       queries)
+     */
+    public RequestHedger(double percentile, Duration minimumDelay, double budgetPercent, int minimumSamples,
+            Set<String> operations) {
+        this(true, percentile, minimumDelay, budgetPercent, minimumSamples, operations);
+    }
+
+    private RequestHedger(boolean enabled, double percentile, Duration minimumDelay, double budgetPercent,
+            int minimumSamples, Set<String> operations) {
+        if (percentile <= 0 || percentile >= 100) {
+            throw new IllegalArgumentException("Hedging percentile must be between 0 and 100: " + percentile);
+        }
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minimumDelay = minimumDelay;
+        this.budget = Math.max(0, budgetPercent) / 100;
+        this.minimumSamples = Math.max(1, minimumSamples);
+        this.operations = operations;
+        this.executor = enabled ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    /**
+     * @return Hedger that runs every request once
+     */
+    public static RequestHedger disabled() {
+        return new RequestHedger(false, 95, Duration.ZERO, 0, 1, Set.of());
+    }
+
+    /**
+     * Runs a read request, hedging it if it is slow.
+     *
+     * @param operation Name of the GraphQL operation, or null if the request is
+     *                  not a read and must not be repeated
+     * @param request   Issues the request; must be safe to run twice at once
+     * @return The first result
+     */
+    public <T> T execute(String operation, Supplier<T> request) {
+        if (!enabled || operation == null || !operations.isEmpty() && !operations.contains(operation)) {
+            return request.get();
+        }
+        LatencyWindow window = latencies.computeIfAbsent(operation, key -> new LatencyWindow());
+        earn();
+        Duration threshold = window.percentile(percentile, minimumSamples);
+        if (threshold == null) {
+            return attempt(window, request).call();
+        }
+        if (threshold.compareTo(minimumDelay) < 0) {
+            threshold = minimumDelay;
+        }
+
+        CompletionService<T> race = new ExecutorCompletionService<>(executor);
+        List<Future<T>> attempts = new ArrayList<>(2);
+        attempts.add(race.submit(ToolInvocationContext.propagate(attempt(window, request))));
+        try {
+            Future<T> done = race.poll(threshold.toNanos(), TimeUnit.NANOSECONDS);
+            if (done == null && spend()) {
+                log.debug("[RequestHedger] {} slower than {} ms, hedging", operation, threshold.toMillis());
+                hedges.incrementAndGet();
+                attempts.add(race.submit(ToolInvocationContext.propagate(attempt(window, request))));
+            }
+            RuntimeException failure = null;
+            for (int pending = attempts.size(); pending > 0; pending--) {
+                if (done == null) {
+                    done = race.take();
+                }
+                try {
+                    return done.get();
+                } catch (ExecutionException e) {
+                    // Wait for the other attempt before giving up
+                    if (failure == null) {
+                        failure = unwrap(e);
+                    }
+                }
+                done = null;
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for " + operation, e);
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return Number of hedged requests sent so far
+     */
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private synchronized void earn() {
+        credits = Math.min(MAXIMUM_CREDITS, credits + budget);
+    }
+
+    private synchronized boolean spend() {
+        if (credits < 1) {
+            return false;
+        }
+        credits--;
+        return true;
+    }
+
+    private static <T> HedgedAttempt<T> attempt(LatencyWindow window, Supplier<T> request) {
+        return () -> {
+            long start = System.nanoTime();
+            T result = request.get();
+            window.record(System.nanoTime() - start);
+            return result;
+        };
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        if (e.getCause() instanceof Error error) {
+            throw error;
+        }
+        return new RuntimeException(e.getCause());
+    }
+
+    /**
+     * A request attempt; unlike {@link Callable} it throws no checked
+     * exceptions.
+     */
+    @FunctionalInterface
+    private interface HedgedAttempt<T> extends Callable<T> {
+
+        @Override
+        T call();
+    }
+
+    /**
+     * The latencies of the most recent successful requests of one operation.
+     */
+    private static final class LatencyWindow {
+
+        private final long[] nanos = new long[WINDOW_SIZE];
+        private int next;
+        private int size;
+
+        synchronized void record(long latencyNanos) {
+            nanos[next] = latencyNanos;
+            next = (next + 1) % nanos.length;
+            size = Math.min(nanos.length, size + 1);
+        }
+
+        synchronized Duration percentile(double percentile, int minimumSamples) {
+            if (size < minimumSamples) {
+                return null;
+            }
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * size) - 1;
+            return Duration.ofNanos(sorted[Math.max(0, Math.min(size - 1, index))]);
+        }
+    }
+}
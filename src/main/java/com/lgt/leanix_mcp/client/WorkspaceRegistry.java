@@ -0,0 +1,83 @@
+package com.lgt.leanix_mcp.client;
+
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds one {@link LeanIXClient} per LeanIX workspace, so a single process can
+ * serve several workspaces. Each client has its own access token, HTTP
+ * connections, circuit breakers and bulkheads; caches are partitioned by
+ * workspace as well.
+ * <p>
+ * Tool invocations name their workspace in the {@link ToolInvocationContext};
+ * invocations that do not name one use the default workspace.
+ */
+public class WorkspaceRegistry {
+
+    private final String defaultWorkspace;
+    private final Map<String, LeanIXClient> clients;
+
+    /**
+     * @param defaultWorkspace Name of the workspace used when none is given
+     * @param clients          Clients by workspace name, including the default
+     */
+    public WorkspaceRegistry(String defaultWorkspace, Map<String, LeanIXClient> clients) {
+        if (!clients.containsKey(defaultWorkspace)) {
+            throw new IllegalArgumentException("No client for default workspace " + defaultWorkspace);
+        }
+        this.defaultWorkspace = defaultWorkspace;
+        this.clients = Collections.unmodifiableMap(new LinkedHashMap<>(clients));
+    }
+
+    /**
+     * @param client The only client
+     * @return Registry with a single workspace named after the client's
+     *         subdomain
+     */
+    public static WorkspaceRegistry of(LeanIXClient client) {
+        return new WorkspaceRegistry(client.getSubdomain(), Map.of(client.getSubdomain(), client));
+    }
+
+    /**
+     * @return Client of the workspace of the current tool invocation
+     */
+    public LeanIXClient client() {
+        return client(current());
+    }
+
+    /**
+     * @param workspace Workspace name (null for the default workspace)
+     * @return Client of the workspace
+     * @throws IllegalArgumentException If the workspace is unknown
+     */
+    public LeanIXClient client(String workspace) {
+        LeanIXClient client = clients.get(workspace == null ? defaultWorkspace : workspace);
+        if (client == null) {
+            throw new IllegalArgumentException("Unknown workspace '" + workspace + "', expected one of "
+                    + clients.keySet());
+        }
+        return client;
+    }
+
+    /**
+     * @return Name of the workspace of the current tool invocation
+     */
+    public String current() {
+        return ToolInvocationContext.currentWorkspace().orElse(defaultWorkspace);
+    }
+
+    public String getDefaultWorkspace() {
+        return defaultWorkspace;
+    }
+
+    /**
+     * @return Names of all workspaces, default first
+     */
+    public Set<String> names() {
+        return clients.keySet();
+    }
+}
@@ -1,9 +1,31 @@
 package com.lgt.leanix_mcp.config;
 
+import com.lgt.leanix_mcp.cache.CachePolicy;
+import com.lgt.leanix_mcp.cache.InMemorySharedCache;
+import com.lgt.leanix_mcp.cache.RedisSharedCache;
+import com.lgt.leanix_mcp.cache.ResponseCache;
+import com.lgt.leanix_mcp.cache.SharedCache;
+import com.lgt.leanix_mcp.client.CircuitBreaker;
+import com.lgt.leanix_mcp.client.EndpointGuard;
 import com.lgt.leanix_mcp.client.LeanIXClient;
+import com.lgt.leanix_mcp.client.PageSizeController;
+import com.lgt.leanix_mcp.client.RequestHedger;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Configuration
 @ConfigurationProperties(prefix = "leanix")
@@ -12,10 +34,107 @@ public class LeanIXClientConfig {
     private String subdomain;
     private String apiToken;
     private int paginationDefaultSize = 50;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration readTimeout = Duration.ofSeconds(60);
+    private Duration toolTimeout = Duration.ofSeconds(55);
+    // Tools whose results carry a version token and accept ifNoneMatch
+    private List<String> conditionalTools = new ArrayList<>(List.of("getWorkspaceInfo", "getTypes",
+            "getApplications", "getITComponents", "getBusinessCapabilities", "getProviders", "getOrganizations",
+            "getBusinessContexts", "getInterfaces", "getDataObjects", "getFactSheetsByType", "listSnapshots"));
+    private Map<String, CachePolicy> toolCache = new HashMap<>();
+    private CompactOutputProperties compactOutput = new CompactOutputProperties();
+    private ResponseCacheProperties responseCache = new ResponseCacheProperties();
+    private FactSheetCacheProperties factSheetCache = new FactSheetCacheProperties();
+    private BatchProperties batch = new BatchProperties();
+    private CrawlProperties crawl = new CrawlProperties();
+    private PageSizeProperties pageSize = new PageSizeProperties();
+    private PrefetchProperties prefetch = new PrefetchProperties();
+    private AdmissionProperties admission = new AdmissionProperties();
+    private ResilienceProperties resilience = new ResilienceProperties();
+    private HedgingProperties hedging = new HedgingProperties();
+    private Map<String, WorkspaceProperties> workspaces = new LinkedHashMap<>();
+    private SharedCacheProperties sharedCache = new SharedCacheProperties();
+    private WebhookProperties webhook = new WebhookProperties();
+    private ExportProperties export = new ExportProperties();
+    private SnapshotProperties snapshot = new SnapshotProperties();
+    private ReconciliationProperties reconciliation = new ReconciliationProperties();
+    private LifecycleIndexProperties lifecycleIndex = new LifecycleIndexProperties();
+    private RollupProperties rollup = new RollupProperties();
+    private SubscriptionIndexProperties subscriptionIndex = new SubscriptionIndexProperties();
+
+    @Bean
+    public LeanIXClient leanIXClient(ObjectProvider<ResponseCache> responseCacheProvider,
+            PageSizeController pageSizeController, RequestHedger requestHedger) {
+        return newClient(subdomain, apiToken, responseCacheProvider.getIfAvailable(), pageSizeController,
+                requestHedger);
+    }
+
+    /**
+     * The default workspace, named after its subdomain, followed by the
+     * workspaces configured under {@code leanix.workspaces}. Every workspace
+     * gets its own client, and so its own token, connections and guards.
+     */
+    @Bean
+    public WorkspaceRegistry workspaceRegistry(LeanIXClient leanIXClient,
+            ObjectProvider<ResponseCache> responseCacheProvider, PageSizeController pageSizeController,
+            RequestHedger requestHedger) {
+        Map<String, LeanIXClient> clients = new LinkedHashMap<>();
+        clients.put(subdomain, leanIXClient);
+        workspaces.forEach((name, workspace) -> {
+            if (clients.containsKey(name)) {
+                throw new IllegalArgumentException("Workspace " + name + " is configured twice");
+            }
+            clients.put(name, newClient(workspace.getSubdomain(), workspace.getApiToken(),
+                    responseCacheProvider.getIfAvailable(), pageSizeController, requestHedger));
+        });
+        return new WorkspaceRegistry(subdomain, clients);
+    }
+
+    private LeanIXClient newClient(String subdomain, String apiToken, ResponseCache responseCache,
+            PageSizeController pageSizeController, RequestHedger requestHedger) {
+        LeanIXClient client = new LeanIXClient(subdomain, apiToken, LeanIXClient.Options.DEFAULTS
+                .withResponseCache(responseCache)
+                .withTimeouts(connectTimeout, readTimeout)
+                .withGuards(resilience.getToken().toGuard("token@" + subdomain),
+                        resilience.getGraphql().toGuard("graphql@" + subdomain))
+                .withHedger(requestHedger));
+        client.addResponseListener(pageSizeController);
+        return client;
+    }
+
+    @Bean
+    public RequestHedger requestHedger() {
+        if (!hedging.isEnabled()) {
+            return RequestHedger.disabled();
+        }
+        return new RequestHedger(hedging.getPercentile(), hedging.getMinimumDelay(), hedging.getBudgetPercent(),
+                hedging.getMinimumSamples(), Set.copyOf(hedging.getOperations()));
+    }
+
+    @Bean
+    public PageSizeController pageSizeController() {
+        return new PageSizeController(pageSize.getMinimum(), pageSize.getMaximum(), paginationDefaultSize,
+                pageSize.getIncreaseStep(), pageSize.getDecreaseFactor(), pageSize.getTargetLatency(),
+                pageSize.getMaximumResponseSize().toBytes());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "leanix.response-cache", name = "enabled", matchIfMissing = true)
+    public ResponseCache responseCache(ObjectProvider<SharedCache> sharedCacheProvider) {
+        return new ResponseCache(responseCache.getMaximumSize().toBytes(), responseCache.getDefaultTtl(),
+                responseCache.getTtl(), sharedCacheProvider.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "leanix.shared-cache", name = "type", havingValue = "memory")
+    public SharedCache inMemorySharedCache() {
+        return new InMemorySharedCache();
+    }
 
     @Bean
-    public LeanIXClient leanIXClient() {
-        return new LeanIXClient(subdomain, apiToken);
+    @ConditionalOnProperty(prefix = "leanix.shared-cache", name = "type", havingValue = "redis")
+    public SharedCache redisSharedCache(RedisConnectionFactory redisConnectionFactory) {
+        return new RedisSharedCache(redisConnectionFactory, sharedCache.getKeyPrefix());
     }
 
     // Getters and setters for configuration properties
@@ -42,4 +161,1054 @@ public class LeanIXClientConfig {
     public void setPaginationDefaultSize(int paginationDefaultSize) {
         this.paginationDefaultSize = paginationDefaultSize;
     }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public Duration getToolTimeout() {
+        return toolTimeout;
+    }
+
+    public void setToolTimeout(Duration toolTimeout) {
+        this.toolTimeout = toolTimeout;
+    }
+
+    public CompactOutputProperties getCompactOutput() {
+        return compactOutput;
+    }
+
+    public void setCompactOutput(CompactOutputProperties compactOutput) {
+        this.compactOutput = compactOutput;
+    }
+
+    public List<String> getConditionalTools() {
+        return conditionalTools;
+    }
+
+    public void setConditionalTools(List<String> conditionalTools) {
+        this.conditionalTools = conditionalTools;
+    }
+
+    public Map<String, CachePolicy> getToolCache() {
+        return toolCache;
+    }
+
+    public void setToolCache(Map<String, CachePolicy> toolCache) {
+        this.toolCache = toolCache;
+    }
+
+    public ResponseCacheProperties getResponseCache() {
+        return responseCache;
+    }
+
+    public void setResponseCache(ResponseCacheProperties responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public FactSheetCacheProperties getFactSheetCache() {
+        return factSheetCache;
+    }
+
+    public void setFactSheetCache(FactSheetCacheProperties factSheetCache) {
+        this.factSheetCache = factSheetCache;
+    }
+
+    public BatchProperties getBatch() {
+        return batch;
+    }
+
+    public void setBatch(BatchProperties batch) {
+        this.batch = batch;
+    }
+
+    public CrawlProperties getCrawl() {
+        return crawl;
+    }
+
+    public void setCrawl(CrawlProperties crawl) {
+        this.crawl = crawl;
+    }
+
+    public PageSizeProperties getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(PageSizeProperties pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public PrefetchProperties getPrefetch() {
+        return prefetch;
+    }
+
+    public void setPrefetch(PrefetchProperties prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    public AdmissionProperties getAdmission() {
+        return admission;
+    }
+
+    public void setAdmission(AdmissionProperties admission) {
+        this.admission = admission;
+    }
+
+    public SharedCacheProperties getSharedCache() {
+        return sharedCache;
+    }
+
+    public void setSharedCache(SharedCacheProperties sharedCache) {
+        this.sharedCache = sharedCache;
+    }
+
+    public SnapshotProperties getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(SnapshotProperties snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public ReconciliationProperties getReconciliation() {
+        return reconciliation;
+    }
+
+    public void setReconciliation(ReconciliationProperties reconciliation) {
+        this.reconciliation = reconciliation;
+    }
+
+    public LifecycleIndexProperties getLifecycleIndex() {
+        return lifecycleIndex;
+    }
+
+    public void setLifecycleIndex(LifecycleIndexProperties lifecycleIndex) {
+        this.lifecycleIndex = lifecycleIndex;
+    }
+
+    public RollupProperties getRollup() {
+        return rollup;
+    }
+
+    public void setRollup(RollupProperties rollup) {
+        this.rollup = rollup;
+    }
+
+    public SubscriptionIndexProperties getSubscriptionIndex() {
+        return subscriptionIndex;
+    }
+
+    public void setSubscriptionIndex(SubscriptionIndexProperties subscriptionIndex) {
+        this.subscriptionIndex = subscriptionIndex;
+    }
+
+    public ExportProperties getExport() {
+        return export;
+    }
+
+    public void setExport(ExportProperties export) {
+        this.export = export;
+    }
+
+    public WebhookProperties getWebhook() {
+        return webhook;
+    }
+
+    public void setWebhook(WebhookProperties webhook) {
+        this.webhook = webhook;
+    }
+
+    public Map<String, WorkspaceProperties> getWorkspaces() {
+        return workspaces;
+    }
+
+    public void setWorkspaces(Map<String, WorkspaceProperties> workspaces) {
+        this.workspaces = workspaces;
+    }
+
+    public HedgingProperties getHedging() {
+        return hedging;
+    }
+
+    public void setHedging(HedgingProperties hedging) {
+        this.hedging = hedging;
+    }
+
+    public ResilienceProperties getResilience() {
+        return resilience;
+    }
+
+    public void setResilience(ResilienceProperties resilience) {
+        this.resilience = resilience;
+    }
+
+    /**
+     * Settings of the compact tool output.
+     */
+    public static class CompactOutputProperties {
+
+        // Offer the compact argument on every tool
+        private boolean enabled = true;
+        // Render results compactly when the caller does not choose
+        private boolean byDefault = false;
+        // Nested values at least this large are written once when repeated
+        private int shareMinBytes = 32;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isByDefault() {
+            return byDefault;
+        }
+
+        public void setByDefault(boolean byDefault) {
+            this.byDefault = byDefault;
+        }
+
+        public int getShareMinBytes() {
+            return shareMinBytes;
+        }
+
+        public void setShareMinBytes(int shareMinBytes) {
+            this.shareMinBytes = shareMinBytes;
+        }
+    }
+
+    /**
+     * Settings of the compressed GraphQL response cache.
+     */
+    public static class ResponseCacheProperties {
+
+        private boolean enabled = true;
+        private DataSize maximumSize = DataSize.ofMegabytes(64);
+        private Duration defaultTtl = Duration.ofMinutes(5);
+        private Map<String, Duration> ttl = new HashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(DataSize maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getDefaultTtl() {
+            return defaultTtl;
+        }
+
+        public void setDefaultTtl(Duration defaultTtl) {
+            this.defaultTtl = defaultTtl;
+        }
+
+        public Map<String, Duration> getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Map<String, Duration> ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * Settings of the per-id fact sheet cache.
+     */
+    public static class FactSheetCacheProperties {
+
+        private int maximumEntries = 50_000;
+        private Duration ttl = Duration.ofMinutes(10);
+
+        public int getMaximumEntries() {
+            return maximumEntries;
+        }
+
+        public void setMaximumEntries(int maximumEntries) {
+            this.maximumEntries = maximumEntries;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * Settings for batched lookups of fact sheets by id.
+     */
+    public static class BatchProperties {
+
+        private int chunkSize = 100;
+        private int parallelism = 4;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+    }
+
+    /**
+     * Settings for partitioned crawls of all fact sheets of a type.
+     */
+    public static class CrawlProperties {
+
+        private int parallelism = 4;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+    }
+
+    /**
+     * Bounds and tuning of the adaptive page size of paginated queries. Pages
+     * start at {@code pagination-default-size}.
+     */
+    public static class PageSizeProperties {
+
+        private int minimum = 10;
+        private int maximum = 500;
+        private int increaseStep = 10;
+        private double decreaseFactor = 0.5;
+        private Duration targetLatency = Duration.ofSeconds(2);
+        private DataSize maximumResponseSize = DataSize.ofMegabytes(4);
+
+        public int getMinimum() {
+            return minimum;
+        }
+
+        public void setMinimum(int minimum) {
+            this.minimum = minimum;
+        }
+
+        public int getMaximum() {
+            return maximum;
+        }
+
+        public void setMaximum(int maximum) {
+            this.maximum = maximum;
+        }
+
+        public int getIncreaseStep() {
+            return increaseStep;
+        }
+
+        public void setIncreaseStep(int increaseStep) {
+            this.increaseStep = increaseStep;
+        }
+
+        public double getDecreaseFactor() {
+            return decreaseFactor;
+        }
+
+        public void setDecreaseFactor(double decreaseFactor) {
+            this.decreaseFactor = decreaseFactor;
+        }
+
+        public Duration getTargetLatency() {
+            return targetLatency;
+        }
+
+        public void setTargetLatency(Duration targetLatency) {
+            this.targetLatency = targetLatency;
+        }
+
+        public DataSize getMaximumResponseSize() {
+            return maximumResponseSize;
+        }
+
+        public void setMaximumResponseSize(DataSize maximumResponseSize) {
+            this.maximumResponseSize = maximumResponseSize;
+        }
+    }
+
+    /**
+     * Settings of the next-page prefetch of paginated tools.
+     */
+    public static class PrefetchProperties {
+
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofSeconds(30);
+        private int maximumPending = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public int getMaximumPending() {
+            return maximumPending;
+        }
+
+        public void setMaximumPending(int maximumPending) {
+            this.maximumPending = maximumPending;
+        }
+    }
+
+    /**
+     * Admission control of tool invocations. Tools listed in
+     * {@code bulk-tools} run in the bulk lane, all others in the interactive
+     * lane.
+     */
+    public static class AdmissionProperties {
+
+        private boolean enabled = true;
+        private List<String> bulkTools = new ArrayList<>(List.of("getFactSheetsByType", "crawlFactSheetsByType",
+                "exportFactSheets", "getFactSheetHierarchy", "getApplications", "getITComponents",
+                "getBusinessCapabilities", "getProviders", "getOrganizations", "getBusinessContexts", "getInterfaces",
+                "getDataObjects"));
+        private LaneProperties interactive = new LaneProperties(20, 4, 64, 50, Duration.ofSeconds(5));
+        private LaneProperties bulk = new LaneProperties(4, 1, 8, 10, Duration.ofSeconds(30));
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getBulkTools() {
+            return bulkTools;
+        }
+
+        public void setBulkTools(List<String> bulkTools) {
+            this.bulkTools = bulkTools;
+        }
+
+        public LaneProperties getInteractive() {
+            return interactive;
+        }
+
+        public void setInteractive(LaneProperties interactive) {
+            this.interactive = interactive;
+        }
+
+        public LaneProperties getBulk() {
+            return bulk;
+        }
+
+        public void setBulk(LaneProperties bulk) {
+            this.bulk = bulk;
+        }
+    }
+
+    /**
+     * Concurrency limit bounds and queue of one admission lane.
+     */
+    public static class LaneProperties {
+
+        private int initialLimit;
+        private int minimumLimit;
+        private int maximumLimit;
+        private int queueSize;
+        private Duration queueTimeout;
+
+        public LaneProperties() {
+        }
+
+        public LaneProperties(int initialLimit, int minimumLimit, int maximumLimit, int queueSize,
+                Duration queueTimeout) {
+            this.initialLimit = initialLimit;
+            this.minimumLimit = minimumLimit;
+            this.maximumLimit = maximumLimit;
+            this.queueSize = queueSize;
+            this.queueTimeout = queueTimeout;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinimumLimit() {
+            return minimumLimit;
+        }
+
+        public void setMinimumLimit(int minimumLimit) {
+            this.minimumLimit = minimumLimit;
+        }
+
+        public int getMaximumLimit() {
+            return maximumLimit;
+        }
+
+        public void setMaximumLimit(int maximumLimit) {
+            this.maximumLimit = maximumLimit;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+
+        public Duration getQueueTimeout() {
+            return queueTimeout;
+        }
+
+        public void setQueueTimeout(Duration queueTimeout) {
+            this.queueTimeout = queueTimeout;
+        }
+    }
+
+    /**
+     * Circuit breakers and bulkheads of the LeanIX endpoints.
+     */
+    public static class ResilienceProperties {
+
+        private GuardProperties token = new GuardProperties(4, Duration.ofSeconds(5));
+        private GuardProperties graphql = new GuardProperties(16, Duration.ofSeconds(20));
+
+        public GuardProperties getToken() {
+            return token;
+        }
+
+        public void setToken(GuardProperties token) {
+            this.token = token;
+        }
+
+        public GuardProperties getGraphql() {
+            return graphql;
+        }
+
+        public void setGraphql(GuardProperties graphql) {
+            this.graphql = graphql;
+        }
+    }
+
+    /**
+     * Circuit breaker thresholds and bulkhead size of one endpoint. Rates are
+     * percentages.
+     */
+    public static class GuardProperties {
+
+        private boolean enabled = true;
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        private int failureRateThreshold = 50;
+        private int slowCallRateThreshold = 80;
+        private Duration slowCallDuration;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+        private int maximumConcurrency;
+        private Duration maximumWait = Duration.ofSeconds(1);
+
+        public GuardProperties() {
+        }
+
+        public GuardProperties(int maximumConcurrency, Duration slowCallDuration) {
+            this.maximumConcurrency = maximumConcurrency;
+            this.slowCallDuration = slowCallDuration;
+        }
+
+        public EndpointGuard toGuard(String name) {
+            if (!enabled) {
+                return EndpointGuard.none();
+            }
+            return new EndpointGuard(new CircuitBreaker(name, windowSize, minimumCalls, failureRateThreshold / 100.0,
+                    slowCallRateThreshold / 100.0, slowCallDuration, openDuration, halfOpenCalls),
+                    maximumConcurrency, maximumWait);
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public int getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public int getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public Duration getSlowCallDuration() {
+            return slowCallDuration;
+        }
+
+        public void setSlowCallDuration(Duration slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+
+        public int getMaximumConcurrency() {
+            return maximumConcurrency;
+        }
+
+        public void setMaximumConcurrency(int maximumConcurrency) {
+            this.maximumConcurrency = maximumConcurrency;
+        }
+
+        public Duration getMaximumWait() {
+            return maximumWait;
+        }
+
+        public void setMaximumWait(Duration maximumWait) {
+            this.maximumWait = maximumWait;
+        }
+    }
+
+    /**
+     * Settings of hedged GraphQL queries. Off by default.
+     */
+    public static class HedgingProperties {
+
+        private boolean enabled = false;
+        private double percentile = 95;
+        private Duration minimumDelay = Duration.ofMillis(100);
+        private double budgetPercent = 5;
+        private int minimumSamples = 20;
+        private List<String> operations = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinimumDelay() {
+            return minimumDelay;
+        }
+
+        public void setMinimumDelay(Duration minimumDelay) {
+            this.minimumDelay = minimumDelay;
+        }
+
+        public double getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(double budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+
+        public int getMinimumSamples() {
+            return minimumSamples;
+        }
+
+        public void setMinimumSamples(int minimumSamples) {
+            this.minimumSamples = minimumSamples;
+        }
+
+        public List<String> getOperations() {
+            return operations;
+        }
+
+        public void setOperations(List<String> operations) {
+            this.operations = operations;
+        }
+    }
+
+    /**
+     * Credentials of an additional LeanIX workspace.
+     */
+    public static class WorkspaceProperties {
+
+        private String subdomain;
+        private String apiToken;
+
+        public String getSubdomain() {
+            return subdomain;
+        }
+
+        public void setSubdomain(String subdomain) {
+            this.subdomain = subdomain;
+        }
+
+        public String getApiToken() {
+            return apiToken;
+        }
+
+        public void setApiToken(String apiToken) {
+            this.apiToken = apiToken;
+        }
+    }
+
+    /**
+     * Settings of the second-level cache shared by replicas.
+     */
+    public static class SharedCacheProperties {
+
+        private String type = "none";
+        private String keyPrefix = "leanix-mcp:";
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+    }
+
+    /**
+     * Webhook endpoint that invalidates caches when fact sheets change.
+     */
+    public static class WebhookProperties {
+
+        private boolean enabled = false;
+        private String path = "/webhooks/leanix";
+        private String secret;
+        private String signatureHeader = "X-LeanIX-Signature";
+        // Events arriving within this window are applied together
+        private Duration batchWindow = Duration.ofMillis(50);
+        // Event ids and fact sheet sequences remembered per workspace
+        private int historySize = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+
+        public String getSignatureHeader() {
+            return signatureHeader;
+        }
+
+        public void setSignatureHeader(String signatureHeader) {
+            this.signatureHeader = signatureHeader;
+        }
+
+        public Duration getBatchWindow() {
+            return batchWindow;
+        }
+
+        public void setBatchWindow(Duration batchWindow) {
+            this.batchWindow = batchWindow;
+        }
+
+        public int getHistorySize() {
+            return historySize;
+        }
+
+        public void setHistorySize(int historySize) {
+            this.historySize = historySize;
+        }
+    }
+
+    /**
+     * Streaming exports of whole fact sheet types.
+     */
+    public static class ExportProperties {
+
+        // Serves GET /exports/{factSheetType}; off by default as it exposes whole fact sheet types
+        private boolean endpointEnabled = false;
+        // Pages fetched ahead of the writer; bounds the memory of an export
+        private int bufferedPages = 2;
+        // Where the exportFactSheets tool writes its files
+        private String directory = System.getProperty("java.io.tmpdir") + "/leanix-exports";
+        // Export files kept in the directory; older ones are deleted when a new export starts
+        private int retention = 20;
+
+        public boolean isEndpointEnabled() {
+            return endpointEnabled;
+        }
+
+        public void setEndpointEnabled(boolean endpointEnabled) {
+            this.endpointEnabled = endpointEnabled;
+        }
+
+        public int getBufferedPages() {
+            return bufferedPages;
+        }
+
+        public void setBufferedPages(int bufferedPages) {
+            this.bufferedPages = bufferedPages;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getRetention() {
+            return retention;
+        }
+
+        public void setRetention(int retention) {
+            this.retention = retention;
+        }
+    }
+
+    /**
+     * Versioned fact sheet snapshots compared by the diffSnapshots tool.
+     */
+    public static class SnapshotProperties {
+
+        // Persistent directory shared by all replicas; snapshot tools are disabled while unset
+        private String directory;
+        // Snapshots kept per workspace and fact sheet type
+        private int retention = 10;
+        // Partitions compared in parallel (0 for one per processor)
+        private int diffPartitions = 0;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getRetention() {
+            return retention;
+        }
+
+        public void setRetention(int retention) {
+            this.retention = retention;
+        }
+
+        public int getDiffPartitions() {
+            return diffPartitions;
+        }
+
+        public void setDiffPartitions(int diffPartitions) {
+            this.diffPartitions = diffPartitions;
+        }
+    }
+
+    public static class ReconciliationProperties {
+
+        private boolean enabled = false;
+        // Time between runs, also read by @Scheduled (ISO-8601, e.g. PT15M)
+        private Duration interval = Duration.ofMinutes(15);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+
+    /**
+     * Lifecycle phases indexed for the getFactSheetsByLifecycle tool.
+     */
+    public static class LifecycleIndexProperties {
+
+        // Fact sheet types whose lifecycles are indexed
+        private List<String> types = new ArrayList<>(List.of("Application", "ITComponent"));
+        // Age after which the index is rebuilt in the background
+        private Duration maxAge = Duration.ofHours(1);
+
+        public List<String> getTypes() {
+            return types;
+        }
+
+        public void setTypes(List<String> types) {
+            this.types = types;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+    }
+
+    /**
+     * Hierarchy roll-ups served by the getHierarchyRollup tool.
+     */
+    public static class RollupProperties {
+
+        // Obsolescence risks from least to most severe; the worst one of a subtree is rolled up
+        private List<String> riskOrder = new ArrayList<>(List.of("noRisk", "riskAddressed", "riskAccepted",
+                "unaddressedPhaseOut", "unaddressedEndOfLife"));
+        // Age after which a hierarchy is crawled again in the background
+        private Duration maxAge = Duration.ofHours(1);
+
+        public List<String> getRiskOrder() {
+            return riskOrder;
+        }
+
+        public void setRiskOrder(List<String> riskOrder) {
+            this.riskOrder = riskOrder;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+    }
+
+    /**
+     * Subscriptions indexed for the subscriber and orphan tools.
+     */
+    public static class SubscriptionIndexProperties {
+
+        // Fact sheet types whose subscriptions are indexed
+        private List<String> types = new ArrayList<>(List.of("Application", "ITComponent", "BusinessCapability",
+                "Interface", "DataObject"));
+        // Age after which the index is crawled again in the background
+        private Duration maxAge = Duration.ofHours(1);
+
+        public List<String> getTypes() {
+            return types;
+        }
+
+        public void setTypes(List<String> types) {
+            this.types = types;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package com.lgt.leanix_mcp.config;
+
+import com.lgt.leanix_mcp.export.FactSheetExporter;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.model.FactSheetTreeNode;
+import com.lgt.leanix_mcp.service.LeanIXService;
+import com.lgt.leanix_mcp.snapshot.FactSheetSnapshot;
+import com.lgt.leanix_mcp.snapshot.SnapshotDiff;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+/**
+ * Reflection the application needs at runtime that Spring AOT cannot infer:
+ * the {@code @Tool} methods, which are found and invoked reflectively, and the
+ * types Jackson maps from LeanIX responses, snapshots and tool arguments and
+ * results. Used by the AOT-processed JVM build and by native images.
+ */
+public class LeanixRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Nested types are registered along with their enclosing types
+        bindingHints.registerReflectionHints(hints.reflection(), FactSheet.class, FactSheetTreeNode.class,
+                FactSheetSnapshot.class, SnapshotDiff.class, FactSheetExporter.ExportResult.class);
+        // FactSheetProjection checks requested fields against the declared fields
+        hints.reflection().registerType(FactSheet.class, MemberCategory.DECLARED_FIELDS);
+
+        for (Method method : ReflectionUtils.getDeclaredMethods(LeanIXService.class)) {
+            if (method.isAnnotationPresent(Tool.class)) {
+                hints.reflection().registerMethod(method, ExecutableMode.INVOKE);
+                bindingHints.registerReflectionHints(hints.reflection(), method.getGenericReturnType());
+                for (Type parameter : method.getGenericParameterTypes()) {
+                    bindingHints.registerReflectionHints(hints.reflection(), parameter);
+                }
+            }
+        }
+    }
+}
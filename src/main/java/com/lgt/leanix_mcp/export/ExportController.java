@@ -0,0 +1,76 @@
+package com.lgt.leanix_mcp.export;
+
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Streams a whole fact sheet type over HTTP, e.g.
+ * {@code GET /exports/Application?format=csv&fields=name,lifecycle&gzip=true}.
+ * The response is written while pages are fetched, so it starts immediately
+ * and needs no more memory for 100k fact sheets than for 100. With
+ * {@code checkpoints=true}, NDJSON exports carry a {@code {"_cursor": ...}}
+ * line after every page; an interrupted download resumes by passing the last
+ * one as {@code after}.
+ * <p>
+ * The endpoint serves the whole inventory without further authorization, so
+ * it is opt-in through {@code leanix.export.endpoint-enabled=true}.
+ */
+@Slf4j
+@RestController
+@ConditionalOnProperty(prefix = "leanix.export", name = "endpoint-enabled")
+public class ExportController {
+
+    private final FactSheetExporter exporter;
+    private final WorkspaceRegistry workspaces;
+
+    public ExportController(FactSheetExporter exporter, WorkspaceRegistry workspaces) {
+        this.exporter = exporter;
+        this.workspaces = workspaces;
+    }
+
+    @GetMapping("/exports/{factSheetType}")
+    public void export(@PathVariable String factSheetType,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(defaultValue = "false") boolean checkpoints,
+            @RequestParam(required = false) String workspace,
+            HttpServletResponse response) throws IOException {
+        FactSheetExporter.Format exportFormat;
+        FactSheetProjection projection;
+        try {
+            exportFormat = FactSheetExporter.Format.of(format);
+            projection = FactSheetProjection.isRequested(fields)
+                    ? FactSheetProjection.of(fields)
+                    : FactSheetProjection.defaults();
+            workspaces.client(workspace);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\""
+                + factSheetType.replaceAll("[^A-Za-z0-9_-]", "_") + "."
+                + exportFormat.getExtension() + "\"");
+        FactSheetExporter.ExportResult result = exporter.export(workspace, factSheetType, projection, exportFormat,
+                after, gzip, checkpoints, response.getOutputStream());
+        log.info("[ExportController] Streamed {} fact sheets of type {}", result.records(), factSheetType);
+    }
+}
@@ -0,0 +1,360 @@
+package com.lgt.leanix_mcp.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgt.leanix_mcp.client.LeanIXClient;
+import com.lgt.leanix_mcp.client.PageSizeController;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.graphql.FactSheetQuery;
+import com.lgt.leanix_mcp.graphql.ProjectionQueryCompiler;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams all fact sheets of a type as NDJSON or CSV while the pages are
+ * fetched. A fetcher thread walks the cursor and hands pages to the writing
+ * thread through a queue of {@code bufferedPages}; when the output is slower
+ * than LeanIX the fetcher blocks, so memory stays bounded by that many pages
+ * regardless of the size of the export.
+ * <p>
+ * Every page ends at a cursor. An export that stops early, because its
+ * deadline passed or its consumer went away, can be resumed from the cursor of
+ * the last page it wrote completely.
+ * <p>
+ * Exports written to files get a unique name in the export directory, which
+ * keeps only the newest {@code retention} files.
+ */
+@Slf4j
+@Component
+public class FactSheetExporter implements DisposableBean {
+
+    private static final String OPERATION = "ExportFactSheets";
+    private static final String TYPE_FACET = "FactSheetTypes";
+    private static final long POLL_MILLIS = 100;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        /**
+         * @param name Format name, case-insensitive (null for NDJSON)
+         * @return The format
+         * @throws IllegalArgumentException If the format is unknown
+         */
+        public static Format of(String name) {
+            if (name == null || name.isBlank()) {
+                return NDJSON;
+            }
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export format '" + name + "', expected ndjson or csv");
+            }
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * @param records  Number of fact sheets written
+     * @param complete Whether all fact sheets were written
+     * @param cursor   Cursor to resume an incomplete export from (null to
+     *                 start over)
+     */
+    public record ExportResult(long records, boolean complete, String cursor) {
+    }
+
+    private final WorkspaceRegistry workspaces;
+    private final ProjectionQueryCompiler projectionQueryCompiler;
+    private final PageSizeController pageSizeController;
+    private final int bufferedPages;
+    private final Path directory;
+    private final int retention;
+    private final ExecutorService fetchers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    public FactSheetExporter(WorkspaceRegistry workspaces, ProjectionQueryCompiler projectionQueryCompiler,
+            PageSizeController pageSizeController, LeanIXClientConfig leanIXClientConfig) {
+        this(workspaces, projectionQueryCompiler, pageSizeController,
+                leanIXClientConfig.getExport().getBufferedPages(),
+                Path.of(leanIXClientConfig.getExport().getDirectory()), leanIXClientConfig.getExport().getRetention());
+    }
+
+    FactSheetExporter(WorkspaceRegistry workspaces, ProjectionQueryCompiler projectionQueryCompiler,
+            PageSizeController pageSizeController, int bufferedPages, Path directory, int retention) {
+        this.workspaces = workspaces;
+        this.projectionQueryCompiler = projectionQueryCompiler;
+        this.pageSizeController = pageSizeController;
+        this.bufferedPages = Math.max(1, bufferedPages);
+        this.directory = directory;
+        this.retention = Math.max(1, retention);
+    }
+
+    /**
+     * Creates an empty file for an export in the export directory and deletes
+     * the oldest exports beyond the retention. The name is unique even for
+     * exports of the same type started at the same time.
+     *
+     * @param factSheetType The type of fact sheet (e.g., "Application")
+     * @param format        Output format
+     * @param gzip          Whether the export will be gzipped
+     * @return The new file
+     */
+    public Path createFile(String factSheetType, Format format, boolean gzip) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, factSheetType.replaceAll("[^A-Za-z0-9_-]", "_") + "-",
+                "." + format.getExtension() + (gzip ? ".gz" : ""));
+        prune(file);
+        return file;
+    }
+
+    /**
+     * Writes the fact sheets of a type to a stream. The stream is flushed after
+     * every page but not closed.
+     *
+     * @param workspace     Workspace to export (null for the workspace of the
+     *                      current tool invocation)
+     * @param factSheetType The type of fact sheet (e.g., "Application")
+     * @param projection    Fields to export; they are also the CSV columns
+     * @param format        Output format
+     * @param after         Cursor to resume from (null to start)
+     * @param gzip          Whether to gzip the output
+     * @param checkpoints   Whether to write a {@code {"_cursor": ...}} line
+     *                      after every page (NDJSON only)
+     * @param out           Destination of the export
+     * @return Number of records written, and the cursor to resume from if the
+     *         deadline of the tool invocation cut the export short
+     */
+    public ExportResult export(String workspace, String factSheetType, FactSheetProjection projection, Format format,
+            String after, boolean gzip, boolean checkpoints, OutputStream out) throws IOException {
+        LeanIXClient client = workspace != null ? workspaces.client(workspace) : workspaces.client();
+        BlockingQueue<Page> pages = new ArrayBlockingQueue<>(bufferedPages);
+        Future<?> fetcher = fetchers.submit(ToolInvocationContext.propagate(() -> {
+            fetch(client, factSheetType, projection, after, pages);
+            return null;
+        }));
+
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 8192, true) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(compressed != null ? compressed : out,
+                StandardCharsets.UTF_8));
+        List<String> columns = columns(projection);
+        String cursor = after;
+        long records = 0;
+        boolean complete = false;
+        try {
+            if (format == Format.CSV && after == null) {
+                writeCsvRow(writer, columns.stream().map(column -> (Object) column).toList());
+            }
+            while (true) {
+                Page page = pages.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (page == null) {
+                    if (ToolInvocationContext.deadlineExpired()) {
+                        log.warn("[FactSheetExporter] Deadline reached after {} {} fact sheets", records,
+                                factSheetType);
+                        break;
+                    }
+                    if (fetcher.isDone() && pages.isEmpty()) {
+                        throw new RuntimeException("Fetching " + factSheetType + " stopped unexpectedly");
+                    }
+                    continue;
+                }
+                if (page.failure() != null) {
+                    throw page.failure();
+                }
+                for (JsonNode edge : page.edges()) {
+                    FactSheet factSheet = objectMapper.treeToValue(edge.path("node"), FactSheet.class);
+                    if (format == Format.CSV) {
+                        writeCsvRecord(writer, columns, factSheet);
+                    } else {
+                        writeJsonLine(writer, factSheet);
+                    }
+                    records++;
+                }
+                cursor = page.cursor();
+                if (checkpoints && format == Format.NDJSON && cursor != null) {
+                    writeJsonLine(writer, Map.of("_cursor", cursor));
+                }
+                writer.flush();
+                if (cursor == null) {
+                    complete = true;
+                    break;
+                }
+            }
+            if (compressed != null) {
+                writer.flush();
+                compressed.finish();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while exporting " + factSheetType, e);
+        } finally {
+            fetcher.cancel(true);
+        }
+        log.info("[FactSheetExporter] Exported {} fact sheets of type {} as {}{}", records, factSheetType, format,
+                complete ? "" : ", incomplete");
+        return new ExportResult(records, complete, complete ? null : cursor);
+    }
+
+    @Override
+    public void destroy() {
+        fetchers.shutdownNow();
+    }
+
+    private void prune(Path created) throws IOException {
+        List<Path> older;
+        try (Stream<Path> files = Files.list(directory)) {
+            older = files.filter(file -> !file.equals(created) && Files.isRegularFile(file))
+                    .sorted(Comparator.comparing(FactSheetExporter::lastModified).reversed())
+                    .toList();
+        }
+        for (Path expired : older.subList(Math.min(retention - 1, older.size()), older.size())) {
+            try {
+                Files.deleteIfExists(expired);
+                log.debug("[FactSheetExporter] Dropped export {}", expired.getFileName());
+            } catch (IOException e) {
+                log.warn("[FactSheetExporter] Could not drop export {}: {}", expired.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private void fetch(LeanIXClient client, String factSheetType, FactSheetProjection projection, String after,
+            BlockingQueue<Page> pages) throws InterruptedException {
+        String query = projectionQueryCompiler.compile(FactSheetQuery.EXPORT_PAGINATED, projection);
+        String operation = OPERATION + projection.getFields();
+        String cursor = after;
+        try {
+            do {
+                if (ToolInvocationContext.deadlineExpired()) {
+                    return;
+                }
+                Map<String, Object> variables = new HashMap<>();
+                variables.put("filter", Map.of("facetFilters",
+                        List.of(Map.of("facetKey", TYPE_FACET, "keys", List.of(factSheetType)))));
+                int pageSize = pageSizeController.pageSize(operation);
+                variables.put("first", pageSize);
+                if (cursor != null) {
+                    variables.put("after", cursor);
+                }
+                JsonNode page = pageSizeController.observe(operation, pageSize, () -> client.query(query, variables))
+                        .path("data").path("allFactSheets");
+                JsonNode pageInfo = page.path("pageInfo");
+                cursor = pageInfo.path("hasNextPage").asBoolean() ? pageInfo.path("endCursor").asText(null) : null;
+                // Blocks while the writer is behind
+                pages.put(new Page(page.path("edges"), cursor, null));
+            } while (cursor != null);
+        } catch (RuntimeException e) {
+            if (!ToolInvocationContext.deadlineExpired()) {
+                pages.put(new Page(null, null, e));
+            }
+        }
+    }
+
+    private static List<String> columns(FactSheetProjection projection) {
+        List<String> columns = new ArrayList<>(List.of("id", "type"));
+        projection.getFields().stream().filter(field -> !columns.contains(field)).forEach(columns::add);
+        return columns;
+    }
+
+    private void writeJsonLine(Writer writer, Object value) throws IOException {
+        writer.write(objectMapper.writeValueAsString(value));
+        writer.write('\n');
+    }
+
+    private void writeCsvRecord(Writer writer, List<String> columns, FactSheet factSheet) throws IOException {
+        JsonNode node = objectMapper.valueToTree(factSheet);
+        List<Object> values = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            JsonNode value = node.path(column);
+            values.add(value.isMissingNode() || value.isNull() ? null
+                    : value.isValueNode() ? value.asText() : objectMapper.writeValueAsString(value));
+        }
+        writeCsvRow(writer, values);
+    }
+
+    /**
+     * Writes one RFC 4180 row: values containing separators, quotes or line
+     * breaks are quoted, and quotes are doubled.
+     */
+    static void writeCsvRow(Writer writer, List<Object> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                    || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * A fetched page, or the failure that ended fetching.
+     *
+     * @param cursor Cursor after the page, null on the last page
+     */
+    private record Page(JsonNode edges, String cursor, RuntimeException failure) {
+    }
+}
@@ -0,0 +1,235 @@
+package com.lgt.leanix_mcp.graphql;
+
+import com.lgt.leanix_mcp.model.FactSheet;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable, validated set of {@link FactSheet} properties to request from
+ * the pathfinder API. Properties defined on the {@code FactSheet} interface are
+ * selected directly, type-specific ones are grouped into inline fragments.
+ */
+public final class FactSheetProjection {
+
+    private static final String REL_SELECTION = "edges { node { id factSheet { id name type } } }";
+
+    /** Fields that are always selected so results stay identifiable. */
+    private static final List<String> MANDATORY_FIELDS = List.of("id", "type");
+
+    private static final Map<String, FieldSpec> FIELDS = new LinkedHashMap<>();
+    private static final Set<String> MODEL_FIELDS = modelFields();
+
+    static {
+        // Fields available on every fact sheet
+        base("id");
+        base("name");
+        base("displayName");
+        base("fullName");
+        base("type");
+        base("description");
+        base("status");
+        base("lxState");
+        base("completion", "completion percentage");
+        base("updatedAt");
+        base("createdAt");
+        base("tags", "name");
+        base("subscriptions",
+                "totalCount edges { node { id type user { id displayName email } roles { id name comment } createdAt } }");
+
+        typed("lifecycle", "asString phase phases { phase startDate }", "Application", "ITComponent", "Interface");
+        typed("relToChild", REL_SELECTION,
+                "Application", "BusinessCapability", "ITComponent", "Persona", "UserGroup");
+
+        // Application
+        for (String field : List.of("businessCriticality", "businessCriticalityDescription",
+                "functionalSuitability", "functionalSuitabilityDescription", "technicalSuitability",
+                "technicalSuitabilityDescription", "aggregatedObsolescenceRisk", "lxTimeClassification",
+                "lxTimeClassificationDescription", "lxSixRClassification", "lxSixRRiskClassification",
+                "lxSixRTimePriority", "lxSixRClassificationDescription", "lxHostingType", "lxHostingDescription",
+                "lxSsoProvider", "lxStatusSSO", "lxSsoProviderSMP", "lxStatusSSOSMP", "Confidentiality",
+                "Integrity", "recoveryTimeObjective", "recoveryPointObjective", "applicationDeploymentType",
+                "lxAiUsage", "lxAiRisk", "lxAiType", "lxAiTaxonomyDescription", "lxAiPotential")) {
+            typed(field, null, "Application");
+        }
+        typed("alias", null, "Application", "ITComponent");
+        typed("release", null, "Application", "ITComponent");
+        typed("orderingState", null, "Application", "ITComponent");
+
+        // ITComponent
+        for (String field : List.of("category", "lxCatalogStatus", "lxProductCategory", "hostingType",
+                "hostingDescription", "lxTechnologyAssessmentCategory", "lxTechnologyAssessment",
+                "lxTechnologyAssessmentComment", "lxAiTechnologyTaxonomy", "lxAiTechnologyTaxonomyComment",
+                "lxVendorLifecycleComment", "lxVendorLifecycle")) {
+            typed(field, null, "ITComponent");
+        }
+
+        // BusinessCapability
+        for (String field : List.of("currentMaturity", "targetMaturity", "strategicImportance",
+                "CapabilityType", "lxEnterpriseDomain", "aiPotential")) {
+            typed(field, null, "BusinessCapability");
+        }
+
+        // UserGroup
+        typed("location", null, "UserGroup");
+    }
+
+    private static final FactSheetProjection DEFAULT = of(List.of("name", "displayName", "fullName",
+            "description", "status", "lxState", "completion", "updatedAt", "createdAt", "tags", "lifecycle",
+            "relToChild"));
+
+    private final SortedSet<String> fields;
+
+    private FactSheetProjection(SortedSet<String> fields) {
+        this.fields = Collections.unmodifiableSortedSet(fields);
+    }
+
+    /**
+     * @return The projection used when a caller does not ask for specific
+     *         fields: the common fact sheet fields plus lifecycle and children
+     */
+    public static FactSheetProjection defaults() {
+        return DEFAULT;
+    }
+
+    /**
+     * Validates the requested field names against the {@link FactSheet} model
+     * and builds a projection from them.
+     *
+     * @param requested Field names as exposed by the FactSheet DTO
+     * @return The projection, always including {@code id} and {@code type}
+     * @throws IllegalArgumentException if a field is not part of the model
+     */
+    public static FactSheetProjection of(Collection<String> requested) {
+        SortedSet<String> selected = new TreeSet<>(MANDATORY_FIELDS);
+        List<String> unknown = new ArrayList<>();
+        if (requested != null) {
+            for (String field : requested) {
+                if (field == null || field.isBlank()) {
+                    continue;
+                }
+                String name = field.trim();
+                if (FIELDS.containsKey(name) && MODEL_FIELDS.contains(name)) {
+                    selected.add(name);
+                } else {
+                    unknown.add(name);
+                }
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown fact sheet field(s): " + unknown
+                    + ". Allowed fields: " + availableFields());
+        }
+        return new FactSheetProjection(selected);
+    }
+
+    /**
+     * @return true if the caller asked for a projection, false if the default
+     *         selection set should be used
+     */
+    public static boolean isRequested(Collection<String> requested) {
+        return requested != null && requested.stream().anyMatch(f -> f != null && !f.isBlank());
+    }
+
+    /**
+     * @return All field names that can be used in a projection
+     */
+    public static Set<String> availableFields() {
+        return FIELDS.keySet().stream()
+                .filter(MODEL_FIELDS::contains)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    public SortedSet<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return true if this projection selects every field of the other one
+     */
+    public boolean covers(FactSheetProjection other) {
+        return fields.containsAll(other.fields);
+    }
+
+    /**
+     * Renders the selection set for a fact sheet node, without the enclosing
+     * braces.
+     *
+     * @return GraphQL selection set
+     */
+    public String toSelectionSet() {
+        StringBuilder selection = new StringBuilder();
+        Map<String, List<FieldSpec>> fragments = new TreeMap<>();
+        for (String name : fields) {
+            FieldSpec spec = FIELDS.get(name);
+            if (spec.types().isEmpty()) {
+                selection.append(spec.render()).append('\n');
+            } else {
+                for (String type : spec.types()) {
+                    fragments.computeIfAbsent(type, t -> new ArrayList<>()).add(spec);
+                }
+            }
+        }
+        fragments.forEach((type, specs) -> {
+            selection.append("... on ").append(type).append(" {\n");
+            specs.forEach(spec -> selection.append("  ").append(spec.render()).append('\n'));
+            selection.append("}\n");
+        });
+        return selection.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof FactSheetProjection other && fields.equals(other.fields));
+    }
+
+    @Override
+    public int hashCode() {
+        return fields.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "FactSheetProjection" + fields;
+    }
+
+    private static void base(String name) {
+        base(name, null);
+    }
+
+    private static void base(String name, String subSelection) {
+        FIELDS.put(name, new FieldSpec(name, subSelection, List.of()));
+    }
+
+    private static void typed(String name, String subSelection, String... types) {
+        FIELDS.put(name, new FieldSpec(name, subSelection, List.of(types)));
+    }
+
+    private static Set<String> modelFields() {
+        Set<String> names = new HashSet<>();
+        for (Field field : FactSheet.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                names.add(field.getName());
+            }
+        }
+        return names;
+    }
+
+    private record FieldSpec(String name, String subSelection, List<String> types) {
+        String render() {
+            return subSelection == null ? name : name + " { " + subSelection + " }";
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.lgt.leanix_mcp.graphql;
+
+/**
+ * GraphQL operations over fact sheets whose node selection set is generated
+ * from a {@link FactSheetProjection}. The {@code %s} placeholder marks where
+ * the selection set is inserted.
+ */
+public enum FactSheetQuery {
+
+    SEARCH_BY_NAME("""
+            query searchFactSheetByName($name: String!) {
+              allFactSheets(filter: {
+                fullTextSearch: $name
+              }) {
+                edges {
+                  node {
+            %s
+                  }
+                }
+              }
+            }
+            """),
+
+    BY_TYPE("""
+            query GetFactSheetsByType($type: FactSheetType!) {
+              allFactSheets(factSheetType: $type) {
+                edges {
+                  node {
+            %s
+                  }
+                }
+              }
+            }
+            """),
+
+    BY_TYPE_PAGINATED("""
+            query GetFactSheetsByTypePaginated($type: FactSheetType!, $first: Int, $after: String) {
+              allFactSheets(factSheetType: $type, first: $first, after: $after) {
+                totalCount
+                pageInfo {
+                  hasNextPage
+                  endCursor
+                }
+                edges {
+                  node {
+            %s
+                  }
+                }
+              }
+            }
+            """),
+
+    BY_FILTER_PAGINATED("""
+            query CrawlFactSheetPartition($filter: FilterInput!, $first: Int, $after: String) {
+              allFactSheets(filter: $filter, first: $first, after: $after) {
+                pageInfo {
+                  hasNextPage
+                  endCursor
+                }
+                edges {
+                  node {
+            %s
+                  }
+                }
+              }
+            }
+            """),
+
+    EXPORT_PAGINATED("""
+            query ExportFactSheets($filter: FilterInput!, $first: Int, $after: String) {
+              allFactSheets(filter: $filter, first: $first, after: $after) {
+                pageInfo {
+                  hasNextPage
+                  endCursor
+                }
+                edges {
+                  node {
+            %s
+                  }
+                }
+              }
+            }
+            """),
+
+    RECONCILE_PAGINATED("""
+            query ReconcileFactSheets($filter: FilterInput!, $first: Int, $after: String) {
+              allFactSheets(filter: $filter, first: $first, after: $after) {
+                pageInfo {
+                  hasNextPage
+                  endCursor
+                }
+                edges {
+                  node {
+            %s
+                  }
+                }
+              }
+            }
+            """);
+
+    private final String template;
+
+    FactSheetQuery(String template) {
+        this.template = template;
+    }
+
+    String render(FactSheetProjection projection) {
+        return template.formatted(projection.toSelectionSet());
+    }
+}
@@ -0,0 +1,110 @@
+package com.lgt.leanix_mcp.graphql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Compiles field projections into GraphQL documents and caches the result per
+ * operation and projection, so repeated tool calls with the same field list
+ * reuse the same query string. The cache keeps the most recently used
+ * {@value #MAX_CACHED_QUERIES} documents.
+ */
+@Slf4j
+@Component
+public class ProjectionQueryCompiler {
+
+    static final int MAX_CACHED_QUERIES = 256;
+
+    private final Map<CacheKey, String> compiled = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, String> eldest) {
+                    return size() > MAX_CACHED_QUERIES;
+                }
+            });
+
+    /**
+     * Compiles the given operation for the requested fields.
+     *
+     * @param query  The operation to compile
+     * @param fields FactSheet field names (validated against the model)
+     * @return GraphQL document selecting only the requested fields
+     */
+    public String compile(FactSheetQuery query, Collection<String> fields) {
+        return compile(query, FactSheetProjection.of(fields));
+    }
+
+    /**
+     * Compiles the given operation for a projection.
+     *
+     * @param query      The operation to compile
+     * @param projection The validated projection
+     * @return GraphQL document selecting only the projected fields
+     */
+    public String compile(FactSheetQuery query, FactSheetProjection projection) {
+        return compiled(new CacheKey(query.name(), 0, projection), () -> query.render(projection));
+    }
+
+    /**
+     * Compiles a lookup of {@code count} fact sheets by id. Each fact sheet is
+     * fetched through an aliased {@code factSheet(id:)} field ({@code fs0},
+     * {@code fs1}, ...) bound to the variables {@code id0}, {@code id1}, ...
+     *
+     * @param count      Number of ids looked up by the document
+     * @param projection The validated projection
+     * @return GraphQL document selecting the projected fields for every id
+     */
+    public String compileByIds(int count, FactSheetProjection projection) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        return compiled(new CacheKey("BY_IDS", count, projection), () -> {
+            String selection = projection.toSelectionSet();
+            StringBuilder document = new StringBuilder("query GetFactSheetsByIds(");
+            for (int i = 0; i < count; i++) {
+                document.append(i == 0 ? "" : ", ").append("$id").append(i).append(": ID!");
+            }
+            document.append(") {\n");
+            for (int i = 0; i < count; i++) {
+                document.append("  ").append(alias(i)).append(": factSheet(id: $id").append(i).append(") {\n")
+                        .append(selection)
+                        .append("  }\n");
+            }
+            return document.append("}\n").toString();
+        });
+    }
+
+    /**
+     * @return The alias under which {@link #compileByIds} returns the i-th id
+     */
+    public static String alias(int index) {
+        return "fs" + index;
+    }
+
+    private String compiled(CacheKey key, Supplier<String> renderer) {
+        String document = compiled.get(key);
+        if (document != null) {
+            return document;
+        }
+        document = renderer.get();
+        String raced = compiled.putIfAbsent(key, document);
+        if (raced != null) {
+            return raced;
+        }
+        log.debug("[ProjectionQueryCompiler] Compiled {} for {}", key.operation(), key.projection());
+        return document;
+    }
+
+    int cachedQueries() {
+        return compiled.size();
+    }
+
+    private record CacheKey(String operation, int arity, FactSheetProjection projection) {
+    }
+}
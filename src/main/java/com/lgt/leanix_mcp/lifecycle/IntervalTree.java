@@ -0,0 +1,135 @@
+package com.lgt.leanix_mcp.lifecycle;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable interval tree over date intervals. The intervals are sorted by
+ * start and form an implicit balanced search tree: the middle of every index
+ * range is the root of that range, and each root records the latest end within
+ * its range, so subtrees that end before a query window are skipped.
+ * <p>
+ * Intervals are half-open, {@code [start, end)}; a null end means the interval
+ * never ends. Queries take O(log n + k) for k results.
+ *
+ * @param <T> Value attached to each interval
+ */
+public final class IntervalTree<T> {
+
+    private static final long OPEN = Long.MAX_VALUE;
+
+    private final long[] starts;
+    private final long[] ends;
+    // Latest end in the index range whose middle is i
+    private final long[] maxEnds;
+    private final List<Interval<T>> intervals;
+
+    private IntervalTree(List<Interval<T>> sorted) {
+        int size = sorted.size();
+        this.intervals = sorted;
+        this.starts = new long[size];
+        this.ends = new long[size];
+        this.maxEnds = new long[size];
+        for (int i = 0; i < size; i++) {
+            starts[i] = sorted.get(i).start().toEpochDay();
+            ends[i] = sorted.get(i).end() != null ? sorted.get(i).end().toEpochDay() : OPEN;
+        }
+        computeMaxEnds(0, size);
+    }
+
+    /**
+     * @param intervals Intervals to index, in any order
+     * @return The tree
+     */
+    public static <T> IntervalTree<T> of(List<Interval<T>> intervals) {
+        List<Interval<T>> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparing(Interval::start));
+        return new IntervalTree<>(List.copyOf(sorted));
+    }
+
+    /**
+     * @return Number of intervals in the tree
+     */
+    public int size() {
+        return intervals.size();
+    }
+
+    /**
+     * @param from First day of the window
+     * @param to   Day after the window (null for no end)
+     * @return Intervals that share at least one day with the window, by start
+     */
+    public List<Interval<T>> overlapping(LocalDate from, LocalDate to) {
+        List<Interval<T>> result = new ArrayList<>();
+        collectOverlapping(0, intervals.size(), from.toEpochDay(), to != null ? to.toEpochDay() : OPEN, result);
+        return result;
+    }
+
+    /**
+     * @param from First day of the window
+     * @param to   Day after the window (null for no end)
+     * @return Intervals that start within the window, by start
+     */
+    public List<Interval<T>> startingWithin(LocalDate from, LocalDate to) {
+        int first = lowerBound(from.toEpochDay());
+        int last = to != null ? lowerBound(to.toEpochDay()) : intervals.size();
+        return first < last ? intervals.subList(first, last) : List.of();
+    }
+
+    private long computeMaxEnds(int low, int high) {
+        if (low >= high) {
+            return Long.MIN_VALUE;
+        }
+        int middle = (low + high) >>> 1;
+        long maxEnd = Math.max(ends[middle], Math.max(computeMaxEnds(low, middle), computeMaxEnds(middle + 1, high)));
+        maxEnds[middle] = maxEnd;
+        return maxEnd;
+    }
+
+    private void collectOverlapping(int low, int high, long from, long to, List<Interval<T>> result) {
+        if (low >= high) {
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        if (maxEnds[middle] <= from) {
+            // Everything in this range has ended before the window
+            return;
+        }
+        collectOverlapping(low, middle, from, to, result);
+        if (starts[middle] >= to) {
+            // The middle and the later half start after the window
+            return;
+        }
+        if (ends[middle] > from) {
+            result.add(intervals.get(middle));
+        }
+        collectOverlapping(middle + 1, high, from, to, result);
+    }
+
+    /**
+     * @return Index of the first interval starting on or after the day
+     */
+    private int lowerBound(long day) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param start First day of the interval
+     * @param end   Day after the interval (null if it never ends)
+     * @param value Value attached to the interval
+     */
+    public record Interval<T>(LocalDate start, LocalDate end, T value) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.lgt.leanix_mcp.lifecycle;
+
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.service.BackgroundIndex;
+import com.lgt.leanix_mcp.service.FactSheetBatchLoader;
+import com.lgt.leanix_mcp.service.FactSheetCrawler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Index of the lifecycle phases of the configured fact sheet types, one
+ * {@link IntervalTree} per phase, so questions such as "which applications
+ * reach end of life in the next six months" are answered without fetching the
+ * inventory again. A phase lasts from its start date to the start of the next
+ * phase; the last phase never ends.
+ * <p>
+ * The index of a workspace is crawled in the background on first use, outside
+ * the deadline of the invocation that asked for it. Fact sheets reported by
+ * webhooks are fetched again on the next query and only their intervals are
+ * replaced. Once older than {@code max-age} the index is still served while it
+ * is crawled again.
+ */
+@Slf4j
+@Component
+public class LifecycleIndex extends BackgroundIndex<String, Lifecycles> {
+
+    static final FactSheetProjection PROJECTION = FactSheetProjection.of(List.of("name", "lifecycle", "relToChild"));
+
+    private final WorkspaceRegistry workspaces;
+    private final FactSheetCrawler factSheetCrawler;
+    private final List<String> types;
+
+    @Autowired
+    public LifecycleIndex(WorkspaceRegistry workspaces, FactSheetCrawler factSheetCrawler,
+            FactSheetBatchLoader factSheetBatchLoader, LeanIXClientConfig leanIXClientConfig) {
+        this(workspaces, factSheetCrawler, factSheetBatchLoader, leanIXClientConfig.getLifecycleIndex().getTypes(),
+                leanIXClientConfig.getLifecycleIndex().getMaxAge(), Clock.systemUTC());
+    }
+
+    LifecycleIndex(WorkspaceRegistry workspaces, FactSheetCrawler factSheetCrawler,
+            FactSheetBatchLoader factSheetBatchLoader, List<String> types, Duration maxAge, Clock clock) {
+        super("lifecycle index", workspaces, factSheetBatchLoader, PROJECTION, maxAge, clock);
+        this.workspaces = workspaces;
+        this.factSheetCrawler = factSheetCrawler;
+        this.types = List.copyOf(types);
+    }
+
+    /**
+     * Finds the fact sheets of the current workspace whose phase starts within,
+     * or overlaps, a time window.
+     *
+     * @param phase             Lifecycle phase, e.g. {@code endOfLife}
+     * @param from              First day of the window
+     * @param to                Day after the window (null for no end)
+     * @param overlapping       Whether to match phases in effect at any time
+     *                          of the window rather than those starting in it
+     * @param factSheetType     Type to restrict the result to (null for all
+     *                          indexed types)
+     * @param includeDependents Whether to include the children of each match
+     * @return The matches, by start of the phase
+     */
+    public List<Match> find(String phase, LocalDate from, LocalDate to, boolean overlapping, String factSheetType,
+            boolean includeDependents) {
+        if (factSheetType != null && types.stream().noneMatch(factSheetType::equalsIgnoreCase)) {
+            throw new IllegalArgumentException("Lifecycles of " + factSheetType + " are not indexed, expected one of "
+                    + types);
+        }
+        return query(workspaces.current(), lifecycles -> {
+            IntervalTree<Entry> tree = lifecycles.tree(phase);
+            if (tree == null) {
+                return List.of();
+            }
+            List<IntervalTree.Interval<Entry>> intervals = overlapping
+                    ? tree.overlapping(from, to)
+                    : tree.startingWithin(from, to);
+            List<Match> matches = new ArrayList<>();
+            for (IntervalTree.Interval<Entry> interval : intervals) {
+                Entry entry = interval.value();
+                if (factSheetType == null || factSheetType.equalsIgnoreCase(entry.type())) {
+                    matches.add(new Match(entry.id(), entry.name(), entry.type(), entry.phase(),
+                            interval.start().toString(), interval.end() != null ? interval.end().toString() : null,
+                            includeDependents ? entry.dependents() : null));
+                }
+            }
+            return matches;
+        });
+    }
+
+    @Override
+    protected String workspaceOf(String workspace) {
+        return workspace;
+    }
+
+    @Override
+    protected Lifecycles crawl(String workspace) {
+        Lifecycles lifecycles = new Lifecycles();
+        for (String type : types) {
+            for (FactSheet factSheet : factSheetCrawler.crawl(type, PROJECTION)) {
+                lifecycles.put(factSheet);
+            }
+        }
+        log.info("[LifecycleIndex] Indexed the lifecycles of {} fact sheets of {}", lifecycles.size(), types);
+        return lifecycles;
+    }
+
+    @Override
+    protected void apply(String workspace, Lifecycles lifecycles, List<String> ids, Map<String, FactSheet> loaded) {
+        for (String id : ids) {
+            FactSheet factSheet = loaded.get(id);
+            if (factSheet != null && types.contains(factSheet.getType())) {
+                lifecycles.put(factSheet);
+            } else {
+                // Archived, deleted or not of an indexed type
+                lifecycles.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Adds one interval per dated phase; each phase ends where the next one
+     * starts.
+     */
+    static void addIntervals(FactSheet factSheet, Map<String, List<IntervalTree.Interval<Entry>>> intervals) {
+        if (factSheet.getLifecycle() == null || factSheet.getLifecycle().getPhases() == null) {
+            return;
+        }
+        List<DatedPhase> phases = new ArrayList<>();
+        for (FactSheet.LifecyclePhase phase : factSheet.getLifecycle().getPhases()) {
+            LocalDate start = parse(phase.getStartDate());
+            if (phase.getPhase() != null && start != null) {
+                phases.add(new DatedPhase(phase.getPhase(), start));
+            }
+        }
+        phases.sort(Comparator.comparing(DatedPhase::start));
+        List<Dependent> dependents = dependentsOf(factSheet);
+        for (int i = 0; i < phases.size(); i++) {
+            DatedPhase phase = phases.get(i);
+            LocalDate end = i + 1 < phases.size() ? phases.get(i + 1).start() : null;
+            if (end != null && !end.isAfter(phase.start())) {
+                // Superseded on the day it starts
+                continue;
+            }
+            Entry entry = new Entry(factSheet.getId(), factSheet.getName(), factSheet.getType(), phase.name(),
+                    dependents);
+            intervals.computeIfAbsent(phase.name().toLowerCase(Locale.ROOT), name -> new ArrayList<>())
+                    .add(new IntervalTree.Interval<>(phase.start(), end, entry));
+        }
+    }
+
+    private static List<Dependent> dependentsOf(FactSheet factSheet) {
+        if (factSheet.getRelToChild() == null || factSheet.getRelToChild().getEdges() == null) {
+            return List.of();
+        }
+        List<Dependent> dependents = new ArrayList<>();
+        for (FactSheet.RelToChildEdge edge : factSheet.getRelToChild().getEdges()) {
+            FactSheet child = edge.getNode() != null ? edge.getNode().getFactSheet() : null;
+            if (child != null) {
+                dependents.add(new Dependent(child.getId(), child.getName(), child.getType()));
+            }
+        }
+        return List.copyOf(dependents);
+    }
+
+    private static LocalDate parse(String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        try {
+            // Start dates are ISO dates, possibly with a time
+            return LocalDate.parse(date.length() > 10 ? date.substring(0, 10) : date);
+        } catch (DateTimeParseException e) {
+            log.debug("[LifecycleIndex] Ignoring phase start {}", date);
+            return null;
+        }
+    }
+
+    /**
+     * A fact sheet in one lifecycle phase.
+     *
+     * @param phase      Name of the phase as returned by LeanIX
+     * @param start      First day of the phase (ISO date)
+     * @param end        First day of the next phase (null if none follows)
+     * @param dependents Children of the fact sheet, if requested
+     */
+    public record Match(String id, String name, String type, String phase, String start, String end,
+            List<Dependent> dependents) {
+    }
+
+    /**
+     * A child of a matched fact sheet (its {@code relToChild} relation).
+     */
+    public record Dependent(String id, String name, String type) {
+    }
+
+    record Entry(String id, String name, String type, String phase, List<Dependent> dependents) {
+    }
+
+    private record DatedPhase(String name, LocalDate start) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.lgt.leanix_mcp.lifecycle;
+
+import com.lgt.leanix_mcp.model.FactSheet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lifecycle phases of fact sheets, queried through one {@link IntervalTree}
+ * per phase. The intervals of a fact sheet are replaced as a whole when it
+ * changes, and the tree of a phase is rebuilt from the intervals kept here on
+ * its next query after a change, so updates need no crawl and leave the trees
+ * of other phases alone.
+ * <p>
+ * Not thread-safe.
+ */
+final class Lifecycles {
+
+    // Lower-cased phase -> fact sheet id -> intervals of that fact sheet in the phase
+    private final Map<String, Map<String, List<IntervalTree.Interval<LifecycleIndex.Entry>>>> byPhase =
+            new HashMap<>();
+    // Fact sheet id -> phases it has intervals in
+    private final Map<String, Set<String>> phasesOf = new HashMap<>();
+    // Trees of the phases unchanged since they were last queried
+    private final Map<String, IntervalTree<LifecycleIndex.Entry>> trees = new HashMap<>();
+
+    /**
+     * @return Number of fact sheets with at least one dated phase
+     */
+    int size() {
+        return phasesOf.size();
+    }
+
+    /**
+     * Indexes the phases of a fact sheet, replacing its previous ones.
+     *
+     * @param factSheet Fact sheet with the fields of
+     *                  {@link LifecycleIndex#PROJECTION}
+     */
+    void put(FactSheet factSheet) {
+        remove(factSheet.getId());
+        Map<String, List<IntervalTree.Interval<LifecycleIndex.Entry>>> intervals = new LinkedHashMap<>();
+        LifecycleIndex.addIntervals(factSheet, intervals);
+        if (intervals.isEmpty()) {
+            return;
+        }
+        intervals.forEach((phase, list) -> {
+            byPhase.computeIfAbsent(phase, name -> new HashMap<>()).put(factSheet.getId(), List.copyOf(list));
+            trees.remove(phase);
+        });
+        phasesOf.put(factSheet.getId(), Set.copyOf(intervals.keySet()));
+    }
+
+    /**
+     * Removes the phases of a fact sheet.
+     *
+     * @param id Id of the fact sheet
+     */
+    void remove(String id) {
+        Set<String> phases = phasesOf.remove(id);
+        if (phases == null) {
+            return;
+        }
+        for (String phase : phases) {
+            Map<String, List<IntervalTree.Interval<LifecycleIndex.Entry>>> byId = byPhase.get(phase);
+            byId.remove(id);
+            if (byId.isEmpty()) {
+                byPhase.remove(phase);
+            }
+            trees.remove(phase);
+        }
+    }
+
+    /**
+     * @param phase Lifecycle phase, in any case
+     * @return The intervals of the phase (null if no fact sheet has it)
+     */
+    IntervalTree<LifecycleIndex.Entry> tree(String phase) {
+        String key = phase.toLowerCase(Locale.ROOT);
+        Map<String, List<IntervalTree.Interval<LifecycleIndex.Entry>>> byId = byPhase.get(key);
+        if (byId == null) {
+            return null;
+        }
+        return trees.computeIfAbsent(key, name -> {
+            List<IntervalTree.Interval<LifecycleIndex.Entry>> intervals = new ArrayList<>();
+            byId.values().forEach(intervals::addAll);
+            return IntervalTree.of(intervals);
+        });
+    }
+}
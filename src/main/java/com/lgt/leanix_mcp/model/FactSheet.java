@@ -111,6 +111,14 @@ public class FactSheet {
     public static class Lifecycle {
         private String asString;
         private String phase;
+        private List<LifecyclePhase> phases;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class LifecyclePhase {
+        private String phase;
+        private String startDate;
     }
 
     @Data
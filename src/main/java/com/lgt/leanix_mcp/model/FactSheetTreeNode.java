@@ -0,0 +1,20 @@
+package com.lgt.leanix_mcp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FactSheetTreeNode {
+    private String id;
+    private FactSheet factSheet;
+    private List<FactSheetTreeNode> children;
+
+    public FactSheetTreeNode(String id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,178 @@
+package com.lgt.leanix_mcp.reconcile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lgt.leanix_mcp.cache.CacheInvalidation;
+import com.lgt.leanix_mcp.cache.FactSheetCache;
+import com.lgt.leanix_mcp.client.PageSizeController;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.graphql.FactSheetQuery;
+import com.lgt.leanix_mcp.graphql.ProjectionQueryCompiler;
+import com.lgt.leanix_mcp.service.FactSheetBatchLoader;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import com.lgt.leanix_mcp.webhook.FactSheetEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Periodically checks that cached fact sheets still match LeanIX, catching
+ * changes that webhooks or TTLs missed, such as deleted fact sheets.
+ * <p>
+ * For every cached type, the ids and {@code updatedAt} of all fact sheets are
+ * listed with a minimal selection set and compared with the cached versions
+ * one by one. Only the fact sheets that differ are invalidated on all replicas,
+ * reported to the indexes of all replicas as updated or, if gone, archived,
+ * and fetched again with the fields they were cached with. LeanIX has no
+ * server-side digests, so the listing is the upstream cost of a run; it is far
+ * cheaper than a full crawl, and the local comparison is linear in the number
+ * of cached fact sheets.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "leanix.reconciliation", name = "enabled")
+public class CacheReconciler {
+
+    static final String JOB_NAME = "reconciliation";
+    private static final String OPERATION = "ReconcileFactSheets";
+    private static final String TYPE_FACET = "FactSheetTypes";
+
+    private final WorkspaceRegistry workspaces;
+    private final FactSheetCache factSheetCache;
+    private final CacheInvalidation cacheInvalidation;
+    private final FactSheetBatchLoader batchLoader;
+    private final ProjectionQueryCompiler projectionQueryCompiler;
+    private final PageSizeController pageSizeController;
+
+    public CacheReconciler(WorkspaceRegistry workspaces, FactSheetCache factSheetCache,
+            CacheInvalidation cacheInvalidation, FactSheetBatchLoader batchLoader,
+            ProjectionQueryCompiler projectionQueryCompiler, PageSizeController pageSizeController) {
+        this.workspaces = workspaces;
+        this.factSheetCache = factSheetCache;
+        this.cacheInvalidation = cacheInvalidation;
+        this.batchLoader = batchLoader;
+        this.projectionQueryCompiler = projectionQueryCompiler;
+        this.pageSizeController = pageSizeController;
+    }
+
+    /**
+     * Reconciles the cached fact sheets of all workspaces.
+     */
+    @Scheduled(fixedDelayString = "${leanix.reconciliation.interval:PT15M}",
+            initialDelayString = "${leanix.reconciliation.interval:PT15M}")
+    public void reconcileAll() {
+        for (String name : workspaces.names()) {
+            String workspace = name.equals(workspaces.getDefaultWorkspace()) ? null : name;
+            try {
+                ToolInvocationContext.runInWorkspace(JOB_NAME, workspace, () -> reconcile(workspace));
+            } catch (RuntimeException e) {
+                log.warn("[CacheReconciler] Reconciliation of {} failed: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reconciles the cached fact sheets of one workspace. Must run within a
+     * context naming that workspace.
+     *
+     * @param workspace Workspace (null for the default)
+     * @return Number of fact sheets that had drifted
+     */
+    int reconcile(String workspace) {
+        Map<String, List<FactSheetCache.CachedFactSheet>> byType = new LinkedHashMap<>();
+        for (FactSheetCache.CachedFactSheet cached : factSheetCache.entries(workspace)) {
+            if (cached.factSheet().getType() != null) {
+                byType.computeIfAbsent(cached.factSheet().getType(), type -> new ArrayList<>()).add(cached);
+            }
+        }
+        int drifted = 0;
+        for (Map.Entry<String, List<FactSheetCache.CachedFactSheet>> type : byType.entrySet()) {
+            drifted += reconcileType(workspace, type.getKey(), type.getValue());
+        }
+        return drifted;
+    }
+
+    private int reconcileType(String workspace, String type, List<FactSheetCache.CachedFactSheet> cached) {
+        Map<String, String> upstream = listVersions(type);
+        Set<String> drifted = new HashSet<>();
+        Map<String, FactSheetProjection> projections = new HashMap<>();
+        for (FactSheetCache.CachedFactSheet entry : cached) {
+            String id = entry.factSheet().getId();
+            String updatedAt = entry.factSheet().getUpdatedAt();
+            String current = upstream.get(id);
+            // Without a cached updatedAt only the existence of the fact sheet is checked
+            if (current == null || (updatedAt != null && !updatedAt.equals(current))) {
+                drifted.add(id);
+                projections.put(id, entry.projection());
+            }
+        }
+
+        log.info("[CacheReconciler] {}: {} of {} cached fact sheets drifted", type, drifted.size(), cached.size());
+        if (drifted.isEmpty()) {
+            return 0;
+        }
+        List<String> changed = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        for (String id : drifted) {
+            (upstream.containsKey(id) ? changed : deleted).add(id);
+        }
+        List<FactSheetEvent> events = new ArrayList<>(2);
+        if (!changed.isEmpty()) {
+            events.add(new FactSheetEvent(eventId(), null, FactSheetEvent.Kind.UPDATED, changed));
+        }
+        if (!deleted.isEmpty()) {
+            events.add(new FactSheetEvent(eventId(), null, FactSheetEvent.Kind.ARCHIVED, deleted));
+        }
+        cacheInvalidation.factSheetsChanged(workspace, events);
+
+        Map<FactSheetProjection, List<String>> refetch = new HashMap<>();
+        for (String id : changed) {
+            refetch.computeIfAbsent(projections.get(id), projection -> new ArrayList<>()).add(id);
+        }
+        refetch.forEach((projection, ids) -> batchLoader.load(ids, projection));
+        return drifted.size();
+    }
+
+    private static String eventId() {
+        return JOB_NAME + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * @return {@code updatedAt} by id of all fact sheets of the type
+     */
+    private Map<String, String> listVersions(String type) {
+        FactSheetProjection projection = FactSheetProjection.of(List.of("updatedAt"));
+        String query = projectionQueryCompiler.compile(FactSheetQuery.RECONCILE_PAGINATED, projection);
+        Map<String, String> versions = new HashMap<>();
+        String after = null;
+        do {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("filter", Map.of("facetFilters",
+                    List.of(Map.of("facetKey", TYPE_FACET, "keys", List.of(type)))));
+            int pageSize = pageSizeController.pageSize(OPERATION);
+            variables.put("first", pageSize);
+            if (after != null) {
+                variables.put("after", after);
+            }
+            JsonNode page = pageSizeController.observe(OPERATION, pageSize,
+                    () -> workspaces.client().query(query, variables)).path("data").path("allFactSheets");
+            for (JsonNode edge : page.path("edges")) {
+                JsonNode node = edge.path("node");
+                versions.put(node.path("id").asText(), node.path("updatedAt").asText(""));
+            }
+            JsonNode pageInfo = page.path("pageInfo");
+            after = pageInfo.path("hasNextPage").asBoolean() ? pageInfo.path("endCursor").asText(null) : null;
+        } while (after != null);
+        return versions;
+    }
+}
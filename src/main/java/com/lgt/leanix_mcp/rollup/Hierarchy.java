@@ -0,0 +1,289 @@
+package com.lgt.leanix_mcp.rollup;
+
+import com.lgt.leanix_mcp.model.FactSheet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Parent/child hierarchy of fact sheets, following their {@code relToChild}
+ * relations, with a {@link Rollup} at every node. A node's roll-up combines its
+ * own values with the roll-ups of its direct children, so a change recomputes
+ * only the nodes on the path from the changed fact sheet to its root.
+ * <p>
+ * A fact sheet has at most one parent; a relation that would close a cycle is
+ * ignored. Not thread-safe.
+ */
+final class Hierarchy {
+
+    private final Map<String, Node> nodes = new HashMap<>();
+    private final Map<String, Integer> riskRanks = new HashMap<>();
+
+    /**
+     * @param riskOrder Obsolescence risks from least to most severe
+     */
+    Hierarchy(List<String> riskOrder) {
+        for (int i = 0; i < riskOrder.size(); i++) {
+            riskRanks.put(riskOrder.get(i).toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * @return Number of fact sheets in the hierarchy
+     */
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Adds fact sheets or replaces their values and children, then recomputes
+     * the roll-ups on the affected paths.
+     *
+     * @param factSheets Fact sheets with the fields of
+     *                   {@link HierarchyRollups#PROJECTION}
+     * @return Number of roll-ups recomputed
+     */
+    int update(Collection<FactSheet> factSheets) {
+        // Create all nodes first, so relations between new fact sheets are linked
+        for (FactSheet factSheet : factSheets) {
+            nodes.computeIfAbsent(factSheet.getId(), Node::new);
+        }
+        Set<Node> changed = new LinkedHashSet<>();
+        for (FactSheet factSheet : factSheets) {
+            Node node = nodes.get(factSheet.getId());
+            node.values = Values.of(factSheet);
+            changed.add(node);
+            Set<String> children = childIds(factSheet);
+            for (String child : List.copyOf(node.children)) {
+                if (!children.contains(child)) {
+                    // Becomes a root; its own roll-up is unaffected
+                    node.children.remove(child);
+                    nodes.get(child).parent = null;
+                }
+            }
+            for (String id : children) {
+                Node child = nodes.get(id);
+                if (child == null || child.parent == node || isAncestorOrSelf(child, node)) {
+                    continue;
+                }
+                if (child.parent != null) {
+                    child.parent.children.remove(id);
+                    changed.add(child.parent);
+                }
+                child.parent = node;
+                node.children.add(id);
+            }
+        }
+        // Every node on the changed paths, recomputed once and children before their parents
+        Map<Node, Integer> depths = new HashMap<>();
+        for (Node node : changed) {
+            Node current = node;
+            while (current != null && !depths.containsKey(current)) {
+                depths.put(current, depthOf(current));
+                current = current.parent;
+            }
+        }
+        List<Node> ordered = new ArrayList<>(depths.keySet());
+        ordered.sort((a, b) -> Integer.compare(depths.get(b), depths.get(a)));
+        ordered.forEach(this::recompute);
+        return ordered.size();
+    }
+
+    /**
+     * Removes a fact sheet; its children become roots.
+     *
+     * @param id Id of the fact sheet
+     * @return Number of roll-ups recomputed
+     */
+    int remove(String id) {
+        Node node = nodes.remove(id);
+        if (node == null) {
+            return 0;
+        }
+        for (String child : node.children) {
+            nodes.get(child).parent = null;
+        }
+        if (node.parent == null) {
+            return 0;
+        }
+        node.parent.children.remove(id);
+        return recomputePath(node.parent);
+    }
+
+    boolean contains(String id) {
+        return nodes.containsKey(id);
+    }
+
+    /**
+     * @param rootId Fact sheet to start from (null for all roots)
+     * @param depth  Levels of children to include below the start
+     * @return The subtrees with their roll-ups
+     */
+    List<HierarchyRollups.RollupNode> subtrees(String rootId, int depth) {
+        if (rootId != null) {
+            Node root = nodes.get(rootId);
+            if (root == null) {
+                throw new IllegalArgumentException("Fact sheet " + rootId + " is not part of the hierarchy");
+            }
+            return List.of(toRollupNode(root, depth));
+        }
+        List<HierarchyRollups.RollupNode> roots = new ArrayList<>();
+        nodes.values().stream()
+                .filter(node -> node.parent == null)
+                .sorted(Comparator.comparing((Node node) -> String.valueOf(node.values.name()),
+                        String.CASE_INSENSITIVE_ORDER))
+                .forEach(node -> roots.add(toRollupNode(node, depth)));
+        return roots;
+    }
+
+    Rollup rollupOf(String id) {
+        return nodes.get(id).rollup;
+    }
+
+    private HierarchyRollups.RollupNode toRollupNode(Node node, int depth) {
+        List<HierarchyRollups.RollupNode> children = null;
+        if (depth > 0) {
+            children = new ArrayList<>();
+            for (String child : node.children) {
+                children.add(toRollupNode(nodes.get(child), depth - 1));
+            }
+        }
+        Rollup rollup = node.rollup;
+        return new HierarchyRollups.RollupNode(node.id, node.values.name(), node.values.type(), rollup.count(),
+                node.children.size(), rollup.worstRisk(), rollup.averageCompletion(),
+                Collections.unmodifiableMap(new TreeMap<>(rollup.criticality())), children);
+    }
+
+    private int recomputePath(Node node) {
+        int recomputed = 0;
+        for (Node current = node; current != null; current = current.parent) {
+            recompute(current);
+            recomputed++;
+        }
+        return recomputed;
+    }
+
+    private void recompute(Node node) {
+        Rollup rollup = Rollup.of(node.values);
+        for (String child : node.children) {
+            rollup = rollup.plus(nodes.get(child).rollup, riskRanks);
+        }
+        node.rollup = rollup;
+    }
+
+    private static int depthOf(Node node) {
+        int depth = 0;
+        for (Node current = node.parent; current != null; current = current.parent) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private static boolean isAncestorOrSelf(Node candidate, Node node) {
+        for (Node current = node; current != null; current = current.parent) {
+            if (current == candidate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> childIds(FactSheet factSheet) {
+        Set<String> ids = new LinkedHashSet<>();
+        if (factSheet.getRelToChild() != null && factSheet.getRelToChild().getEdges() != null) {
+            for (FactSheet.RelToChildEdge edge : factSheet.getRelToChild().getEdges()) {
+                if (edge.getNode() != null && edge.getNode().getFactSheet() != null) {
+                    ids.add(edge.getNode().getFactSheet().getId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static final class Node {
+
+        private final String id;
+        private final Set<String> children = new LinkedHashSet<>();
+        private Node parent;
+        private Values values = Values.EMPTY;
+        private Rollup rollup = Rollup.of(Values.EMPTY);
+
+        Node(String id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * The values of one fact sheet that are rolled up.
+     */
+    record Values(String name, String type, String risk, Integer completion, String criticality) {
+
+        static final Values EMPTY = new Values(null, null, null, null, null);
+
+        static Values of(FactSheet factSheet) {
+            Integer completion = factSheet.getCompletion() != null ? factSheet.getCompletion().getPercentage() : null;
+            return new Values(factSheet.getName(), factSheet.getType(), factSheet.getAggregatedObsolescenceRisk(),
+                    completion, factSheet.getBusinessCriticality());
+        }
+    }
+
+    /**
+     * Aggregates of a subtree.
+     *
+     * @param count           Fact sheets in the subtree, including its root
+     * @param completionSum   Sum of the completion percentages given
+     * @param completionCount Number of fact sheets with a completion
+     * @param worstRisk       Most severe obsolescence risk (null if none)
+     * @param criticality     Number of fact sheets per business criticality
+     */
+    record Rollup(int count, long completionSum, int completionCount, String worstRisk,
+            Map<String, Integer> criticality) {
+
+        static Rollup of(Values values) {
+            if (values == Values.EMPTY) {
+                return new Rollup(0, 0, 0, null, Map.of());
+            }
+            return new Rollup(1, values.completion() != null ? values.completion() : 0,
+                    values.completion() != null ? 1 : 0, values.risk(),
+                    values.criticality() != null ? Map.of(values.criticality(), 1) : Map.of());
+        }
+
+        Rollup plus(Rollup other, Map<String, Integer> riskRanks) {
+            Map<String, Integer> criticality = this.criticality;
+            if (!other.criticality.isEmpty()) {
+                Map<String, Integer> merged = new HashMap<>(this.criticality);
+                other.criticality.forEach((key, value) -> merged.merge(key, value, Integer::sum));
+                criticality = merged;
+            }
+            return new Rollup(count + other.count, completionSum + other.completionSum,
+                    completionCount + other.completionCount, worse(worstRisk, other.worstRisk, riskRanks),
+                    criticality);
+        }
+
+        /**
+         * @return Average completion percentage (null if no fact sheet has one)
+         */
+        Double averageCompletion() {
+            return completionCount > 0 ? (double) completionSum / completionCount : null;
+        }
+
+        private static String worse(String a, String b, Map<String, Integer> riskRanks) {
+            if (a == null || b == null) {
+                return a != null ? a : b;
+            }
+            // Unknown values rank below all configured ones
+            int rankA = riskRanks.getOrDefault(a.toLowerCase(Locale.ROOT), -1);
+            int rankB = riskRanks.getOrDefault(b.toLowerCase(Locale.ROOT), -1);
+            return rankB > rankA ? b : a;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.lgt.leanix_mcp.rollup;
+
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.service.BackgroundIndex;
+import com.lgt.leanix_mcp.service.FactSheetBatchLoader;
+import com.lgt.leanix_mcp.service.FactSheetCrawler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roll-ups over the parent/child hierarchy of a fact sheet type: for every
+ * node the number of fact sheets below it, their worst obsolescence risk,
+ * average completion and business criticality distribution.
+ * <p>
+ * The hierarchy of a workspace and type is crawled in the background on first
+ * use, outside the deadline of the invocation that asked for it. Fact sheets
+ * reported by webhooks are fetched again on the next query and only the roll-ups
+ * on their path to the root are recomputed. Once older than {@code max-age} the
+ * hierarchy is still served while it is crawled again.
+ */
+@Slf4j
+@Component
+public class HierarchyRollups extends BackgroundIndex<HierarchyRollups.Key, Hierarchy> {
+
+    static final FactSheetProjection PROJECTION = FactSheetProjection.of(List.of("name", "completion",
+            "relToChild", "aggregatedObsolescenceRisk", "businessCriticality"));
+
+    private final WorkspaceRegistry workspaces;
+    private final FactSheetCrawler factSheetCrawler;
+    private final List<String> riskOrder;
+
+    @Autowired
+    public HierarchyRollups(WorkspaceRegistry workspaces, FactSheetCrawler factSheetCrawler,
+            FactSheetBatchLoader factSheetBatchLoader, LeanIXClientConfig leanIXClientConfig) {
+        this(workspaces, factSheetCrawler, factSheetBatchLoader, leanIXClientConfig.getRollup().getRiskOrder(),
+                leanIXClientConfig.getRollup().getMaxAge(), Clock.systemUTC());
+    }
+
+    HierarchyRollups(WorkspaceRegistry workspaces, FactSheetCrawler factSheetCrawler,
+            FactSheetBatchLoader factSheetBatchLoader, List<String> riskOrder, Duration maxAge, Clock clock) {
+        super("hierarchy", workspaces, factSheetBatchLoader, PROJECTION, maxAge, clock);
+        this.workspaces = workspaces;
+        this.factSheetCrawler = factSheetCrawler;
+        this.riskOrder = List.copyOf(riskOrder);
+    }
+
+    /**
+     * Returns the roll-ups of a hierarchy in the current workspace.
+     *
+     * @param factSheetType Type whose {@code relToChild} hierarchy is rolled up
+     * @param rootId        Fact sheet to start from (null for all roots)
+     * @param depth         Levels of children to include below the start
+     * @return The subtrees with their roll-ups, roots by name
+     */
+    public List<RollupNode> subtrees(String factSheetType, String rootId, int depth) {
+        return query(new Key(workspaces.current(), factSheetType), hierarchy -> hierarchy.subtrees(rootId, depth));
+    }
+
+    @Override
+    protected String workspaceOf(Key key) {
+        return key.workspace();
+    }
+
+    @Override
+    protected Hierarchy crawl(Key key) {
+        Hierarchy hierarchy = new Hierarchy(riskOrder);
+        hierarchy.update(factSheetCrawler.crawl(key.type(), PROJECTION));
+        log.info("[HierarchyRollups] Rolled up the hierarchy {} of {} fact sheets", key, hierarchy.size());
+        return hierarchy;
+    }
+
+    /**
+     * Recomputes only the roll-ups on the paths of the changed fact sheets to
+     * their roots.
+     */
+    @Override
+    protected void apply(Key key, Hierarchy hierarchy, List<String> ids, Map<String, FactSheet> loaded) {
+        List<FactSheet> updated = new ArrayList<>();
+        int recomputed = 0;
+        for (String id : ids) {
+            FactSheet factSheet = loaded.get(id);
+            if (factSheet != null && key.type().equals(factSheet.getType())) {
+                updated.add(factSheet);
+            } else if (factSheet == null || hierarchy.contains(id)) {
+                // Archived, deleted or no longer of this type
+                recomputed += hierarchy.remove(id);
+            }
+        }
+        recomputed += hierarchy.update(updated);
+        log.debug("[HierarchyRollups] Recomputed {} roll-ups of {}", recomputed, key);
+    }
+
+    /**
+     * A fact sheet with the roll-up of its subtree.
+     *
+     * @param factSheets            Fact sheets in the subtree, including this
+     *                              one
+     * @param childCount            Number of direct children
+     * @param worstObsolescenceRisk Most severe aggregated obsolescence risk in
+     *                              the subtree (null if none is set)
+     * @param averageCompletion     Average completion percentage of the
+     *                              subtree (null if none is set)
+     * @param businessCriticality   Number of fact sheets per business
+     *                              criticality
+     * @param children              Roll-ups of the children, null below the
+     *                              requested depth
+     */
+    public record RollupNode(String id, String name, String type, int factSheets, int childCount,
+            String worstObsolescenceRisk, Double averageCompletion, Map<String, Integer> businessCriticality,
+            List<RollupNode> children) {
+    }
+
+    record Key(String workspace, String type) {
+
+        @Override
+        public String toString() {
+            return workspace + "/" + type;
+        }
+    }
+}
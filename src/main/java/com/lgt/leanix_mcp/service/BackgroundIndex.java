@@ -0,0 +1,244 @@
+package com.lgt.leanix_mcp.service;
+
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.tool.DeadlineExceededException;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import com.lgt.leanix_mcp.webhook.FactSheetChangeListener;
+import com.lgt.leanix_mcp.webhook.FactSheetEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An index of fact sheets per key, e.g. per workspace, that is crawled in the
+ * background and kept current from webhooks.
+ * <p>
+ * An index is crawled on first use, outside the deadline of the invocation
+ * that asked for it; that invocation waits for it until its deadline. Fact
+ * sheets reported by webhooks are recorded per key and fetched again, in one
+ * batch, on the next query, which hands them to {@link #apply}. Once older than
+ * {@code maxAge} an index is still served while it is crawled again; changes
+ * applied to it meanwhile are applied to the new index as well, since the
+ * crawl may predate them. Queries of one key are serialized, so an index need
+ * not be thread-safe.
+ *
+ * @param <K> Key of an index
+ * @param <S> The index
+ */
+@Slf4j
+public abstract class BackgroundIndex<K, S> implements FactSheetChangeListener, DisposableBean {
+
+    private final String description;
+    private final WorkspaceRegistry workspaces;
+    private final FactSheetBatchLoader factSheetBatchLoader;
+    private final FactSheetProjection projection;
+    private final Duration maxAge;
+    private final Clock clock;
+    private final Map<K, State<S>> states = new ConcurrentHashMap<>();
+    // Changed fact sheets per key, kept across rebuilds so changes during a crawl are not lost
+    private final Map<K, Set<String>> pending = new ConcurrentHashMap<>();
+    private final Map<K, CompletableFuture<State<S>>> builds = new ConcurrentHashMap<>();
+    private final ExecutorService builder = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param description          Name of the index in messages, e.g.
+     *                             {@code "lifecycle index"}
+     * @param workspaces           Resolves the workspace of webhook events
+     * @param factSheetBatchLoader Fetches changed fact sheets
+     * @param projection           Fields the changed fact sheets are fetched with
+     * @param maxAge               Age after which an index is crawled again
+     * @param clock                Clock the age is measured with
+     */
+    protected BackgroundIndex(String description, WorkspaceRegistry workspaces,
+            FactSheetBatchLoader factSheetBatchLoader, FactSheetProjection projection, Duration maxAge, Clock clock) {
+        this.description = description;
+        this.workspaces = workspaces;
+        this.factSheetBatchLoader = factSheetBatchLoader;
+        this.projection = projection;
+        this.maxAge = maxAge;
+        this.clock = clock;
+    }
+
+    /**
+     * @return Name of the workspace the index of the key covers
+     */
+    protected abstract String workspaceOf(K key);
+
+    /**
+     * Builds the index of a key from a crawl. Runs in the background on the
+     * workspace of the caller, without deadline.
+     */
+    protected abstract S crawl(K key);
+
+    /**
+     * Applies changed fact sheets to an index.
+     *
+     * @param ids    Ids of the changed fact sheets
+     * @param loaded The changed fact sheets by id; archived and deleted fact
+     *               sheets are missing
+     */
+    protected abstract void apply(K key, S index, List<String> ids, Map<String, FactSheet> loaded);
+
+    /**
+     * Applies the pending changes of a key and queries its index, waiting for
+     * the first crawl until the deadline of the current invocation.
+     *
+     * @param lookup Reads the index
+     * @return The result of the lookup
+     */
+    protected <T> T query(K key, Function<S, T> lookup) {
+        while (true) {
+            State<S> state = state(key);
+            state.lock().lock();
+            try {
+                // Replaced while waiting; its changes have been handed to the new index
+                if (states.get(key) == state) {
+                    applyPending(key, state);
+                    return lookup.apply(state.index());
+                }
+            } finally {
+                state.lock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Records the changed fact sheets for the indexes of the workspace; they
+     * are fetched again on the next query.
+     */
+    @Override
+    public void factSheetsChanged(String workspace, List<FactSheetEvent> events) {
+        String name = workspace != null ? workspace : workspaces.getDefaultWorkspace();
+        pending.forEach((key, ids) -> {
+            if (workspaceOf(key).equals(name)) {
+                events.forEach(event -> ids.addAll(event.factSheetIds()));
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        builder.shutdownNow();
+    }
+
+    private void applyPending(K key, State<S> state) {
+        Set<String> changed = pending.get(key);
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(changed);
+        changed.removeAll(ids);
+        long start = System.nanoTime();
+        Map<String, FactSheet> loaded;
+        try {
+            loaded = factSheetBatchLoader.load(ids, projection);
+        } catch (RuntimeException e) {
+            // Retried on the next query; until then the index predates the changes
+            changed.addAll(ids);
+            log.warn("[{}] Could not fetch {} changed fact sheets: {}", getClass().getSimpleName(), ids.size(),
+                    e.getMessage());
+            ToolInvocationContext.current().ifPresent(context ->
+                    context.markStale(Duration.between(state.builtAt(), clock.instant())));
+            return;
+        }
+        apply(key, state.index(), ids, loaded);
+        state.applied().addAll(ids);
+        log.debug("[{}] Applied {} changed fact sheets to the {} of {} in {}ms", getClass().getSimpleName(),
+                ids.size(), description, key, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private State<S> state(K key) {
+        pending.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+        State<S> state = states.get(key);
+        if (state != null) {
+            if (state.builtAt().plus(maxAge).isBefore(clock.instant())) {
+                // Served while the index is crawled again
+                build(key);
+            }
+            return state;
+        }
+        CompletableFuture<State<S>> build = build(key);
+        Duration remaining = ToolInvocationContext.remaining().orElse(null);
+        try {
+            return remaining != null ? build.get(Math.max(0, remaining.toMillis()), TimeUnit.MILLISECONDS)
+                    : build.get();
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("The " + description + " of " + key
+                    + " is still being built, try again shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while building the " + description, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime
+                    : new RuntimeException("Error building the " + description + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    private CompletableFuture<State<S>> build(K key) {
+        CompletableFuture<State<S>> build = new CompletableFuture<>();
+        CompletableFuture<State<S>> running = builds.putIfAbsent(key, build);
+        if (running != null) {
+            return running;
+        }
+        Supplier<State<S>> load = ToolInvocationContext.detach(() -> load(key));
+        builder.execute(() -> {
+            try {
+                State<S> state = load.get();
+                State<S> previous = states.put(key, state);
+                if (previous != null) {
+                    // The crawl may predate changes applied to the previous index meanwhile
+                    previous.lock().lock();
+                    try {
+                        pending.get(key).addAll(previous.applied());
+                    } finally {
+                        previous.lock().unlock();
+                    }
+                }
+                builds.remove(key, build);
+                build.complete(state);
+            } catch (RuntimeException e) {
+                log.warn("[{}] Could not build the {} of {}: {}", getClass().getSimpleName(), description, key,
+                        e.getMessage());
+                builds.remove(key, build);
+                build.completeExceptionally(e);
+            }
+        });
+        return build;
+    }
+
+    private State<S> load(K key) {
+        long start = System.nanoTime();
+        // Taken before the crawl, which may miss changes made while it runs
+        Instant builtAt = clock.instant();
+        S index = crawl(key);
+        log.info("[{}] Built the {} of {} in {}ms", getClass().getSimpleName(), description, key,
+                (System.nanoTime() - start) / 1_000_000);
+        return new State<>(builtAt, index, new ReentrantLock(), ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * @param applied Changed fact sheets applied since the crawl
+     */
+    private record State<S>(Instant builtAt, S index, ReentrantLock lock, Set<String> applied) {
+    }
+}
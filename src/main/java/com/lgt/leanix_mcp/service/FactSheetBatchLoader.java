@@ -0,0 +1,129 @@
+package com.lgt.leanix_mcp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgt.leanix_mcp.cache.FactSheetCache;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.graphql.ProjectionQueryCompiler;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Resolves many fact sheets by id with as few round-trips as possible. Ids are
+ * deduplicated and answered from the {@link FactSheetCache} where possible; the
+ * rest is fetched in chunks of aliased {@code factSheet(id:)} lookups that run
+ * concurrently on a bounded pool.
+ */
+@Slf4j
+@Component
+public class FactSheetBatchLoader implements DisposableBean {
+
+    private final WorkspaceRegistry workspaces;
+    private final ProjectionQueryCompiler projectionQueryCompiler;
+    private final FactSheetCache factSheetCache;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public FactSheetBatchLoader(WorkspaceRegistry workspaces, ProjectionQueryCompiler projectionQueryCompiler,
+            FactSheetCache factSheetCache, LeanIXClientConfig leanIXClientConfig) {
+        this.workspaces = workspaces;
+        this.projectionQueryCompiler = projectionQueryCompiler;
+        this.factSheetCache = factSheetCache;
+        this.chunkSize = Math.max(1, leanIXClientConfig.getBatch().getChunkSize());
+        this.executor = Executors.newFixedThreadPool(Math.max(1, leanIXClientConfig.getBatch().getParallelism()),
+                Thread.ofPlatform().name("leanix-batch-", 0).daemon().factory());
+    }
+
+    /**
+     * Loads fact sheets by id.
+     *
+     * @param ids        Ids to resolve (duplicates are fetched once)
+     * @param projection Fields to fetch
+     * @return Fact sheets by id; ids that do not exist are absent
+     */
+    public Map<String, FactSheet> load(Collection<String> ids, FactSheetProjection projection) {
+        Map<String, FactSheet> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            if (id == null || id.isBlank()) {
+                continue;
+            }
+            factSheetCache.get(id, projection).ifPresentOrElse(fs -> found.put(id, fs), () -> missing.add(id));
+        }
+        log.info("Resolving {} fact sheet ids: {} from cache, {} from LeanIX", found.size() + missing.size(),
+                found.size(), missing.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        List<Future<Map<String, FactSheet>>> chunks = new ArrayList<>();
+        for (int start = 0; start < missing.size(); start += chunkSize) {
+            List<String> chunk = missing.subList(start, Math.min(missing.size(), start + chunkSize));
+            chunks.add(executor.submit(ToolInvocationContext.propagate(() -> fetchChunk(chunk, projection))));
+        }
+        try {
+            for (Future<Map<String, FactSheet>> chunk : chunks) {
+                found.putAll(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw new RuntimeException("Interrupted while loading fact sheets", e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime
+                    : new RuntimeException("Error loading fact sheets: " + cause.getMessage(), cause);
+        }
+        return found;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private Map<String, FactSheet> fetchChunk(List<String> ids, FactSheetProjection projection) {
+        // One alias per id; padding to fewer document shapes would cost LeanIX duplicate lookups
+        String query = projectionQueryCompiler.compileByIds(ids.size(), projection);
+        Map<String, Object> variables = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            variables.put("id" + i, ids.get(i));
+        }
+
+        JsonNode data = workspaces.client().query(query, variables).path("data");
+        Map<String, FactSheet> result = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            JsonNode node = data.path(ProjectionQueryCompiler.alias(i));
+            if (!node.isObject()) {
+                continue;
+            }
+            try {
+                FactSheet factSheet = objectMapper.treeToValue(node, FactSheet.class);
+                factSheetCache.put(factSheet, projection);
+                result.put(ids.get(i), factSheet);
+            } catch (Exception e) {
+                log.error("Error mapping fact sheet {}", ids.get(i), e);
+                throw new RuntimeException("Error mapping fact sheet " + ids.get(i) + ": " + e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,301 @@
+package com.lgt.leanix_mcp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgt.leanix_mcp.cache.FactSheetCache;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.client.PageSizeController;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.graphql.FactSheetQuery;
+import com.lgt.leanix_mcp.graphql.ProjectionQueryCompiler;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Crawls all fact sheets of a type by splitting it into partitions along one
+ * facet (e.g. lifecycle phase or subtype) and walking the cursors of the
+ * partitions concurrently. One partition is created per facet value, plus a
+ * remainder partition for fact sheets without any of the values, so the
+ * partitions together cover the whole type. Results are merged by id.
+ * <p>
+ * When the deadline of the tool invocation passes, the partitions stop after
+ * their current page and the crawl returns what it has, marking the invocation
+ * partial with a continuation token that resumes the unfinished partitions.
+ */
+@Slf4j
+@Component
+@RegisterReflectionForBinding(FactSheetCrawler.Continuation.class)
+public class FactSheetCrawler implements DisposableBean {
+
+    static final String TYPE_FACET = "FactSheetTypes";
+
+    private static final String FACETS_QUERY = """
+            query CrawlFacets($filter: FilterInput!) {
+              allFactSheets(filter: $filter) {
+                totalCount
+                filterOptions {
+                  facets {
+                    facetKey
+                    results {
+                      key
+                      count
+                    }
+                  }
+                }
+              }
+            }
+            """;
+
+    private final WorkspaceRegistry workspaces;
+    private final ProjectionQueryCompiler projectionQueryCompiler;
+    private final FactSheetCache factSheetCache;
+    private final PageSizeController pageSizeController;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public FactSheetCrawler(WorkspaceRegistry workspaces, ProjectionQueryCompiler projectionQueryCompiler,
+            FactSheetCache factSheetCache, PageSizeController pageSizeController,
+            LeanIXClientConfig leanIXClientConfig) {
+        this.workspaces = workspaces;
+        this.projectionQueryCompiler = projectionQueryCompiler;
+        this.factSheetCache = factSheetCache;
+        this.pageSizeController = pageSizeController;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, leanIXClientConfig.getCrawl().getParallelism()),
+                Thread.ofPlatform().name("leanix-crawl-", 0).daemon().factory());
+    }
+
+    /**
+     * Fetches all fact sheets of a type.
+     *
+     * @param factSheetType The type of fact sheet (e.g., "Application")
+     * @param projection    Fields to fetch
+     * @return The fact sheets, each id once
+     */
+    public List<FactSheet> crawl(String factSheetType, FactSheetProjection projection) {
+        return crawl(factSheetType, projection, null);
+    }
+
+    /**
+     * Fetches all fact sheets of a type, or the rest of an earlier crawl that
+     * was cut short by its deadline.
+     *
+     * @param factSheetType The type of fact sheet (e.g., "Application")
+     * @param projection    Fields to fetch
+     * @param continuation  Continuation of the earlier crawl (null to start over)
+     * @return The fact sheets, each id once
+     */
+    public List<FactSheet> crawl(String factSheetType, FactSheetProjection projection, String continuation) {
+        List<PartitionCursor> cursors = continuation == null
+                ? partition(factSheetType).stream().map(partition -> new PartitionCursor(partition, null)).toList()
+                : decode(factSheetType, continuation);
+        log.info("[FactSheetCrawler] Crawling {} in {} partitions", factSheetType, cursors.size());
+
+        List<Future<PartitionResult>> futures = new ArrayList<>();
+        for (PartitionCursor cursor : cursors) {
+            futures.add(executor.submit(ToolInvocationContext.propagate(
+                    () -> crawlPartition(factSheetType, cursor, projection))));
+        }
+        Map<String, FactSheet> merged = new LinkedHashMap<>();
+        List<PartitionCursor> unfinished = new ArrayList<>();
+        try {
+            for (Future<PartitionResult> future : futures) {
+                PartitionResult result = future.get();
+                for (FactSheet factSheet : result.factSheets()) {
+                    merged.putIfAbsent(factSheet.getId(), factSheet);
+                }
+                if (result.resumeAt() != null) {
+                    unfinished.add(result.resumeAt());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Interrupted while crawling " + factSheetType, e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime
+                    : new RuntimeException("Error crawling " + factSheetType + ": " + cause.getMessage(), cause);
+        }
+        merged.values().forEach(factSheet -> factSheetCache.put(factSheet, projection));
+        if (!unfinished.isEmpty()) {
+            String token = encode(factSheetType, unfinished);
+            ToolInvocationContext.current().ifPresent(context -> context.markPartial(token));
+            log.warn("[FactSheetCrawler] Deadline reached with {} of {} partitions of {} unfinished",
+                    unfinished.size(), cursors.size(), factSheetType);
+        }
+        log.info("[FactSheetCrawler] Crawled {} fact sheets of type {}", merged.size(), factSheetType);
+        return new ArrayList<>(merged.values());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Splits a type along the facet whose largest value is smallest, i.e. the
+     * facet that bounds the longest partition best. Facets whose counts add up
+     * to more than the total are multi-valued (like tags) and skipped, since
+     * their partitions would overlap.
+     */
+    List<Partition> partition(String factSheetType) {
+        JsonNode all = workspaces.client().query(FACETS_QUERY, Map.of("filter", filter(factSheetType, null)))
+                .path("data").path("allFactSheets");
+        long total = all.path("totalCount").asLong();
+
+        JsonNode best = null;
+        long bestLargest = total;
+        for (JsonNode facet : all.path("filterOptions").path("facets")) {
+            if (TYPE_FACET.equals(facet.path("facetKey").asText())) {
+                continue;
+            }
+            long sum = 0;
+            long largest = 0;
+            int nonEmpty = 0;
+            for (JsonNode result : facet.path("results")) {
+                long count = result.path("count").asLong();
+                sum += count;
+                largest = Math.max(largest, count);
+                nonEmpty += count > 0 ? 1 : 0;
+            }
+            if (nonEmpty >= 2 && sum <= total && largest < bestLargest) {
+                best = facet;
+                bestLargest = largest;
+            }
+        }
+        if (best == null) {
+            return List.of(new Partition(null, null, List.of()));
+        }
+
+        String facetKey = best.path("facetKey").asText();
+        List<Partition> partitions = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (JsonNode result : best.path("results")) {
+            keys.add(result.path("key").asText());
+            if (result.path("count").asLong() > 0) {
+                partitions.add(new Partition(facetKey, "OR", List.of(result.path("key").asText())));
+            }
+        }
+        // Counts are a snapshot; the remainder also picks up fact sheets that changed value meanwhile
+        partitions.add(new Partition(facetKey, "NOR", keys));
+        return partitions;
+    }
+
+    private PartitionResult crawlPartition(String factSheetType, PartitionCursor start,
+            FactSheetProjection projection) {
+        String query = projectionQueryCompiler.compile(FactSheetQuery.BY_FILTER_PAGINATED, projection);
+        String operation = "CrawlFactSheetPartition" + projection.getFields();
+        Partition partition = start.partition();
+        List<FactSheet> factSheets = new ArrayList<>();
+        String after = start.after();
+        do {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new RuntimeException("Crawl of " + factSheetType + " was cancelled");
+            }
+            if (ToolInvocationContext.deadlineExpired()) {
+                return new PartitionResult(factSheets, new PartitionCursor(partition, after));
+            }
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("filter", filter(factSheetType, partition));
+            int pageSize = pageSizeController.pageSize(operation);
+            variables.put("first", pageSize);
+            if (after != null) {
+                variables.put("after", after);
+            }
+            JsonNode page;
+            try {
+                page = pageSizeController.observe(operation, pageSize, () -> workspaces.client().query(query, variables))
+                        .path("data").path("allFactSheets");
+            } catch (RuntimeException e) {
+                if (ToolInvocationContext.deadlineExpired()) {
+                    return new PartitionResult(factSheets, new PartitionCursor(partition, after));
+                }
+                throw e;
+            }
+            for (JsonNode edge : page.path("edges")) {
+                try {
+                    factSheets.add(objectMapper.treeToValue(edge.path("node"), FactSheet.class));
+                } catch (Exception e) {
+                    log.error("Error mapping fact sheet of type {}", factSheetType, e);
+                    throw new RuntimeException("Error mapping fact sheets: " + e.getMessage(), e);
+                }
+            }
+            JsonNode pageInfo = page.path("pageInfo");
+            after = pageInfo.path("hasNextPage").asBoolean() ? pageInfo.path("endCursor").asText(null) : null;
+        } while (after != null);
+        log.debug("[FactSheetCrawler] Partition {} of {} returned {} fact sheets", partition, factSheetType,
+                factSheets.size());
+        return new PartitionResult(factSheets, null);
+    }
+
+    private String encode(String factSheetType, List<PartitionCursor> cursors) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(new Continuation(factSheetType, cursors)));
+        } catch (Exception e) {
+            throw new RuntimeException("Error encoding crawl continuation: " + e.getMessage(), e);
+        }
+    }
+
+    private List<PartitionCursor> decode(String factSheetType, String continuation) {
+        Continuation decoded;
+        try {
+            decoded = objectMapper.readValue(Base64.getUrlDecoder().decode(continuation), Continuation.class);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid continuation: " + e.getMessage(), e);
+        }
+        if (!factSheetType.equals(decoded.type()) || decoded.partitions() == null) {
+            throw new IllegalArgumentException("Continuation does not belong to a crawl of " + factSheetType);
+        }
+        return decoded.partitions();
+    }
+
+    private static Map<String, Object> filter(String factSheetType, Partition partition) {
+        List<Map<String, Object>> facetFilters = new ArrayList<>();
+        facetFilters.add(Map.of("facetKey", TYPE_FACET, "keys", List.of(factSheetType)));
+        if (partition != null && partition.facetKey() != null) {
+            facetFilters.add(Map.of("facetKey", partition.facetKey(), "operator", partition.operator(),
+                    "keys", partition.keys()));
+        }
+        return Map.of("facetFilters", facetFilters);
+    }
+
+    /**
+     * Fact sheets of the crawled type matching {@code operator} over the facet
+     * keys; a null facet key selects the whole type.
+     */
+    record Partition(String facetKey, String operator, List<String> keys) {
+    }
+
+    /**
+     * A partition and the cursor to continue it from (null for its start).
+     */
+    record PartitionCursor(Partition partition, String after) {
+    }
+
+    /**
+     * @param resumeAt Where to resume the partition, null if it is complete
+     */
+    private record PartitionResult(List<FactSheet> factSheets, PartitionCursor resumeAt) {
+    }
+
+    record Continuation(String type, List<PartitionCursor> partitions) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.lgt.leanix_mcp.service;
+
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Request-scoped DataLoader for fact sheets. Ids requested through
+ * {@link #load(String)} are queued and resolved together by the next
+ * {@link #dispatch()} with a single batched lookup; each id is fetched at most
+ * once per loader.
+ * <p>
+ * Loaders are not thread-safe and are meant to live for one tool invocation,
+ * see {@link #forCurrentInvocation}.
+ */
+@Slf4j
+public class FactSheetDataLoader {
+
+    private final FactSheetBatchLoader batchLoader;
+    private final FactSheetProjection projection;
+    private final Map<String, CompletableFuture<FactSheet>> memo = new HashMap<>();
+    private final Set<String> queue = new LinkedHashSet<>();
+    private int dispatches;
+
+    public FactSheetDataLoader(FactSheetBatchLoader batchLoader, FactSheetProjection projection) {
+        this.batchLoader = batchLoader;
+        this.projection = projection;
+    }
+
+    /**
+     * Returns the loader of the current tool invocation for the projection, or a
+     * new loader when called outside of a tool invocation.
+     *
+     * @param batchLoader Loader used for the batched lookups
+     * @param projection  Fields to fetch
+     * @return The request-scoped loader
+     */
+    public static FactSheetDataLoader forCurrentInvocation(FactSheetBatchLoader batchLoader,
+            FactSheetProjection projection) {
+        return ToolInvocationContext.current()
+                .map(context -> context.computeIfAbsent(new ScopeKey(projection),
+                        key -> new FactSheetDataLoader(batchLoader, projection)))
+                .orElseGet(() -> new FactSheetDataLoader(batchLoader, projection));
+    }
+
+    /**
+     * Requests a fact sheet. The returned future completes on the next
+     * {@link #dispatch()}, with null if the fact sheet does not exist.
+     *
+     * @param id Fact sheet id
+     * @return Future of the fact sheet
+     */
+    public CompletableFuture<FactSheet> load(String id) {
+        return memo.computeIfAbsent(id, key -> {
+            queue.add(key);
+            return new CompletableFuture<>();
+        });
+    }
+
+    /**
+     * Requests several fact sheets.
+     *
+     * @param ids Fact sheet ids
+     * @return Futures of the fact sheets, in input order
+     */
+    public List<CompletableFuture<FactSheet>> loadMany(Collection<String> ids) {
+        List<CompletableFuture<FactSheet>> futures = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            futures.add(load(id));
+        }
+        return futures;
+    }
+
+    /**
+     * Resolves all queued ids with one batched lookup.
+     */
+    public void dispatch() {
+        if (queue.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(queue);
+        queue.clear();
+        dispatches++;
+        log.debug("[FactSheetDataLoader] Dispatching {} ids", ids.size());
+        try {
+            Map<String, FactSheet> loaded = batchLoader.load(ids, projection);
+            ids.forEach(id -> memo.get(id).complete(loaded.get(id)));
+        } catch (RuntimeException e) {
+            ids.forEach(id -> memo.remove(id).completeExceptionally(e));
+            throw e;
+        }
+    }
+
+    /**
+     * @return Number of batched lookups issued so far
+     */
+    public int getDispatchCount() {
+        return dispatches;
+    }
+
+    private record ScopeKey(FactSheetProjection projection) {
+    }
+}
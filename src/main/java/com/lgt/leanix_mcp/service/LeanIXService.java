@@ -1,10 +1,26 @@
 package com.lgt.leanix_mcp.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.lgt.leanix_mcp.client.LeanIXClient;
+import com.lgt.leanix_mcp.cache.PagePrefetcher;
+import com.lgt.leanix_mcp.cache.ToolResultCache;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.export.FactSheetExporter;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.graphql.FactSheetQuery;
+import com.lgt.leanix_mcp.graphql.ProjectionQueryCompiler;
+import com.lgt.leanix_mcp.lifecycle.LifecycleIndex;
 import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.model.FactSheetTreeNode;
+import com.lgt.leanix_mcp.rollup.HierarchyRollups;
+import com.lgt.leanix_mcp.snapshot.FactSheetSnapshot;
+import com.lgt.leanix_mcp.snapshot.SnapshotDiff;
+import com.lgt.leanix_mcp.snapshot.SnapshotStore;
+import com.lgt.leanix_mcp.subscription.SubscriptionIndex;
+import com.lgt.leanix_mcp.tool.DeadlineExceededException;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +30,7 @@ import org.springframework.stereotype.Service;
 import java.util.Map;
 
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
 
 @Slf4j
 @Service
@@ -43,8 +60,25 @@ public class LeanIXService {
     }
   }
 
-  private final LeanIXClient leanIXClient;
+  private static final int DEFAULT_HIERARCHY_DEPTH = 3;
+  private static final int MAX_HIERARCHY_DEPTH = 10;
+
+  private static final String FIELDS_PARAM_DESCRIPTION = "Optional list of FactSheet field names to return "
+      + "(e.g. id, name, type, lifecycle, relToChild). id and type are always included. "
+      + "Omit to return the default field set.";
+
+  private final WorkspaceRegistry workspaces;
   private final com.lgt.leanix_mcp.config.LeanIXClientConfig leanIXClientConfig;
+  private final ProjectionQueryCompiler projectionQueryCompiler;
+  private final ToolResultCache toolResultCache;
+  private final FactSheetBatchLoader factSheetBatchLoader;
+  private final FactSheetCrawler factSheetCrawler;
+  private final PagePrefetcher pagePrefetcher;
+  private final FactSheetExporter factSheetExporter;
+  private final SnapshotStore snapshotStore;
+  private final LifecycleIndex lifecycleIndex;
+  private final HierarchyRollups hierarchyRollups;
+  private final SubscriptionIndex subscriptionIndex;
   private final ObjectMapper objectMapper = new ObjectMapper();
 
   /**
@@ -54,13 +88,27 @@ public class LeanIXService {
    *                      "DataObject", etc.)
    * @return List of FactSheet DTOs
    */
-  @Tool(name = "getFactSheetsByType", description = "Get all factsheets of a given type (string), returns List<FactSheet>")
   public java.util.List<FactSheet> getFactSheetsByType(String factSheetType) {
+    return getFactSheetsByType(factSheetType, null);
+  }
+
+  /**
+   * Get all fact sheets of a specific type, selecting only the requested fields
+   *
+   * @param factSheetType The type of fact sheet (e.g., "Application",
+   *                      "DataObject", etc.)
+   * @param fields        FactSheet fields to return (null for the default set)
+   * @return List of FactSheet DTOs
+   */
+  @Tool(name = "getFactSheetsByType", description = "Get all factsheets of a given type (string), returns List<FactSheet>")
+  public java.util.List<FactSheet> getFactSheetsByType(String factSheetType,
+      @ToolParam(required = false, description = FIELDS_PARAM_DESCRIPTION) java.util.List<String> fields) {
     if (factSheetType == null || factSheetType.trim().isEmpty()) {
       throw new IllegalArgumentException("factSheetType parameter is required");
     }
     log.info("Fetching fact sheets of type: {}", factSheetType);
-    JsonNode result = getFactSheetsByTypeInternal(factSheetType);
+    JsonNode result = toolResultCache.get("getFactSheetsByType", Arrays.asList(factSheetType, fields),
+        () -> getFactSheetsByTypeInternal(factSheetType, fields));
     try {
       JsonNode edges = result.path("data").path("allFactSheets").path("edges");
       if (edges.isMissingNode() || !edges.isArray()) {
@@ -80,15 +128,7 @@ public class LeanIXService {
     }
   }
 
-  /**
-   * Internal method to get all fact sheets of a specific type
-   * 
-   * @param factSheetType The type of fact sheet (e.g., "Application",
-   *                      "DataObject", etc.)
-   * @return JsonNode containing the query result
-   */
-  public JsonNode getFactSheetsByTypeInternal(String factSheetType) {
-    String query = """
+  private static final String BY_TYPE_QUERY = """
         query GetFactSheetsByType($type: FactSheetType!) {
           allFactSheets(factSheetType: $type) {
             edges {
@@ -109,6 +149,31 @@ public class LeanIXService {
         }
         """;
 
+  /**
+   * Internal method to get all fact sheets of a specific type
+   * 
+   * @param factSheetType The type of fact sheet (e.g., "Application",
+   *                      "DataObject", etc.)
+   * @return JsonNode containing the query result
+   */
+  public JsonNode getFactSheetsByTypeInternal(String factSheetType) {
+    return getFactSheetsByTypeInternal(factSheetType, null);
+  }
+
+  /**
+   * Internal method to get all fact sheets of a specific type, selecting only
+   * the requested fields
+   *
+   * @param factSheetType The type of fact sheet (e.g., "Application",
+   *                      "DataObject", etc.)
+   * @param fields        FactSheet fields to select (null for the default set)
+   * @return JsonNode containing the query result
+   */
+  public JsonNode getFactSheetsByTypeInternal(String factSheetType, java.util.List<String> fields) {
+    String query = FactSheetProjection.isRequested(fields)
+        ? projectionQueryCompiler.compile(FactSheetQuery.BY_TYPE, fields)
+        : BY_TYPE_QUERY;
+
     Map<String, Object> variables = Map.of("type", factSheetType);
 
     log.info("GraphQL Query: {}", query.replaceAll("\\s+", " "));
@@ -116,7 +181,7 @@ public class LeanIXService {
     log.info("Fetching fact sheets of type: {}", factSheetType);
     log.info("GraphQL Query: {}", query.replaceAll("\\s+", " "));
     log.info("GraphQL Variables: {}", variables);
-    JsonNode result = leanIXClient.query(query, variables);
+    JsonNode result = workspaces.client().query(query, variables);
     return result;
   }
 
@@ -126,13 +191,26 @@ public class LeanIXService {
    * @param searchTerm The search term to look for in fact sheet names
    * @return List of FactSheet DTOs
    */
-  @Tool(name = "searchFactSheetsByName", description = "Search for factsheets by name (string), returns List<FactSheet>")
   public java.util.List<FactSheet> searchFactSheetsByName(String searchTerm) {
+    return searchFactSheetsByName(searchTerm, null);
+  }
+
+  /**
+   * Search for fact sheets by name, selecting only the requested fields
+   *
+   * @param searchTerm The search term to look for in fact sheet names
+   * @param fields     FactSheet fields to return (null for the default set)
+   * @return List of FactSheet DTOs
+   */
+  @Tool(name = "searchFactSheetsByName", description = "Search for factsheets by name (string), returns List<FactSheet>")
+  public java.util.List<FactSheet> searchFactSheetsByName(String searchTerm,
+      @ToolParam(required = false, description = FIELDS_PARAM_DESCRIPTION) java.util.List<String> fields) {
     if (searchTerm == null || searchTerm.trim().isEmpty()) {
       throw new IllegalArgumentException("searchTerm parameter is required");
     }
     log.info("Searching for fact sheets with term: {}", searchTerm);
-    JsonNode result = searchFactSheetsByNameInternal(searchTerm);
+    JsonNode result = toolResultCache.get("searchFactSheetsByName", Arrays.asList(searchTerm, fields),
+        () -> searchFactSheetsByNameInternal(searchTerm, fields));
     try {
       JsonNode edges = result.path("data").path("allFactSheets").path("edges");
       if (edges.isMissingNode() || !edges.isArray()) {
@@ -152,14 +230,7 @@ public class LeanIXService {
     }
   }
 
-  /**
-   * Internal method to search for fact sheets by name
-   * 
-   * @param searchTerm The search term to look for in fact sheet names
-   * @return JsonNode containing the query result
-   */
-  public JsonNode searchFactSheetsByNameInternal(String searchTerm) {
-    String query = """
+  private static final String SEARCH_BY_NAME_QUERY = """
         query searchFactSheetByName($name: String!) {
           allFactSheets(filter: {
             fullTextSearch: $name
@@ -463,15 +534,150 @@ public class LeanIXService {
         }
         """;
 
+  /**
+   * Internal method to search for fact sheets by name
+   * 
+   * @param searchTerm The search term to look for in fact sheet names
+   * @return JsonNode containing the query result
+   */
+  public JsonNode searchFactSheetsByNameInternal(String searchTerm) {
+    return searchFactSheetsByNameInternal(searchTerm, null);
+  }
+
+  /**
+   * Internal method to search for fact sheets by name, selecting only the
+   * requested fields
+   *
+   * @param searchTerm The search term to look for in fact sheet names
+   * @param fields     FactSheet fields to select (null for the default set)
+   * @return JsonNode containing the query result
+   */
+  public JsonNode searchFactSheetsByNameInternal(String searchTerm, java.util.List<String> fields) {
+    String query = FactSheetProjection.isRequested(fields)
+        ? projectionQueryCompiler.compile(FactSheetQuery.SEARCH_BY_NAME, fields)
+        : SEARCH_BY_NAME_QUERY;
+
     Map<String, Object> variables = Map.of("name", searchTerm);
 
     log.info("GraphQL Query: {}", query.replaceAll("\\s+", " "));
     log.info("GraphQL Variables: {}", variables);
     log.info("Searching for fact sheets with term: {}", searchTerm);
-    JsonNode result = leanIXClient.query(query, variables);
+    JsonNode result = workspaces.client().query(query, variables);
     return result;
   }
 
+  /**
+   * Get fact sheets by their ids. Ids are deduplicated, answered from cache
+   * where possible and otherwise fetched in batched, aliased lookups.
+   *
+   * @param ids    Fact sheet ids
+   * @param fields FactSheet fields to return (null for the default set)
+   * @return List of FactSheet DTOs in input order, null for unknown ids
+   */
+  @Tool(name = "getFactSheetsByIds", description = "Get factsheets by their ids (list of strings) in one batched request, returns List<FactSheet> in input order (null for unknown ids)")
+  public java.util.List<FactSheet> getFactSheetsByIds(java.util.List<String> ids,
+      @ToolParam(required = false, description = FIELDS_PARAM_DESCRIPTION) java.util.List<String> fields) {
+    if (ids == null || ids.isEmpty()) {
+      throw new IllegalArgumentException("ids parameter is required");
+    }
+    FactSheetProjection projection = FactSheetProjection.isRequested(fields)
+        ? FactSheetProjection.of(fields)
+        : FactSheetProjection.defaults();
+    log.info("Fetching {} fact sheets by id", ids.size());
+    Map<String, FactSheet> byId = factSheetBatchLoader.load(ids, projection);
+    java.util.List<FactSheet> factSheets = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      factSheets.add(byId.get(id));
+    }
+    log.info("Successfully resolved {} of {} fact sheet ids", byId.size(), ids.size());
+    return factSheets;
+  }
+
+  /**
+   * Expand the relToChild relations of fact sheets to their full child fact
+   * sheets. All ids of one level are resolved with a single batched lookup, so
+   * a tree costs one round-trip per level rather than one per node.
+   *
+   * @param ids    Ids of the root fact sheets
+   * @param depth  Number of levels to expand (default 3)
+   * @param fields FactSheet fields to return (null for the default set)
+   * @return One tree per root id, in input order
+   */
+  @Tool(name = "getFactSheetHierarchy", description = "Expand the child relations (relToChild) of the given factsheet ids (list of strings) to full child factsheets, level by level up to depth (int, optional, default 3, max 10). Returns one tree per id")
+  public java.util.List<FactSheetTreeNode> getFactSheetHierarchy(java.util.List<String> ids,
+      @ToolParam(required = false, description = "Number of levels to expand (default 3, max 10)") Integer depth,
+      @ToolParam(required = false, description = FIELDS_PARAM_DESCRIPTION) java.util.List<String> fields) {
+    if (ids == null || ids.isEmpty()) {
+      throw new IllegalArgumentException("ids parameter is required");
+    }
+    int maxDepth = depth == null ? DEFAULT_HIERARCHY_DEPTH : Math.max(0, Math.min(depth, MAX_HIERARCHY_DEPTH));
+    java.util.Set<String> selected = new java.util.LinkedHashSet<>(FactSheetProjection.isRequested(fields)
+        ? fields
+        : FactSheetProjection.defaults().getFields());
+    selected.add("relToChild");
+    FactSheetDataLoader loader = FactSheetDataLoader.forCurrentInvocation(factSheetBatchLoader,
+        FactSheetProjection.of(selected));
+    log.info("Expanding hierarchy of {} fact sheets to depth {}", ids.size(), maxDepth);
+
+    java.util.List<FactSheetTreeNode> roots = new ArrayList<>();
+    java.util.List<PendingNode> pending = new ArrayList<>();
+    for (String id : ids) {
+      FactSheetTreeNode root = new FactSheetTreeNode(id);
+      roots.add(root);
+      pending.add(new PendingNode(root, loader.load(id)));
+    }
+    java.util.Set<String> expanded = new java.util.HashSet<>();
+    for (int level = 0; !pending.isEmpty(); level++) {
+      try {
+        ToolInvocationContext.checkDeadline("expanding level " + level);
+        loader.dispatch();
+      } catch (RuntimeException e) {
+        if (level == 0 || !ToolInvocationContext.deadlineExpired()) {
+          throw e;
+        }
+        // Return the levels expanded so far; the unexpanded nodes carry their ids only
+        log.warn("Deadline reached after expanding {} levels", level);
+        ToolInvocationContext.current().ifPresent(context -> context.markPartial(null));
+        break;
+      }
+      java.util.List<PendingNode> next = new ArrayList<>();
+      for (PendingNode node : pending) {
+        FactSheet factSheet = node.factSheet().join();
+        node.node().setFactSheet(factSheet);
+        if (level >= maxDepth || factSheet == null || !expanded.add(node.node().getId())) {
+          continue;
+        }
+        java.util.List<FactSheetTreeNode> children = new ArrayList<>();
+        for (String childId : childIds(factSheet)) {
+          FactSheetTreeNode child = new FactSheetTreeNode(childId);
+          children.add(child);
+          next.add(new PendingNode(child, loader.load(childId)));
+        }
+        node.node().setChildren(children);
+      }
+      pending = next;
+    }
+    log.info("Expanded hierarchy with {} lookups", loader.getDispatchCount());
+    return roots;
+  }
+
+  private static java.util.List<String> childIds(FactSheet factSheet) {
+    if (factSheet.getRelToChild() == null || factSheet.getRelToChild().getEdges() == null) {
+      return Collections.emptyList();
+    }
+    java.util.List<String> ids = new ArrayList<>();
+    for (FactSheet.RelToChildEdge edge : factSheet.getRelToChild().getEdges()) {
+      if (edge.getNode() != null && edge.getNode().getFactSheet() != null
+          && edge.getNode().getFactSheet().getId() != null) {
+        ids.add(edge.getNode().getFactSheet().getId());
+      }
+    }
+    return ids;
+  }
+
+  private record PendingNode(FactSheetTreeNode node, java.util.concurrent.CompletableFuture<FactSheet> factSheet) {
+  }
+
   /**
    * Get workspace information
    * 
@@ -481,9 +687,10 @@ public class LeanIXService {
   public String getWorkspaceInfo() {
     try {
       log.info("Fetching workspace information");
-      JsonNode result = getWorkspaceInfoInternal();
+      JsonNode result = toolResultCache.get("getWorkspaceInfo", java.util.List.of(), this::getWorkspaceInfoInternal);
       log.info("Successfully fetched workspace information");
-      return "Workspace information: " + result.toString();
+      // Compact output renders the JSON itself; a text prefix would hide it
+      return ToolInvocationContext.compactOutput() ? result.toString() : "Workspace information: " + result.toString();
     } catch (Exception e) {
       log.error("Error fetching workspace information", e);
       return "Error fetching workspace information: " + e.getMessage();
@@ -492,23 +699,7 @@ public class LeanIXService {
 
   // Explicit MCP tools for each supported factsheet type
 
-  /**
-   * Get paginated fact sheets of a specific type.
-   *
-   * @param factSheetType The type of fact sheet (e.g., "Application", "Persona",
-   *                      etc.)
-   * @param first         Number of items to return (page size)
-   * @param after         Cursor for pagination (null for first page)
-   * @return JsonNode containing pageInfo and edges
-   */
-  @Tool(name = "getFactSheetsByTypePaginated", description = "Get paginated factsheets of a given type. Params: factSheetType (string), first (int), after (string, optional). Returns pageInfo and edges.")
-  public JsonNode getFactSheetsByTypePaginated(String factSheetType, Integer first, String after) {
-    if (factSheetType == null || factSheetType.trim().isEmpty()) {
-      throw new IllegalArgumentException("factSheetType parameter is required");
-    }
-    // Default pagination size to config value if not provided
-    int pageSize = (first != null) ? first : leanIXClientConfig.getPaginationDefaultSize();
-    String query = """
+  private static final String BY_TYPE_PAGINATED_QUERY = """
         query GetFactSheetsByTypePaginated($type: FactSheetType!, $first: Int, $after: String) {
           allFactSheets(factSheetType: $type, first: $first, after: $after) {
             totalCount
@@ -814,19 +1005,368 @@ public class LeanIXService {
           }
         }
         """;
+
+  /**
+   * Get paginated fact sheets of a specific type.
+   *
+   * @param factSheetType The type of fact sheet (e.g., "Application", "Persona",
+   *                      etc.)
+   * @param first         Number of items to return (page size)
+   * @param after         Cursor for pagination (null for first page)
+   * @return JsonNode containing pageInfo and edges
+   */
+  public JsonNode getFactSheetsByTypePaginated(String factSheetType, Integer first, String after) {
+    return getFactSheetsByTypePaginated(factSheetType, first, after, null);
+  }
+
+  /**
+   * Get paginated fact sheets of a specific type, selecting only the requested
+   * fields.
+   *
+   * @param factSheetType The type of fact sheet (e.g., "Application", "Persona",
+   *                      etc.)
+   * @param first         Number of items to return (page size)
+   * @param after         Cursor for pagination (null for first page)
+   * @param fields        FactSheet fields to return (null for the default set)
+   * @return JsonNode containing pageInfo and edges
+   */
+  public JsonNode getFactSheetsByTypePaginated(String factSheetType, Integer first, String after,
+      java.util.List<String> fields) {
+    return getFactSheetsByTypePaginated(factSheetType, first, after, null, fields);
+  }
+
+  /**
+   * Get paginated fact sheets of a specific type, selecting only the requested
+   * fields. The next page is prefetched in the background, and pages can be
+   * addressed by number instead of cursor.
+   *
+   * @param factSheetType The type of fact sheet (e.g., "Application", "Persona",
+   *                      etc.)
+   * @param first         Number of items to return (page size)
+   * @param after         Cursor for pagination (null for first page)
+   * @param page          Page number starting at 1, used when after is null
+   * @param fields        FactSheet fields to return (null for the default set)
+   * @return JsonNode containing pageInfo and edges
+   */
+  @Tool(name = "getFactSheetsByTypePaginated", description = "Get paginated factsheets of a given type. Params: factSheetType (string), first (int), after (string, optional), page (int, optional, 1-based, alternative to after), fields (list of strings, optional). Returns pageInfo and edges.")
+  public JsonNode getFactSheetsByTypePaginated(String factSheetType, Integer first, String after,
+      @ToolParam(required = false, description = "Page number starting at 1; used when after is omitted") Integer page,
+      @ToolParam(required = false, description = FIELDS_PARAM_DESCRIPTION) java.util.List<String> fields) {
+    if (factSheetType == null || factSheetType.trim().isEmpty()) {
+      throw new IllegalArgumentException("factSheetType parameter is required");
+    }
+    // Default pagination size to config value if not provided; a fixed size keeps pages and cache keys stable
+    int pageSize = (first != null) ? first : leanIXClientConfig.getPaginationDefaultSize();
+    String query = FactSheetProjection.isRequested(fields)
+        ? projectionQueryCompiler.compile(FactSheetQuery.BY_TYPE_PAGINATED, fields)
+        : BY_TYPE_PAGINATED_QUERY;
+    java.util.List<Object> listing = Arrays.asList(workspaces.current(), factSheetType, pageSize, fields);
+    String cursor = (after == null && page != null)
+        ? pagePrefetcher.cursorForPage(listing, page,
+            walk -> workspaces.client().query(PAGE_CURSOR_QUERY, pageVariables(factSheetType, pageSize, walk)))
+        : after;
+
+    log.info("GraphQL Query: {}", query.replaceAll("\\s+", " "));
+    log.info("Fetching paginated fact sheets of type: {}, first: {}, after: {}", factSheetType, pageSize, cursor);
+    JsonNode result = toolResultCache.get("getFactSheetsByTypePaginated",
+        Arrays.asList(factSheetType, pageSize, cursor, fields),
+        () -> pagePrefetcher.fetch(listing, cursor,
+            next -> workspaces.client().query(query, pageVariables(factSheetType, pageSize, next))));
+    return result.path("data").path("allFactSheets");
+  }
+
+  private static final String PAGE_CURSOR_QUERY = """
+        query GetFactSheetCursors($type: FactSheetType!, $first: Int, $after: String) {
+          allFactSheets(factSheetType: $type, first: $first, after: $after) {
+            pageInfo {
+              hasNextPage
+              endCursor
+            }
+          }
+        }
+        """;
+
+  private static Map<String, Object> pageVariables(String factSheetType, int pageSize, String after) {
     Map<String, Object> variables = new java.util.HashMap<>();
     variables.put("type", factSheetType);
     variables.put("first", pageSize);
     if (after != null)
       variables.put("after", after);
+    return variables;
+  }
 
-    log.info("GraphQL Query: {}", query.replaceAll("\\s+", " "));
-    log.info("GraphQL Variables: {}", variables);
-    log.info("Fetching paginated fact sheets of type: {}, first: {}, after: {}", factSheetType, pageSize, after);
-    log.info("GraphQL Query: {}", query.replaceAll("\\s+", " "));
-    log.info("GraphQL Variables: {}", variables);
-    JsonNode result = leanIXClient.query(query, variables);
-    return result.path("data").path("allFactSheets");
+  /**
+   * Get all fact sheets of a specific type with a partitioned crawl. The type is
+   * split along a facet and the partitions are paged concurrently, so large
+   * inventories are fetched much faster than by walking a single cursor.
+   *
+   * @param factSheetType The type of fact sheet (e.g., "ITComponent")
+   * @param fields        FactSheet fields to return (null for the default set)
+   * @return List of FactSheet DTOs
+   */
+  public java.util.List<FactSheet> crawlFactSheetsByType(String factSheetType, java.util.List<String> fields) {
+    return crawlFactSheetsByType(factSheetType, fields, null);
+  }
+
+  /**
+   * Get all fact sheets of a specific type with a partitioned crawl, or the rest
+   * of a crawl that ran out of time.
+   *
+   * @param factSheetType The type of fact sheet (e.g., "ITComponent")
+   * @param fields        FactSheet fields to return (null for the default set)
+   * @param continuation  Continuation returned by a partial crawl (null to start)
+   * @return List of FactSheet DTOs
+   */
+  @Tool(name = "crawlFactSheetsByType", description = "Get the complete inventory of a factsheet type (string) by crawling it in parallel partitions. Use for large types; returns List<FactSheet>. If the result is marked partial, call again with the returned continuation to fetch the rest")
+  public java.util.List<FactSheet> crawlFactSheetsByType(String factSheetType,
+      @ToolParam(required = false, description = FIELDS_PARAM_DESCRIPTION) java.util.List<String> fields,
+      @ToolParam(required = false, description = "Continuation token of a partial result") String continuation) {
+    if (factSheetType == null || factSheetType.trim().isEmpty()) {
+      throw new IllegalArgumentException("factSheetType parameter is required");
+    }
+    FactSheetProjection projection = FactSheetProjection.isRequested(fields)
+        ? FactSheetProjection.of(fields)
+        : FactSheetProjection.defaults();
+    log.info("Crawling fact sheets of type: {}", factSheetType);
+    return toolResultCache.get("crawlFactSheetsByType", Arrays.asList(factSheetType, fields, continuation),
+        () -> factSheetCrawler.crawl(factSheetType, projection, continuation));
+  }
+
+  /**
+   * Export all fact sheets of a type to a file in the export directory. The
+   * file is written while pages are fetched, so the export runs in constant
+   * memory; an export cut short by the deadline is marked partial and resumes
+   * from the returned cursor into a new file.
+   *
+   * @param factSheetType The type of fact sheet (e.g., "Application")
+   * @param fields        FactSheet fields to export (null for the default set)
+   * @param format        "ndjson" (default) or "csv"
+   * @param gzip          Whether to gzip the file
+   * @param after         Cursor of a partial export to resume from
+   * @return File, number of records and completion of the export
+   */
+  @Tool(name = "exportFactSheets", description = "Export all factsheets of a type (string) to an NDJSON or CSV file on the server, for inventories too large to return. Params: fields (list of strings, optional), format (ndjson or csv, optional), gzip (boolean, optional), after (string, optional, cursor of a partial export). Returns file, records and complete")
+  public JsonNode exportFactSheets(String factSheetType,
+      @ToolParam(required = false, description = FIELDS_PARAM_DESCRIPTION) java.util.List<String> fields,
+      @ToolParam(required = false, description = "ndjson (default) or csv") String format,
+      @ToolParam(required = false, description = "Gzip the file") Boolean gzip,
+      @ToolParam(required = false, description = "Cursor returned by a partial export") String after) {
+    if (factSheetType == null || factSheetType.trim().isEmpty()) {
+      throw new IllegalArgumentException("factSheetType parameter is required");
+    }
+    FactSheetExporter.Format exportFormat = FactSheetExporter.Format.of(format);
+    FactSheetProjection projection = FactSheetProjection.isRequested(fields)
+        ? FactSheetProjection.of(fields)
+        : FactSheetProjection.defaults();
+    boolean compressed = Boolean.TRUE.equals(gzip);
+    java.nio.file.Path file;
+    FactSheetExporter.ExportResult result;
+    try {
+      file = factSheetExporter.createFile(factSheetType, exportFormat, compressed);
+      try (java.io.OutputStream out = new java.io.BufferedOutputStream(java.nio.file.Files.newOutputStream(file))) {
+        result = factSheetExporter.export(null, factSheetType, projection, exportFormat, after, compressed, false,
+            out);
+      }
+    } catch (java.io.IOException e) {
+      throw new RuntimeException("Error writing export of " + factSheetType + ": " + e.getMessage(), e);
+    }
+    if (!result.complete()) {
+      ToolInvocationContext.current().ifPresent(context -> context.markPartial(result.cursor()));
+    }
+    com.fasterxml.jackson.databind.node.ObjectNode summary = objectMapper.createObjectNode();
+    summary.put("file", file.toAbsolutePath().toString());
+    summary.put("format", exportFormat.getExtension());
+    summary.put("records", result.records());
+    summary.put("complete", result.complete());
+    if (!result.complete()) {
+      summary.put("after", result.cursor());
+    }
+    return summary;
+  }
+
+  /**
+   * Take a snapshot of all fact sheets of a type, to compare later with
+   * {@link #diffSnapshots}.
+   *
+   * @param factSheetType The type of fact sheet (e.g., "Application")
+   * @param fields        FactSheet fields to capture (null for the default set)
+   * @return Summary of the stored snapshot
+   */
+  @Tool(name = "takeSnapshot", description = "Store a snapshot of all factsheets of a type (string), optionally limited to fields (list of strings), for later comparison with diffSnapshots. Returns the snapshot id")
+  public FactSheetSnapshot.Summary takeSnapshot(String factSheetType,
+      @ToolParam(required = false, description = FIELDS_PARAM_DESCRIPTION) java.util.List<String> fields) {
+    if (factSheetType == null || factSheetType.trim().isEmpty()) {
+      throw new IllegalArgumentException("factSheetType parameter is required");
+    }
+    FactSheetProjection projection = FactSheetProjection.isRequested(fields)
+        ? FactSheetProjection.of(fields)
+        : FactSheetProjection.defaults();
+    return snapshot(factSheetType, projection).summary();
+  }
+
+  /**
+   * List the stored snapshots.
+   *
+   * @param factSheetType Type to list snapshots of (null for all)
+   * @return Summaries of the snapshots, newest first
+   */
+  @Tool(name = "listSnapshots", description = "List stored factsheet snapshots, newest first, optionally of one type (string)")
+  public java.util.List<FactSheetSnapshot.Summary> listSnapshots(
+      @ToolParam(required = false, description = "Fact sheet type") String factSheetType) {
+    return snapshotStore.list(workspaces.current(), factSheetType);
+  }
+
+  /**
+   * Compare two snapshots, or a snapshot with the current state. Fact sheets
+   * are compared by content hash; only changed ones are diffed field by field.
+   *
+   * @param from Id of the older snapshot
+   * @param to   Id of the newer snapshot (null to take a snapshot now, with
+   *             the fields of {@code from})
+   * @return Added, removed and changed fact sheets with their changed fields
+   */
+  @Tool(name = "diffSnapshots", description = "Compare two factsheet snapshots (ids from takeSnapshot/listSnapshots) and return added, removed and changed factsheets with per-field before/after values. Omit to to compare with the current state")
+  public SnapshotDiff diffSnapshots(String from,
+      @ToolParam(required = false, description = "Id of the newer snapshot; omit to snapshot the current state") String to) {
+    if (from == null || from.isBlank()) {
+      throw new IllegalArgumentException("from parameter is required");
+    }
+    FactSheetSnapshot older = snapshotStore.load(workspaces.current(), from);
+    FactSheetSnapshot newer = (to != null && !to.isBlank())
+        ? snapshotStore.load(workspaces.current(), to)
+        : snapshot(older.type(), FactSheetProjection.of(older.fields()));
+    return snapshotStore.diff(older, newer);
+  }
+
+  /**
+   * Find fact sheets by lifecycle phase within a time window, answered from the
+   * lifecycle index rather than by fetching the inventory.
+   *
+   * @param phase             Lifecycle phase (default endOfLife)
+   * @param from              First day of the window, ISO date (default today)
+   * @param to                Day after the window, ISO date (default six months
+   *                          after from)
+   * @param match             "starts" (default) for phases starting in the
+   *                          window, "overlaps" for phases in effect during it
+   * @param factSheetType     Type to restrict the result to (null for all
+   *                          indexed types)
+   * @param includeDependents Whether to list the children (relToChild) of each
+   *                          fact sheet
+   * @return The fact sheets with the start and end of their phase
+   */
+  @Tool(name = "getFactSheetsByLifecycle", description = "Find factsheets by lifecycle phase in a time window, e.g. applications and IT components reaching end of life in the next 6 months. Params: phase (plan, phaseIn, active, phaseOut or endOfLife, optional, default endOfLife), from and to (ISO dates, optional, default today and 6 months later), match (starts or overlaps, optional), factSheetType (string, optional), includeDependents (boolean, optional). Returns id, name, type, phase, start and end, by start")
+  public java.util.List<LifecycleIndex.Match> getFactSheetsByLifecycle(
+      @ToolParam(required = false, description = "Lifecycle phase, default endOfLife") String phase,
+      @ToolParam(required = false, description = "First day of the window (yyyy-MM-dd), default today") String from,
+      @ToolParam(required = false, description = "Day after the window (yyyy-MM-dd), default 6 months after from") String to,
+      @ToolParam(required = false, description = "starts (default): phase begins in the window; overlaps: phase is in effect during it") String match,
+      @ToolParam(required = false, description = "Fact sheet type, e.g. Application") String factSheetType,
+      @ToolParam(required = false, description = "Include the children (relToChild) of each factsheet") Boolean includeDependents) {
+    java.time.LocalDate start = parseDate("from", from, java.time.LocalDate.now());
+    java.time.LocalDate end = parseDate("to", to, start.plusMonths(6));
+    if (!end.isAfter(start)) {
+      throw new IllegalArgumentException("to must be after from");
+    }
+    boolean overlapping;
+    if (match == null || match.isBlank() || match.equalsIgnoreCase("starts")) {
+      overlapping = false;
+    } else if (match.equalsIgnoreCase("overlaps")) {
+      overlapping = true;
+    } else {
+      throw new IllegalArgumentException("match must be starts or overlaps, was " + match);
+    }
+    return lifecycleIndex.find(phase == null || phase.isBlank() ? "endOfLife" : phase.trim(), start, end,
+        overlapping, factSheetType == null || factSheetType.isBlank() ? null : factSheetType.trim(),
+        Boolean.TRUE.equals(includeDependents));
+  }
+
+  private static java.time.LocalDate parseDate(String name, String value, java.time.LocalDate defaultValue) {
+    if (value == null || value.isBlank()) {
+      return defaultValue;
+    }
+    try {
+      return java.time.LocalDate.parse(value.trim());
+    } catch (java.time.format.DateTimeParseException e) {
+      throw new IllegalArgumentException(name + " must be a date like 2025-12-31, was " + value);
+    }
+  }
+
+  /**
+   * Roll up a parent/child hierarchy: for every node the number of fact
+   * sheets below it, their worst obsolescence risk, average completion and
+   * business criticality distribution. Served from a hierarchy kept up to
+   * date by webhooks, so only the changed paths are recomputed.
+   *
+   * @param factSheetType Type whose relToChild hierarchy is rolled up
+   *                      (default BusinessCapability)
+   * @param rootId        Fact sheet to start from (null for all roots)
+   * @param depth         Levels of children to include (default 3)
+   * @return The subtrees with their roll-ups
+   */
+  @Tool(name = "getHierarchyRollup", description = "Roll up a factsheet hierarchy (relToChild), e.g. business capabilities or applications: for every node the number of factsheets in its subtree, worst aggregated obsolescence risk, average completion percentage and business criticality counts. Params: factSheetType (string, optional, default BusinessCapability), rootId (string, optional, default all roots), depth (int, optional, default 3, max 10)")
+  public java.util.List<HierarchyRollups.RollupNode> getHierarchyRollup(
+      @ToolParam(required = false, description = "Fact sheet type, default BusinessCapability") String factSheetType,
+      @ToolParam(required = false, description = "Id of the fact sheet to start from, default all roots") String rootId,
+      @ToolParam(required = false, description = "Levels of children to include (default 3, max 10)") Integer depth) {
+    int maxDepth = depth == null ? DEFAULT_HIERARCHY_DEPTH : Math.max(0, Math.min(depth, MAX_HIERARCHY_DEPTH));
+    return hierarchyRollups.subtrees(
+        factSheetType == null || factSheetType.isBlank() ? "BusinessCapability" : factSheetType.trim(),
+        rootId == null || rootId.isBlank() ? null : rootId.trim(), maxDepth);
+  }
+
+  /**
+   * Find the fact sheets a user subscribes to, e.g. everything a person is
+   * responsible for. Answered from the subscription index.
+   *
+   * @param user             User id, email or display name
+   * @param subscriptionType RESPONSIBLE, ACCOUNTABLE or OBSERVER (null for all)
+   * @param role             Subscription role name (null for all)
+   * @param factSheetType    Type to restrict the result to (null for all
+   *                         indexed types)
+   * @return One entry per matching subscription
+   */
+  @Tool(name = "getFactSheetsBySubscriber", description = "Find the factsheets a user subscribes to, e.g. everything a person is responsible for. Params: user (id, email or display name, required), subscriptionType (RESPONSIBLE, ACCOUNTABLE or OBSERVER, optional), role (subscription role name, optional), factSheetType (string, optional). Returns id, name, type, subscriptionType and roles per subscription")
+  public java.util.List<SubscriptionIndex.Subscribed> getFactSheetsBySubscriber(String user,
+      @ToolParam(required = false, description = "RESPONSIBLE, ACCOUNTABLE or OBSERVER, default all") String subscriptionType,
+      @ToolParam(required = false, description = "Subscription role name, default all") String role,
+      @ToolParam(required = false, description = "Fact sheet type, e.g. Application") String factSheetType) {
+    if (user == null || user.isBlank()) {
+      throw new IllegalArgumentException("user parameter is required");
+    }
+    return subscriptionIndex.subscribedBy(user.trim(), blankToNull(subscriptionType), blankToNull(role),
+        blankToNull(factSheetType));
+  }
+
+  /**
+   * Find fact sheets without a subscriber of a type, e.g. applications
+   * nobody is responsible for. Answered from the subscription index.
+   *
+   * @param factSheetType    Type to restrict the result to (null for all
+   *                         indexed types)
+   * @param subscriptionType RESPONSIBLE (default), ACCOUNTABLE, OBSERVER or
+   *                         ANY for no subscriber at all
+   * @return The fact sheets with their number of other subscriptions
+   */
+  @Tool(name = "getFactSheetsWithoutSubscriber", description = "Find orphaned factsheets that have no subscriber of a type, e.g. applications without a responsible person. Params: factSheetType (string, optional), subscriptionType (RESPONSIBLE, ACCOUNTABLE, OBSERVER or ANY for no subscriber at all, optional, default RESPONSIBLE). Returns id, name, type and the number of other subscriptions")
+  public java.util.List<SubscriptionIndex.Orphan> getFactSheetsWithoutSubscriber(
+      @ToolParam(required = false, description = "Fact sheet type, e.g. Application") String factSheetType,
+      @ToolParam(required = false, description = "RESPONSIBLE (default), ACCOUNTABLE, OBSERVER or ANY") String subscriptionType) {
+    String type = blankToNull(subscriptionType);
+    return subscriptionIndex.orphans(type != null ? type : "RESPONSIBLE", blankToNull(factSheetType));
+  }
+
+  private static String blankToNull(String value) {
+    return value == null || value.isBlank() ? null : value.trim();
+  }
+
+  private FactSheetSnapshot snapshot(String factSheetType, FactSheetProjection projection) {
+    snapshotStore.checkEnabled();
+    java.util.List<FactSheet> factSheets = factSheetCrawler.crawl(factSheetType, projection);
+    if (ToolInvocationContext.current().map(ToolInvocationContext::isPartial).orElse(false)) {
+      // An incomplete snapshot would show the missing fact sheets as removed
+      throw new DeadlineExceededException("Snapshot of " + factSheetType + " did not finish within the deadline");
+    }
+    return snapshotStore.save(workspaces.current(), factSheetType, projection, factSheets);
   }
 
   /**
@@ -856,7 +1396,7 @@ public class LeanIXService {
     log.info("GraphQL Query: {}", query.replaceAll("\\s+", " "));
     log.info("Fetching workspace information (fact sheet counts and overview)");
     log.info("GraphQL Query: {}", query.replaceAll("\\s+", " "));
-    JsonNode result = leanIXClient.query(query);
+    JsonNode result = workspaces.client().query(query);
     return result;
   }
 
@@ -869,7 +1409,7 @@ public class LeanIXService {
   public JsonNode getTypes() {
     try {
       log.info("Fetching all available fact sheet types and keys");
-      JsonNode result = getTypesInternal();
+      JsonNode result = toolResultCache.get("getTypes", java.util.List.of(), this::getTypesInternal);
       log.info("Successfully fetched types: {}", result.toString());
       return result.path("data").path("allFactSheets").path("filterOptions").path("facets");
     } catch (Exception e) {
@@ -902,7 +1442,7 @@ public class LeanIXService {
 
     log.info("GraphQL Query: {}", query.replaceAll("\\s+", " "));
     log.info("Fetching all available fact sheet types and keys");
-    JsonNode result = leanIXClient.query(query);
+    JsonNode result = workspaces.client().query(query);
     return result;
   }
 
@@ -0,0 +1,39 @@
+package com.lgt.leanix_mcp.snapshot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fact sheets of one type at one point in time, each with a hash of its
+ * content so that two snapshots are compared hash by hash.
+ *
+ * @param id        Snapshot id, unique per workspace
+ * @param workspace Workspace the snapshot was taken in
+ * @param type      Fact sheet type
+ * @param takenAt   When the snapshot was taken
+ * @param fields    Fields captured by the snapshot
+ * @param entries   Captured fact sheets by id
+ */
+public record FactSheetSnapshot(String id, String workspace, String type, Instant takenAt, List<String> fields,
+        Map<String, Entry> entries) {
+
+    /**
+     * @param hash    Hash of the content
+     * @param content The mapped fact sheet, without null fields
+     */
+    public record Entry(String hash, JsonNode content) {
+    }
+
+    /**
+     * @return The snapshot without its entries, for listings
+     */
+    public Summary summary() {
+        return new Summary(id, type, takenAt, fields, entries.size());
+    }
+
+    public record Summary(String id, String type, Instant takenAt, List<String> fields, int count) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.lgt.leanix_mcp.snapshot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * The changes between two snapshots of the same fact sheet type. Fact sheets
+ * are compared by content hash first; only those whose hashes differ are
+ * compared field by field. Ids are split into partitions by hash, and the
+ * partitions are compared in parallel.
+ *
+ * @param from      Id of the older snapshot
+ * @param to        Id of the newer snapshot
+ * @param added     Fact sheets only in the newer snapshot
+ * @param removed   Fact sheets only in the older snapshot
+ * @param changed   Fact sheets whose content differs
+ * @param unchanged Number of fact sheets with equal content
+ */
+public record SnapshotDiff(String from, String to, List<Sheet> added, List<Sheet> removed, List<Change> changed,
+        int unchanged) {
+
+    /**
+     * A fact sheet identified by id and name.
+     */
+    public record Sheet(String id, String name) {
+    }
+
+    /**
+     * A changed fact sheet and its changed fields.
+     */
+    public record Change(String id, String name, Map<String, FieldChange> fields) {
+    }
+
+    public record FieldChange(JsonNode before, JsonNode after) {
+    }
+
+    /**
+     * Compares two snapshots.
+     *
+     * @param from       The older snapshot
+     * @param to         The newer snapshot
+     * @param partitions Number of partitions compared in parallel
+     * @return The changes, each list ordered by id
+     */
+    public static SnapshotDiff compute(FactSheetSnapshot from, FactSheetSnapshot to, int partitions) {
+        if (!from.type().equals(to.type())) {
+            throw new IllegalArgumentException("Snapshots " + from.id() + " and " + to.id()
+                    + " are of different types: " + from.type() + " and " + to.type());
+        }
+        int count = Math.max(1, partitions);
+        List<List<String>> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(new ArrayList<>());
+        }
+        Set<String> all = new LinkedHashSet<>(from.entries().keySet());
+        all.addAll(to.entries().keySet());
+        for (String id : all) {
+            ids.get(Math.floorMod(id.hashCode(), count)).add(id);
+        }
+
+        List<PartitionDiff> results = IntStream.range(0, count).parallel()
+                .mapToObj(i -> comparePartition(from, to, ids.get(i)))
+                .toList();
+
+        List<Sheet> added = new ArrayList<>();
+        List<Sheet> removed = new ArrayList<>();
+        List<Change> changed = new ArrayList<>();
+        int unchanged = 0;
+        for (PartitionDiff result : results) {
+            added.addAll(result.added());
+            removed.addAll(result.removed());
+            changed.addAll(result.changed());
+            unchanged += result.unchanged();
+        }
+        added.sort(Comparator.comparing(Sheet::id));
+        removed.sort(Comparator.comparing(Sheet::id));
+        changed.sort(Comparator.comparing(Change::id));
+        return new SnapshotDiff(from.id(), to.id(), added, removed, changed, unchanged);
+    }
+
+    private static PartitionDiff comparePartition(FactSheetSnapshot from, FactSheetSnapshot to, List<String> ids) {
+        List<Sheet> added = new ArrayList<>();
+        List<Sheet> removed = new ArrayList<>();
+        List<Change> changed = new ArrayList<>();
+        int unchanged = 0;
+        for (String id : ids) {
+            FactSheetSnapshot.Entry before = from.entries().get(id);
+            FactSheetSnapshot.Entry after = to.entries().get(id);
+            if (before == null) {
+                added.add(new Sheet(id, nameOf(after)));
+            } else if (after == null) {
+                removed.add(new Sheet(id, nameOf(before)));
+            } else if (before.hash().equals(after.hash())) {
+                unchanged++;
+            } else {
+                Map<String, FieldChange> fields = compareFields(before.content(), after.content());
+                if (fields.isEmpty()) {
+                    unchanged++;
+                } else {
+                    changed.add(new Change(id, nameOf(after), fields));
+                }
+            }
+        }
+        return new PartitionDiff(added, removed, changed, unchanged);
+    }
+
+    private static Map<String, FieldChange> compareFields(JsonNode before, JsonNode after) {
+        Set<String> names = new HashSet<>();
+        before.fieldNames().forEachRemaining(names::add);
+        after.fieldNames().forEachRemaining(names::add);
+        Map<String, FieldChange> changes = new LinkedHashMap<>();
+        names.stream().sorted().forEach(name -> {
+            JsonNode oldValue = before.path(name);
+            JsonNode newValue = after.path(name);
+            if (!oldValue.equals(newValue)) {
+                changes.put(name, new FieldChange(present(oldValue), present(newValue)));
+            }
+        });
+        return changes;
+    }
+
+    private static JsonNode present(JsonNode value) {
+        return value.isMissingNode() ? NullNode.getInstance() : value;
+    }
+
+    private static String nameOf(FactSheetSnapshot.Entry entry) {
+        return entry.content().path("name").asText(null);
+    }
+
+    private record PartitionDiff(List<Sheet> added, List<Sheet> removed, List<Change> changed, int unchanged) {
+    }
+}
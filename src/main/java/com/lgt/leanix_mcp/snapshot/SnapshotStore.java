@@ -0,0 +1,257 @@
+package com.lgt.leanix_mcp.snapshot;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.model.FactSheet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps versioned snapshots of fact sheet types on disk, one gzipped file per
+ * snapshot and a small summary file next to it, in a directory per workspace.
+ * Each fact sheet is stored with a SHA-256 hash of its mapped {@link FactSheet}
+ * fields, serialized with sorted properties and without nulls, so equal
+ * content always has the same hash. Only the newest {@code retention}
+ * snapshots of each type are kept.
+ * <p>
+ * Snapshots are compared across days and replicas, so the directory must be
+ * persistent and shared by all replicas, e.g. a mounted volume. There is no
+ * default: without a configured directory, every operation fails.
+ */
+@Slf4j
+@Component
+public class SnapshotStore {
+
+    private static final DateTimeFormatter ID_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final String DATA_SUFFIX = ".json.gz";
+    private static final String SUMMARY_SUFFIX = ".summary.json";
+    private static final int LOADED_SNAPSHOTS = 4;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .build();
+    private final Path directory;
+    private final int retention;
+    private final int diffPartitions;
+    private final Clock clock;
+    // Recently used snapshots, so repeated diffs against the same baseline skip the disk
+    private final Map<Path, FactSheetSnapshot> loaded = Collections.synchronizedMap(
+            new LinkedHashMap<>(8, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Path, FactSheetSnapshot> eldest) {
+                    return size() > LOADED_SNAPSHOTS;
+                }
+            });
+
+    @Autowired
+    public SnapshotStore(LeanIXClientConfig leanIXClientConfig) {
+        this(pathOf(leanIXClientConfig.getSnapshot().getDirectory()), leanIXClientConfig.getSnapshot().getRetention(),
+                leanIXClientConfig.getSnapshot().getDiffPartitions(), Clock.systemUTC());
+    }
+
+    /**
+     * @param directory Directory of the snapshots (null if not configured)
+     */
+    SnapshotStore(Path directory, int retention, int diffPartitions, Clock clock) {
+        if (directory == null) {
+            log.info("[SnapshotStore] leanix.snapshot.directory is not set, snapshots are disabled");
+        }
+        this.directory = directory;
+        this.retention = Math.max(1, retention);
+        this.diffPartitions = diffPartitions > 0 ? diffPartitions : Runtime.getRuntime().availableProcessors();
+        this.clock = clock;
+    }
+
+    /**
+     * Fails unless a snapshot directory is configured, so callers can check
+     * before crawling.
+     */
+    public void checkEnabled() {
+        if (directory == null) {
+            throw new RuntimeException("Snapshots are disabled: set leanix.snapshot.directory to a persistent "
+                    + "directory shared by all replicas");
+        }
+    }
+
+    /**
+     * Stores a new snapshot and drops the oldest ones beyond the retention.
+     *
+     * @param workspace  Workspace the fact sheets belong to
+     * @param type       Fact sheet type
+     * @param projection Fields the fact sheets were fetched with
+     * @param factSheets All fact sheets of the type
+     * @return The stored snapshot
+     */
+    public FactSheetSnapshot save(String workspace, String type, FactSheetProjection projection,
+            Collection<FactSheet> factSheets) {
+        Map<String, FactSheetSnapshot.Entry> entries = new LinkedHashMap<>();
+        for (FactSheet factSheet : factSheets) {
+            JsonNode content = objectMapper.valueToTree(factSheet);
+            entries.put(factSheet.getId(), new FactSheetSnapshot.Entry(hash(content), content));
+        }
+        Path folder = folder(workspace);
+        Instant takenAt = clock.instant();
+        String base = safe(type, "type") + "-" + ID_TIME.format(takenAt);
+        String id = base;
+        for (int i = 2; Files.exists(folder.resolve(id + SUMMARY_SUFFIX)); i++) {
+            id = base + "-" + i;
+        }
+        FactSheetSnapshot snapshot = new FactSheetSnapshot(id, workspace, type, takenAt,
+                List.copyOf(projection.getFields()), entries);
+        try {
+            Files.createDirectories(folder);
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(folder.resolve(id + DATA_SUFFIX)))) {
+                objectMapper.writeValue(out, snapshot);
+            }
+            // Written last: a snapshot without summary is incomplete and not listed
+            objectMapper.writeValue(folder.resolve(id + SUMMARY_SUFFIX).toFile(), snapshot.summary());
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing snapshot " + id + ": " + e.getMessage(), e);
+        }
+        loaded.put(folder.resolve(id + DATA_SUFFIX), snapshot);
+        log.info("[SnapshotStore] Stored snapshot {} with {} fact sheets", id, entries.size());
+        prune(workspace, type);
+        return snapshot;
+    }
+
+    /**
+     * @param workspace Workspace of the snapshots
+     * @param type      Fact sheet type (null for all types)
+     * @return Summaries of the stored snapshots, newest first
+     */
+    public List<FactSheetSnapshot.Summary> list(String workspace, String type) {
+        Path folder = folder(workspace);
+        if (!Files.isDirectory(folder)) {
+            return List.of();
+        }
+        List<FactSheetSnapshot.Summary> summaries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(folder)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(SUMMARY_SUFFIX)).toList()) {
+                FactSheetSnapshot.Summary summary = objectMapper.readValue(file.toFile(),
+                        FactSheetSnapshot.Summary.class);
+                if (type == null || type.equals(summary.type())) {
+                    summaries.add(summary);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error listing snapshots: " + e.getMessage(), e);
+        }
+        summaries.sort(Comparator.comparing(FactSheetSnapshot.Summary::takenAt).reversed());
+        return summaries;
+    }
+
+    /**
+     * @param workspace Workspace of the snapshot
+     * @param id        Snapshot id
+     * @return The snapshot
+     * @throws IllegalArgumentException If there is no such snapshot
+     */
+    public FactSheetSnapshot load(String workspace, String id) {
+        Path file = folder(workspace).resolve(safe(id, "snapshot id") + DATA_SUFFIX);
+        FactSheetSnapshot cached = loaded.get(file);
+        if (cached != null) {
+            return cached;
+        }
+        if (!Files.exists(folder(workspace).resolve(id + SUMMARY_SUFFIX))) {
+            throw new IllegalArgumentException("Unknown snapshot " + id);
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            FactSheetSnapshot snapshot = objectMapper.readValue(in, FactSheetSnapshot.class);
+            loaded.put(file, snapshot);
+            return snapshot;
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading snapshot " + id + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compares two snapshots in parallel partitions.
+     */
+    public SnapshotDiff diff(FactSheetSnapshot from, FactSheetSnapshot to) {
+        long start = System.nanoTime();
+        SnapshotDiff diff = SnapshotDiff.compute(from, to, diffPartitions);
+        log.info("[SnapshotStore] Diffed {} and {} in {} ms: {} added, {} removed, {} changed", from.id(), to.id(),
+                (System.nanoTime() - start) / 1_000_000, diff.added().size(), diff.removed().size(),
+                diff.changed().size());
+        return diff;
+    }
+
+    String hash(JsonNode content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(content)));
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException("Cannot hash fact sheet content", e);
+        }
+    }
+
+    private void prune(String workspace, String type) {
+        List<FactSheetSnapshot.Summary> summaries = list(workspace, type);
+        for (FactSheetSnapshot.Summary expired : summaries.subList(Math.min(retention, summaries.size()),
+                summaries.size())) {
+            Path folder = folder(workspace);
+            try {
+                Files.deleteIfExists(folder.resolve(expired.id() + SUMMARY_SUFFIX));
+                Files.deleteIfExists(folder.resolve(expired.id() + DATA_SUFFIX));
+                loaded.remove(folder.resolve(expired.id() + DATA_SUFFIX));
+                log.debug("[SnapshotStore] Dropped snapshot {}", expired.id());
+            } catch (IOException e) {
+                log.warn("[SnapshotStore] Could not drop snapshot {}: {}", expired.id(), e.getMessage());
+            }
+        }
+    }
+
+    private Path folder(String workspace) {
+        checkEnabled();
+        return directory.resolve(safe(workspace, "workspace"));
+    }
+
+    private static Path pathOf(String directory) {
+        return directory != null && !directory.isBlank() ? Path.of(directory) : null;
+    }
+
+    private static String safe(String name, String what) {
+        if (name == null || !SAFE_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + name);
+        }
+        return name;
+    }
+}
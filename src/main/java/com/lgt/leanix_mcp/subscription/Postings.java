@@ -0,0 +1,205 @@
+package com.lgt.leanix_mcp.subscription;
+
+import com.lgt.leanix_mcp.model.FactSheet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from subscribers to the fact sheets they subscribe to. Every
+ * subscription is posted under the user's id, email and display name, so a
+ * lookup by any of them costs the number of the user's subscriptions rather
+ * than a scan of all fact sheets. For each fact sheet type and subscription
+ * type the fact sheets without such a subscription are kept as well, so
+ * orphans are listed without a scan either.
+ * <p>
+ * Not thread-safe.
+ */
+final class Postings {
+
+    /**
+     * Subscription types tracked for orphans; {@code ANY} stands for no
+     * subscription at all.
+     */
+    static final List<String> SUBSCRIPTION_TYPES = List.of("RESPONSIBLE", "ACCOUNTABLE", "OBSERVER", "ANY");
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    // Lower-cased user id, email or display name -> fact sheet ids
+    private final Map<String, Set<String>> byUser = new HashMap<>();
+    // Fact sheet type -> subscription type -> ids of fact sheets without one
+    private final Map<String, Map<String, Set<String>>> lacking = new HashMap<>();
+
+    /**
+     * @return Number of indexed fact sheets
+     */
+    int size() {
+        return entries.size();
+    }
+
+    boolean contains(String id) {
+        return entries.containsKey(id);
+    }
+
+    /**
+     * Indexes a fact sheet, replacing its previous subscriptions.
+     *
+     * @param factSheet Fact sheet with its name, type and subscriptions
+     */
+    void put(FactSheet factSheet) {
+        remove(factSheet.getId());
+        List<Subscriber> subscribers = subscribersOf(factSheet);
+        Entry entry = new Entry(factSheet.getId(), factSheet.getName(), factSheet.getType(), subscribers);
+        entries.put(entry.id(), entry);
+        for (String key : userKeys(subscribers)) {
+            byUser.computeIfAbsent(key, k -> new HashSet<>()).add(entry.id());
+        }
+        Map<String, Set<String>> byType = lacking.computeIfAbsent(entry.type(), type -> new HashMap<>());
+        for (String subscriptionType : SUBSCRIPTION_TYPES) {
+            if (!entry.has(subscriptionType)) {
+                byType.computeIfAbsent(subscriptionType, type -> new HashSet<>()).add(entry.id());
+            }
+        }
+    }
+
+    /**
+     * Removes a fact sheet from the index.
+     *
+     * @param id Id of the fact sheet
+     */
+    void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String key : userKeys(entry.subscribers())) {
+            Set<String> ids = byUser.get(key);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                byUser.remove(key);
+            }
+        }
+        lacking.get(entry.type()).values().forEach(ids -> ids.remove(id));
+    }
+
+    /**
+     * @param user             User id, email or display name
+     * @param subscriptionType Subscription type to match (null for all)
+     * @param role             Role name to match (null for all)
+     * @param factSheetType    Fact sheet type to match (null for all)
+     * @return One result per matching subscription, by fact sheet name
+     */
+    List<SubscriptionIndex.Subscribed> subscribedBy(String user, String subscriptionType, String role,
+            String factSheetType) {
+        Set<String> ids = byUser.getOrDefault(user.toLowerCase(Locale.ROOT), Set.of());
+        List<SubscriptionIndex.Subscribed> result = new ArrayList<>();
+        for (String id : ids) {
+            Entry entry = entries.get(id);
+            if (factSheetType != null && !factSheetType.equalsIgnoreCase(entry.type())) {
+                continue;
+            }
+            for (Subscriber subscriber : entry.subscribers()) {
+                if (subscriber.matches(user) && (subscriptionType == null
+                        || subscriptionType.equalsIgnoreCase(subscriber.subscriptionType()))
+                        && (role == null || subscriber.roles().stream().anyMatch(role::equalsIgnoreCase))) {
+                    result.add(new SubscriptionIndex.Subscribed(entry.id(), entry.name(), entry.type(),
+                            subscriber.subscriptionType(), subscriber.roles(), subscriber.label()));
+                }
+            }
+        }
+        result.sort(Comparator.comparing((SubscriptionIndex.Subscribed subscribed) -> String.valueOf(subscribed.name()),
+                String.CASE_INSENSITIVE_ORDER));
+        return result;
+    }
+
+    /**
+     * @param subscriptionType One of {@link #SUBSCRIPTION_TYPES}
+     * @param factSheetType    Fact sheet type to match (null for all)
+     * @return Fact sheets without a subscription of the type, by name
+     */
+    List<SubscriptionIndex.Orphan> lacking(String subscriptionType, String factSheetType) {
+        List<SubscriptionIndex.Orphan> result = new ArrayList<>();
+        lacking.forEach((type, byType) -> {
+            if (factSheetType == null || factSheetType.equalsIgnoreCase(type)) {
+                for (String id : byType.getOrDefault(subscriptionType, Set.of())) {
+                    Entry entry = entries.get(id);
+                    result.add(new SubscriptionIndex.Orphan(entry.id(), entry.name(), entry.type(),
+                            entry.subscribers().size()));
+                }
+            }
+        });
+        result.sort(Comparator.comparing((SubscriptionIndex.Orphan orphan) -> String.valueOf(orphan.name()),
+                String.CASE_INSENSITIVE_ORDER));
+        return result;
+    }
+
+    private static List<Subscriber> subscribersOf(FactSheet factSheet) {
+        if (factSheet.getSubscriptions() == null || factSheet.getSubscriptions().getEdges() == null) {
+            return List.of();
+        }
+        List<Subscriber> subscribers = new ArrayList<>();
+        for (FactSheet.SubscriptionEdge edge : factSheet.getSubscriptions().getEdges()) {
+            FactSheet.Subscription subscription = edge.getNode();
+            if (subscription == null || subscription.getUser() == null) {
+                continue;
+            }
+            List<String> roles = new ArrayList<>();
+            if (subscription.getRoles() != null) {
+                for (FactSheet.Role role : subscription.getRoles()) {
+                    if (role.getName() != null) {
+                        roles.add(role.getName());
+                    }
+                }
+            }
+            FactSheet.User user = subscription.getUser();
+            subscribers.add(new Subscriber(user.getId(), user.getEmail(), user.getDisplayName(),
+                    subscription.getType(), List.copyOf(roles)));
+        }
+        return List.copyOf(subscribers);
+    }
+
+    private static Set<String> userKeys(List<Subscriber> subscribers) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Subscriber subscriber : subscribers) {
+            keys.addAll(subscriber.keys());
+        }
+        return keys;
+    }
+
+    private record Entry(String id, String name, String type, List<Subscriber> subscribers) {
+
+        boolean has(String subscriptionType) {
+            return subscriptionType.equals("ANY") ? !subscribers.isEmpty()
+                    : subscribers.stream().anyMatch(subscriber ->
+                            subscriptionType.equalsIgnoreCase(subscriber.subscriptionType()));
+        }
+    }
+
+    private record Subscriber(String userId, String email, String displayName, String subscriptionType,
+            List<String> roles) {
+
+        List<String> keys() {
+            List<String> keys = new ArrayList<>();
+            for (String key : new String[] {userId, email, displayName}) {
+                if (key != null && !key.isBlank()) {
+                    keys.add(key.toLowerCase(Locale.ROOT));
+                }
+            }
+            return keys;
+        }
+
+        boolean matches(String user) {
+            return keys().contains(user.toLowerCase(Locale.ROOT));
+        }
+
+        String label() {
+            return email != null ? email : displayName;
+        }
+    }
+}
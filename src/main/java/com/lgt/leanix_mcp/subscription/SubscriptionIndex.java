@@ -0,0 +1,154 @@
+package com.lgt.leanix_mcp.subscription;
+
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.service.BackgroundIndex;
+import com.lgt.leanix_mcp.service.FactSheetBatchLoader;
+import com.lgt.leanix_mcp.service.FactSheetCrawler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Index of the subscriptions of the configured fact sheet types, answering
+ * "what does this user own" and "which fact sheets have no responsible
+ * person" by lookup instead of a scan of the workspace.
+ * <p>
+ * The index of a workspace is crawled in the background on first use, outside
+ * the deadline of the invocation that asked for it. Fact sheets reported by
+ * webhooks are fetched again on the next query and re-indexed one by one. Once
+ * older than {@code max-age} the index is still served while it is crawled
+ * again.
+ */
+@Slf4j
+@Component
+public class SubscriptionIndex extends BackgroundIndex<String, Postings> {
+
+    static final FactSheetProjection PROJECTION = FactSheetProjection.of(List.of("name", "subscriptions"));
+
+    private final WorkspaceRegistry workspaces;
+    private final FactSheetCrawler factSheetCrawler;
+    private final List<String> types;
+
+    @Autowired
+    public SubscriptionIndex(WorkspaceRegistry workspaces, FactSheetCrawler factSheetCrawler,
+            FactSheetBatchLoader factSheetBatchLoader, LeanIXClientConfig leanIXClientConfig) {
+        this(workspaces, factSheetCrawler, factSheetBatchLoader,
+                leanIXClientConfig.getSubscriptionIndex().getTypes(),
+                leanIXClientConfig.getSubscriptionIndex().getMaxAge(), Clock.systemUTC());
+    }
+
+    SubscriptionIndex(WorkspaceRegistry workspaces, FactSheetCrawler factSheetCrawler,
+            FactSheetBatchLoader factSheetBatchLoader, List<String> types, Duration maxAge, Clock clock) {
+        super("subscription index", workspaces, factSheetBatchLoader, PROJECTION, maxAge, clock);
+        this.workspaces = workspaces;
+        this.factSheetCrawler = factSheetCrawler;
+        this.types = List.copyOf(types);
+    }
+
+    /**
+     * Finds the subscriptions of a user in the current workspace.
+     *
+     * @param user             User id, email or display name (case-insensitive)
+     * @param subscriptionType Subscription type, e.g. {@code RESPONSIBLE}
+     *                         (null for all)
+     * @param role             Subscription role name (null for all)
+     * @param factSheetType    Type to restrict the result to (null for all
+     *                         indexed types)
+     * @return One result per matching subscription, by fact sheet name
+     */
+    public List<Subscribed> subscribedBy(String user, String subscriptionType, String role, String factSheetType) {
+        checkType(factSheetType);
+        return query(postings -> postings.subscribedBy(user, subscriptionType, role, factSheetType));
+    }
+
+    /**
+     * Finds the fact sheets of the current workspace without a subscription of
+     * a type.
+     *
+     * @param subscriptionType {@code RESPONSIBLE}, {@code ACCOUNTABLE},
+     *                         {@code OBSERVER} or {@code ANY} for none at all
+     * @param factSheetType    Type to restrict the result to (null for all
+     *                         indexed types)
+     * @return The fact sheets, by name
+     */
+    public List<Orphan> orphans(String subscriptionType, String factSheetType) {
+        String normalized = subscriptionType.toUpperCase(Locale.ROOT);
+        if (!Postings.SUBSCRIPTION_TYPES.contains(normalized)) {
+            throw new IllegalArgumentException("Unknown subscription type " + subscriptionType + ", expected one of "
+                    + Postings.SUBSCRIPTION_TYPES);
+        }
+        checkType(factSheetType);
+        return query(postings -> postings.lacking(normalized, factSheetType));
+    }
+
+    private void checkType(String factSheetType) {
+        if (factSheetType != null && types.stream().noneMatch(factSheetType::equalsIgnoreCase)) {
+            throw new IllegalArgumentException("Subscriptions of " + factSheetType
+                    + " are not indexed, expected one of " + types);
+        }
+    }
+
+    private <T> T query(Function<Postings, T> lookup) {
+        return query(workspaces.current(), lookup);
+    }
+
+    @Override
+    protected String workspaceOf(String workspace) {
+        return workspace;
+    }
+
+    @Override
+    protected Postings crawl(String workspace) {
+        Postings postings = new Postings();
+        for (String type : types) {
+            for (FactSheet factSheet : factSheetCrawler.crawl(type, PROJECTION)) {
+                postings.put(factSheet);
+            }
+        }
+        log.info("[SubscriptionIndex] Indexed the subscriptions of {} fact sheets of {}", postings.size(), types);
+        return postings;
+    }
+
+    @Override
+    protected void apply(String workspace, Postings postings, List<String> ids, Map<String, FactSheet> loaded) {
+        for (String id : ids) {
+            FactSheet factSheet = loaded.get(id);
+            if (factSheet != null && types.contains(factSheet.getType())) {
+                postings.put(factSheet);
+            } else {
+                // Archived, deleted or not of an indexed type
+                postings.remove(id);
+            }
+        }
+    }
+
+    /**
+     * A subscription of a user to a fact sheet.
+     *
+     * @param subscriptionType {@code RESPONSIBLE}, {@code ACCOUNTABLE} or
+     *                         {@code OBSERVER}
+     * @param roles            Names of the subscription roles
+     * @param user             Email of the user, or the display name if none
+     */
+    public record Subscribed(String id, String name, String type, String subscriptionType, List<String> roles,
+            String user) {
+    }
+
+    /**
+     * A fact sheet without a subscription of the requested type.
+     *
+     * @param subscriptions Number of other subscriptions of the fact sheet
+     */
+    public record Orphan(String id, String name, String type, int subscriptions) {
+    }
+}
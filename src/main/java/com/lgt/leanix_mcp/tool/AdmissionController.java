@@ -0,0 +1,55 @@
+package com.lgt.leanix_mcp.tool;
+
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Assigns tool invocations to an interactive or a bulk {@link AdmissionLane},
+ * so heavy tools that read whole inventories cannot take the capacity needed
+ * by quick lookups.
+ */
+@Component
+public class AdmissionController {
+
+    private final boolean enabled;
+    private final Set<String> bulkTools = new HashSet<>();
+    private final AdmissionLane interactive;
+    private final AdmissionLane bulk;
+
+    @Autowired
+    public AdmissionController(LeanIXClientConfig leanIXClientConfig) {
+        this(leanIXClientConfig.getAdmission().isEnabled(), leanIXClientConfig.getAdmission().getBulkTools(),
+                lane("interactive", leanIXClientConfig.getAdmission().getInteractive()),
+                lane("bulk", leanIXClientConfig.getAdmission().getBulk()));
+    }
+
+    AdmissionController(boolean enabled, Collection<String> bulkTools, AdmissionLane interactive,
+            AdmissionLane bulk) {
+        this.enabled = enabled;
+        bulkTools.forEach(tool -> this.bulkTools.add(tool.toLowerCase(Locale.ROOT)));
+        this.interactive = interactive;
+        this.bulk = bulk;
+    }
+
+    /**
+     * @param toolName Name of the invoked tool
+     * @return The lane the tool runs in, null if admission control is disabled
+     */
+    public AdmissionLane laneFor(String toolName) {
+        if (!enabled) {
+            return null;
+        }
+        return bulkTools.contains(toolName.toLowerCase(Locale.ROOT)) ? bulk : interactive;
+    }
+
+    private static AdmissionLane lane(String name, LeanIXClientConfig.LaneProperties properties) {
+        return new AdmissionLane(name, properties.getInitialLimit(), properties.getMinimumLimit(),
+                properties.getMaximumLimit(), properties.getQueueSize(), properties.getQueueTimeout());
+    }
+}
@@ -0,0 +1,257 @@
+package com.lgt.leanix_mcp.tool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits tool invocations up to a concurrency limit and lets a bounded number
+ * of further callers wait for a slot. The limit adapts to latency with a gradient in
+ * the style of TCP Vegas: while the short-term latency stays at the long-term
+ * baseline the limit grows, and as latency rises above it the limit shrinks
+ * proportionally, down to the configured minimum.
+ * <p>
+ * Waiting callers are queued per tenant (LeanIX workspace), and freed slots go
+ * to the tenants in turn, so one tenant's burst cannot starve the others.
+ */
+@Slf4j
+public class AdmissionLane {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_WINDOW = 100;
+    private static final double SHORT_WINDOW = 5;
+    private static final String DEFAULT_TENANT = "";
+
+    private final String name;
+    private final int minimumLimit;
+    private final int maximumLimit;
+    private final int queueSize;
+    private final Duration queueTimeout;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    // Tenants with waiting callers, in the order they are served next
+    private final Map<String, Deque<Waiter>> waiters = new LinkedHashMap<>();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    /**
+     * @param name         Lane name, for logs and errors
+     * @param initialLimit Concurrency limit to start with
+     * @param minimumLimit Lowest concurrency limit
+     * @param maximumLimit Highest concurrency limit
+     * @param queueSize    Callers per tenant that may wait for a slot; more are
+     *                     rejected
+     * @param queueTimeout Longest time a caller waits for a slot
+     */
+    public AdmissionLane(String name, int initialLimit, int minimumLimit, int maximumLimit, int queueSize,
+            Duration queueTimeout) {
+        if (minimumLimit < 1 || maximumLimit < minimumLimit) {
+            throw new IllegalArgumentException("Invalid limits for lane " + name + ": " + minimumLimit + ".."
+                    + maximumLimit);
+        }
+        this.name = name;
+        this.minimumLimit = minimumLimit;
+        this.maximumLimit = maximumLimit;
+        this.limit = Math.max(minimumLimit, Math.min(maximumLimit, initialLimit));
+        this.queueSize = Math.max(0, queueSize);
+        this.queueTimeout = queueTimeout;
+    }
+
+    /**
+     * Waits for a slot on behalf of the default tenant.
+     *
+     * @return Permit to release when the invocation ends
+     * @throws AdmissionRejectedException If the queue is full or no slot
+     *                                    became free in time
+     */
+    public Permit acquire() {
+        return acquire(null);
+    }
+
+    /**
+     * Waits for a slot, at most until the queue timeout or the deadline of the
+     * current tool invocation.
+     *
+     * @param tenant Tenant the invocation belongs to (null for the default)
+     * @return Permit to release when the invocation ends
+     * @throws AdmissionRejectedException If the tenant's queue is full or no
+     *                                    slot became free in time
+     */
+    public Permit acquire(String tenant) {
+        Duration wait = ToolInvocationContext.remaining()
+                .filter(remaining -> remaining.compareTo(queueTimeout) < 0)
+                .orElse(queueTimeout);
+        long remainingNanos = Math.max(0, wait.toNanos());
+        String key = tenant == null ? DEFAULT_TENANT : tenant;
+        lock.lock();
+        try {
+            if (inFlight < (int) limit && waiters.isEmpty()) {
+                inFlight++;
+                return new Permit(System.nanoTime(), inFlight);
+            }
+            Deque<Waiter> queue = waiters.get(key);
+            if ((queue == null ? 0 : queue.size()) >= queueSize) {
+                throw new AdmissionRejectedException("Too many concurrent " + name + " requests ("
+                        + inFlight + " running, " + waiting + " queued), retry later");
+            }
+            Waiter waiter = new Waiter(lock.newCondition());
+            waiters.computeIfAbsent(key, k -> new ArrayDeque<>()).addLast(waiter);
+            waiting++;
+            try {
+                while (!waiter.granted) {
+                    if (remainingNanos <= 0) {
+                        throw new AdmissionRejectedException("Timed out waiting for a " + name
+                                + " slot, retry later");
+                    }
+                    remainingNanos = waiter.signal.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (waiter.granted) {
+                    inFlight--;
+                    grantWaiters();
+                }
+                throw new AdmissionRejectedException("Interrupted waiting for a " + name + " slot");
+            } finally {
+                waiting--;
+                if (!waiter.granted) {
+                    Deque<Waiter> own = waiters.get(key);
+                    own.remove(waiter);
+                    if (own.isEmpty()) {
+                        waiters.remove(key);
+                    }
+                }
+            }
+            return new Permit(System.nanoTime(), inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the slot of a finished invocation and feeds its latency into the
+     * limit.
+     *
+     * @param permit  The permit returned by {@link #acquire()}
+     * @param sampled Whether the latency reflects upstream load; failures that
+     *                happened before any work are not sampled
+     */
+    public void release(Permit permit, boolean sampled) {
+        long rtt = System.nanoTime() - permit.startedAt();
+        lock.lock();
+        try {
+            inFlight--;
+            if (sampled) {
+                update(rtt, permit.inFlight());
+            }
+            grantWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Callers waiting for a slot, across all tenants
+     */
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Hands free slots to waiting callers, one tenant at a time.
+     */
+    private void grantWaiters() {
+        while (inFlight < (int) limit && !waiters.isEmpty()) {
+            Iterator<Map.Entry<String, Deque<Waiter>>> tenants = waiters.entrySet().iterator();
+            Map.Entry<String, Deque<Waiter>> next = tenants.next();
+            tenants.remove();
+            Waiter waiter = next.getValue().pollFirst();
+            if (!next.getValue().isEmpty()) {
+                // Back of the line until the other tenants had their turn
+                waiters.put(next.getKey(), next.getValue());
+            }
+            waiter.granted = true;
+            inFlight++;
+            waiter.signal.signal();
+        }
+    }
+
+    private void update(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            shortRttNanos = rttNanos;
+        }
+        longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+        // Let the baseline follow latency down quickly so an old slow period does not inflate it
+        longRttNanos = Math.min(longRttNanos, Math.max(shortRttNanos, rttNanos) * 2);
+
+        // An under-used lane says nothing about the right limit
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, longRttNanos / shortRttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        double next = Math.max(minimumLimit, Math.min(maximumLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+        if ((int) next != (int) limit) {
+            log.debug("[AdmissionLane] {} limit {} -> {} (gradient {})", name, (int) limit, (int) next,
+                    String.format("%.2f", gradient));
+        }
+        limit = next;
+    }
+
+    /**
+     * A caller waiting for a slot; {@code granted} is guarded by the lock.
+     */
+    private static final class Waiter {
+
+        private final Condition signal;
+        private boolean granted;
+
+        Waiter(Condition signal) {
+            this.signal = signal;
+        }
+    }
+
+    /**
+     * An admitted invocation.
+     */
+    public record Permit(long startedAt, int inFlight) {
+    }
+}
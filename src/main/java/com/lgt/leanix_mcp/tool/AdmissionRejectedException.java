@@ -0,0 +1,13 @@
+package com.lgt.leanix_mcp.tool;
+
+/**
+ * Thrown when a tool invocation is not admitted because its lane is saturated.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
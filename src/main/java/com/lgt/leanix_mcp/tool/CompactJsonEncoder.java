@@ -0,0 +1,277 @@
+package com.lgt.leanix_mcp.tool;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes JSON in a compact form meant for tool results read by a model:
+ * <ul>
+ * <li>null, empty strings and empty arrays and objects are left out,</li>
+ * <li>arrays of objects become tables,
+ * {@code {"columns":["id","name"],"rows":[["1","CRM"],...]}}; columns are
+ * ordered by how many rows fill them and trailing empty cells are cut, so
+ * rows may be shorter than the columns,</li>
+ * <li>nested values that occur several times are written once into a
+ * {@code shared} list and referenced as {@code {"$ref":n}}, if that is
+ * shorter; the result is then wrapped as
+ * {@code {"result":...,"shared":[...]}}.</li>
+ * </ul>
+ * The output is streamed into a buffer without building it as a tree first.
+ */
+public final class CompactJsonEncoder {
+
+    // Length of a reference such as {"$ref":12} plus a separator
+    private static final int REFERENCE_BYTES = 12;
+
+    // Bound to a mapper so scalar nodes can be written as trees
+    private final JsonFactory jsonFactory = new ObjectMapper().getFactory();
+    private final int shareMinBytes;
+
+    /**
+     * @param shareMinBytes Minimum encoded size of a nested value to be shared
+     */
+    public CompactJsonEncoder(int shareMinBytes) {
+        this.shareMinBytes = Math.max(REFERENCE_BYTES, shareMinBytes);
+    }
+
+    /**
+     * @param value Value to encode
+     * @return The compact JSON
+     */
+    public String encode(JsonNode value) {
+        Map<JsonNode, Integer> counts = new HashMap<>();
+        if (value.isContainerNode()) {
+            value.forEach(child -> count(child, counts));
+        }
+        StringWriter writer = new StringWriter(1024);
+        try {
+            Encoding encoding;
+            try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+                encoding = new Encoding(generator, counts);
+                encoding.write(value, false);
+            }
+            if (encoding.shared.isEmpty()) {
+                return writer.toString();
+            }
+            StringWriter wrapped = new StringWriter(writer.getBuffer().length() + 1024);
+            wrapped.append("{\"result\":").append(writer.getBuffer()).append(",\"shared\":");
+            try (JsonGenerator generator = jsonFactory.createGenerator(wrapped)) {
+                Encoding sharedEncoding = encoding.continueWith(generator);
+                generator.writeStartArray();
+                // Entries may reference further entries, which are appended while writing
+                for (int i = 0; i < sharedEncoding.shared.size(); i++) {
+                    sharedEncoding.write(sharedEncoding.shared.get(i), false);
+                }
+                generator.writeEndArray();
+            }
+            return wrapped.append('}').toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error encoding tool result", e);
+        }
+    }
+
+    private static void count(JsonNode node, Map<JsonNode, Integer> counts) {
+        if (!node.isContainerNode() || isEmpty(node)) {
+            return;
+        }
+        if (counts.merge(node, 1, Integer::sum) == 1) {
+            node.forEach(child -> count(child, counts));
+        }
+    }
+
+    /**
+     * @return Whether the value carries no information and is left out
+     */
+    static boolean isEmpty(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return true;
+        }
+        if (node.isTextual()) {
+            return node.textValue().isEmpty();
+        }
+        if (node.isContainerNode()) {
+            for (JsonNode child : node) {
+                if (!isEmpty(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static List<String> columns(JsonNode rows) {
+        Map<String, Integer> filled = new LinkedHashMap<>();
+        for (JsonNode row : rows) {
+            row.fieldNames().forEachRemaining(name -> {
+                if (!isEmpty(row.get(name))) {
+                    filled.merge(name, 1, Integer::sum);
+                }
+            });
+        }
+        List<String> columns = new ArrayList<>(filled.keySet());
+        // Stable: columns filled equally often keep their first-seen order
+        columns.sort(Comparator.comparing(filled::get, Comparator.reverseOrder()));
+        return columns;
+    }
+
+    private static boolean isTable(JsonNode node) {
+        if (!node.isArray() || node.size() < 2) {
+            return false;
+        }
+        for (JsonNode row : node) {
+            if (!row.isObject()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * State of one encoding: the values chosen for sharing, in order of their
+     * first reference.
+     */
+    private final class Encoding {
+
+        private final JsonGenerator generator;
+        private final Map<JsonNode, Integer> counts;
+        private final Map<JsonNode, Integer> references;
+        private final Map<JsonNode, Boolean> worthSharing;
+        private final List<JsonNode> shared;
+
+        Encoding(JsonGenerator generator, Map<JsonNode, Integer> counts) {
+            this(generator, counts, new HashMap<>(), new HashMap<>(), new ArrayList<>());
+        }
+
+        private Encoding(JsonGenerator generator, Map<JsonNode, Integer> counts, Map<JsonNode, Integer> references,
+                Map<JsonNode, Boolean> worthSharing, List<JsonNode> shared) {
+            this.generator = generator;
+            this.counts = counts;
+            this.references = references;
+            this.worthSharing = worthSharing;
+            this.shared = shared;
+        }
+
+        /**
+         * @return An encoding writing to another generator that shares the
+         *         references made so far
+         */
+        Encoding continueWith(JsonGenerator other) {
+            return new Encoding(other, counts, references, worthSharing, shared);
+        }
+
+        void write(JsonNode node, boolean shareable) throws IOException {
+            if (shareable && node.isContainerNode() && share(node)) {
+                Integer reference = references.get(node);
+                if (reference == null) {
+                    reference = shared.size();
+                    references.put(node, reference);
+                    shared.add(node);
+                }
+                generator.writeStartObject();
+                generator.writeNumberField("$ref", reference);
+                generator.writeEndObject();
+            } else if (node.isObject()) {
+                writeObject(node);
+            } else if (node.isArray()) {
+                List<String> columns = isTable(node) ? columns(node) : List.of();
+                if (columns.size() > 1) {
+                    writeTable(node, columns);
+                } else {
+                    writeArray(node);
+                }
+            } else {
+                generator.writeTree(node);
+            }
+        }
+
+        private void writeObject(JsonNode node) throws IOException {
+            generator.writeStartObject();
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                if (!isEmpty(field.getValue())) {
+                    generator.writeFieldName(field.getKey());
+                    write(field.getValue(), true);
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        private void writeArray(JsonNode node) throws IOException {
+            generator.writeStartArray();
+            for (JsonNode element : node) {
+                if (!isEmpty(element)) {
+                    write(element, true);
+                }
+            }
+            generator.writeEndArray();
+        }
+
+        private void writeTable(JsonNode rows, List<String> columns) throws IOException {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("columns");
+            for (String column : columns) {
+                generator.writeString(column);
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("rows");
+            for (JsonNode row : rows) {
+                int length = columns.size();
+                while (length > 0 && isEmpty(row.get(columns.get(length - 1)))) {
+                    length--;
+                }
+                generator.writeStartArray();
+                for (int i = 0; i < length; i++) {
+                    JsonNode cell = row.get(columns.get(i));
+                    if (isEmpty(cell)) {
+                        generator.writeNull();
+                    } else {
+                        write(cell, true);
+                    }
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        /**
+         * A value is shared if it occurs several times and the references
+         * together are shorter than the copies they replace.
+         */
+        private boolean share(JsonNode node) {
+            if (references.containsKey(node)) {
+                return true;
+            }
+            int count = counts.getOrDefault(node, 0);
+            if (count < 2) {
+                return false;
+            }
+            return worthSharing.computeIfAbsent(node, n -> {
+                int size = encodedSize(n);
+                return size >= shareMinBytes && (long) (count - 1) * size > (long) count * REFERENCE_BYTES;
+            });
+        }
+
+        private int encodedSize(JsonNode node) {
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator sizing = jsonFactory.createGenerator(writer)) {
+                new Encoding(sizing, Map.of()).write(node, false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return writer.getBuffer().length();
+        }
+    }
+}
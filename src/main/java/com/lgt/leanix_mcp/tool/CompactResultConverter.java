@@ -0,0 +1,78 @@
+package com.lgt.leanix_mcp.tool;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+import org.springframework.ai.tool.execution.ToolCallResultConverter;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.ai.tool.method.MethodToolCallback;
+import org.springframework.ai.tool.support.ToolDefinitions;
+import org.springframework.ai.util.json.JsonParser;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.awt.image.RenderedImage;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/**
+ * Converts tool results with {@link CompactJsonEncoder} when the current
+ * invocation asked for compact output, and like Spring AI's default converter
+ * otherwise. String results holding JSON are compacted as well.
+ */
+public class CompactResultConverter implements ToolCallResultConverter {
+
+    private final ToolCallResultConverter defaultConverter = new DefaultToolCallResultConverter();
+    private final CompactJsonEncoder encoder;
+
+    public CompactResultConverter(CompactJsonEncoder encoder) {
+        this.encoder = encoder;
+    }
+
+    /**
+     * Creates a callback for every {@link Tool} method of the given object, as
+     * {@code MethodToolCallbackProvider} does, converting results with the
+     * given converter.
+     *
+     * @param toolObject Object declaring the tool methods
+     * @param converter  Converter of the tool results
+     * @return Provider exposing the callbacks
+     */
+    public static ToolCallbackProvider toolCallbacks(Object toolObject, ToolCallResultConverter converter) {
+        Class<?> type = AopUtils.isAopProxy(toolObject) ? AopUtils.getTargetClass(toolObject) : toolObject.getClass();
+        return ToolCallbackProvider.from(Arrays.stream(ReflectionUtils.getDeclaredMethods(type))
+                .filter(method -> method.isAnnotationPresent(Tool.class))
+                .map(method -> (ToolCallback) MethodToolCallback.builder()
+                        .toolDefinition(ToolDefinitions.from(method))
+                        .toolMetadata(ToolMetadata.from(method))
+                        .toolMethod(method)
+                        .toolObject(toolObject)
+                        .toolCallResultConverter(converter)
+                        .build())
+                .toList());
+    }
+
+    @Override
+    public String convert(Object result, Type returnType) {
+        if (!ToolInvocationContext.compactOutput() || result == null || returnType == Void.TYPE
+                || result instanceof RenderedImage) {
+            return defaultConverter.convert(result, returnType);
+        }
+        JsonNode tree;
+        if (result instanceof String text) {
+            try {
+                tree = JsonParser.getObjectMapper().readTree(text);
+            } catch (Exception e) {
+                return defaultConverter.convert(result, returnType);
+            }
+            if (!tree.isContainerNode()) {
+                return defaultConverter.convert(result, returnType);
+            }
+        } else {
+            tree = JsonParser.getObjectMapper().valueToTree(result);
+        }
+        return encoder.encode(tree);
+    }
+}
@@ -0,0 +1,18 @@
+package com.lgt.leanix_mcp.tool;
+
+/**
+ * Thrown when work on behalf of a tool invocation is started or still running
+ * after the invocation's deadline.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
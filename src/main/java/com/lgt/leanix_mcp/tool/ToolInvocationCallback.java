@@ -0,0 +1,325 @@
+package com.lgt.leanix_mcp.tool;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decorates a tool callback with a {@link ToolInvocationContext} and renders
+ * the metadata collected during the call into the result. Invocations are
+ * admitted through the tool's {@link AdmissionLane} first. Stale or partial
+ * results are wrapped in an envelope such as
+ * {@code {"partial":true,"continuation":"...","result":...}}.
+ * <p>
+ * When several LeanIX workspaces are configured, every tool accepts an
+ * optional {@code workspace} argument. It is taken out of the input before the
+ * tool sees it and recorded in the context.
+ * <p>
+ * Results of conditional tools carry a {@code version} token derived from
+ * their content: {@code {"version":"...","result":...}}. Such tools accept an
+ * optional {@code ifNoneMatch} argument; when it names the version of the
+ * current result, only {@code {"version":"...","notModified":true}} is
+ * returned. Partial results have no version.
+ * <p>
+ * When compact output is configured, every tool accepts an optional
+ * {@code compact} argument choosing whether its result is rendered by
+ * {@link CompactResultConverter}.
+ */
+@Slf4j
+public class ToolInvocationCallback implements ToolCallback {
+
+    private static final String WORKSPACE_PARAMETER = "workspace";
+    private static final String IF_NONE_MATCH_PARAMETER = "ifNoneMatch";
+    private static final String COMPACT_PARAMETER = "compact";
+    // Bytes of the content hash in a version token
+    private static final int VERSION_BYTES = 12;
+
+    private final ToolCallback delegate;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final AdmissionController admissionController;
+    private final List<String> workspaces;
+    private final boolean conditional;
+    private final Boolean compactByDefault;
+    private final ToolDefinition toolDefinition;
+
+    /**
+     * @param delegate     The tool callback to decorate
+     * @param objectMapper Mapper used to render result envelopes
+     * @param options      What the invocations are given
+     */
+    public ToolInvocationCallback(ToolCallback delegate, ObjectMapper objectMapper, Options options) {
+        this.delegate = delegate;
+        this.objectMapper = objectMapper;
+        this.timeout = options.timeout();
+        this.admissionController = options.admissionController();
+        this.workspaces = options.workspaces() != null && options.workspaces().size() > 1 ? options.workspaces()
+                : null;
+        this.conditional = options.conditionalTools() != null && options.conditionalTools().stream()
+                .anyMatch(name -> name.equalsIgnoreCase(delegate.getToolDefinition().name()));
+        this.compactByDefault = options.compactByDefault();
+        this.toolDefinition = this.workspaces != null || conditional || compactByDefault != null
+                ? withParameters(delegate.getToolDefinition()) : delegate.getToolDefinition();
+    }
+
+    /**
+     * Wraps every callback of the given provider.
+     *
+     * @param provider     The provider exposing the tool methods
+     * @param objectMapper Mapper used to render result envelopes
+     * @param options      What the invocations are given
+     * @return Provider exposing the decorated callbacks
+     */
+    public static ToolCallbackProvider wrap(ToolCallbackProvider provider, ObjectMapper objectMapper,
+            Options options) {
+        return ToolCallbackProvider.from(Arrays.stream(provider.getToolCallbacks())
+                .map(callback -> (ToolCallback) new ToolInvocationCallback(callback, objectMapper, options))
+                .toList());
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return toolDefinition;
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        ToolInvocationContext context = ToolInvocationContext.open(getToolDefinition().name(), timeout);
+        try {
+            context.setCompact(Boolean.TRUE.equals(compactByDefault));
+            String[] ifNoneMatch = new String[1];
+            String input = workspaces != null || conditional || compactByDefault != null
+                    ? takeArguments(toolInput, context, ifNoneMatch) : toolInput;
+            AdmissionLane lane = admissionController != null ? admissionController.laneFor(context.getToolName())
+                    : null;
+            AdmissionLane.Permit permit = lane != null ? lane.acquire(context.getWorkspace()) : null;
+            boolean sampled = true;
+            try {
+                String result = toolContext == null ? delegate.call(input) : delegate.call(input, toolContext);
+                String version = conditional && !context.isPartial() ? versionOf(result) : null;
+                return render(result, context, version, version != null && version.equals(ifNoneMatch[0]));
+            } catch (RuntimeException e) {
+                // Rejected arguments fail before any upstream work and say nothing about load
+                sampled = !isInvalidInput(e);
+                throw e;
+            } finally {
+                if (permit != null) {
+                    lane.release(permit, sampled);
+                }
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Takes the workspace, ifNoneMatch and compact arguments out of the tool
+     * input. The workspace and compact choice are recorded in the context;
+     * naming the default workspace is the same as omitting it.
+     */
+    private String takeArguments(String toolInput, ToolInvocationContext context, String[] ifNoneMatch) {
+        JsonNode input;
+        try {
+            input = objectMapper.readTree(toolInput);
+        } catch (Exception e) {
+            // Let the tool report malformed input
+            return toolInput;
+        }
+        if (!(input instanceof ObjectNode arguments)) {
+            return toolInput;
+        }
+        boolean taken = false;
+        if (conditional && arguments.has(IF_NONE_MATCH_PARAMETER)) {
+            JsonNode token = arguments.remove(IF_NONE_MATCH_PARAMETER);
+            ifNoneMatch[0] = token.isNull() ? null : token.asText();
+            taken = true;
+        }
+        if (compactByDefault != null && arguments.has(COMPACT_PARAMETER)) {
+            JsonNode compact = arguments.remove(COMPACT_PARAMETER);
+            if (!compact.isNull()) {
+                context.setCompact(compact.asBoolean());
+            }
+            taken = true;
+        }
+        if (workspaces != null && arguments.has(WORKSPACE_PARAMETER)) {
+            selectWorkspace(arguments.remove(WORKSPACE_PARAMETER), context);
+            taken = true;
+        }
+        return taken ? arguments.toString() : toolInput;
+    }
+
+    private void selectWorkspace(JsonNode workspace, ToolInvocationContext context) {
+        if (!workspace.isNull()) {
+            String name = workspace.asText();
+            if (!workspaces.contains(name)) {
+                throw new IllegalArgumentException("Unknown workspace '" + name + "', expected one of "
+                        + workspaces);
+            }
+            context.setWorkspace(name.equals(workspaces.get(0)) ? null : name);
+        }
+    }
+
+    private ToolDefinition withParameters(ToolDefinition definition) {
+        try {
+            ObjectNode schema = (ObjectNode) objectMapper.readTree(definition.inputSchema());
+            if (workspaces != null) {
+                ObjectNode parameter = schema.withObject("/properties").putObject(WORKSPACE_PARAMETER);
+                parameter.put("type", "string");
+                workspaces.forEach(parameter.putArray("enum")::add);
+                parameter.put("description", "LeanIX workspace to query. Omit for the default workspace ("
+                        + workspaces.get(0) + ")");
+            }
+            if (conditional) {
+                ObjectNode parameter = schema.withObject("/properties").putObject(IF_NONE_MATCH_PARAMETER);
+                parameter.put("type", "string");
+                parameter.put("description", "Version of a result you already have. If the result is unchanged, "
+                        + "only {\"notModified\":true} is returned; reuse the earlier result");
+            }
+            if (compactByDefault != null) {
+                ObjectNode parameter = schema.withObject("/properties").putObject(COMPACT_PARAMETER);
+                parameter.put("type", "boolean");
+                parameter.put("description", "Render the result compactly: lists of objects as {columns, rows} "
+                        + "tables, no null or empty fields, repeated values as {\"$ref\":n} into 'shared' (default: "
+                        + compactByDefault + ")");
+            }
+            return ToolDefinition.builder()
+                    .name(definition.name())
+                    .description(definition.description())
+                    .inputSchema(objectMapper.writeValueAsString(schema))
+                    .build();
+        } catch (Exception e) {
+            log.warn("[ToolInvocationCallback] Could not add parameters to {}", definition.name(), e);
+            return definition;
+        }
+    }
+
+    private String render(String result, ToolInvocationContext context, String version, boolean notModified) {
+        if (!context.isStale() && !context.isPartial() && version == null) {
+            return result;
+        }
+        try {
+            ObjectNode envelope = objectMapper.createObjectNode();
+            if (context.isStale()) {
+                envelope.put("stale", true);
+                envelope.put("staleAgeSeconds", context.getStaleAge().toSeconds());
+            }
+            if (context.isPartial()) {
+                envelope.put("partial", true);
+                envelope.put("continuation", context.getContinuation());
+            }
+            if (version != null) {
+                envelope.put("version", version);
+            }
+            if (notModified) {
+                envelope.put("notModified", true);
+            } else {
+                envelope.set("result", parse(result));
+            }
+            return objectMapper.writeValueAsString(envelope);
+        } catch (Exception e) {
+            log.warn("[ToolInvocationCallback] Could not render result envelope for {}", context.getToolName(), e);
+            return result;
+        }
+    }
+
+    /**
+     * @return Token identifying the content of a result
+     */
+    static String versionOf(String result) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(
+                    String.valueOf(result).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, VERSION_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static boolean isInvalidInput(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IllegalArgumentException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private JsonNode parse(String result) throws Exception {
+        if (result == null) {
+            return objectMapper.nullNode();
+        }
+        return objectMapper.readTree(result);
+    }
+
+    /**
+     * What decorated invocations are given; {@link #DEFAULTS} gives them nothing
+     * beyond a context.
+     *
+     * @param timeout             Deadline of each invocation (null for none)
+     * @param admissionController Admits invocations (null to admit all)
+     * @param workspaces          Names of the LeanIX workspaces, default first
+     *                            (null for a single workspace)
+     * @param conditionalTools    Names of the tools whose results are versioned
+     *                            (null for none)
+     * @param compactByDefault    Whether results are compact unless the caller
+     *                            says otherwise (null to offer no choice)
+     */
+    public record Options(Duration timeout, AdmissionController admissionController, List<String> workspaces,
+            Set<String> conditionalTools, Boolean compactByDefault) {
+
+        public static final Options DEFAULTS = new Options(null, null, null, null, null);
+
+        public Options {
+            workspaces = workspaces != null ? List.copyOf(workspaces) : null;
+            conditionalTools = conditionalTools != null ? Set.copyOf(conditionalTools) : null;
+        }
+
+        public Options withTimeout(Duration timeout) {
+            return new Options(timeout, admissionController, workspaces, conditionalTools, compactByDefault);
+        }
+
+        public Options withAdmissionController(AdmissionController admissionController) {
+            return new Options(timeout, admissionController, workspaces, conditionalTools, compactByDefault);
+        }
+
+        public Options withWorkspaces(Collection<String> workspaces) {
+            return new Options(timeout, admissionController, workspaces != null ? List.copyOf(workspaces) : null,
+                    conditionalTools, compactByDefault);
+        }
+
+        public Options withConditionalTools(Collection<String> conditionalTools) {
+            return new Options(timeout, admissionController, workspaces,
+                    conditionalTools != null ? Set.copyOf(conditionalTools) : null, compactByDefault);
+        }
+
+        public Options withCompactByDefault(Boolean compactByDefault) {
+            return new Options(timeout, admissionController, workspaces, conditionalTools, compactByDefault);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.lgt.leanix_mcp.tool;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * State attached to a single MCP tool invocation. The context is bound to the
+ * thread executing the tool for the duration of the call, so layers below
+ * {@code LeanIXService} can annotate the result without changing tool
+ * signatures. Work handed to other threads carries the context along with
+ * {@link #propagate(Callable)}.
+ * <p>
+ * An invocation may have a deadline. Upstream calls made on its behalf are
+ * limited to the remaining time, and long-running tools stop when it passes,
+ * returning partial results with a continuation.
+ * <p>
+ * The context also names the LeanIX workspace the invocation works on; null
+ * stands for the default workspace.
+ * <p>
+ * Work that has to see the current state of LeanIX, such as refreshing a
+ * cached tool result, runs with {@link #bypassingResponseCache(Supplier)}.
+ */
+public final class ToolInvocationContext {
+
+    private static final ThreadLocal<ToolInvocationContext> CURRENT = new ThreadLocal<>();
+
+    private final String toolName;
+    private final Instant deadline;
+    private final Map<Object, Object> attributes = new ConcurrentHashMap<>();
+    private Duration staleAge;
+    private boolean partial;
+    private String continuation;
+    private volatile String workspace;
+    private volatile boolean compact;
+    private volatile boolean bypassResponseCache;
+
+    private ToolInvocationContext(String toolName, Instant deadline) {
+        this.toolName = toolName;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Binds a new context without deadline to the current thread.
+     *
+     * @param toolName Name of the invoked tool
+     * @return The bound context, to be closed when the invocation ends
+     */
+    static ToolInvocationContext open(String toolName) {
+        return open(toolName, null);
+    }
+
+    /**
+     * Binds a new context to the current thread.
+     *
+     * @param toolName Name of the invoked tool
+     * @param timeout  Time the invocation may take (null for no deadline)
+     * @return The bound context, to be closed when the invocation ends
+     */
+    static ToolInvocationContext open(String toolName, Duration timeout) {
+        Instant deadline = timeout == null || timeout.isZero() ? null : Instant.now().plus(timeout);
+        ToolInvocationContext context = new ToolInvocationContext(toolName, deadline);
+        CURRENT.set(context);
+        return context;
+    }
+
+    /**
+     * @return The context of the tool invocation running on this thread, if any
+     */
+    public static Optional<ToolInvocationContext> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Binds the current context, if any, to the thread that runs the task.
+     *
+     * @param task Task to run on another thread
+     * @return The task, running within the current context
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        ToolInvocationContext context = CURRENT.get();
+        if (context == null) {
+            return task;
+        }
+        return () -> {
+            ToolInvocationContext outer = CURRENT.get();
+            CURRENT.set(context);
+            try {
+                return task.call();
+            } finally {
+                if (outer != null) {
+                    CURRENT.set(outer);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Binds a context for background work that outlives the current invocation,
+     * such as prefetching or cache revalidation: it works on the same workspace
+     * but has no deadline.
+     *
+     * @param task Task to run on another thread
+     * @return The task, running within the detached context
+     */
+    public static <T> Supplier<T> detach(Supplier<T> task) {
+        String workspace = currentWorkspace().orElse(null);
+        String toolName = current().map(ToolInvocationContext::getToolName).orElse("background");
+        return bind(toolName, workspace, task);
+    }
+
+    /**
+     * Runs work that belongs to no tool invocation, such as a scheduled job,
+     * on a given workspace without deadline.
+     *
+     * @param jobName   Name of the job, in place of a tool name
+     * @param workspace Workspace to work on (null for the default)
+     * @param task      The work
+     * @return The result of the task
+     */
+    public static <T> T runInWorkspace(String jobName, String workspace, Supplier<T> task) {
+        return bind(jobName, workspace, task).get();
+    }
+
+    private static <T> Supplier<T> bind(String toolName, String workspace, Supplier<T> task) {
+        return () -> {
+            ToolInvocationContext outer = CURRENT.get();
+            ToolInvocationContext detached = new ToolInvocationContext(toolName, null);
+            detached.workspace = workspace;
+            CURRENT.set(detached);
+            try {
+                return task.get();
+            } finally {
+                if (outer != null) {
+                    CURRENT.set(outer);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Runs a task whose GraphQL queries skip the response cache and go to
+     * LeanIX; their responses are still stored. Without a current invocation
+     * the task runs in a context of its own, without deadline.
+     *
+     * @param task The work
+     * @return The result of the task
+     */
+    public static <T> T bypassingResponseCache(Supplier<T> task) {
+        ToolInvocationContext context = CURRENT.get();
+        if (context == null) {
+            return bind("refresh", null, () -> bypassingResponseCache(task)).get();
+        }
+        boolean outer = context.bypassResponseCache;
+        context.bypassResponseCache = true;
+        try {
+            return task.get();
+        } finally {
+            context.bypassResponseCache = outer;
+        }
+    }
+
+    /**
+     * @return Whether queries of the current invocation skip the response cache
+     */
+    public static boolean responseCacheBypassed() {
+        return current().map(context -> context.bypassResponseCache).orElse(false);
+    }
+
+    /**
+     * @return Workspace of the current invocation, empty for the default
+     *         workspace
+     */
+    public static Optional<String> currentWorkspace() {
+        return current().map(context -> context.workspace);
+    }
+
+    /**
+     * @return Whether the current invocation asked for compact output
+     */
+    public static boolean compactOutput() {
+        return current().map(context -> context.compact).orElse(false);
+    }
+
+    /**
+     * @return Time left until the deadline of the current invocation, empty if
+     *         there is no deadline; negative once it has passed
+     */
+    public static Optional<Duration> remaining() {
+        return current().map(context -> context.deadline)
+                .map(deadline -> Duration.between(Instant.now(), deadline));
+    }
+
+    /**
+     * @return Whether the deadline of the current invocation has passed
+     */
+    public static boolean deadlineExpired() {
+        return remaining().map(Duration::isNegative).orElse(false);
+    }
+
+    /**
+     * Fails fast once the deadline of the current invocation has passed.
+     *
+     * @param operation What was about to be done, for the error message
+     * @throws DeadlineExceededException If the deadline has passed
+     */
+    public static void checkDeadline(String operation) {
+        if (deadlineExpired()) {
+            throw new DeadlineExceededException("Deadline of " + CURRENT.get().toolName + " exceeded before "
+                    + operation);
+        }
+    }
+
+    void close() {
+        CURRENT.remove();
+    }
+
+    public String getToolName() {
+        return toolName;
+    }
+
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    public String getWorkspace() {
+        return workspace;
+    }
+
+    /**
+     * @param workspace Workspace the invocation works on (null for the default)
+     */
+    public void setWorkspace(String workspace) {
+        this.workspace = workspace;
+    }
+
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * @param compact Whether the result is rendered with {@link CompactJsonEncoder}
+     */
+    public void setCompact(boolean compact) {
+        this.compact = compact;
+    }
+
+    /**
+     * Returns an invocation-scoped attribute, creating it on first access.
+     * Attributes live until the tool invocation ends.
+     *
+     * @param key     Attribute key
+     * @param factory Creates the attribute
+     * @return The attribute
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> V computeIfAbsent(K key, Function<K, V> factory) {
+        return (V) attributes.computeIfAbsent(key, k -> factory.apply((K) k));
+    }
+
+    /**
+     * Marks the result as served from cache after LeanIX failed to answer.
+     *
+     * @param age Age of the served value
+     */
+    public synchronized void markStale(Duration age) {
+        if (staleAge == null || age.compareTo(staleAge) > 0) {
+            staleAge = age;
+        }
+    }
+
+    public synchronized boolean isStale() {
+        return staleAge != null;
+    }
+
+    public synchronized Duration getStaleAge() {
+        return staleAge;
+    }
+
+    /**
+     * Marks the result as incomplete because the deadline passed.
+     *
+     * @param continuation Token to pass back to the tool to resume the work,
+     *                     null if the tool cannot resume
+     */
+    public synchronized void markPartial(String continuation) {
+        this.partial = true;
+        this.continuation = continuation;
+    }
+
+    public synchronized boolean isPartial() {
+        return partial;
+    }
+
+    public synchronized String getContinuation() {
+        return continuation;
+    }
+}
@@ -0,0 +1,58 @@
+package com.lgt.leanix_mcp.tool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs tool invocations on virtual threads without a cap. The MCP server
+ * executes every synchronous tool on Reactor's bounded elastic scheduler.
+ * Spring Boot moves that scheduler to virtual threads when
+ * {@code spring.threads.virtual.enabled} is set, but keeps Reactor's limit of
+ * ten tasks per CPU, so a few slow LeanIX queries still queue all other
+ * invocations. This starts a virtual thread per task instead: invocations
+ * waiting on LeanIX hold no platform thread, and their number is limited by
+ * admission control alone.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadToolScheduler implements DisposableBean {
+
+    static final String THREAD_PREFIX = "tool-";
+
+    public VirtualThreadToolScheduler() {
+        Schedulers.setFactory(new Schedulers.Factory() {
+            @Override
+            public Scheduler newBoundedElastic(int threadCap, int queuedTaskCap, ThreadFactory threadFactory,
+                    int ttlSeconds) {
+                return threadPerTask();
+            }
+
+            @Override
+            public Scheduler newThreadPerTaskBoundedElastic(int threadCap, int queuedTaskCap,
+                    ThreadFactory threadFactory) {
+                return threadPerTask();
+            }
+        });
+        log.info("[VirtualThreadToolScheduler] Tool invocations run on virtual threads");
+    }
+
+    private static Scheduler threadPerTask() {
+        return Schedulers.fromExecutorService(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_PREFIX, 0).factory()),
+                "virtualBoundedElastic");
+    }
+
+    @Override
+    public void destroy() {
+        Schedulers.resetFactory();
+    }
+}
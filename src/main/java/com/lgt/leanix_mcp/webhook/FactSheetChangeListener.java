@@ -0,0 +1,20 @@
+package com.lgt.leanix_mcp.webhook;
+
+import java.util.List;
+
+/**
+ * Receives fact sheet changes pushed by webhooks or found by the cache
+ * reconciliation, e.g. to update an index incrementally. Every replica notifies its listeners of every change,
+ * whichever replica received it. Caches are already invalidated when
+ * listeners are called.
+ */
+@FunctionalInterface
+public interface FactSheetChangeListener {
+
+    /**
+     * @param workspace Workspace of the changes (null for the default)
+     * @param events    The changes of one batch, deduplicated and in sequence
+     *                  order
+     */
+    void factSheetsChanged(String workspace, List<FactSheetEvent> events);
+}
@@ -0,0 +1,74 @@
+package com.lgt.leanix_mcp.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A change of fact sheets delivered by a LeanIX webhook.
+ *
+ * @param id           Event id, used to drop redelivered events
+ * @param sequence     Position of the event in the workspace's event stream,
+ *                     or null if the delivery carries none
+ * @param kind         What changed
+ * @param factSheetIds The affected fact sheets; both ends for relation
+ *                     changes
+ */
+public record FactSheetEvent(String id, Long sequence, Kind kind, List<String> factSheetIds) {
+
+    public enum Kind {
+        CREATED, UPDATED, ARCHIVED, RELATION_CHANGED
+    }
+
+    /**
+     * Reads an event from a webhook payload such as
+     * {@code {"id": "...", "sequence": 42, "type": "FactSheetUpdatedEvent",
+     * "factSheet": {"id": "..."}}}.
+     *
+     * @param node One event of the payload
+     * @return The event, or null if its type does not affect fact sheets
+     * @throws IllegalArgumentException If the event lacks an id or fact sheet
+     */
+    public static FactSheetEvent of(JsonNode node) {
+        Kind kind = kindOf(node.path("type").asText(""));
+        if (kind == null) {
+            return null;
+        }
+        String id = node.path("id").asText(null);
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Webhook event without id");
+        }
+        JsonNode sequence = node.path("sequence");
+        List<String> factSheetIds = new ArrayList<>(2);
+        if (kind == Kind.RELATION_CHANGED) {
+            addId(node.path("relation").path("fromFactSheet"), factSheetIds);
+            addId(node.path("relation").path("toFactSheet"), factSheetIds);
+        } else {
+            addId(node.path("factSheet"), factSheetIds);
+        }
+        if (factSheetIds.isEmpty()) {
+            throw new IllegalArgumentException("Webhook event " + id + " names no fact sheet");
+        }
+        return new FactSheetEvent(id, sequence.canConvertToLong() ? sequence.asLong() : null, kind,
+                List.copyOf(factSheetIds));
+    }
+
+    private static Kind kindOf(String type) {
+        String name = type.endsWith("Event") ? type.substring(0, type.length() - "Event".length()) : type;
+        return switch (name) {
+            case "FactSheetCreated" -> Kind.CREATED;
+            case "FactSheetUpdated" -> Kind.UPDATED;
+            case "FactSheetArchived", "FactSheetDeleted" -> Kind.ARCHIVED;
+            case "RelationCreated", "RelationUpdated", "RelationArchived", "RelationDeleted" -> Kind.RELATION_CHANGED;
+            default -> null;
+        };
+    }
+
+    private static void addId(JsonNode factSheet, List<String> ids) {
+        String id = factSheet.path("id").asText(null);
+        if (id != null && !id.isBlank()) {
+            ids.add(id);
+        }
+    }
+}
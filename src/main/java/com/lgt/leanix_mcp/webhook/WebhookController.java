@@ -0,0 +1,94 @@
+package com.lgt.leanix_mcp.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Receives LeanIX webhook deliveries, so cached fact sheets are invalidated
+ * when they change instead of when their TTL runs out. The body is a single
+ * event or an array of events, signed with the shared secret. Subscriptions of
+ * additional workspaces post to {@code <path>/<workspace>}.
+ */
+@Slf4j
+@RestController
+@ConditionalOnProperty(prefix = "leanix.webhook", name = "enabled")
+public class WebhookController {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WebhookEventProcessor processor;
+    private final WorkspaceRegistry workspaces;
+    private final String secret;
+    private final String signatureHeader;
+
+    @Autowired
+    public WebhookController(WebhookEventProcessor processor, WorkspaceRegistry workspaces,
+            LeanIXClientConfig leanIXClientConfig) {
+        this(processor, workspaces, leanIXClientConfig.getWebhook().getSecret(),
+                leanIXClientConfig.getWebhook().getSignatureHeader());
+    }
+
+    WebhookController(WebhookEventProcessor processor, WorkspaceRegistry workspaces, String secret,
+            String signatureHeader) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("leanix.webhook.secret must be set when webhooks are enabled");
+        }
+        this.processor = processor;
+        this.workspaces = workspaces;
+        this.secret = secret;
+        this.signatureHeader = signatureHeader;
+    }
+
+    @PostMapping({"${leanix.webhook.path:/webhooks/leanix}", "${leanix.webhook.path:/webhooks/leanix}/{workspace}"})
+    public ResponseEntity<Map<String, Object>> receive(@PathVariable(required = false) String workspace,
+            @RequestBody byte[] body, @RequestHeader HttpHeaders headers) {
+        if (!WebhookSignature.verify(secret, body, headers.getFirst(signatureHeader))) {
+            log.warn("[WebhookController] Rejected delivery with invalid signature");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "invalid signature"));
+        }
+        if (workspace != null && !workspaces.names().contains(workspace)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "unknown workspace " + workspace));
+        }
+        List<FactSheetEvent> events;
+        try {
+            events = parse(body);
+        } catch (IOException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        String target = workspace == null || workspace.equals(workspaces.getDefaultWorkspace()) ? null : workspace;
+        int accepted = processor.submit(target, events);
+        return ResponseEntity.accepted().body(Map.of("accepted", accepted, "duplicates", events.size() - accepted));
+    }
+
+    private List<FactSheetEvent> parse(byte[] body) throws IOException {
+        JsonNode root = objectMapper.readTree(body);
+        if (root == null || !root.isObject() && !root.isArray()) {
+            throw new IllegalArgumentException("Expected an event or an array of events");
+        }
+        List<FactSheetEvent> events = new ArrayList<>();
+        for (JsonNode node : root.isArray() ? root : List.of(root)) {
+            FactSheetEvent event = FactSheetEvent.of(node);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+}
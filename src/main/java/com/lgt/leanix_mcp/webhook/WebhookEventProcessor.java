@@ -0,0 +1,258 @@
+package com.lgt.leanix_mcp.webhook;
+
+import com.lgt.leanix_mcp.cache.CacheInvalidation;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies fact sheet changes received by webhooks to the caches and, through
+ * {@link CacheInvalidation}, to the {@link FactSheetChangeListener}s of every
+ * replica.
+ * <p>
+ * Redelivered events are dropped by id. Events are collected for
+ * {@code batchWindow} and then applied in one batch per workspace: in sequence
+ * order, skipping events older than the last change applied to the same fact
+ * sheet, with one cache invalidation for all fact sheets of the batch. Event
+ * ids and sequences are only recorded once their batch was applied; a batch
+ * that fails is queued again and given up after {@value #MAX_ATTEMPTS}
+ * attempts, after which a redelivery of its events is accepted.
+ */
+@Slf4j
+@Component
+public class WebhookEventProcessor implements DisposableBean {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private final CacheInvalidation cacheInvalidation;
+    private final Duration batchWindow;
+    private final int historySize;
+    private final Map<String, History> histories = new LinkedHashMap<>();
+    private final List<Received> pending = new ArrayList<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("webhook-flush").factory());
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong outdated = new AtomicLong();
+    private boolean flushScheduled;
+
+    @Autowired
+    public WebhookEventProcessor(CacheInvalidation cacheInvalidation, LeanIXClientConfig leanIXClientConfig) {
+        this(cacheInvalidation, leanIXClientConfig.getWebhook().getBatchWindow(),
+                leanIXClientConfig.getWebhook().getHistorySize());
+    }
+
+    WebhookEventProcessor(CacheInvalidation cacheInvalidation, Duration batchWindow, int historySize) {
+        this.cacheInvalidation = cacheInvalidation;
+        this.batchWindow = batchWindow;
+        this.historySize = Math.max(1, historySize);
+    }
+
+    /**
+     * Queues events for the next batch.
+     *
+     * @param workspace Workspace the events belong to (null for the default)
+     * @param events    Events in delivery order
+     * @return Number of events accepted; redelivered events are not counted
+     */
+    public int submit(String workspace, List<FactSheetEvent> events) {
+        int accepted = 0;
+        synchronized (pending) {
+            History history = histories.computeIfAbsent(Objects.toString(workspace, ""), key -> new History());
+            for (FactSheetEvent event : events) {
+                if (history.eventIds.containsKey(event.id()) || !history.queued.add(event.id())) {
+                    duplicates.incrementAndGet();
+                    continue;
+                }
+                pending.add(new Received(workspace, event, 0));
+                accepted++;
+            }
+            if (accepted > 0) {
+                scheduleFlush();
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Applies all queued events now.
+     */
+    public void flush() {
+        Map<String, List<Received>> byWorkspace = new LinkedHashMap<>();
+        synchronized (pending) {
+            List<Received> batch = new ArrayList<>(pending);
+            pending.clear();
+            flushScheduled = false;
+            // Stable sort: events without sequence keep their delivery order
+            batch.sort(Comparator.comparing(received -> received.event().sequence(),
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+            Map<String, Map<String, Long>> sequences = new HashMap<>();
+            for (Received received : batch) {
+                String workspace = Objects.toString(received.workspace(), "");
+                History history = histories.get(workspace);
+                Map<String, Long> batchSequences = sequences.computeIfAbsent(workspace, key -> new HashMap<>());
+                if (history.isOutdated(received.event(), batchSequences)) {
+                    outdated.incrementAndGet();
+                    history.record(received.event());
+                    continue;
+                }
+                byWorkspace.computeIfAbsent(received.workspace(), key -> new ArrayList<>()).add(received);
+            }
+        }
+        byWorkspace.forEach(this::applyOrRequeue);
+    }
+
+    /**
+     * @return Number of events applied to the caches
+     */
+    public long getAppliedCount() {
+        return applied.get();
+    }
+
+    /**
+     * @return Number of redelivered events that were dropped
+     */
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    /**
+     * @return Number of events dropped because a later change of the same fact
+     *         sheet was applied before
+     */
+    public long getOutdatedCount() {
+        return outdated.get();
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdownNow();
+    }
+
+    private void applyOrRequeue(String workspace, List<Received> batch) {
+        List<FactSheetEvent> events = batch.stream().map(Received::event).toList();
+        try {
+            apply(workspace, events);
+        } catch (RuntimeException e) {
+            requeue(batch, e);
+            return;
+        }
+        synchronized (pending) {
+            History history = histories.get(Objects.toString(workspace, ""));
+            events.forEach(history::record);
+        }
+    }
+
+    private void requeue(List<Received> batch, RuntimeException failure) {
+        synchronized (pending) {
+            History history = histories.get(Objects.toString(batch.get(0).workspace(), ""));
+            int attempts = batch.get(0).attempts() + 1;
+            if (attempts >= MAX_ATTEMPTS) {
+                log.error("[WebhookEventProcessor] Giving up on {} events after {} attempts: {}", batch.size(),
+                        attempts, failure.getMessage(), failure);
+                batch.forEach(received -> history.queued.remove(received.event().id()));
+                return;
+            }
+            log.warn("[WebhookEventProcessor] Could not apply {} events, retrying: {}", batch.size(),
+                    failure.getMessage());
+            batch.forEach(received -> pending.add(new Received(received.workspace(), received.event(), attempts)));
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            flusher.schedule(this::flushQuietly, batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void apply(String workspace, List<FactSheetEvent> events) {
+        cacheInvalidation.factSheetsChanged(workspace, events);
+        applied.addAndGet(events.size());
+        log.debug("[WebhookEventProcessor] Applied {} events of {}", events.size(),
+                workspace != null ? workspace : "the default workspace");
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("[WebhookEventProcessor] Could not apply webhook events: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param attempts Number of failed attempts to apply the event
+     */
+    private record Received(String workspace, FactSheetEvent event, int attempts) {
+    }
+
+    /**
+     * Recently applied event ids and the sequence of the last change applied
+     * to each fact sheet, both bounded to the history size, and the ids of the
+     * events waiting to be applied. Guarded by {@code pending}.
+     */
+    private final class History {
+
+        final Map<String, Boolean> eventIds = bounded();
+        final Map<String, Long> sequences = bounded();
+        final Set<String> queued = new HashSet<>();
+
+        /**
+         * @param batch Sequences of the events of the current batch that are
+         *              not yet applied; updated if the event is not outdated
+         */
+        boolean isOutdated(FactSheetEvent event, Map<String, Long> batch) {
+            Long sequence = event.sequence();
+            if (sequence == null) {
+                return false;
+            }
+            boolean outdated = event.factSheetIds().stream().allMatch(id ->
+                    Math.max(sequences.getOrDefault(id, Long.MIN_VALUE), batch.getOrDefault(id, Long.MIN_VALUE))
+                            >= sequence);
+            if (!outdated) {
+                event.factSheetIds().forEach(id -> batch.merge(id, sequence, Math::max));
+            }
+            return outdated;
+        }
+
+        /**
+         * Records an event as handled, so redeliveries and older changes of its
+         * fact sheets are dropped.
+         */
+        void record(FactSheetEvent event) {
+            queued.remove(event.id());
+            eventIds.put(event.id(), Boolean.TRUE);
+            if (event.sequence() != null) {
+                event.factSheetIds().forEach(id -> sequences.merge(id, event.sequence(), Math::max));
+            }
+        }
+
+        private <V> Map<String, V> bounded() {
+            return new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                    return size() > historySize;
+                }
+            };
+        }
+    }
+}
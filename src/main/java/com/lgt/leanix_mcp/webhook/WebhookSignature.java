@@ -0,0 +1,57 @@
+package com.lgt.leanix_mcp.webhook;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * HMAC-SHA256 signature of webhook payloads, sent hex encoded and optionally
+ * prefixed with {@code sha256=}.
+ */
+public final class WebhookSignature {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String PREFIX = "sha256=";
+
+    private WebhookSignature() {
+    }
+
+    /**
+     * @param secret Shared secret of the webhook subscription
+     * @param body   Raw request body
+     * @return The hex encoded signature of the body
+     */
+    public static String sign(String secret, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Compares in constant time, so the signature cannot be guessed byte by
+     * byte.
+     *
+     * @param secret    Shared secret of the webhook subscription
+     * @param body      Raw request body
+     * @param signature Signature sent with the request (can be null)
+     * @return Whether the signature matches the body
+     */
+    public static boolean verify(String secret, byte[] body, String signature) {
+        if (signature == null) {
+            return false;
+        }
+        String hex = signature.trim();
+        if (hex.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            hex = hex.substring(PREFIX.length());
+        }
+        return MessageDigest.isEqual(sign(secret, body).getBytes(StandardCharsets.US_ASCII),
+                hex.toLowerCase().getBytes(StandardCharsets.US_ASCII));
+    }
+}
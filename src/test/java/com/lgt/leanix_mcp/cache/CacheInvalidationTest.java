@@ -0,0 +1,161 @@
+package com.lgt.leanix_mcp.cache;
+
+import com.lgt.leanix_mcp.client.LeanIXClient;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.webhook.FactSheetEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheInvalidationTest {
+
+    private static final String QUERY = "query GetFactSheet { factSheet(id: \"1\") { id name } }";
+
+    private final MutableClock clock = new MutableClock();
+    private final InMemorySharedCache sharedCache = new InMemorySharedCache();
+    private final WorkspaceRegistry workspaces = WorkspaceRegistry.of(new LeanIXClient("lgt-test", "test-token"));
+    private final Replica a = new Replica();
+    private final Replica b = new Replica();
+
+    @AfterEach
+    void tearDown() {
+        a.toolResults.destroy();
+        b.toolResults.destroy();
+    }
+
+    @Test
+    void testChangeOnOneReplicaEvictsAllReplicas() {
+        FactSheetProjection projection = FactSheetProjection.of(List.of("name"));
+        a.factSheets.put(factSheet("1"), projection);
+        b.factSheets.put(factSheet("1"), projection);
+        b.factSheets.put(factSheet("2"), projection);
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals("v1", load(b, "1", () -> result(loads.incrementAndGet(), "1", "2")));
+        assertEquals("v2", load(b, "2", () -> result(loads.incrementAndGet(), "2")));
+
+        a.invalidation.factSheetsChanged("lgt-test", List.of(updated("1")));
+
+        assertTrue(a.factSheets.get("1", projection).isEmpty());
+        assertTrue(b.factSheets.get("1", projection).isEmpty());
+        assertTrue(b.factSheets.get("2", projection).isPresent());
+        assertEquals("v2", load(b, "2", () -> result(loads.incrementAndGet(), "2")),
+                "results without the changed fact sheet stay fresh");
+        assertEquals("v1", load(b, "1", () -> {
+            throw new IllegalStateException("LeanIX unavailable");
+        }), "evicted results remain the stale-if-error fallback");
+        assertEquals("v3", load(b, "1", () -> result(loads.incrementAndGet(), "1", "2")));
+    }
+
+    @Test
+    void testChangeIsHandedToTheListenersOfAllReplicas() {
+        FactSheetEvent event = new FactSheetEvent("e-1", 7L, FactSheetEvent.Kind.ARCHIVED, List.of("1"));
+
+        a.invalidation.factSheetsChanged("lgt-test", List.of(event));
+
+        assertEquals(List.of(event), a.notified);
+        assertEquals(List.of(event), b.notified, "the announced change reaches the indexes of other replicas");
+    }
+
+    @Test
+    void testReplicasShareResponsesUntilInvalidated() {
+        clock.advance(Duration.ofSeconds(1));
+        ResponseCache.Key changed = a.responses.keyFor("lgt-test", QUERY, null);
+        ResponseCache.Key unchanged = a.responses.keyFor("lgt-test", QUERY.replace('1', '2'), null);
+        a.responses.put(changed, "{\"data\":{\"factSheet\":{\"id\":\"1\"}}}");
+        a.responses.put(unchanged, "{\"data\":{\"factSheet\":{\"id\":\"2\"}}}");
+
+        assertEquals("{\"data\":{\"factSheet\":{\"id\":\"1\"}}}", b.responses.get(changed));
+        assertEquals(1, b.responses.getSharedHits());
+
+        b.invalidation.factSheetsChanged(null, List.of(updated("1")));
+
+        assertNull(a.responses.get(changed), "the local copy is evicted");
+        assertNull(b.responses.get(changed), "the shared copy predates the change");
+        clock.advance(Duration.ofSeconds(1));
+        Replica c = new Replica();
+        c.toolResults.destroy();
+        assertNull(c.responses.get(unchanged), "a new replica does not trust older shared copies");
+        assertEquals("{\"data\":{\"factSheet\":{\"id\":\"2\"}}}", b.responses.get(unchanged));
+        assertEquals(2, b.responses.getSharedHits());
+    }
+
+    /**
+     * @return Name of the first fact sheet of the cached or loaded result
+     */
+    private static String load(Replica replica, String arg, Supplier<List<FactSheet>> loader) {
+        return replica.toolResults.get("getTypes", List.of(arg), loader).get(0).getName();
+    }
+
+    private List<FactSheet> result(int load, String... ids) {
+        List<FactSheet> factSheets = new ArrayList<>();
+        for (String id : ids) {
+            FactSheet factSheet = factSheet(id);
+            factSheet.setName("v" + load);
+            factSheets.add(factSheet);
+        }
+        return factSheets;
+    }
+
+    private static FactSheetEvent updated(String id) {
+        return new FactSheetEvent("e-" + id, null, FactSheetEvent.Kind.UPDATED, List.of(id));
+    }
+
+    private FactSheet factSheet(String id) {
+        FactSheet factSheet = new FactSheet();
+        factSheet.setId(id);
+        return factSheet;
+    }
+
+    /**
+     * The caches of one process.
+     */
+    private class Replica {
+        final FactSheetCache factSheets = new FactSheetCache(100, Duration.ofMinutes(5), Clock.systemUTC());
+        final ToolResultCache toolResults = new ToolResultCache(Map.of("getTypes",
+                new CachePolicy(Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofHours(1))),
+                Clock.systemUTC());
+        final ResponseCache responses = new ResponseCache(1024 * 1024, Duration.ofMinutes(5), Map.of(), clock,
+                sharedCache);
+        final List<FactSheetEvent> notified = new CopyOnWriteArrayList<>();
+        final CacheInvalidation invalidation = new CacheInvalidation(factSheets, toolResults, responses,
+                sharedCache, workspaces, List.of((workspace, events) -> notified.addAll(events)));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.lgt.leanix_mcp.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagePrefetcherTest {
+
+    private static final int LAST_PAGE = 5;
+    private static final Object LISTING = List.of("Application", 2);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> loads = Collections.synchronizedList(new ArrayList<>());
+    private final MutableClock clock = new MutableClock();
+    private PagePrefetcher prefetcher;
+
+    @AfterEach
+    void tearDown() {
+        prefetcher.destroy();
+    }
+
+    @Test
+    void testNextPageIsPrefetchedAndClaimed() {
+        prefetcher = new PagePrefetcher(true, Duration.ofSeconds(30), 8, clock);
+
+        JsonNode first = prefetcher.fetch(LISTING, null, this::page);
+        assertEquals(1, first.path("data").path("allFactSheets").path("number").asInt());
+        JsonNode second = prefetcher.fetch(LISTING, "c1", this::page);
+
+        assertEquals(2, second.path("data").path("allFactSheets").path("number").asInt());
+        assertEquals(1, Collections.frequency(loads, "c1"));
+        assertEquals(1, prefetcher.pendingCount());
+    }
+
+    @Test
+    void testExpiredPrefetchIsDiscarded() throws Exception {
+        prefetcher = new PagePrefetcher(true, Duration.ofSeconds(30), 8, clock);
+
+        prefetcher.fetch(LISTING, null, this::page);
+        awaitLoad("c1");
+        clock.advance(Duration.ofMinutes(1));
+        prefetcher.fetch(LISTING, "c1", this::page);
+
+        assertEquals(2, Collections.frequency(loads, "c1"));
+    }
+
+    @Test
+    void testPageNumbersResolveFromClosestKnownCursor() {
+        prefetcher = new PagePrefetcher(false, Duration.ofSeconds(30), 8, clock);
+        prefetcher.fetch(LISTING, null, this::page);
+        prefetcher.fetch(LISTING, "c1", this::page);
+        loads.clear();
+
+        assertEquals("c2", prefetcher.cursorForPage(LISTING, 3, this::page));
+        assertTrue(loads.isEmpty());
+
+        assertEquals("c4", prefetcher.cursorForPage(LISTING, 5, this::page));
+        assertEquals(List.of("c2", "c3"), loads);
+
+        assertNull(prefetcher.cursorForPage(LISTING, 1, this::page));
+        assertThrows(IllegalArgumentException.class, () -> prefetcher.cursorForPage(LISTING, 7, this::page));
+        assertThrows(IllegalArgumentException.class, () -> prefetcher.cursorForPage(List.of("other"), 0, fail()));
+    }
+
+    private JsonNode page(String after) {
+        loads.add(after);
+        int number = after == null ? 1 : Integer.parseInt(after.substring(1)) + 1;
+        ObjectNode result = objectMapper.createObjectNode();
+        ObjectNode connection = result.putObject("data").putObject("allFactSheets").put("number", number);
+        connection.putObject("pageInfo").put("hasNextPage", number < LAST_PAGE).put("endCursor", "c" + number);
+        return result;
+    }
+
+    private void awaitLoad(String after) throws InterruptedException {
+        for (int i = 0; i < 200 && !loads.contains(after); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(loads.contains(after), "the prefetch should have run");
+    }
+
+    private static Function<String, JsonNode> fail() {
+        return after -> {
+            throw new AssertionError("unexpected page request");
+        };
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.lgt.leanix_mcp.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void testKeyIgnoresFormattingAndVariableOrder() {
+        ResponseCache cache = new ResponseCache(1024 * 1024, Duration.ofMinutes(5), Map.of(), clock);
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("type", "Application");
+        variables.put("first", 50);
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("first", 50);
+        reordered.put("type", "Application");
+
+        ResponseCache.Key key = cache.keyFor("query Q($type: String, $first: Int) {\n  items(type: $type, first: $first) { id name }\n}", variables);
+        ResponseCache.Key same = cache.keyFor("# comment\nquery Q($type:String $first:Int){items(type:$type first:$first){id\nname}}", reordered);
+
+        assertEquals("Q", key.operation());
+        assertEquals(key, same);
+        assertNotEquals(key, cache.keyFor("query Q { items { id name } }", Map.of("type", "ITComponent")));
+    }
+
+    @Test
+    void testStringLiteralsAreKeptVerbatim() {
+        assertEquals("{factSheet(id:\"a  b\"){id}}", ResponseCache.normalize("{ factSheet(id: \"a  b\") { id } }"));
+    }
+
+    @Test
+    void testMutationsAreNotCached() {
+        ResponseCache cache = new ResponseCache(1024 * 1024, Duration.ofMinutes(5), Map.of(), clock);
+        assertNull(cache.keyFor("mutation M { updateFactSheet(id: \"1\") { id } }", null));
+        assertEquals("anonymous", cache.keyFor("{ allFactSheets { totalCount } }", null).operation());
+    }
+
+    @Test
+    void testResponsesAreStoredCompressed() {
+        ResponseCache cache = new ResponseCache(1024 * 1024, Duration.ofMinutes(5), Map.of(), clock);
+        String body = "{\"data\":{\"items\":[" + "{\"name\":\"Application\"},".repeat(500) + "{}]}}";
+        ResponseCache.Key key = cache.keyFor("{ items { name } }", null);
+
+        cache.put(key, body);
+
+        assertEquals(body, cache.get(key));
+        assertTrue(cache.getWeightedSize() < body.length() / 10);
+    }
+
+    @Test
+    void testEntriesExpirePerOperation() {
+        ResponseCache cache = new ResponseCache(1024 * 1024, Duration.ofMinutes(5),
+                Map.of("Short", Duration.ofSeconds(10)), clock);
+        ResponseCache.Key shortLived = cache.keyFor("query Short { a }", null);
+        ResponseCache.Key longLived = cache.keyFor("query Long { a }", null);
+        cache.put(shortLived, "{\"data\":1}");
+        cache.put(longLived, "{\"data\":2}");
+
+        clock.advance(Duration.ofSeconds(30));
+
+        assertNull(cache.get(shortLived));
+        assertEquals("{\"data\":2}", cache.get(longLived));
+    }
+
+    @Test
+    void testByteBudgetIsRespected() {
+        ResponseCache cache = new ResponseCache(64 * 1024, Duration.ofMinutes(5), Map.of(), clock);
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            cache.put(cache.keyFor("query Q" + i + " { a }", null), randomBody(random, 2048));
+        }
+        assertTrue(cache.getWeightedSize() <= 64 * 1024);
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    @Test
+    void testFrequentlyUsedEntrySurvivesScan() {
+        ResponseCache cache = new ResponseCache(64 * 1024, Duration.ofMinutes(5), Map.of(), clock);
+        Random random = new Random(7);
+        ResponseCache.Key hot = cache.keyFor("query Hot { a }", null);
+        String hotBody = randomBody(random, 2048);
+        cache.put(hot, hotBody);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(hotBody, cache.get(hot));
+        }
+
+        for (int i = 0; i < 500; i++) {
+            ResponseCache.Key key = cache.keyFor("query Scan" + i + " { a }", null);
+            cache.get(key);
+            cache.put(key, randomBody(random, 2048));
+        }
+
+        assertEquals(hotBody, cache.get(hot));
+    }
+
+    private static String randomBody(Random random, int length) {
+        StringBuilder body = new StringBuilder("{\"data\":\"");
+        for (int i = 0; i < length; i++) {
+            body.append((char) ('a' + random.nextInt(26)));
+        }
+        return body.append("\"}").toString();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.lgt.leanix_mcp.cache;
+
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolResultCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final ToolResultCache cache = new ToolResultCache(Map.of("getTypes",
+            new CachePolicy(Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofHours(1))), clock);
+
+    @AfterEach
+    void tearDown() {
+        cache.destroy();
+    }
+
+    @Test
+    void testFreshResultIsServedFromCache() {
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals("v1", cache.get("getTypes", List.of(), () -> "v" + calls.incrementAndGet()));
+        assertEquals("v1", cache.get("getTypes", List.of(), () -> "v" + calls.incrementAndGet()));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testToolWithoutPolicyIsNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        cache.get("searchFactSheetsByName", List.of("x"), calls::incrementAndGet);
+        cache.get("searchFactSheetsByName", List.of("x"), calls::incrementAndGet);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testStaleResultIsServedWhileRevalidating() throws Exception {
+        cache.get("getTypes", List.of(), () -> "v1");
+        clock.advance(Duration.ofMinutes(2));
+
+        CountDownLatch revalidated = new CountDownLatch(1);
+        String result = cache.get("getTypes", List.of(), () -> {
+            revalidated.countDown();
+            return "v2";
+        });
+        assertEquals("v1", result);
+        assertTrue(revalidated.await(5, TimeUnit.SECONDS));
+
+        // The background refresh stores the new value shortly after the loader returns
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String current;
+        do {
+            current = cache.get("getTypes", List.of(), () -> "v3");
+        } while (!"v2".equals(current) && System.nanoTime() < deadline);
+        assertEquals("v2", current);
+    }
+
+    @Test
+    void testStaleResultIsServedWhenLoaderFails() {
+        cache.get("getTypes", List.of(), () -> "v1");
+        clock.advance(Duration.ofMinutes(30));
+
+        String result = cache.get("getTypes", List.of(), () -> {
+            throw new RuntimeException("LeanIX unavailable");
+        });
+        assertEquals("v1", result);
+    }
+
+    @Test
+    void testErrorIsThrownOnceStaleIfErrorWindowHasPassed() {
+        cache.get("getTypes", List.of(), () -> "v1");
+        clock.advance(Duration.ofHours(2));
+
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> cache.get("getTypes", List.of(), () -> {
+            throw new RuntimeException("LeanIX unavailable");
+        }));
+        assertEquals("LeanIX unavailable", thrown.getMessage());
+    }
+
+    @Test
+    void testRefreshesBypassTheResponseCache() throws Exception {
+        List<Boolean> bypassed = new CopyOnWriteArrayList<>();
+        cache.get("getTypes", List.of(), () -> bypassed.add(ToolInvocationContext.responseCacheBypassed()));
+
+        clock.advance(Duration.ofMinutes(2));
+        CountDownLatch revalidated = new CountDownLatch(1);
+        cache.get("getTypes", List.of(), () -> {
+            bypassed.add(ToolInvocationContext.responseCacheBypassed());
+            revalidated.countDown();
+            return true;
+        });
+        assertTrue(revalidated.await(5, TimeUnit.SECONDS));
+
+        clock.advance(Duration.ofMinutes(30));
+        cache.get("getTypes", List.of(), () -> bypassed.add(ToolInvocationContext.responseCacheBypassed()));
+
+        assertEquals(List.of(false, true, true), bypassed, "only the first load may be answered by the response cache");
+        assertFalse(ToolInvocationContext.responseCacheBypassed());
+    }
+
+    @Test
+    void testResultsAreCachedPerArguments() {
+        AtomicInteger calls = new AtomicInteger();
+        cache.get("getTypes", List.of("a"), calls::incrementAndGet);
+        cache.get("getTypes", List.of("b"), calls::incrementAndGet);
+        cache.get("getTypes", List.of("a"), calls::incrementAndGet);
+        assertEquals(2, calls.get());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.lgt.leanix_mcp.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgt.leanix_mcp.tool.ToolInvocationCallback;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 0.5, 0.8, Duration.ofSeconds(1),
+            Duration.ofSeconds(30), 2, clock);
+
+    @Test
+    void testOpensOnFailureRateAndFailsFast() {
+        EndpointGuard guard = new EndpointGuard(breaker, 4, Duration.ZERO);
+        guard.call("test", () -> "ok");
+        guard.call("test", () -> "ok");
+        assertThrows(HttpServerErrorException.class, () -> guard.call("test", () -> {
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        }));
+        // Client errors mean the endpoint is up
+        assertThrows(HttpClientErrorException.class, () -> guard.call("test", () -> {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        }));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        assertThrows(HttpServerErrorException.class, () -> guard.call("test", () -> {
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        }));
+        assertThrows(HttpServerErrorException.class, () -> guard.call("test", () -> {
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        }));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        int[] calls = {0};
+        assertThrows(CallNotPermittedException.class, () -> guard.call("test", () -> calls[0]++));
+        assertEquals(0, calls[0]);
+    }
+
+    @Test
+    void testHalfOpenProbesCloseOrReopenTheCircuit() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.record(Duration.ZERO, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        clock.advance(Duration.ofSeconds(31));
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "only two probes while half-open");
+        breaker.record(Duration.ZERO, false);
+        breaker.record(Duration.ofSeconds(5), false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "a slow probe reopens the circuit");
+
+        clock.advance(Duration.ofSeconds(31));
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.record(Duration.ZERO, false);
+        breaker.record(Duration.ZERO, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testOpensOnSlowCallRate() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.record(Duration.ofSeconds(2), false);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        breaker.record(Duration.ofSeconds(2), false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testCallsPastTheToolDeadlineAreNotRecorded() {
+        EndpointGuard guard = new EndpointGuard(breaker, 4, Duration.ZERO);
+        ToolCallback tool = new ToolCallback() {
+            @Override
+            public ToolDefinition getToolDefinition() {
+                return ToolDefinition.builder().name("slow").description("slow")
+                        .inputSchema("{\"type\":\"object\",\"properties\":{}}").build();
+            }
+
+            @Override
+            public String call(String toolInput) {
+                try {
+                    Thread.sleep(30);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                for (int i = 0; i < 4; i++) {
+                    assertThrows(ResourceAccessException.class, () -> guard.call("test", () -> {
+                        throw new ResourceAccessException("Read timed out");
+                    }));
+                }
+                return "{}";
+            }
+        };
+        new ToolInvocationCallback(tool, new ObjectMapper(),
+                ToolInvocationCallback.Options.DEFAULTS.withTimeout(Duration.ofMillis(10))).call("{}");
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "our own deadline cut the calls short");
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ResourceAccessException.class, () -> guard.call("test", () -> {
+                throw new ResourceAccessException("Read timed out");
+            }));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        clock.advance(Duration.ofSeconds(31));
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.release();
+        assertTrue(breaker.tryAcquire(), "a released probe frees its slot");
+    }
+
+    @Test
+    void testFullBulkheadRejectsCalls() throws Exception {
+        EndpointGuard guard = new EndpointGuard(null, 1, Duration.ofMillis(50));
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> guard.call("test", () -> {
+            entered.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        holder.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        assertThrows(CallNotPermittedException.class, () -> guard.call("test", () -> "second"));
+
+        release.countDown();
+        holder.join();
+        assertEquals("third", guard.call("test", () -> "third"));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -2,13 +2,17 @@ package com.lgt.leanix_mcp.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgt.leanix_mcp.cache.ResponseCache;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.*;
+import org.springframework.test.web.client.ExpectedCount;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
@@ -188,4 +192,60 @@ class LeanIXClientTest {
 
         localMockServer.verify();
     }
+
+    @Test
+    void testRepeatedQueryIsServedFromResponseCache() throws Exception {
+        String accessToken = "mock-access-token";
+        String graphqlResponse = "{\"data\":{\"factSheet\":{\"id\":\"1\",\"name\":\"CRM\"}}}";
+        ResponseCache responseCache = new ResponseCache(1024 * 1024, Duration.ofMinutes(5), Map.of());
+
+        LeanIXClient spyClient = new LeanIXClient(SUBDOMAIN, API_TOKEN,
+                LeanIXClient.Options.DEFAULTS.withResponseCache(responseCache)) {
+            @Override
+            public String getAccessToken() {
+                return accessToken;
+            }
+        };
+        setField(spyClient, "restTemplate", restTemplate);
+        setField(spyClient, "objectMapper", objectMapper);
+        MockRestServiceServer localMockServer = MockRestServiceServer.createServer(restTemplate);
+
+        localMockServer.expect(requestTo(GRAPHQL_ENDPOINT))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess(graphqlResponse, MediaType.APPLICATION_JSON));
+
+        JsonNode first = spyClient.query("query ById($id: ID!) { factSheet(id: $id) { id name } }", Map.of("id", "1"));
+        JsonNode second = spyClient.query("query ById($id: ID!) {\n  factSheet(id: $id) {\n    id\n    name\n  }\n}",
+                Map.of("id", "1"));
+
+        assertEquals(first, second);
+        assertEquals("CRM", second.get("data").get("factSheet").get("name").asText());
+        assertEquals(1, responseCache.getHits());
+        localMockServer.verify();
+    }
+
+    @Test
+    void testBypassingQueryRefreshesResponseCache() throws Exception {
+        ResponseCache responseCache = new ResponseCache(1024 * 1024, Duration.ofMinutes(5), Map.of());
+        LeanIXClient spyClient = new LeanIXClient(SUBDOMAIN, API_TOKEN,
+                LeanIXClient.Options.DEFAULTS.withResponseCache(responseCache)) {
+            @Override
+            public String getAccessToken() {
+                return "mock-access-token";
+            }
+        };
+        setField(spyClient, "restTemplate", restTemplate);
+        setField(spyClient, "objectMapper", objectMapper);
+        MockRestServiceServer localMockServer = MockRestServiceServer.createServer(restTemplate);
+        localMockServer.expect(ExpectedCount.twice(), requestTo(GRAPHQL_ENDPOINT))
+                .andRespond(withSuccess("{\"data\":{\"factSheet\":{\"id\":\"1\"}}}", MediaType.APPLICATION_JSON));
+        String query = "query ById($id: ID!) { factSheet(id: $id) { id } }";
+
+        spyClient.query(query, Map.of("id", "1"));
+        ToolInvocationContext.bypassingResponseCache(() -> spyClient.query(query, Map.of("id", "1")));
+        spyClient.query(query, Map.of("id", "1"));
+
+        assertEquals(1, responseCache.getHits());
+        localMockServer.verify();
+    }
 }
@@ -0,0 +1,68 @@
+package com.lgt.leanix_mcp.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageSizeControllerTest {
+
+    private final PageSizeController controller = new PageSizeController(10, 100, 50, 10, 0.5,
+            Duration.ofSeconds(10), 1000);
+
+    @Test
+    void testGoodPagesIncreaseAdditivelyUpToMaximum() {
+        for (int i = 0; i < 3; i++) {
+            page("op", 200);
+        }
+        assertEquals(80, controller.pageSize("op"));
+        for (int i = 0; i < 10; i++) {
+            page("op", 200);
+        }
+        assertEquals(100, controller.pageSize("op"));
+        assertEquals(50, controller.pageSize("other"));
+    }
+
+    @Test
+    void testOversizedPagesDecreaseMultiplicatively() {
+        page("op", 5000);
+        assertEquals(25, controller.pageSize("op"));
+        page("op", 5000);
+        page("op", 5000);
+        assertEquals(10, controller.pageSize("op"));
+    }
+
+    @Test
+    void testOverloadErrorsBackOff() {
+        assertThrows(RuntimeException.class, () -> controller.observe("op", 50, () -> {
+            throw new RuntimeException("GraphQL query failed: 504",
+                    new HttpServerErrorException(HttpStatus.GATEWAY_TIMEOUT));
+        }));
+        assertEquals(25, controller.pageSize("op"));
+
+        assertTrue(PageSizeController.isOverload(new ResourceAccessException("I/O error",
+                new SocketTimeoutException("Read timed out"))));
+        assertTrue(PageSizeController.isOverload(new HttpClientErrorException(HttpStatus.PAYLOAD_TOO_LARGE)));
+        assertFalse(PageSizeController.isOverload(new HttpClientErrorException(HttpStatus.UNAUTHORIZED)));
+    }
+
+    @Test
+    void testCachedPagesAreNotCounted() {
+        controller.observe("op", 50, () -> "served from cache");
+        assertEquals(50, controller.pageSize("op"));
+    }
+
+    private void page(String operation, long bytes) {
+        int pageSize = controller.pageSize(operation);
+        controller.observe(operation, pageSize, () -> {
+            controller.onResponse(bytes);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package com.lgt.leanix_mcp.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestHedgerTest {
+
+    private RequestHedger hedger;
+
+    @AfterEach
+    void tearDown() {
+        if (hedger != null) {
+            hedger.close();
+        }
+    }
+
+    @Test
+    void testSlowRequestIsHedgedAndLoserCancelled() throws Exception {
+        hedger = new RequestHedger(50, Duration.ofMillis(20), 100, 3, Set.of());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("fast", hedger.execute("GetFactSheet", () -> "fast"));
+        }
+
+        CountDownLatch cancelled = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        long start = System.nanoTime();
+        String result = hedger.execute("GetFactSheet", () -> {
+            if (attempts.getAndIncrement() == 0) {
+                try {
+                    Thread.sleep(5000);
+                    return "slow";
+                } catch (InterruptedException e) {
+                    cancelled.countDown();
+                    throw new IllegalStateException(e);
+                }
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+        assertEquals(1, hedger.getHedgeCount());
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS), "the slow attempt should be cancelled");
+    }
+
+    @Test
+    void testHedgesStayWithinBudget() {
+        hedger = new RequestHedger(50, Duration.ofMillis(5), 10, 1, Set.of());
+        hedger.execute("GetFactSheet", () -> "warm-up");
+        for (int i = 0; i < 19; i++) {
+            assertEquals("ok", hedger.execute("GetFactSheet", slowFirstAttempt()));
+        }
+        assertTrue(hedger.getHedgeCount() >= 1);
+        assertTrue(hedger.getHedgeCount() <= 2, "10% of 20 requests");
+    }
+
+    @Test
+    void testWritesAndOtherOperationsAreNotHedged() {
+        hedger = new RequestHedger(50, Duration.ofMillis(5), 100, 1, Set.of("GetFactSheet"));
+        Thread caller = Thread.currentThread();
+        for (int i = 0; i < 3; i++) {
+            assertSame(caller, hedger.execute(null, Thread::currentThread));
+            assertSame(caller, hedger.execute("GetFactSheets", Thread::currentThread));
+        }
+        assertEquals(0, hedger.getHedgeCount());
+        assertFalse(RequestHedger.disabled().isEnabled());
+    }
+
+    private static Supplier<String> slowFirstAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+        return () -> {
+            if (attempts.getAndIncrement() == 0) {
+                try {
+                    Thread.sleep(30);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return "ok";
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.lgt.leanix_mcp.config;
+
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.service.LeanIXService;
+import com.lgt.leanix_mcp.snapshot.SnapshotDiff;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeanixRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    LeanixRuntimeHintsTest() {
+        new LeanixRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void testEveryToolMethodIsInvocable() {
+        int tools = 0;
+        for (Method method : ReflectionUtils.getDeclaredMethods(LeanIXService.class)) {
+            if (method.isAnnotationPresent(Tool.class)) {
+                assertTrue(RuntimeHintsPredicates.reflection().onMethod(method).invoke().test(hints),
+                        method.getName());
+                tools++;
+            }
+        }
+        assertTrue(tools > 10);
+    }
+
+    @Test
+    void testNestedFactSheetTypesAreBound() throws Exception {
+        for (Class<?> type : FactSheet.class.getDeclaredClasses()) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(type).test(hints), type.getName());
+        }
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(FactSheet.Lifecycle.class.getMethod("setPhase",
+                String.class)).invoke().test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(FactSheet.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(SnapshotDiff.FieldChange.class).test(hints));
+    }
+}
@@ -0,0 +1,156 @@
+package com.lgt.leanix_mcp.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lgt.leanix_mcp.client.LeanIXClient;
+import com.lgt.leanix_mcp.client.PageSizeController;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.graphql.ProjectionQueryCompiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FactSheetExporterTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger pagesFetched = new AtomicInteger();
+    @TempDir
+    Path directory;
+    private FactSheetExporter exporter;
+
+    @AfterEach
+    void tearDown() {
+        exporter.destroy();
+    }
+
+    @Test
+    void testCsvIsWrittenWithHeaderAndQuoting() throws IOException {
+        exporter = exporter(5, 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        FactSheetExporter.ExportResult result = exporter.export(null, "Application",
+                FactSheetProjection.of(List.of("name")), FactSheetExporter.Format.CSV, null, false, false, out);
+
+        assertTrue(result.complete());
+        assertEquals(5, result.records());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,type,name", lines[0]);
+        assertEquals("fs1,Application,\"App \"\"1\"\", Inc\"", lines[2]);
+        assertEquals(6, lines.length);
+    }
+
+    @Test
+    void testGzippedNdjsonResumesFromCursor() throws IOException {
+        exporter = exporter(5, 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        FactSheetExporter.ExportResult result = exporter.export(null, "Application",
+                FactSheetProjection.of(List.of("name")), FactSheetExporter.Format.NDJSON, "2", true, true, out);
+
+        assertEquals(3, result.records());
+        List<String> lines = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))
+                .readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        assertEquals("fs2", objectMapper.readTree(lines.get(0)).path("id").asText());
+        assertEquals("{\"_cursor\":\"4\"}", lines.get(2));
+        assertEquals("fs4", objectMapper.readTree(lines.get(3)).path("id").asText());
+        assertEquals(4, lines.size(), "no checkpoint after the last page");
+    }
+
+    @Test
+    void testFetcherWaitsForSlowWriter() throws IOException {
+        exporter = exporter(200, 1);
+        AtomicInteger pagesWritten = new AtomicInteger();
+        AtomicInteger maximumLead = new AtomicInteger();
+        ByteArrayOutputStream sink = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                // Flushed once per page; keep the writer slower than the fetcher
+                maximumLead.accumulateAndGet(pagesFetched.get() - pagesWritten.incrementAndGet(), Math::max);
+                reset();
+                sleep(2);
+            }
+        };
+
+        FactSheetExporter.ExportResult result = exporter.export(null, "Application",
+                FactSheetProjection.of(List.of("name")), FactSheetExporter.Format.NDJSON, null, false, false, sink);
+
+        assertEquals(200, result.records());
+        assertTrue(maximumLead.get() <= 3, "fetched " + maximumLead.get() + " pages ahead of the writer");
+    }
+
+    @Test
+    void testExportFilesAreUniqueAndRetained() throws IOException {
+        exporter = exporter(5, 2);
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Path file = exporter.createFile("Application", FactSheetExporter.Format.CSV, true);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000L * (i + 1)));
+            files.add(file);
+        }
+
+        assertEquals(5, files.stream().distinct().count(), "exports of the same type never share a file");
+        assertTrue(files.get(0).getFileName().toString().startsWith("Application-"));
+        assertTrue(files.get(0).getFileName().toString().endsWith(".csv.gz"));
+        try (Stream<Path> remaining = Files.list(directory.resolve("exports"))) {
+            assertEquals(Set.copyOf(files.subList(2, 5)), remaining.collect(Collectors.toSet()),
+                    "the oldest exports are dropped");
+        }
+    }
+
+    private FactSheetExporter exporter(int total, int bufferedPages) {
+        LeanIXClient client = new LeanIXClient("lgt-test", "test-token") {
+            @Override
+            public JsonNode query(String query, Map<String, Object> variables) {
+                assertTrue(query.contains("ExportFactSheets"));
+                pagesFetched.incrementAndGet();
+                int offset = variables.containsKey("after") ? Integer.parseInt((String) variables.get("after")) : 0;
+                int end = Math.min(total, offset + (Integer) variables.get("first"));
+                ObjectNode result = objectMapper.createObjectNode();
+                ObjectNode all = result.putObject("data").putObject("allFactSheets");
+                ArrayNode edges = all.putArray("edges");
+                for (int i = offset; i < end; i++) {
+                    edges.addObject().putObject("node").put("id", "fs" + i).put("type", "Application")
+                            .put("name", i == 1 ? "App \"1\", Inc" : "App " + i);
+                }
+                all.putObject("pageInfo").put("hasNextPage", end < total).put("endCursor", String.valueOf(end));
+                return result;
+            }
+        };
+        PageSizeController pageSizeController = new PageSizeController(PAGE_SIZE, PAGE_SIZE, PAGE_SIZE, 1, 0.5,
+                Duration.ofSeconds(2), 1024 * 1024);
+        return new FactSheetExporter(WorkspaceRegistry.of(client), new ProjectionQueryCompiler(),
+                pageSizeController, bufferedPages, directory.resolve("exports"), 3);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
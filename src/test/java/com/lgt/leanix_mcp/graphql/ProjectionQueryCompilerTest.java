@@ -0,0 +1,82 @@
+package com.lgt.leanix_mcp.graphql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectionQueryCompilerTest {
+
+    private final ProjectionQueryCompiler compiler = new ProjectionQueryCompiler();
+
+    @Test
+    void testProjectionAlwaysIncludesIdAndType() {
+        FactSheetProjection projection = FactSheetProjection.of(List.of("name"));
+        assertEquals(List.of("id", "name", "type"), List.copyOf(projection.getFields()));
+    }
+
+    @Test
+    void testUnknownFieldIsRejected() {
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> FactSheetProjection.of(List.of("name", "doesNotExist")));
+        assertTrue(thrown.getMessage().contains("doesNotExist"));
+    }
+
+    @Test
+    void testMinimalSelectionHasNoRelations() {
+        String query = compiler.compile(FactSheetQuery.SEARCH_BY_NAME, List.of("id", "name"));
+        assertTrue(query.contains("fullTextSearch: $name"));
+        assertTrue(query.contains("name"));
+        assertFalse(query.contains("relToChild"));
+        assertFalse(query.contains("... on"));
+    }
+
+    @Test
+    void testTypeSpecificFieldsUseInlineFragments() {
+        String query = compiler.compile(FactSheetQuery.BY_TYPE_PAGINATED,
+                List.of("name", "businessCriticality", "relToChild"));
+        assertTrue(query.contains("... on Application {"));
+        assertTrue(query.contains("... on BusinessCapability {"));
+        assertTrue(query.contains("businessCriticality"));
+        assertTrue(query.contains("relToChild { edges { node { id factSheet { id name type } } } }"));
+        assertTrue(query.contains("pageInfo"));
+    }
+
+    @Test
+    void testCompiledQueriesAreCachedPerProjection() {
+        String first = compiler.compile(FactSheetQuery.BY_TYPE, List.of("name", "status"));
+        String second = compiler.compile(FactSheetQuery.BY_TYPE, List.of("status", "name", "id"));
+        assertSame(first, second);
+        assertEquals(1, compiler.cachedQueries());
+
+        compiler.compile(FactSheetQuery.SEARCH_BY_NAME, List.of("name", "status"));
+        assertEquals(2, compiler.cachedQueries());
+    }
+
+    @Test
+    void testByIdsUsesOneAliasPerId() {
+        String query = compiler.compileByIds(3, FactSheetProjection.of(List.of("name")));
+        assertTrue(query.startsWith("query GetFactSheetsByIds($id0: ID!, $id1: ID!, $id2: ID!)"));
+        assertTrue(query.contains("fs2: factSheet(id: $id2) {"));
+        assertFalse(query.contains("fs3:"));
+        assertSame(query, compiler.compileByIds(3, FactSheetProjection.of(List.of("name"))));
+    }
+
+    @Test
+    void testLeastRecentlyUsedQueriesAreEvicted() {
+        FactSheetProjection projection = FactSheetProjection.of(List.of("name"));
+        String first = compiler.compileByIds(1, projection);
+        String second = compiler.compileByIds(2, projection);
+        for (int count = 3; count <= ProjectionQueryCompiler.MAX_CACHED_QUERIES; count++) {
+            compiler.compileByIds(count, projection);
+        }
+        assertSame(first, compiler.compileByIds(1, projection));
+
+        compiler.compileByIds(ProjectionQueryCompiler.MAX_CACHED_QUERIES + 1, projection);
+
+        assertEquals(ProjectionQueryCompiler.MAX_CACHED_QUERIES, compiler.cachedQueries());
+        assertSame(first, compiler.compileByIds(1, projection), "recently used queries stay cached");
+        assertNotSame(second, compiler.compileByIds(2, projection), "the least recently used query was evicted");
+    }
+}
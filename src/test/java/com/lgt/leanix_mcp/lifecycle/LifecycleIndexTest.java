@@ -0,0 +1,204 @@
+package com.lgt.leanix_mcp.lifecycle;
+
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.service.StubInventory;
+import com.lgt.leanix_mcp.webhook.FactSheetEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LifecycleIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    private final StubInventory inventory = new StubInventory(LifecycleIndex.PROJECTION);
+    private LifecycleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        inventory.put(factSheet("app-1", "Application", "2020-01-01", "2024-01-01", "2025-09-01"));
+        inventory.put(factSheet("app-2", "Application", "2021-01-01", "2027-01-01", "2028-01-01"));
+        inventory.put(factSheet("app-3", "Application", "2019-01-01", "2022-01-01", "2023-01-01"));
+        inventory.put(factSheet("itc-1", "ITComponent", "2018-01-01", "2025-01-01", "2025-11-15"));
+        inventory.put(factSheet("itc-2", "ITComponent", null, null, null));
+        index = new LifecycleIndex(inventory.workspaces(), inventory.crawler(), inventory.batchLoader(),
+                List.of("Application", "ITComponent"), Duration.ofHours(1),
+                Clock.fixed(Instant.parse("2025-06-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.destroy();
+        inventory.close();
+    }
+
+    @Test
+    void testTreeMatchesLinearScan() {
+        Random random = new Random(42);
+        List<IntervalTree.Interval<Integer>> intervals = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            LocalDate start = TODAY.plusDays(random.nextInt(3650) - 1825);
+            LocalDate end = random.nextInt(5) == 0 ? null : start.plusDays(1 + random.nextInt(720));
+            intervals.add(new IntervalTree.Interval<>(start, end, i));
+        }
+        IntervalTree<Integer> tree = IntervalTree.of(intervals);
+
+        for (int q = 0; q < 200; q++) {
+            LocalDate from = TODAY.plusDays(random.nextInt(3650) - 1825);
+            LocalDate to = from.plusDays(1 + random.nextInt(365));
+            List<Integer> overlapping = new ArrayList<>();
+            List<Integer> starting = new ArrayList<>();
+            for (IntervalTree.Interval<Integer> interval : intervals) {
+                if (interval.start().isBefore(to) && (interval.end() == null || interval.end().isAfter(from))) {
+                    overlapping.add(interval.value());
+                }
+                if (!interval.start().isBefore(from) && interval.start().isBefore(to)) {
+                    starting.add(interval.value());
+                }
+            }
+            assertEquals(sorted(overlapping), sorted(values(tree.overlapping(from, to))), "overlapping " + from);
+            assertEquals(sorted(starting), sorted(values(tree.startingWithin(from, to))), "starting " + from);
+        }
+    }
+
+    @Test
+    void testEndOfLifeWithinWindow() {
+        List<LifecycleIndex.Match> endOfLife = index.find("endOfLife", TODAY, TODAY.plusMonths(6), false, null,
+                true);
+
+        assertEquals(List.of("app-1", "itc-1"), endOfLife.stream().map(LifecycleIndex.Match::id).toList());
+        assertEquals("2025-09-01", endOfLife.get(0).start());
+        assertNull(endOfLife.get(0).end());
+        assertEquals(List.of(new LifecycleIndex.Dependent("app-1-child", "Child of app-1", "Application")),
+                endOfLife.get(0).dependents());
+
+        // phaseOut of app-1 ends where its end of life starts
+        List<LifecycleIndex.Match> phasingOut = index.find("phaseOut", TODAY, TODAY.plusDays(1), true,
+                "Application", false);
+        assertEquals(List.of("app-1"), phasingOut.stream().map(LifecycleIndex.Match::id).toList());
+        assertEquals("2025-09-01", phasingOut.get(0).end());
+        assertNull(phasingOut.get(0).dependents());
+
+        assertEquals(2, inventory.crawls(), "each indexed type is crawled once");
+    }
+
+    @Test
+    void testChangesReplaceOnlyTheirIntervals() {
+        assertEquals(List.of("app-1", "itc-1"), ids(index.find("endOfLife", TODAY, TODAY.plusMonths(6), false, null,
+                false)));
+
+        // app-2 is retired early, itc-1 is archived and app-1 gets a new end of life
+        inventory.put(factSheet("app-2", "Application", "2021-01-01", "2025-06-15", "2025-07-01"));
+        inventory.remove("itc-1");
+        inventory.put(factSheet("app-1", "Application", "2020-01-01", "2024-01-01", "2026-09-01"));
+        index.factSheetsChanged(null, List.of(
+                new FactSheetEvent("e-1", 1L, FactSheetEvent.Kind.UPDATED, List.of("app-1", "app-2")),
+                new FactSheetEvent("e-2", 2L, FactSheetEvent.Kind.ARCHIVED, List.of("itc-1"))));
+
+        assertEquals(List.of("app-2"), ids(index.find("endOfLife", TODAY, TODAY.plusMonths(6), false, null,
+                false)));
+        assertEquals(List.of("app-1", "app-2"), ids(index.find("phaseOut", TODAY, TODAY.plusMonths(1), true, null,
+                false)));
+        assertEquals(2, inventory.crawls(), "changes are applied without crawling again");
+        assertEquals(1, inventory.loads().size());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> index.find("endOfLife", TODAY, null, false, "Provider", false));
+    }
+
+    @Test
+    void testIncrementalUpdatesMatchFullRebuild() {
+        Random random = new Random(11);
+        Map<String, FactSheet> current = new HashMap<>();
+        Lifecycles lifecycles = new Lifecycles();
+        for (int round = 0; round < 1000; round++) {
+            String id = "fs-" + random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                current.remove(id);
+                lifecycles.remove(id);
+            } else {
+                LocalDate active = TODAY.plusDays(random.nextInt(2000) - 1000);
+                FactSheet factSheet = factSheet(id, "Application", active.toString(),
+                        active.plusDays(random.nextInt(900)).toString(),
+                        random.nextBoolean() ? active.plusDays(900 + random.nextInt(900)).toString() : null);
+                current.put(id, factSheet);
+                lifecycles.put(factSheet);
+            }
+            if (round % 100 == 99) {
+                Lifecycles rebuilt = new Lifecycles();
+                current.values().forEach(rebuilt::put);
+                assertEquals(rebuilt.size(), lifecycles.size());
+                for (String phase : List.of("active", "phaseOut", "endOfLife")) {
+                    LocalDate from = TODAY.plusDays(random.nextInt(2000) - 1000);
+                    LocalDate to = from.plusDays(1 + random.nextInt(365));
+                    assertEquals(entries(rebuilt.tree(phase).overlapping(from, to)),
+                            entries(lifecycles.tree(phase).overlapping(from, to)), phase + " from " + from);
+                }
+            }
+        }
+    }
+
+    private static FactSheet factSheet(String id, String type, String active, String phaseOut, String endOfLife) {
+        FactSheet factSheet = new FactSheet();
+        factSheet.setId(id);
+        factSheet.setType(type);
+        factSheet.setName("Name of " + id);
+        FactSheet.Lifecycle lifecycle = new FactSheet.Lifecycle();
+        List<FactSheet.LifecyclePhase> phases = new ArrayList<>();
+        // Unordered, as LeanIX does not promise an order
+        phases.add(phase("endOfLife", endOfLife));
+        phases.add(phase("active", active));
+        phases.add(phase("phaseOut", phaseOut));
+        lifecycle.setPhases(phases);
+        factSheet.setLifecycle(lifecycle);
+
+        FactSheet child = new FactSheet();
+        child.setId(id + "-child");
+        child.setName("Child of " + id);
+        child.setType(type);
+        FactSheet.RelToChildNode node = new FactSheet.RelToChildNode();
+        node.setFactSheet(child);
+        FactSheet.RelToChildEdge edge = new FactSheet.RelToChildEdge();
+        edge.setNode(node);
+        FactSheet.RelToChild relToChild = new FactSheet.RelToChild();
+        relToChild.setEdges(List.of(edge));
+        factSheet.setRelToChild(relToChild);
+        return factSheet;
+    }
+
+    private static FactSheet.LifecyclePhase phase(String name, String startDate) {
+        FactSheet.LifecyclePhase phase = new FactSheet.LifecyclePhase();
+        phase.setPhase(name);
+        phase.setStartDate(startDate);
+        return phase;
+    }
+
+    private static List<String> ids(List<LifecycleIndex.Match> matches) {
+        return matches.stream().map(LifecycleIndex.Match::id).toList();
+    }
+
+    private static List<String> entries(List<IntervalTree.Interval<LifecycleIndex.Entry>> intervals) {
+        return intervals.stream().map(interval -> interval.value().id() + "@" + interval.start()).sorted().toList();
+    }
+
+    private static List<Integer> values(List<IntervalTree.Interval<Integer>> intervals) {
+        return intervals.stream().map(IntervalTree.Interval::value).toList();
+    }
+
+    private static List<Integer> sorted(List<Integer> values) {
+        return values.stream().sorted().toList();
+    }
+}
@@ -0,0 +1,137 @@
+package com.lgt.leanix_mcp.reconcile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lgt.leanix_mcp.cache.CacheInvalidation;
+import com.lgt.leanix_mcp.cache.FactSheetCache;
+import com.lgt.leanix_mcp.cache.ToolResultCache;
+import com.lgt.leanix_mcp.client.LeanIXClient;
+import com.lgt.leanix_mcp.client.PageSizeController;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.graphql.ProjectionQueryCompiler;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.service.FactSheetBatchLoader;
+import com.lgt.leanix_mcp.webhook.FactSheetEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheReconcilerTest {
+
+    private static final FactSheetProjection PROJECTION = FactSheetProjection.of(List.of("name", "updatedAt"));
+    private static final String OLD = "2025-01-01T00:00:00Z";
+    private static final String NEW = "2025-02-01T00:00:00Z";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LeanIXClientConfig config = new LeanIXClientConfig();
+    // Upstream updatedAt by id
+    private final Map<String, String> upstream = new TreeMap<>();
+    private final List<Map<String, Object>> fetchedByIds = new ArrayList<>();
+    private final FactSheetCache factSheetCache = new FactSheetCache(config);
+    private final ToolResultCache toolResultCache = new ToolResultCache(config);
+    private final List<FactSheetEvent> notified = new CopyOnWriteArrayList<>();
+    private FactSheetBatchLoader batchLoader;
+
+    @AfterEach
+    void tearDown() {
+        toolResultCache.destroy();
+        if (batchLoader != null) {
+            batchLoader.destroy();
+        }
+    }
+
+    @Test
+    void testDriftedFactSheetsAreEvictedAndRefetched() {
+        for (int i = 0; i < 20; i++) {
+            factSheetCache.put(factSheet("fs-" + i, OLD), PROJECTION);
+            upstream.put("fs-" + i, OLD);
+        }
+        upstream.put("fs-3", NEW);
+        upstream.remove("fs-5");
+        upstream.put("fs-99", NEW);
+
+        CacheReconciler reconciler = reconciler();
+        assertEquals(2, reconciler.reconcile(null));
+
+        assertTrue(factSheetCache.get("fs-5", PROJECTION).isEmpty(), "deleted fact sheets are evicted");
+        assertEquals(NEW, factSheetCache.get("fs-3", PROJECTION).orElseThrow().getUpdatedAt());
+        assertEquals(1, fetchedByIds.size(), "only the changed fact sheet is fetched again");
+        assertTrue(factSheetCache.get("fs-99", PROJECTION).isEmpty(), "uncached fact sheets are not loaded");
+        assertEquals(List.of(FactSheetEvent.Kind.UPDATED, FactSheetEvent.Kind.ARCHIVED),
+                notified.stream().map(FactSheetEvent::kind).toList(), "the drift reaches the indexes");
+        assertEquals(List.of(List.of("fs-3"), List.of("fs-5")),
+                notified.stream().map(FactSheetEvent::factSheetIds).toList());
+
+        assertEquals(0, reconciler.reconcile(null));
+        assertEquals(1, fetchedByIds.size());
+    }
+
+    @Test
+    void testFactSheetsCachedWithoutVersionAreCheckedForExistence() {
+        FactSheetProjection names = FactSheetProjection.of(List.of("name"));
+        factSheetCache.put(factSheet("fs-1", null), names);
+        factSheetCache.put(factSheet("fs-2", null), names);
+        upstream.put("fs-1", NEW);
+
+        assertEquals(1, reconciler().reconcile(null));
+
+        assertTrue(factSheetCache.get("fs-1", names).isPresent(), "existing fact sheets are kept");
+        assertTrue(factSheetCache.get("fs-2", names).isEmpty(), "deleted fact sheets are evicted");
+        assertTrue(fetchedByIds.isEmpty());
+    }
+
+    private CacheReconciler reconciler() {
+        LeanIXClient client = new LeanIXClient("lgt-test", "test-token") {
+            @Override
+            public JsonNode query(String query, Map<String, Object> variables) {
+                ObjectNode result = objectMapper.createObjectNode();
+                ObjectNode data = result.putObject("data");
+                if (query.contains("ReconcileFactSheets")) {
+                    ObjectNode page = data.putObject("allFactSheets");
+                    ArrayNode edges = page.putArray("edges");
+                    upstream.forEach((id, updatedAt) -> edges.addObject().putObject("node")
+                            .put("id", id).put("type", "Application").put("updatedAt", updatedAt));
+                    page.putObject("pageInfo").put("hasNextPage", false);
+                } else {
+                    fetchedByIds.add(variables);
+                    for (int i = 0; variables.containsKey("id" + i); i++) {
+                        String id = (String) variables.get("id" + i);
+                        data.putObject(ProjectionQueryCompiler.alias(i)).put("id", id).put("type", "Application")
+                                .put("name", "FS " + id).put("updatedAt", upstream.get(id));
+                    }
+                }
+                return result;
+            }
+        };
+        WorkspaceRegistry workspaces = WorkspaceRegistry.of(client);
+        ProjectionQueryCompiler compiler = new ProjectionQueryCompiler();
+        CacheInvalidation invalidation = new CacheInvalidation(factSheetCache, toolResultCache, null, null,
+                workspaces, List.of((workspace, events) -> notified.addAll(events)));
+        batchLoader = new FactSheetBatchLoader(workspaces, compiler, factSheetCache, config);
+        PageSizeController pageSizeController = new PageSizeController(100, 100, 100, 1, 0.5,
+                Duration.ofSeconds(1), 1024 * 1024);
+        return new CacheReconciler(workspaces, factSheetCache, invalidation, batchLoader, compiler,
+                pageSizeController);
+    }
+
+    private static FactSheet factSheet(String id, String updatedAt) {
+        FactSheet factSheet = new FactSheet();
+        factSheet.setId(id);
+        factSheet.setType("Application");
+        factSheet.setName("FS " + id);
+        factSheet.setUpdatedAt(updatedAt);
+        return factSheet;
+    }
+}
@@ -0,0 +1,211 @@
+package com.lgt.leanix_mcp.rollup;
+
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.service.StubInventory;
+import com.lgt.leanix_mcp.webhook.FactSheetEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchyRollupsTest {
+
+    private static final List<String> RISK_ORDER = new LeanIXClientConfig().getRollup().getRiskOrder();
+
+    private final StubInventory inventory = new StubInventory(HierarchyRollups.PROJECTION);
+    private HierarchyRollups rollups;
+
+    @AfterEach
+    void tearDown() {
+        if (rollups != null) {
+            rollups.destroy();
+        }
+        inventory.close();
+    }
+
+    @Test
+    void testRollupsAggregateSubtrees() {
+        put("bc-1", "Customer", null, null, null, "bc-2", "bc-3");
+        put("bc-2", "Onboarding", "riskAccepted", 80, "missionCritical", "app-1");
+        put("bc-3", "Billing", "noRisk", 40, "administrativeService");
+        put("app-1", "CRM", "unaddressedEndOfLife", null, "missionCritical");
+        put("bc-4", "Analytics", null, 100, null);
+        rollups = rollups();
+
+        List<HierarchyRollups.RollupNode> roots = rollups.subtrees("BusinessCapability", null, 1);
+
+        assertEquals(List.of("Analytics", "Customer"), roots.stream().map(HierarchyRollups.RollupNode::name).toList());
+        HierarchyRollups.RollupNode customer = roots.get(1);
+        assertEquals(4, customer.factSheets());
+        assertEquals(2, customer.childCount());
+        assertEquals("unaddressedEndOfLife", customer.worstObsolescenceRisk());
+        assertEquals(60.0, customer.averageCompletion());
+        assertEquals(Map.of("administrativeService", 1, "missionCritical", 2), customer.businessCriticality());
+        assertEquals(List.of("bc-2", "bc-3"), customer.children().stream().map(HierarchyRollups.RollupNode::id)
+                .toList());
+        assertNull(customer.children().get(0).children(), "children below the requested depth are left out");
+
+        HierarchyRollups.RollupNode onboarding = rollups.subtrees("BusinessCapability", "bc-2", 0).get(0);
+        assertEquals(2, onboarding.factSheets());
+        assertEquals("unaddressedEndOfLife", onboarding.worstObsolescenceRisk());
+        assertThrows(IllegalArgumentException.class, () -> rollups.subtrees("BusinessCapability", "unknown", 1));
+    }
+
+    @Test
+    void testChangesRecomputeOnlyTheirPath() {
+        put("bc-1", "Customer", null, null, null, "bc-2", "bc-3");
+        put("bc-2", "Onboarding", "noRisk", 80, null);
+        put("bc-3", "Billing", "noRisk", 40, null, "bc-4");
+        put("bc-4", "Invoicing", "noRisk", 20, null);
+        rollups = rollups();
+        rollups.subtrees("BusinessCapability", null, 0);
+
+        // bc-4 moves from Billing to Onboarding and gets worse, bc-3 is archived
+        put("bc-2", "Onboarding", "noRisk", 80, null, "bc-4");
+        put("bc-4", "Invoicing", "unaddressedPhaseOut", 20, null);
+        inventory.remove("bc-3");
+        put("bc-1", "Customer", null, null, null, "bc-2");
+        rollups.factSheetsChanged(null, List.of(
+                new FactSheetEvent("e-1", 1L, FactSheetEvent.Kind.RELATION_CHANGED, List.of("bc-2", "bc-4")),
+                new FactSheetEvent("e-2", 2L, FactSheetEvent.Kind.ARCHIVED, List.of("bc-3"))));
+
+        HierarchyRollups.RollupNode customer = rollups.subtrees("BusinessCapability", null, 2).get(0);
+        assertEquals(3, customer.factSheets());
+        assertEquals("unaddressedPhaseOut", customer.worstObsolescenceRisk());
+        assertEquals(50.0, customer.averageCompletion());
+        assertEquals("bc-4", customer.children().get(0).children().get(0).id());
+        assertEquals(1, inventory.crawls(), "changes are applied without crawling again");
+        assertEquals(1, inventory.loads().size());
+
+        rollups.subtrees("BusinessCapability", null, 0);
+        assertEquals(1, inventory.loads().size(), "applied changes are not fetched again");
+    }
+
+    @Test
+    void testIncrementalUpdatesMatchFullRebuild() {
+        Random random = new Random(7);
+        List<String> risks = List.of("noRisk", "riskAccepted", "unaddressedPhaseOut", "unaddressedEndOfLife");
+        for (int i = 0; i < 500; i++) {
+            put("fs-" + i, "Name " + i, risks.get(random.nextInt(risks.size())), random.nextInt(101),
+                    random.nextBoolean() ? "missionCritical" : "businessCritical");
+        }
+        for (int i = 1; i < 500; i++) {
+            addChild("fs-" + random.nextInt(i), "fs-" + i);
+        }
+        Hierarchy hierarchy = new Hierarchy(RISK_ORDER);
+        hierarchy.update(inventory.factSheets());
+
+        for (int round = 0; round < 200; round++) {
+            String id = "fs-" + random.nextInt(500);
+            FactSheet factSheet = inventory.get(id);
+            if (factSheet == null) {
+                continue;
+            }
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    factSheet.setAggregatedObsolescenceRisk(risks.get(random.nextInt(risks.size())));
+                    int recomputed = hierarchy.update(List.of(factSheet));
+                    assertTrue(recomputed <= depth(id) + 1, "only the path to the root is recomputed");
+                }
+                case 1 -> {
+                    // Reparenting touches both ends of the relation
+                    String parent = "fs-" + random.nextInt(500);
+                    if (inventory.get(parent) != null && !isInSubtree(parent, id)) {
+                        inventory.factSheets().forEach(other -> removeChild(other, id));
+                        addChild(parent, id);
+                        hierarchy.update(List.of(inventory.get(parent)));
+                    }
+                }
+                default -> {
+                    inventory.remove(id);
+                    inventory.factSheets().forEach(other -> removeChild(other, id));
+                    hierarchy.remove(id);
+                }
+            }
+        }
+
+        Hierarchy rebuilt = new Hierarchy(RISK_ORDER);
+        rebuilt.update(inventory.factSheets());
+        assertEquals(rebuilt.size(), hierarchy.size());
+        for (FactSheet factSheet : inventory.factSheets()) {
+            String id = factSheet.getId();
+            assertEquals(rebuilt.rollupOf(id), hierarchy.rollupOf(id), id);
+        }
+    }
+
+    private HierarchyRollups rollups() {
+        return new HierarchyRollups(inventory.workspaces(), inventory.crawler(), inventory.batchLoader(), RISK_ORDER,
+                Duration.ofHours(1), Clock.fixed(Instant.parse("2025-06-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    private void put(String id, String name, String risk, Integer completion, String criticality,
+            String... children) {
+        FactSheet factSheet = new FactSheet();
+        factSheet.setId(id);
+        factSheet.setName(name);
+        factSheet.setType("BusinessCapability");
+        factSheet.setAggregatedObsolescenceRisk(risk);
+        factSheet.setBusinessCriticality(criticality);
+        if (completion != null) {
+            FactSheet.Completion value = new FactSheet.Completion();
+            value.setPercentage(completion);
+            factSheet.setCompletion(value);
+        }
+        factSheet.setRelToChild(new FactSheet.RelToChild());
+        factSheet.getRelToChild().setEdges(new ArrayList<>());
+        inventory.put(factSheet);
+        for (String child : children) {
+            addChild(id, child);
+        }
+    }
+
+    private void addChild(String parent, String child) {
+        FactSheet childFactSheet = new FactSheet();
+        childFactSheet.setId(child);
+        FactSheet.RelToChildNode node = new FactSheet.RelToChildNode();
+        node.setFactSheet(childFactSheet);
+        FactSheet.RelToChildEdge edge = new FactSheet.RelToChildEdge();
+        edge.setNode(node);
+        inventory.get(parent).getRelToChild().getEdges().add(edge);
+    }
+
+    private static void removeChild(FactSheet parent, String child) {
+        parent.getRelToChild().getEdges().removeIf(edge -> edge.getNode().getFactSheet().getId().equals(child));
+    }
+
+    private String parentOf(String id) {
+        return inventory.factSheets().stream()
+                .filter(parent -> parent.getRelToChild().getEdges().stream()
+                        .anyMatch(edge -> edge.getNode().getFactSheet().getId().equals(id)))
+                .map(FactSheet::getId)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private int depth(String id) {
+        int depth = 0;
+        for (String parent = parentOf(id); parent != null; parent = parentOf(parent)) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private boolean isInSubtree(String candidate, String root) {
+        for (String current = candidate; current != null; current = parentOf(current)) {
+            if (current.equals(root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,176 @@
+package com.lgt.leanix_mcp.service;
+
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import com.lgt.leanix_mcp.webhook.FactSheetEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackgroundIndexTest {
+
+    private static final FactSheetProjection PROJECTION = FactSheetProjection.of(List.of("name"));
+
+    private final StubInventory inventory = new StubInventory(PROJECTION);
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-06-01T00:00:00Z"));
+    private final NameIndex index = new NameIndex();
+    // Counted down once a crawl has read the inventory; the crawl then waits for release
+    private volatile CountDownLatch crawled;
+    private volatile CountDownLatch release;
+
+    @AfterEach
+    void tearDown() {
+        index.destroy();
+        inventory.close();
+    }
+
+    @Test
+    void testChangesDuringRebuildReachTheNewIndex() throws Exception {
+        put("fs-1", "CRM");
+        assertEquals("CRM", index.name("fs-1"));
+
+        crawled = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        clock.advance(Duration.ofHours(2));
+        assertEquals("CRM", index.name("fs-1"), "the old index is served while crawled again");
+        assertTrue(crawled.await(5, TimeUnit.SECONDS));
+
+        // Renamed after the crawl read the inventory
+        put("fs-1", "CRM Suite");
+        changed("fs-1");
+        assertEquals("CRM Suite", index.name("fs-1"));
+        assertEquals(1, inventory.loads().size());
+
+        release.countDown();
+        for (int i = 0; i < 500 && inventory.loads().size() < 2; i++) {
+            assertEquals("CRM Suite", index.name("fs-1"));
+            Thread.sleep(10);
+        }
+        assertEquals(2, inventory.crawls());
+        assertEquals(2, inventory.loads().size(), "the change is applied to the new index again");
+        assertEquals("CRM Suite", index.name("fs-1"));
+    }
+
+    @Test
+    void testFailedRefetchIsServedStaleAndRetried() {
+        put("fs-1", "CRM");
+        assertEquals("CRM", index.name("fs-1"));
+
+        put("fs-1", "CRM Suite");
+        changed("fs-1");
+        inventory.failNextLoad(new RuntimeException("LeanIX unavailable"));
+        clock.advance(Duration.ofMinutes(5));
+        boolean stale = ToolInvocationContext.runInWorkspace("test", null, () -> {
+            assertEquals("CRM", index.name("fs-1"));
+            return ToolInvocationContext.current().orElseThrow().isStale();
+        });
+
+        assertTrue(stale);
+        assertEquals("CRM Suite", index.name("fs-1"));
+        assertEquals(2, inventory.loads().size());
+        assertEquals(1, inventory.crawls());
+    }
+
+    private void put(String id, String name) {
+        FactSheet factSheet = new FactSheet();
+        factSheet.setId(id);
+        factSheet.setName(name);
+        factSheet.setType("Application");
+        inventory.put(factSheet);
+    }
+
+    private void changed(String id) {
+        index.factSheetsChanged(null, List.of(new FactSheetEvent("e-" + id, 1L, FactSheetEvent.Kind.UPDATED,
+                List.of(id))));
+    }
+
+    /**
+     * Names of the applications of a workspace.
+     */
+    private class NameIndex extends BackgroundIndex<String, Map<String, String>> {
+
+        NameIndex() {
+            super("name index", inventory.workspaces(), inventory.batchLoader(), PROJECTION, Duration.ofHours(1),
+                    clock);
+        }
+
+        String name(String id) {
+            return query(inventory.workspaces().current(), names -> names.get(id));
+        }
+
+        @Override
+        protected String workspaceOf(String workspace) {
+            return workspace;
+        }
+
+        @Override
+        protected Map<String, String> crawl(String workspace) {
+            Map<String, String> names = new HashMap<>();
+            inventory.crawler().crawl("Application", PROJECTION)
+                    .forEach(factSheet -> names.put(factSheet.getId(), factSheet.getName()));
+            if (crawled != null) {
+                crawled.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return names;
+        }
+
+        @Override
+        protected void apply(String workspace, Map<String, String> names, List<String> ids,
+                Map<String, FactSheet> loaded) {
+            ids.forEach(id -> {
+                FactSheet factSheet = loaded.get(id);
+                if (factSheet != null) {
+                    names.put(id, factSheet.getName());
+                } else {
+                    names.remove(id);
+                }
+            });
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.lgt.leanix_mcp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lgt.leanix_mcp.cache.FactSheetCache;
+import com.lgt.leanix_mcp.client.LeanIXClient;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.graphql.ProjectionQueryCompiler;
+import com.lgt.leanix_mcp.model.FactSheet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FactSheetBatchLoaderTest {
+
+    private static final Set<String> EXISTING = Set.of("a", "b", "c", "d", "e");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Map<String, Object>> requests = new CopyOnWriteArrayList<>();
+    private FactSheetBatchLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        loader = loader(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loader.destroy();
+    }
+
+    private FactSheetBatchLoader loader(int chunkSize) {
+        LeanIXClientConfig config = new LeanIXClientConfig();
+        config.getBatch().setChunkSize(chunkSize);
+        LeanIXClient client = new LeanIXClient("lgt-test", "test-token") {
+            @Override
+            public JsonNode query(String query, Map<String, Object> variables) {
+                requests.add(variables);
+                ObjectNode data = objectMapper.createObjectNode();
+                for (int i = 0; variables.containsKey("id" + i); i++) {
+                    String id = (String) variables.get("id" + i);
+                    if (EXISTING.contains(id)) {
+                        data.putObject(ProjectionQueryCompiler.alias(i)).put("id", id).put("name", "FS " + id)
+                                .put("type", "Application");
+                    } else {
+                        data.putNull(ProjectionQueryCompiler.alias(i));
+                    }
+                }
+                ObjectNode result = objectMapper.createObjectNode();
+                result.set("data", data);
+                return result;
+            }
+        };
+        return new FactSheetBatchLoader(WorkspaceRegistry.of(client), new ProjectionQueryCompiler(),
+                new FactSheetCache(config), config);
+    }
+
+    @Test
+    void testIdsAreDeduplicatedAndChunked() {
+        Map<String, FactSheet> result = loader.load(List.of("a", "b", "a", "c", "d", "e", "b"),
+                FactSheetProjection.of(List.of("name")));
+
+        assertEquals(Set.of("a", "b", "c", "d", "e"), result.keySet());
+        assertEquals("FS c", result.get("c").getName());
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void testChunksAreNotPadded() {
+        loader.destroy();
+        loader = loader(64);
+        List<String> ids = IntStream.range(0, 33).mapToObj(i -> "id-" + i).toList();
+
+        loader.load(ids, FactSheetProjection.of(List.of("name")));
+
+        assertEquals(1, requests.size());
+        assertEquals(33, requests.get(0).size(), "one aliased lookup per id");
+    }
+
+    @Test
+    void testUnknownIdsAreAbsent() {
+        Map<String, FactSheet> result = loader.load(List.of("a", "unknown"), FactSheetProjection.of(List.of("name")));
+        assertEquals(Set.of("a"), result.keySet());
+    }
+
+    @Test
+    void testCachedFactSheetsAreNotFetchedAgain() {
+        loader.load(List.of("a", "b"), FactSheetProjection.of(List.of("name")));
+        requests.clear();
+
+        Map<String, FactSheet> result = loader.load(List.of("b", "a", "c"), FactSheetProjection.of(List.of("name")));
+
+        assertEquals(3, result.size());
+        assertEquals(1, requests.size());
+        assertEquals(Map.of("id0", "c"), new ConcurrentHashMap<>(requests.get(0)));
+    }
+
+    @Test
+    void testWiderProjectionBypassesCache() {
+        loader.load(List.of("a"), FactSheetProjection.of(List.of("name")));
+        requests.clear();
+
+        loader.load(List.of("a"), FactSheetProjection.of(List.of("name", "description")));
+
+        assertEquals(1, requests.size());
+    }
+}
@@ -0,0 +1,174 @@
+package com.lgt.leanix_mcp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lgt.leanix_mcp.cache.FactSheetCache;
+import com.lgt.leanix_mcp.client.LeanIXClient;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.client.PageSizeController;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.graphql.ProjectionQueryCompiler;
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.tool.ToolInvocationCallback;
+import com.lgt.leanix_mcp.tool.ToolInvocationContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FactSheetCrawlerTest {
+
+    // "c" carries both phases, as happens when a fact sheet changes while the crawl runs
+    private static final Map<String, List<String>> PHASES = Map.of(
+            "a", List.of("plan"), "b", List.of("plan"), "c", List.of("plan", "active"),
+            "d", List.of("active"), "e", List.of("active"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Map<String, Object>> pageRequests = new CopyOnWriteArrayList<>();
+    private final FactSheetCache factSheetCache = new FactSheetCache(new LeanIXClientConfig());
+    private final AtomicBoolean stallFirstPage = new AtomicBoolean();
+    private FactSheetCrawler crawler;
+
+    @BeforeEach
+    void setUp() {
+        LeanIXClientConfig config = new LeanIXClientConfig();
+        config.getCrawl().setParallelism(1);
+        LeanIXClient client = new LeanIXClient("lgt-test", "test-token") {
+            @Override
+            public JsonNode query(String query, Map<String, Object> variables) {
+                ObjectNode result = objectMapper.createObjectNode();
+                ObjectNode all = result.putObject("data").putObject("allFactSheets");
+                if (query.contains("CrawlFacets")) {
+                    all.put("totalCount", 5);
+                    ArrayNode facets = all.putObject("filterOptions").putArray("facets");
+                    addFacet(facets, FactSheetCrawler.TYPE_FACET, Map.of("ITComponent", 5));
+                    addFacet(facets, "tags", Map.of("t1", 4, "t2", 4));
+                    addFacet(facets, "lifecycle", Map.of("plan", 2, "active", 3, "endOfLife", 0));
+                    return result;
+                }
+                pageRequests.add(variables);
+                if (stallFirstPage.getAndSet(false)) {
+                    sleep(ToolInvocationContext.remaining().orElseThrow().toMillis() + 20);
+                }
+                List<String> matches = matches(variables);
+                int offset = variables.containsKey("after") ? Integer.parseInt((String) variables.get("after")) : 0;
+                int end = Math.min(matches.size(), offset + (Integer) variables.get("first"));
+                ArrayNode edges = all.putArray("edges");
+                for (String id : matches.subList(offset, end)) {
+                    edges.addObject().putObject("node").put("id", id).put("type", "ITComponent");
+                }
+                all.putObject("pageInfo").put("hasNextPage", end < matches.size()).put("endCursor", String.valueOf(end));
+                return result;
+            }
+        };
+        PageSizeController pageSizeController = new PageSizeController(2, 2, 2, 1, 0.5, Duration.ofSeconds(2),
+                1024);
+        crawler = new FactSheetCrawler(WorkspaceRegistry.of(client), new ProjectionQueryCompiler(), factSheetCache,
+                pageSizeController, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        crawler.destroy();
+    }
+
+    @Test
+    void testPartitionsAlongSingleValuedFacetWithRemainder() {
+        List<FactSheetCrawler.Partition> partitions = crawler.partition("ITComponent");
+
+        assertEquals(3, partitions.size());
+        assertTrue(partitions.stream().allMatch(partition -> "lifecycle".equals(partition.facetKey())));
+        FactSheetCrawler.Partition remainder = partitions.get(partitions.size() - 1);
+        assertEquals("NOR", remainder.operator());
+        assertEquals(Set.of("plan", "active", "endOfLife"), Set.copyOf(remainder.keys()));
+    }
+
+    @Test
+    void testCrawlMergesPartitionsWithoutDuplicates() {
+        FactSheetProjection projection = FactSheetProjection.of(List.of("name"));
+        List<FactSheet> result = crawler.crawl("ITComponent", projection);
+
+        assertEquals(List.of("a", "b", "c", "d", "e"), result.stream().map(FactSheet::getId).sorted().toList());
+        // plan: 2 pages (a, b | c), active: 2 pages (c, d | e), remainder: 1 empty page
+        assertEquals(5, pageRequests.size());
+        assertTrue(factSheetCache.get("d", projection).isPresent());
+    }
+
+    @Test
+    void testDeadlineReturnsPartialResultThatCanBeResumed() throws Exception {
+        FactSheetProjection projection = FactSheetProjection.of(List.of("name"));
+        stallFirstPage.set(true);
+        ToolCallback tool = new ToolCallback() {
+            @Override
+            public ToolDefinition getToolDefinition() {
+                return ToolDefinition.builder().name("crawl").description("crawl").inputSchema("{}").build();
+            }
+
+            @Override
+            public String call(String toolInput) {
+                List<String> ids = crawler.crawl("ITComponent", projection).stream().map(FactSheet::getId).toList();
+                try {
+                    return objectMapper.writeValueAsString(ids);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+
+        JsonNode envelope = objectMapper.readTree(
+                new ToolInvocationCallback(tool, objectMapper,
+                        ToolInvocationCallback.Options.DEFAULTS.withTimeout(Duration.ofMillis(200))).call("{}"));
+
+        assertTrue(envelope.path("partial").asBoolean());
+        Set<String> ids = new TreeSet<>();
+        envelope.path("result").forEach(id -> ids.add(id.asText()));
+        assertTrue(ids.size() < 5);
+        crawler.crawl("ITComponent", projection, envelope.path("continuation").asText())
+                .forEach(factSheet -> ids.add(factSheet.getId()));
+        assertEquals(Set.of("a", "b", "c", "d", "e"), ids);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> matches(Map<String, Object> variables) {
+        List<Map<String, Object>> facetFilters = (List<Map<String, Object>>) ((Map<String, Object>) variables
+                .get("filter")).get("facetFilters");
+        assertEquals(List.of("ITComponent"), facetFilters.get(0).get("keys"));
+        Map<String, Object> partition = facetFilters.get(1);
+        List<String> keys = (List<String>) partition.get("keys");
+        boolean nor = "NOR".equals(partition.get("operator"));
+        return PHASES.entrySet().stream()
+                .filter(entry -> nor == entry.getValue().stream().noneMatch(keys::contains))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static void addFacet(ArrayNode facets, String facetKey, Map<String, Integer> counts) {
+        ObjectNode facet = facets.addObject().put("facetKey", facetKey);
+        ArrayNode results = facet.putArray("results");
+        counts.forEach((key, count) -> results.addObject().put("key", key).put("count", count));
+    }
+}
@@ -0,0 +1,82 @@
+package com.lgt.leanix_mcp.service;
+
+import com.lgt.leanix_mcp.cache.FactSheetCache;
+import com.lgt.leanix_mcp.client.LeanIXClient;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.graphql.ProjectionQueryCompiler;
+import com.lgt.leanix_mcp.model.FactSheet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FactSheetDataLoaderTest {
+
+    private final List<List<String>> batches = new ArrayList<>();
+    private FactSheetBatchLoader batchLoader;
+
+    @BeforeEach
+    void setUp() {
+        LeanIXClientConfig config = new LeanIXClientConfig();
+        batchLoader = new FactSheetBatchLoader(WorkspaceRegistry.of(new LeanIXClient("lgt-test", "test-token")),
+                new ProjectionQueryCompiler(), new FactSheetCache(config), config) {
+            @Override
+            public Map<String, FactSheet> load(Collection<String> ids, FactSheetProjection projection) {
+                batches.add(List.copyOf(ids));
+                Map<String, FactSheet> result = new HashMap<>();
+                for (String id : ids) {
+                    if (!id.startsWith("missing")) {
+                        FactSheet factSheet = new FactSheet();
+                        factSheet.setId(id);
+                        result.put(id, factSheet);
+                    }
+                }
+                return result;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchLoader.destroy();
+    }
+
+    @Test
+    void testQueuedIdsAreResolvedWithOneLookup() {
+        FactSheetDataLoader loader = new FactSheetDataLoader(batchLoader, FactSheetProjection.defaults());
+        List<CompletableFuture<FactSheet>> futures = loader.loadMany(List.of("a", "b", "missing"));
+        assertFalse(futures.get(0).isDone());
+
+        loader.dispatch();
+
+        assertEquals(List.of(List.of("a", "b", "missing")), batches);
+        assertEquals("b", futures.get(1).join().getId());
+        assertNull(futures.get(2).join());
+        assertEquals(1, loader.getDispatchCount());
+    }
+
+    @Test
+    void testIdsAreFetchedOncePerLoader() {
+        FactSheetDataLoader loader = new FactSheetDataLoader(batchLoader, FactSheetProjection.defaults());
+        CompletableFuture<FactSheet> first = loader.load("a");
+        loader.dispatch();
+        CompletableFuture<FactSheet> second = loader.load("a");
+        loader.load("b");
+        loader.dispatch();
+        loader.dispatch();
+
+        assertSame(first, second);
+        assertEquals(List.of(List.of("a"), List.of("b")), batches);
+        assertEquals(2, loader.getDispatchCount());
+    }
+}
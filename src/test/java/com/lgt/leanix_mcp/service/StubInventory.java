@@ -0,0 +1,148 @@
+package com.lgt.leanix_mcp.service;
+
+import com.lgt.leanix_mcp.cache.FactSheetCache;
+import com.lgt.leanix_mcp.client.LeanIXClient;
+import com.lgt.leanix_mcp.client.PageSizeController;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.graphql.ProjectionQueryCompiler;
+import com.lgt.leanix_mcp.model.FactSheet;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Stands in for LeanIX behind a crawler and a batch loader that serve the fact
+ * sheets put into it, counting crawls and batch loads.
+ */
+public class StubInventory implements AutoCloseable {
+
+    private final LeanIXClientConfig config = new LeanIXClientConfig();
+    private final WorkspaceRegistry workspaces = WorkspaceRegistry.of(new LeanIXClient("lgt-test", "test-token"));
+    // Current state of LeanIX, by id
+    private final Map<String, FactSheet> factSheets = new LinkedHashMap<>();
+    private final AtomicInteger crawls = new AtomicInteger();
+    private final List<Collection<String>> loads = new CopyOnWriteArrayList<>();
+    private final AtomicReference<RuntimeException> nextLoadFailure = new AtomicReference<>();
+    private final FactSheetCrawler crawler;
+    private final FactSheetBatchLoader batchLoader;
+
+    /**
+     * @param projection The projection the index under test must ask for
+     */
+    public StubInventory(FactSheetProjection projection) {
+        FactSheetCache cache = new FactSheetCache(config);
+        crawler = new FactSheetCrawler(workspaces, new ProjectionQueryCompiler(), cache,
+                new PageSizeController(10, 10, 10, 1, 0.5, Duration.ofSeconds(1), 1024), config) {
+            @Override
+            public List<FactSheet> crawl(String factSheetType, FactSheetProjection requested) {
+                assertEquals(projection, requested);
+                crawls.incrementAndGet();
+                synchronized (factSheets) {
+                    return factSheets.values().stream()
+                            .filter(factSheet -> factSheetType.equals(factSheet.getType()))
+                            .toList();
+                }
+            }
+        };
+        batchLoader = new FactSheetBatchLoader(workspaces, new ProjectionQueryCompiler(), cache, config) {
+            @Override
+            public Map<String, FactSheet> load(Collection<String> ids, FactSheetProjection requested) {
+                assertEquals(projection, requested);
+                loads.add(List.copyOf(ids));
+                RuntimeException failure = nextLoadFailure.getAndSet(null);
+                if (failure != null) {
+                    throw failure;
+                }
+                Map<String, FactSheet> found = new HashMap<>();
+                synchronized (factSheets) {
+                    ids.stream().filter(factSheets::containsKey).forEach(id -> found.put(id, factSheets.get(id)));
+                }
+                return found;
+            }
+        };
+    }
+
+    /**
+     * Adds a fact sheet or replaces the one with its id.
+     */
+    public void put(FactSheet factSheet) {
+        synchronized (factSheets) {
+            factSheets.put(factSheet.getId(), factSheet);
+        }
+    }
+
+    public FactSheet get(String id) {
+        synchronized (factSheets) {
+            return factSheets.get(id);
+        }
+    }
+
+    /**
+     * Archives a fact sheet, so neither crawls nor loads find it.
+     */
+    public void remove(String id) {
+        synchronized (factSheets) {
+            factSheets.remove(id);
+        }
+    }
+
+    /**
+     * @return The fact sheets, in the order they were first put
+     */
+    public List<FactSheet> factSheets() {
+        synchronized (factSheets) {
+            return new ArrayList<>(factSheets.values());
+        }
+    }
+
+    /**
+     * Makes the next batch load fail; it still counts as a load.
+     */
+    public void failNextLoad(RuntimeException failure) {
+        nextLoadFailure.set(failure);
+    }
+
+    public WorkspaceRegistry workspaces() {
+        return workspaces;
+    }
+
+    public FactSheetCrawler crawler() {
+        return crawler;
+    }
+
+    public FactSheetBatchLoader batchLoader() {
+        return batchLoader;
+    }
+
+    /**
+     * @return Number of type crawls so far
+     */
+    public int crawls() {
+        return crawls.get();
+    }
+
+    /**
+     * @return The ids of every batch load so far
+     */
+    public List<Collection<String>> loads() {
+        return loads;
+    }
+
+    @Override
+    public void close() {
+        crawler.destroy();
+        batchLoader.destroy();
+    }
+}
@@ -0,0 +1,124 @@
+package com.lgt.leanix_mcp.snapshot;
+
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.model.FactSheet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStoreTest {
+
+    private static final FactSheetProjection PROJECTION = FactSheetProjection.of(List.of("name", "description"));
+
+    @TempDir
+    Path directory;
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void testDiffReportsAddedRemovedAndChangedFields() {
+        SnapshotStore store = new SnapshotStore(directory, 10, 3, clock);
+        FactSheetSnapshot before = store.save("lgt-test", "Application", PROJECTION, List.of(
+                factSheet("1", "CRM", "Customers"), factSheet("2", "ERP", "Finance"), factSheet("3", "Old", null)));
+        clock.advance(Duration.ofDays(7));
+        FactSheetSnapshot after = store.save("lgt-test", "Application", PROJECTION, List.of(
+                factSheet("1", "CRM", "Customers"), factSheet("2", "ERP", "Finance and HR"),
+                factSheet("4", "New", null)));
+
+        // A fresh store reads both snapshots back from disk
+        SnapshotStore reopened = new SnapshotStore(directory, 10, 3, clock);
+        SnapshotDiff diff = reopened.diff(reopened.load("lgt-test", before.id()),
+                reopened.load("lgt-test", after.id()));
+
+        assertEquals(List.of(new SnapshotDiff.Sheet("4", "New")), diff.added());
+        assertEquals(List.of(new SnapshotDiff.Sheet("3", "Old")), diff.removed());
+        assertEquals(1, diff.changed().size());
+        SnapshotDiff.Change change = diff.changed().get(0);
+        assertEquals("2", change.id());
+        assertEquals(List.of("description"), List.copyOf(change.fields().keySet()));
+        assertEquals("Finance", change.fields().get("description").before().asText());
+        assertEquals("Finance and HR", change.fields().get("description").after().asText());
+        assertEquals(1, diff.unchanged());
+    }
+
+    @Test
+    void testEqualContentHasEqualHash() {
+        SnapshotStore store = new SnapshotStore(directory, 10, 1, clock);
+        FactSheetSnapshot first = store.save("lgt-test", "Application", PROJECTION,
+                List.of(factSheet("1", "CRM", "Customers")));
+        clock.advance(Duration.ofSeconds(1));
+        FactSheetSnapshot second = store.save("lgt-test", "Application", PROJECTION,
+                List.of(factSheet("1", "CRM", "Customers")));
+
+        assertEquals(first.entries().get("1").hash(), second.entries().get("1").hash());
+        assertNotEquals(first.id(), second.id());
+    }
+
+    @Test
+    void testOldSnapshotsArePruned() {
+        SnapshotStore store = new SnapshotStore(directory, 2, 1, clock);
+        String oldest = store.save("lgt-test", "Application", PROJECTION, List.of()).id();
+        for (int i = 0; i < 2; i++) {
+            clock.advance(Duration.ofHours(1));
+            store.save("lgt-test", "Application", PROJECTION, List.of());
+        }
+        store.save("lgt-test", "ITComponent", PROJECTION, List.of());
+
+        assertEquals(2, store.list("lgt-test", "Application").size());
+        assertEquals(3, store.list("lgt-test", null).size());
+        assertThrows(IllegalArgumentException.class, () -> store.load("lgt-test", oldest));
+        assertThrows(IllegalArgumentException.class, () -> store.load("lgt-test", "../secrets"));
+    }
+
+    @Test
+    void testSnapshotsNeedAConfiguredDirectory() {
+        SnapshotStore store = new SnapshotStore(null, 10, 1, clock);
+
+        RuntimeException e = assertThrows(RuntimeException.class, store::checkEnabled);
+        assertTrue(e.getMessage().contains("leanix.snapshot.directory"));
+        assertThrows(RuntimeException.class, () -> store.save("lgt-test", "Application", PROJECTION,
+                List.of(factSheet("1", "CRM", null))));
+        assertThrows(RuntimeException.class, () -> store.list("lgt-test", null));
+    }
+
+    private static FactSheet factSheet(String id, String name, String description) {
+        FactSheet factSheet = new FactSheet();
+        factSheet.setId(id);
+        factSheet.setType("Application");
+        factSheet.setName(name);
+        factSheet.setDescription(description);
+        return factSheet;
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
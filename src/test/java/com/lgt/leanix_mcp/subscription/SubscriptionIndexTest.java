@@ -0,0 +1,137 @@
+package com.lgt.leanix_mcp.subscription;
+
+import com.lgt.leanix_mcp.model.FactSheet;
+import com.lgt.leanix_mcp.service.StubInventory;
+import com.lgt.leanix_mcp.webhook.FactSheetEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionIndexTest {
+
+    private static final String ALICE = "u-1|alice@example.com|Alice Example";
+    private static final String BOB = "u-2|bob@example.com|Bob Example";
+
+    private final StubInventory inventory = new StubInventory(SubscriptionIndex.PROJECTION);
+    private SubscriptionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        put("app-1", "CRM", "Application", subscription(ALICE, "RESPONSIBLE", "Application Owner"),
+                subscription(BOB, "OBSERVER"));
+        put("app-2", "ERP", "Application", subscription(BOB, "ACCOUNTABLE"));
+        put("app-3", "Intranet", "Application");
+        put("itc-1", "PostgreSQL", "ITComponent", subscription(ALICE, "RESPONSIBLE", "Technical Owner"));
+        index = index();
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.destroy();
+        inventory.close();
+    }
+
+    @Test
+    void testSubscriptionsOfUser() {
+        assertEquals(List.of("app-1", "itc-1"), ids(index.subscribedBy("ALICE@example.com", null, null, null)));
+        assertEquals(List.of("app-1", "itc-1"), ids(index.subscribedBy("u-1", "RESPONSIBLE", null, null)));
+        assertEquals(List.of("itc-1"), ids(index.subscribedBy("alice example", null, "technical owner", null)));
+        assertEquals(List.of("app-1"), ids(index.subscribedBy("u-1", null, null, "Application")));
+        assertEquals(List.of("app-1", "app-2"), ids(index.subscribedBy("bob@example.com", null, null, null)));
+
+        SubscriptionIndex.Subscribed owner = index.subscribedBy("u-1", null, null, "Application").get(0);
+        assertEquals("RESPONSIBLE", owner.subscriptionType());
+        assertEquals(List.of("Application Owner"), owner.roles());
+        assertEquals("alice@example.com", owner.user());
+        assertEquals(List.of(), index.subscribedBy("nobody@example.com", null, null, null));
+        assertEquals(2, inventory.crawls(), "each indexed type is crawled once");
+    }
+
+    @Test
+    void testOrphansFollowChanges() {
+        assertEquals(List.of("app-2", "app-3"), orphanIds(index.orphans("responsible", "Application")));
+        assertEquals(List.of("app-3"), orphanIds(index.orphans("ANY", null)));
+        assertEquals(1, index.orphans("RESPONSIBLE", "Application").get(0).subscriptions());
+
+        // Bob takes over ERP, Alice hands over the CRM and the intranet is archived
+        put("app-1", "CRM", "Application", subscription(BOB, "OBSERVER"));
+        put("app-2", "ERP", "Application", subscription(BOB, "RESPONSIBLE"));
+        inventory.remove("app-3");
+        index.factSheetsChanged(null, List.of(
+                new FactSheetEvent("e-1", 1L, FactSheetEvent.Kind.UPDATED, List.of("app-1")),
+                new FactSheetEvent("e-2", 2L, FactSheetEvent.Kind.UPDATED, List.of("app-2")),
+                new FactSheetEvent("e-3", 3L, FactSheetEvent.Kind.ARCHIVED, List.of("app-3"))));
+
+        assertEquals(List.of("app-1"), orphanIds(index.orphans("RESPONSIBLE", "Application")));
+        assertEquals(List.of(), orphanIds(index.orphans("ANY", null)));
+        assertEquals(List.of("itc-1"), ids(index.subscribedBy("u-1", null, null, null)));
+        assertEquals(List.of("app-2"), ids(index.subscribedBy("u-2", "RESPONSIBLE", null, null)));
+        assertEquals(2, inventory.crawls(), "changes are applied without crawling again");
+        assertEquals(1, inventory.loads().size());
+    }
+
+    @Test
+    void testRejectsUnknownTypes() {
+        assertThrows(IllegalArgumentException.class, () -> index.orphans("OWNER", null));
+        assertThrows(IllegalArgumentException.class, () -> index.subscribedBy("u-1", null, null, "Provider"));
+    }
+
+    private SubscriptionIndex index() {
+        return new SubscriptionIndex(inventory.workspaces(), inventory.crawler(), inventory.batchLoader(),
+                List.of("Application", "ITComponent"), Duration.ofHours(1),
+                Clock.fixed(Instant.parse("2025-06-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    private void put(String id, String name, String type, FactSheet.Subscription... subscriptions) {
+        FactSheet factSheet = new FactSheet();
+        factSheet.setId(id);
+        factSheet.setName(name);
+        factSheet.setType(type);
+        List<FactSheet.SubscriptionEdge> edges = new ArrayList<>();
+        for (FactSheet.Subscription subscription : subscriptions) {
+            FactSheet.SubscriptionEdge edge = new FactSheet.SubscriptionEdge();
+            edge.setNode(subscription);
+            edges.add(edge);
+        }
+        factSheet.setSubscriptions(new FactSheet.Subscriptions());
+        factSheet.getSubscriptions().setEdges(edges);
+        factSheet.getSubscriptions().setTotalCount(edges.size());
+        inventory.put(factSheet);
+    }
+
+    private static FactSheet.Subscription subscription(String user, String type, String... roles) {
+        String[] parts = user.split("\\|");
+        FactSheet.User value = new FactSheet.User();
+        value.setId(parts[0]);
+        value.setEmail(parts[1]);
+        value.setDisplayName(parts[2]);
+        FactSheet.Subscription subscription = new FactSheet.Subscription();
+        subscription.setUser(value);
+        subscription.setType(type);
+        List<FactSheet.Role> roleList = new ArrayList<>();
+        for (String name : roles) {
+            FactSheet.Role role = new FactSheet.Role();
+            role.setName(name);
+            roleList.add(role);
+        }
+        subscription.setRoles(roleList);
+        return subscription;
+    }
+
+    private static List<String> ids(List<SubscriptionIndex.Subscribed> subscriptions) {
+        return subscriptions.stream().map(SubscriptionIndex.Subscribed::id).toList();
+    }
+
+    private static List<String> orphanIds(List<SubscriptionIndex.Orphan> orphans) {
+        return orphans.stream().map(SubscriptionIndex.Orphan::id).toList();
+    }
+}
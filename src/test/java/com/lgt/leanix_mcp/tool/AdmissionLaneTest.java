@@ -0,0 +1,106 @@
+package com.lgt.leanix_mcp.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionLaneTest {
+
+    @Test
+    void testSaturatedBulkLaneDoesNotBlockInteractiveTools() {
+        AdmissionController controller = new AdmissionController(true, Set.of("crawlFactSheetsByType"),
+                new AdmissionLane("interactive", 2, 1, 4, 0, Duration.ZERO),
+                new AdmissionLane("bulk", 1, 1, 1, 0, Duration.ZERO));
+
+        AdmissionLane bulk = controller.laneFor("crawlFactSheetsByType");
+        bulk.acquire();
+        assertThrows(AdmissionRejectedException.class, bulk::acquire);
+
+        AdmissionLane interactive = controller.laneFor("searchFactSheetsByName");
+        assertNotSame(bulk, interactive);
+        assertNotNull(interactive.acquire());
+    }
+
+    @Test
+    void testQueuedCallerIsAdmittedWhenSlotFrees() throws Exception {
+        AdmissionLane lane = new AdmissionLane("interactive", 1, 1, 1, 1, Duration.ofSeconds(5));
+        AdmissionLane.Permit first = lane.acquire();
+
+        CompletableFuture<AdmissionLane.Permit> queued = CompletableFuture.supplyAsync(lane::acquire);
+        Thread.sleep(50);
+        assertFalse(queued.isDone());
+        assertThrows(AdmissionRejectedException.class, lane::acquire);
+
+        lane.release(first, true);
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1, lane.getInFlight());
+    }
+
+    @Test
+    void testQueuedCallerTimesOut() {
+        AdmissionLane lane = new AdmissionLane("bulk", 1, 1, 1, 1, Duration.ofMillis(50));
+        lane.acquire();
+        assertThrows(AdmissionRejectedException.class, lane::acquire);
+    }
+
+    @Test
+    void testFreedSlotsGoToTenantsInTurn() throws Exception {
+        AdmissionLane lane = new AdmissionLane("bulk", 1, 1, 1, 10, Duration.ofSeconds(5));
+        AdmissionLane.Permit first = lane.acquire("a");
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        BlockingQueue<AdmissionLane.Permit> admitted = new LinkedBlockingQueue<>();
+        for (String tenant : List.of("a", "a", "a", "b")) {
+            int waiting = lane.getWaiting();
+            CompletableFuture.runAsync(() -> {
+                AdmissionLane.Permit permit = lane.acquire(tenant);
+                order.add(tenant);
+                admitted.add(permit);
+            });
+            while (lane.getWaiting() == waiting) {
+                Thread.sleep(5);
+            }
+        }
+
+        lane.release(first, false);
+        for (int i = 0; i < 3; i++) {
+            lane.release(admitted.poll(5, TimeUnit.SECONDS), false);
+        }
+        assertNotNull(admitted.poll(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a", "b", "a", "a"), order);
+    }
+
+    @Test
+    void testLimitFollowsLatencyGradient() {
+        AdmissionLane lane = new AdmissionLane("interactive", 10, 2, 40, 0, Duration.ZERO);
+        for (int round = 0; round < 20; round++) {
+            saturate(lane, Duration.ofMillis(10));
+        }
+        int grown = lane.getLimit();
+        assertTrue(grown > 10, "limit should grow at stable latency, was " + grown);
+
+        for (int round = 0; round < 20; round++) {
+            saturate(lane, Duration.ofMillis(200));
+        }
+        assertTrue(lane.getLimit() < grown, "limit should shrink as latency rises, was " + lane.getLimit());
+    }
+
+    private static void saturate(AdmissionLane lane, Duration latency) {
+        List<AdmissionLane.Permit> permits = new ArrayList<>();
+        for (int i = lane.getLimit(); i > 0; i--) {
+            permits.add(lane.acquire());
+        }
+        for (AdmissionLane.Permit permit : permits) {
+            lane.release(new AdmissionLane.Permit(System.nanoTime() - latency.toNanos(), permit.inFlight()), true);
+        }
+    }
+}
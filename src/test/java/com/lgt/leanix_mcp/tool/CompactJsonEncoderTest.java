@@ -0,0 +1,78 @@
+package com.lgt.leanix_mcp.tool;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgt.leanix_mcp.model.FactSheet;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactJsonEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CompactJsonEncoder encoder = new CompactJsonEncoder(32);
+
+    @Test
+    void testListOfObjectsBecomesTableWithoutEmptyColumns() throws Exception {
+        JsonNode rows = objectMapper.readTree("""
+                [{"id":"1","name":"CRM","description":null,"tags":[]},
+                 {"id":"2","name":"ERP","description":"Finance","tags":[]},
+                 {"id":"3","name":"","description":null,"tags":[]}]""");
+
+        JsonNode table = objectMapper.readTree(encoder.encode(rows));
+
+        assertEquals(objectMapper.readTree("[\"id\",\"name\",\"description\"]"), table.get("columns"));
+        assertEquals(objectMapper.readTree("[[\"1\",\"CRM\"],[\"2\",\"ERP\",\"Finance\"],[\"3\"]]"),
+                table.get("rows"));
+    }
+
+    @Test
+    void testRepeatedNestedValuesAreSharedWhenShorter() throws Exception {
+        String owner = "{\"id\":\"u-1\",\"displayName\":\"Jane Example\",\"email\":\"jane@example.com\"}";
+        JsonNode rows = objectMapper.readTree("[{\"id\":\"1\",\"owner\":" + owner + ",\"lifecycle\":{\"phase\":\"x\"}},"
+                + "{\"id\":\"2\",\"owner\":" + owner + ",\"lifecycle\":{\"phase\":\"x\"}}]");
+
+        JsonNode encoded = objectMapper.readTree(encoder.encode(rows));
+
+        assertEquals(1, encoded.get("shared").size(), "the small lifecycle is cheaper to repeat");
+        assertEquals(objectMapper.readTree(owner), encoded.at("/shared/0"));
+        assertEquals(0, encoded.at("/result/rows/0/1/$ref").asInt());
+        assertEquals(0, encoded.at("/result/rows/1/1/$ref").asInt());
+        assertEquals("x", encoded.at("/result/rows/1/2/phase").asText());
+    }
+
+    @Test
+    void testFactSheetListShrinks() throws Exception {
+        List<FactSheet> factSheets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            FactSheet factSheet = new FactSheet();
+            factSheet.setId("id-" + i);
+            factSheet.setType("Application");
+            factSheet.setName("Application " + i);
+            factSheet.setStatus("ACTIVE");
+            factSheets.add(factSheet);
+        }
+        String verbose = new DefaultToolCallResultConverter().convert(factSheets, List.class);
+        String compact = encoder.encode(objectMapper.valueToTree(factSheets));
+
+        assertTrue(compact.length() * 5 < verbose.length(), compact.length() + " vs " + verbose.length());
+        assertFalse(compact.contains("null,null"));
+        assertEquals(Map.of("id", "id-7", "type", "Application", "name", "Application 7", "status", "ACTIVE"),
+                decodeRow(compact, 7));
+    }
+
+    private Map<String, String> decodeRow(String table, int index) throws Exception {
+        JsonNode node = objectMapper.readTree(table);
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < node.at("/rows/" + index).size(); i++) {
+            row.put(node.at("/columns/" + i).asText(), node.at("/rows/" + index + "/" + i).asText());
+        }
+        return row;
+    }
+}
@@ -0,0 +1,99 @@
+package com.lgt.leanix_mcp.tool;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolInvocationCallbackTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Echoes its input and the workspace of the invocation.
+     */
+    private final ToolCallback echo = new ToolCallback() {
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return ToolDefinition.builder().name("echo").description("echo")
+                    .inputSchema("{\"type\":\"object\",\"properties\":{\"text\":{\"type\":\"string\"}}}").build();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return toolInput + "@" + ToolInvocationContext.currentWorkspace().orElse("default");
+        }
+    };
+
+    @Test
+    void testWorkspaceArgumentIsTakenOutOfTheInput() {
+        ToolInvocationCallback callback = new ToolInvocationCallback(echo, objectMapper,
+                ToolInvocationCallback.Options.DEFAULTS.withWorkspaces(List.of("main", "sandbox")));
+
+        assertEquals("{\"text\":\"hi\"}@sandbox", callback.call("{\"text\":\"hi\",\"workspace\":\"sandbox\"}"));
+        assertEquals("{\"text\":\"hi\"}@default", callback.call("{\"text\":\"hi\",\"workspace\":\"main\"}"));
+        assertEquals("{\"text\":\"hi\"}@default", callback.call("{\"text\":\"hi\"}"));
+        assertThrows(IllegalArgumentException.class, () -> callback.call("{\"workspace\":\"other\"}"));
+    }
+
+    @Test
+    void testWorkspaceParameterIsAdvertisedOnlyForSeveralWorkspaces() throws Exception {
+        JsonNode schema = objectMapper.readTree(new ToolInvocationCallback(echo, objectMapper,
+                ToolInvocationCallback.Options.DEFAULTS.withWorkspaces(List.of("main", "sandbox")))
+                .getToolDefinition().inputSchema());
+        assertEquals("string", schema.at("/properties/text/type").asText());
+        assertEquals("sandbox", schema.at("/properties/workspace/enum/1").asText());
+
+        ToolInvocationCallback single = new ToolInvocationCallback(echo, objectMapper,
+                ToolInvocationCallback.Options.DEFAULTS.withWorkspaces(List.of("main")));
+        assertEquals(echo.getToolDefinition().inputSchema(), single.getToolDefinition().inputSchema());
+        assertEquals("{\"workspace\":\"x\"}@default", single.call("{\"workspace\":\"x\"}"));
+    }
+
+    @Test
+    void testUnchangedResultIsNotSentAgain() throws Exception {
+        String[] types = {"[\"Application\",\"ITComponent\"]"};
+        ToolCallback getTypes = new ToolCallback() {
+            @Override
+            public ToolDefinition getToolDefinition() {
+                return ToolDefinition.builder().name("getTypes").description("types")
+                        .inputSchema("{\"type\":\"object\",\"properties\":{}}").build();
+            }
+
+            @Override
+            public String call(String toolInput) {
+                assertEquals("{}", toolInput);
+                return types[0];
+            }
+        };
+        ToolInvocationCallback callback = new ToolInvocationCallback(getTypes, objectMapper,
+                ToolInvocationCallback.Options.DEFAULTS.withConditionalTools(Set.of("gettypes")));
+        assertEquals("string", objectMapper.readTree(callback.getToolDefinition().inputSchema())
+                .at("/properties/ifNoneMatch/type").asText());
+
+        JsonNode first = objectMapper.readTree(callback.call("{}"));
+        String version = first.path("version").asText();
+        assertEquals("ITComponent", first.at("/result/1").asText());
+
+        JsonNode unchanged = objectMapper.readTree(callback.call("{\"ifNoneMatch\":\"" + version + "\"}"));
+        assertTrue(unchanged.path("notModified").asBoolean());
+        assertEquals(version, unchanged.path("version").asText());
+        assertFalse(unchanged.has("result"));
+
+        types[0] = "[\"Application\"]";
+        JsonNode changed = objectMapper.readTree(callback.call("{\"ifNoneMatch\":\"" + version + "\"}"));
+        assertFalse(changed.has("notModified"));
+        assertNotEquals(version, changed.path("version").asText());
+        assertEquals(1, changed.path("result").size());
+
+        ToolInvocationCallback plain = new ToolInvocationCallback(getTypes, objectMapper,
+                ToolInvocationCallback.Options.DEFAULTS);
+        assertEquals(types[0], plain.call("{}"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.lgt.leanix_mcp.tool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadToolSchedulerTest {
+
+    private VirtualThreadToolScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.destroy();
+        }
+    }
+
+    @Test
+    void testBlockingToolsRunOnVirtualThreadsBeyondThePlatformCap() {
+        scheduler = new VirtualThreadToolScheduler();
+        // Five times the platform cap of ten threads per CPU, each blocking like a LeanIX query
+        int invocations = 50 * Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        List<Boolean> virtual = Flux.range(0, invocations)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    Thread.sleep(200);
+                    return Thread.currentThread().isVirtual();
+                }).subscribeOn(Schedulers.boundedElastic()), invocations)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals(invocations, virtual.size());
+        assertTrue(virtual.stream().allMatch(Boolean::booleanValue));
+        // Capped platform threads would need five rounds of 200ms
+        assertTrue(elapsed.compareTo(Duration.ofMillis(800)) < 0, "invocations wait concurrently, took " + elapsed);
+    }
+
+    @Test
+    void testDestroyRestoresReactorsScheduler() {
+        new VirtualThreadToolScheduler().destroy();
+
+        String thread = Mono.fromCallable(() -> Thread.currentThread().getName())
+                .subscribeOn(Schedulers.boundedElastic())
+                .block(Duration.ofSeconds(5));
+
+        assertFalse(thread.startsWith(VirtualThreadToolScheduler.THREAD_PREFIX), thread);
+    }
+}
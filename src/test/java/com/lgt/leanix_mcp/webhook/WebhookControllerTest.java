@@ -0,0 +1,188 @@
+package com.lgt.leanix_mcp.webhook;
+
+import com.lgt.leanix_mcp.cache.CacheInvalidation;
+import com.lgt.leanix_mcp.cache.FactSheetCache;
+import com.lgt.leanix_mcp.cache.ToolResultCache;
+import com.lgt.leanix_mcp.client.LeanIXClient;
+import com.lgt.leanix_mcp.client.WorkspaceRegistry;
+import com.lgt.leanix_mcp.config.LeanIXClientConfig;
+import com.lgt.leanix_mcp.graphql.FactSheetProjection;
+import com.lgt.leanix_mcp.model.FactSheet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays recorded webhook deliveries from {@code src/test/resources/webhooks}.
+ */
+class WebhookControllerTest {
+
+    private static final String SECRET = "webhook-secret";
+    private static final String HEADER = "X-LeanIX-Signature";
+    private static final FactSheetProjection PROJECTION = FactSheetProjection.of(List.of("name"));
+
+    private final LeanIXClientConfig config = new LeanIXClientConfig();
+    private final FactSheetCache factSheetCache = new FactSheetCache(config);
+    private final ToolResultCache toolResultCache = new ToolResultCache(config);
+    private final WorkspaceRegistry workspaces = WorkspaceRegistry.of(new LeanIXClient("lgt-test", "test-token"));
+    private final List<String> applied = Collections.synchronizedList(new ArrayList<>());
+    private WebhookEventProcessor processor;
+
+    @AfterEach
+    void tearDown() {
+        processor.destroy();
+        toolResultCache.destroy();
+    }
+
+    @Test
+    void testDeliveriesAreDeduplicatedOrderedAndApplied() throws IOException {
+        WebhookController controller = controller(Duration.ofHours(1));
+        for (String id : List.of("app-1", "app-2", "app-3", "itc-1", "app-9")) {
+            factSheetCache.put(factSheet(id), PROJECTION);
+        }
+
+        ResponseEntity<Map<String, Object>> response = controller.receive(null, fixture("deliveries.json"),
+                signed(fixture("deliveries.json")));
+        processor.flush();
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(Map.of("accepted", 4, "duplicates", 1), response.getBody());
+        assertEquals(List.of("evt-1", "evt-2", "evt-3", "evt-4"), applied);
+        assertEquals(1, factSheetCache.size(), "only the unchanged fact sheet stays cached");
+        assertTrue(factSheetCache.get("app-9", PROJECTION).isPresent());
+    }
+
+    @Test
+    void testRedeliveredAndOutdatedEventsAreSkipped() throws IOException {
+        WebhookController controller = controller(Duration.ofHours(1));
+        controller.receive(null, fixture("deliveries.json"), signed(fixture("deliveries.json")));
+        processor.flush();
+        applied.clear();
+
+        ResponseEntity<Map<String, Object>> response = controller.receive("lgt-test", fixture("redelivery.json"),
+                signed(fixture("redelivery.json")));
+        processor.flush();
+
+        assertEquals(Map.of("accepted", 2, "duplicates", 1), response.getBody());
+        assertEquals(List.of("evt-6"), applied);
+        assertEquals(1, processor.getOutdatedCount());
+        assertEquals(5, processor.getAppliedCount());
+    }
+
+    @Test
+    void testFailedBatchIsRetried() throws IOException {
+        WebhookController controller = controller(Duration.ofHours(1), failing(1));
+        factSheetCache.put(factSheet("app-1"), PROJECTION);
+        controller.receive(null, fixture("deliveries.json"), signed(fixture("deliveries.json")));
+        processor.flush();
+        assertEquals(List.of(), applied);
+
+        ResponseEntity<Map<String, Object>> redelivery = controller.receive(null, fixture("deliveries.json"),
+                signed(fixture("deliveries.json")));
+        processor.flush();
+
+        assertEquals(Map.of("accepted", 0, "duplicates", 5), redelivery.getBody(), "the events are still queued");
+        assertEquals(List.of("evt-1", "evt-2", "evt-3", "evt-4"), applied);
+        assertEquals(0, factSheetCache.size());
+    }
+
+    @Test
+    void testEventsGivenUpOnAreAcceptedAgain() throws IOException {
+        WebhookController controller = controller(Duration.ofHours(1),
+                failing(WebhookEventProcessor.MAX_ATTEMPTS));
+        controller.receive(null, fixture("deliveries.json"), signed(fixture("deliveries.json")));
+        for (int i = 0; i < WebhookEventProcessor.MAX_ATTEMPTS; i++) {
+            processor.flush();
+        }
+        assertEquals(List.of(), applied);
+
+        ResponseEntity<Map<String, Object>> redelivery = controller.receive(null, fixture("deliveries.json"),
+                signed(fixture("deliveries.json")));
+        processor.flush();
+
+        assertEquals(Map.of("accepted", 4, "duplicates", 1), redelivery.getBody());
+        assertEquals(List.of("evt-1", "evt-2", "evt-3", "evt-4"), applied);
+        assertEquals(0, processor.getOutdatedCount());
+    }
+
+    @Test
+    void testUnsignedDeliveryIsRejected() throws Exception {
+        WebhookController controller = controller(Duration.ofMillis(1));
+        factSheetCache.put(factSheet("app-1"), PROJECTION);
+        byte[] body = fixture("deliveries.json");
+
+        HttpHeaders forged = new HttpHeaders();
+        forged.set(HEADER, "sha256=" + WebhookSignature.sign("other-secret", body));
+        assertEquals(HttpStatus.UNAUTHORIZED, controller.receive(null, body, forged).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, controller.receive(null, body, new HttpHeaders()).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, controller.receive("other", body, signed(body)).getStatusCode());
+
+        assertEquals(HttpStatus.ACCEPTED, controller.receive(null, body, signed(body)).getStatusCode());
+        for (int i = 0; i < 200 && applied.size() < 4; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(4, applied.size(), "the batch is applied without an explicit flush");
+        assertEquals(0, factSheetCache.size());
+    }
+
+    private WebhookController controller(Duration batchWindow) {
+        return controller(batchWindow, new CacheInvalidation(factSheetCache, toolResultCache, null, null, workspaces,
+                List.of(listener())));
+    }
+
+    private WebhookController controller(Duration batchWindow, CacheInvalidation invalidation) {
+        processor = new WebhookEventProcessor(invalidation, batchWindow, 100);
+        return new WebhookController(processor, workspaces, SECRET, HEADER);
+    }
+
+    /**
+     * @return Cache invalidation that fails the given number of times first
+     */
+    private CacheInvalidation failing(int failures) {
+        AtomicInteger remaining = new AtomicInteger(failures);
+        return new CacheInvalidation(factSheetCache, toolResultCache, null, null, workspaces, List.of(listener())) {
+            @Override
+            public void factSheetsChanged(String workspace, List<FactSheetEvent> events) {
+                if (remaining.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Cache unavailable");
+                }
+                super.factSheetsChanged(workspace, events);
+            }
+        };
+    }
+
+    private FactSheetChangeListener listener() {
+        return (workspace, events) -> events.forEach(event -> applied.add(event.id()));
+    }
+
+    private static HttpHeaders signed(byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HEADER, WebhookSignature.sign(SECRET, body));
+        return headers;
+    }
+
+    private static byte[] fixture(String name) throws IOException {
+        try (InputStream in = WebhookControllerTest.class.getResourceAsStream("/webhooks/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static FactSheet factSheet(String id) {
+        FactSheet factSheet = new FactSheet();
+        factSheet.setId(id);
+        return factSheet;
+    }
+}